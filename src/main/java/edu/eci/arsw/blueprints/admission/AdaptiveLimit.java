@@ -0,0 +1,123 @@
+package edu.eci.arsw.blueprints.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to measured latency (AIMD).
+ * <p>
+ * The baseline is the lowest latency seen over the last one to two windows. A request
+ * finishing within {@code tolerance} times the baseline, or within {@code floorNanos}
+ * when that is more (so microsecond jitter is not overload), while at least half the limit
+ * was in use grows the limit by one per limit's worth of such requests (about +1 per
+ * round trip). A slower one finishing under the same occupancy shrinks it by
+ * {@code backoff}. A slow request at low occupancy cannot be queueing behind this limit,
+ * so it is not taken as overload: it is an endpoint or backend that is simply slow, and
+ * cutting for it would ratchet the limit down under light traffic. Only requests admitted
+ * after the last cut can cut again, so one burst of slow requests costs one cut, not one
+ * per request.
+ * <p>
+ * Under sustained overload every request is queued, so the lowest latency of a window
+ * would creep up and drag the baseline with it. When a window that saw a cut ends, the
+ * limit is therefore halved once, giving the backend about one round trip at low
+ * occupancy to show its unloaded latency, much like an RTT probe in TCP congestion
+ * control. A window without cuts after a probe means the pressure is gone, and the
+ * limit from before the probes comes back. Windows without cuts leave the limit alone,
+ * so it does not decay under light load.
+ * Admission is a single CAS; only completions take the lock.
+ */
+public final class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final long windowNanos;
+    private final long floorNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this
+    private double estimate;
+    private long windowMin = Long.MAX_VALUE;
+    private long previousWindowMin = Long.MAX_VALUE;
+    private long windowEnds;
+    private long lastCutNanos;
+    private boolean cutInWindow;
+    private double probedFrom;                       // limit before the first of consecutive probes, else 0
+
+    public AdaptiveLimit(int initial, int minLimit, int maxLimit, double tolerance, double backoff,
+                         long windowNanos, long nowNanos) {
+        this(initial, minLimit, maxLimit, tolerance, backoff, windowNanos, 0, nowNanos);
+    }
+
+    /** @param floorNanos latency that never counts as overload, however low the baseline */
+    public AdaptiveLimit(int initial, int minLimit, int maxLimit, double tolerance, double backoff,
+                         long windowNanos, long floorNanos, long nowNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Need 1 <= min <= max, got " + minLimit + ".." + maxLimit);
+        }
+        if (tolerance <= 1 || backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Need tolerance > 1 and 0 < backoff < 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.windowNanos = windowNanos;
+        this.floorNanos = Math.max(0, floorNanos);
+        this.estimate = Math.clamp(initial, minLimit, maxLimit);
+        this.limit = (int) estimate;
+        this.windowEnds = nowNanos + windowNanos;
+        this.lastCutNanos = nowNanos;
+    }
+
+    /** @return whether the caller may proceed; if so it must call {@link #release} */
+    public boolean tryAcquire() {
+        while (true) {
+            int n = inFlight.get();
+            if (n >= limit) return false;
+            if (inFlight.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    /** Ends an admitted request that started at {@code startNanos} and feeds its latency back. */
+    public void release(long startNanos, long nowNanos) {
+        int busy = inFlight.getAndDecrement();
+        onSample(startNanos, nowNanos - startNanos, busy, nowNanos);
+    }
+
+    private synchronized void onSample(long startNanos, long latency, int busy, long nowNanos) {
+        if (nowNanos - windowEnds >= 0) {
+            previousWindowMin = windowMin;
+            windowMin = Long.MAX_VALUE;
+            windowEnds = nowNanos + windowNanos;
+            if (cutInWindow) {
+                probedFrom = Math.max(probedFrom, estimate);
+                estimate = Math.max(minLimit, estimate / 2);
+                lastCutNanos = nowNanos;
+            } else if (probedFrom > 0) {
+                estimate = Math.max(estimate, probedFrom);      // the probe found no pressure
+                probedFrom = 0;
+            }
+            cutInWindow = false;
+        }
+        windowMin = Math.min(windowMin, latency);
+        long baseline = Math.min(windowMin, previousWindowMin);
+        boolean busyEnough = busy * 2 >= estimate;
+        if (latency > Math.max(tolerance * baseline, floorNanos)) {
+            // Not under light load, and not for requests admitted under the limit before the last cut
+            if (busyEnough && startNanos - lastCutNanos >= 0) {
+                estimate = Math.max(minLimit, estimate * backoff);
+                lastCutNanos = nowNanos;
+                cutInWindow = true;
+            }
+        } else if (busyEnough) {
+            estimate = Math.min(maxLimit, estimate + 1 / estimate);
+        }
+        limit = (int) estimate;
+    }
+
+    public int limit() { return limit; }
+
+    public int inFlight() { return inFlight.get(); }
+}
@@ -0,0 +1,130 @@
+package edu.eci.arsw.blueprints.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load shedding for the blueprints API: a request past the current in-flight limit
+ * of its class is answered 503 at once instead of queueing. Limits follow
+ * {@link AdaptiveLimit}, so they settle wherever latency starts to climb, whatever the
+ * backend. Runs after the rate limiter, so 429s never take a slot.
+ * <p>
+ * Routes that are long-running by design (the full list, {@code _bulk}, render and
+ * tiles, similar) form a class of their own: measured against the millisecond reads,
+ * every one of them would look like overload, and their latency says nothing about
+ * the fast routes' anyway.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED = ConcurrencyLimitInterceptor.class.getName() + ".started";
+    private static final String LIMIT = ConcurrencyLimitInterceptor.class.getName() + ".limit";
+
+    private static final String BASE = "/api/v1/blueprints";
+
+    /** Endpoint classes, each with its own limit; the tag is the metrics tag. */
+    enum RouteClass {
+        READ("read", "reads"), WRITE("write", "writes"), HEAVY("heavy", "long-running requests");
+
+        final String tag;
+        final String plural;
+
+        RouteClass(String tag, String plural) {
+            this.tag = tag;
+            this.plural = plural;
+        }
+    }
+
+    private final Map<RouteClass, AdaptiveLimit> limits = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> shedCounters = new EnumMap<>(RouteClass.class);
+    private final ObjectMapper mapper;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties props, ObjectMapper mapper, MeterRegistry meters) {
+        this.mapper = mapper;
+        long now = System.nanoTime();
+        limits.put(RouteClass.READ, limit(props, props.read(), now));
+        limits.put(RouteClass.WRITE, limit(props, props.write(), now));
+        limits.put(RouteClass.HEAVY, limit(props, props.heavy(), now));
+        limits.forEach((c, limit) -> {
+            shedCounters.put(c, shedCounter(meters, c.tag));
+            gauges(meters, c.tag, limit);
+        });
+    }
+
+    private static AdaptiveLimit limit(ConcurrencyLimitProperties props, ConcurrencyLimitProperties.Limit l, long now) {
+        return new AdaptiveLimit(l.initial(), l.min(), l.max(), props.tolerance(), props.backoff(),
+                props.window().toNanos(), props.floor().toNanos(), now);
+    }
+
+    private static Counter shedCounter(MeterRegistry meters, String endpointClass) {
+        return Counter.builder("blueprints.concurrency.shed").tag("class", endpointClass).register(meters);
+    }
+
+    private static void gauges(MeterRegistry meters, String endpointClass, AdaptiveLimit limit) {
+        Gauge.builder("blueprints.concurrency.limit", limit, AdaptiveLimit::limit).tag("class", endpointClass).register(meters);
+        Gauge.builder("blueprints.concurrency.inflight", limit, AdaptiveLimit::inFlight).tag("class", endpointClass).register(meters);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        RouteClass routeClass = classify(request);
+        AdaptiveLimit limit = limits.get(routeClass);
+        if (limit.tryAcquire()) {
+            request.setAttribute(LIMIT, limit);
+            request.setAttribute(STARTED, System.nanoTime());
+            return true;
+        }
+        shedCounters.get(routeClass).increment();
+        shed(response, routeClass);
+        return false;
+    }
+
+    static RouteClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = RateLimitInterceptor.isRead(request);
+        String rest = path.length() > BASE.length() + 1 ? path.substring(BASE.length() + 1) : "";
+        String[] segments = rest.isEmpty() ? new String[0] : rest.split("/");
+        boolean heavy = switch (segments.length) {
+            case 0 -> read;                                          // the full list
+            case 1 -> segments[0].equals("_bulk");
+            case 2 -> false;
+            default -> switch (segments[2]) {                        // {author}/{bpname}/...
+                case "render", "tiles", "similar" -> true;
+                default -> false;
+            };
+        };
+        return heavy ? RouteClass.HEAVY : read ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(LIMIT) instanceof AdaptiveLimit limit
+                && request.getAttribute(STARTED) instanceof Long started) {
+            request.removeAttribute(LIMIT);
+            limit.release(started, System.nanoTime());
+        }
+    }
+
+    AdaptiveLimit limit(RouteClass routeClass) { return limits.get(routeClass); }
+
+    private void shed(HttpServletResponse response, RouteClass routeClass) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), new ApiResponse<>(503,
+                "server busy: too many " + routeClass.plural + " in flight", null));
+    }
+}
@@ -0,0 +1,38 @@
+package edu.eci.arsw.blueprints.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Adaptive in-flight limits for the blueprints API: one for reads, one for writes and
+ * one for the long-running routes (full list, {@code _bulk}, render and tiles, similar).
+ *
+ * @param tolerance  latency over this multiple of the baseline counts as overload
+ * @param floor      latency at or under this never counts as overload, whatever the baseline
+ * @param backoff    factor applied to the limit on overload
+ * @param window     how long the lowest observed latency is remembered as the baseline
+ */
+@ConfigurationProperties("blueprints.concurrency")
+public record ConcurrencyLimitProperties(
+        boolean enabled,
+        Limit read,
+        Limit write,
+        Limit heavy,
+        double tolerance,
+        Duration floor,
+        double backoff,
+        Duration window) {
+
+    public record Limit(int initial, int min, int max) { }
+
+    public ConcurrencyLimitProperties {
+        if (read == null) read = new Limit(100, 10, 1_000);
+        if (write == null) write = new Limit(20, 4, 200);
+        if (heavy == null) heavy = new Limit(16, 2, 64);
+        if (tolerance <= 1) tolerance = 2.0;
+        if (floor == null) floor = Duration.ofMillis(1);
+        if (backoff <= 0 || backoff >= 1) backoff = 0.9;
+        if (window == null) window = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,104 @@
+package edu.eci.arsw.blueprints.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the blueprints API: every request spends a token from
+ * its author's read or write bucket and is answered 429 when the bucket is dry.
+ * Requests without an author in the path (listing, create, bulk) are keyed by client
+ * address: the connection's, or the one a trusted proxy puts in {@code clientHeader}.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties props;
+    private final TokenBucketTable reads;
+    private final TokenBucketTable writes;
+    private final ObjectMapper mapper;
+    private final Counter readAllowed;
+    private final Counter readRejected;
+    private final Counter writeAllowed;
+    private final Counter writeRejected;
+
+    public RateLimitInterceptor(RateLimitProperties props, ObjectMapper mapper, MeterRegistry meters) {
+        this.props = props;
+        this.mapper = mapper;
+        this.reads = new TokenBucketTable(props.read().permitsPerSecond(), props.read().burst(), props.maxBuckets());
+        this.writes = new TokenBucketTable(props.write().permitsPerSecond(), props.write().burst(), props.maxBuckets());
+        this.readAllowed = counter(meters, "read", "allowed");
+        this.readRejected = counter(meters, "read", "rejected");
+        this.writeAllowed = counter(meters, "write", "allowed");
+        this.writeRejected = counter(meters, "write", "rejected");
+        Gauge.builder("blueprints.ratelimit.buckets", reads, TokenBucketTable::size).tag("class", "read").register(meters);
+        Gauge.builder("blueprints.ratelimit.buckets", writes, TokenBucketTable::size).tag("class", "write").register(meters);
+    }
+
+    private static Counter counter(MeterRegistry meters, String endpointClass, String outcome) {
+        return Counter.builder("blueprints.ratelimit.requests")
+                .tag("class", endpointClass)
+                .tag("outcome", outcome)
+                .register(meters);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        boolean read = isRead(request);
+        String key = keyOf(request);
+        long wait = (read ? reads : writes).tryAcquire(key, System.nanoTime());
+        if (wait == 0) {
+            (read ? readAllowed : writeAllowed).increment();
+            return true;
+        }
+        (read ? readRejected : writeRejected).increment();
+        reject(response, key, wait);
+        return false;
+    }
+
+    /** GET and HEAD, plus {@code _mget}, which is a POST only to carry its key list. */
+    static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || request.getRequestURI().endsWith("/_mget");
+    }
+
+    private String keyOf(HttpServletRequest request) {
+        String author = null;
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> vars
+                && vars.get("author") instanceof String a) {
+            author = a;
+        }
+        if (author != null && !props.perClient()) return author;
+        String client = clientOf(request);
+        return author == null ? "~" + client : author + "|" + client;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String forwarded = props.clientHeader() == null ? null : request.getHeader(props.clientHeader());
+        if (forwarded == null || forwarded.isBlank()) return request.getRemoteAddr();
+        // Proxies append to the list; the last entry is the one the trusted proxy added
+        return forwarded.substring(forwarded.lastIndexOf(',') + 1).strip();
+    }
+
+    private void reject(HttpServletResponse response, String key, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(),
+                new ApiResponse<>(429, "rate limit exceeded for " + key, null));
+    }
+}
@@ -0,0 +1,32 @@
+package edu.eci.arsw.blueprints.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-author token buckets, sized separately for reads (GET/HEAD) and writes.
+ *
+ * @param perClient   also split each author's budget by client
+ * @param clientHeader header holding the client address, for deployments behind a proxy
+ *                    that sets it (its last entry is used); unset, the connection's remote
+ *                    address. Never a header clients set themselves: rotating it would
+ *                    hand out fresh buckets
+ * @param maxBuckets  cap on live buckets per endpoint class
+ */
+@ConfigurationProperties("blueprints.ratelimit")
+public record RateLimitProperties(
+        boolean enabled,
+        Limit read,
+        Limit write,
+        boolean perClient,
+        String clientHeader,
+        int maxBuckets) {
+
+    public record Limit(double permitsPerSecond, int burst) { }
+
+    public RateLimitProperties {
+        if (read == null) read = new Limit(200, 400);
+        if (write == null) write = new Limit(20, 40);
+        if (clientHeader != null && clientHeader.isBlank()) clientHeader = null;
+        if (maxBuckets <= 0) maxBuckets = 100_000;
+    }
+}
@@ -0,0 +1,42 @@
+package edu.eci.arsw.blueprints.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single "theoretical arrival time" (the GCRA
+ * form): each admitted request pushes the time forward by one emission interval,
+ * and a request is refused when that would run more than a burst ahead of now.
+ * One CAS per admission, no refill thread, no lock.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst            requests that may arrive back to back on a full bucket
+     */
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.arrival = new AtomicLong(nowNanos);
+    }
+
+    /** @return 0 when admitted, otherwise nanoseconds until a permit frees up */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = arrival.get();
+            long next = Math.max(tat, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) return ahead - burstNanos;
+            if (arrival.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    /** A full bucket behaves exactly like a new one, so dropping it loses nothing. */
+    public boolean isFull(long nowNanos) {
+        return arrival.get() <= nowNanos;
+    }
+}
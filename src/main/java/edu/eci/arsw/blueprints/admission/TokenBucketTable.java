@@ -0,0 +1,56 @@
+package edu.eci.arsw.blueprints.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buckets by key with a hard size cap. When the cap is reached, full buckets are
+ * swept (they carry no state worth keeping); keys that still do not fit are hashed
+ * onto a fixed set of overflow buckets, so memory stays bounded even under key floods
+ * and one flooding key drains only its own overflow bucket, not every newcomer's.
+ */
+public final class TokenBucketTable {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    static final int OVERFLOW_BUCKETS = 256;
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxBuckets;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket[] overflow = new TokenBucket[OVERFLOW_BUCKETS];
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    public TokenBucketTable(double permitsPerSecond, int burst, int maxBuckets) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxBuckets = maxBuckets;
+        long now = System.nanoTime();
+        for (int i = 0; i < overflow.length; i++) overflow[i] = new TokenBucket(permitsPerSecond, burst, now);
+    }
+
+    /** @return 0 when admitted, otherwise nanoseconds until {@code key} may retry */
+    public long tryAcquire(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) bucket = admitKey(key, nowNanos);
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    public int size() { return buckets.size(); }
+
+    private TokenBucket admitKey(String key, long nowNanos) {
+        if (buckets.size() >= maxBuckets) {
+            sweep(nowNanos);
+            if (buckets.size() >= maxBuckets) return overflow[Math.floorMod(key.hashCode(), overflow.length)];
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst, nowNanos));
+    }
+
+    private void sweep(long nowNanos) {
+        long last = lastSweep.get();
+        if (nowNanos - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, nowNanos)) return;
+        buckets.values().removeIf(b -> b.isFull(nowNanos));
+    }
+}
@@ -0,0 +1,90 @@
+package edu.eci.arsw.blueprints.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.cluster.ClusterProperties;
+import edu.eci.arsw.blueprints.persistence.cluster.ClusterSecretInterceptor;
+import edu.eci.arsw.blueprints.persistence.cluster.ClusteredBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.cluster.RemoteBlueprintPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Partitions the in-memory store across the nodes listed in
+ * {@code blueprints.cluster.members}. The clustered store becomes the primary
+ * {@code BlueprintPersistence}; this node's {@link InMemoryBlueprintPersistence}
+ * keeps only its own partition. Not available with Postgres, which is already shared.
+ * The internal routes under {@value RemoteBlueprintPersistence#BASE_PATH} answer only
+ * callers that present {@code blueprints.cluster.secret}.
+ */
+@Configuration
+@Profile("!postgres")
+@ConditionalOnProperty(name = "blueprints.cluster.enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterConfig.class);
+
+    private final ClusterProperties cluster;
+    private final RestClient.Builder http;
+    private final ObjectMapper mapper;
+
+    public ClusterConfig(ClusterProperties cluster, RestClient.Builder http, ObjectMapper mapper) {
+        if (cluster.secret() == null || cluster.secret().isBlank()) {
+            throw new IllegalStateException("blueprints.cluster.secret is required when the cluster is enabled");
+        }
+        this.cluster = cluster;
+        this.http = http;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ClusterSecretInterceptor(cluster.secret(), mapper))
+                .addPathPatterns(RemoteBlueprintPersistence.BASE_PATH + "/**");
+    }
+
+    private RemoteBlueprintPersistence connect(String member) {
+        return new RemoteBlueprintPersistence(member, http, cluster.timeout(), cluster.secret());
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public ClusteredBlueprintPersistence clusteredBlueprintPersistence(InMemoryBlueprintPersistence local) {
+        if (cluster.self() == null || cluster.members().isEmpty()) {
+            throw new IllegalStateException("blueprints.cluster.self and blueprints.cluster.members are required");
+        }
+        return new ClusteredBlueprintPersistence(cluster.self(), cluster.members(), cluster.allowedMembers(),
+                cluster.virtualNodes(), cluster.handoffGrace(), local, this::connect);
+    }
+
+    /**
+     * Tells every other member about this node's member list once it serves requests,
+     * so a node added to the configuration is picked up without restarting the rest.
+     * Members that are not up yet will announce the same list themselves.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void announce() {
+        for (String member : cluster.members()) {
+            if (member.equals(cluster.self())) continue;
+            Thread.ofVirtual().name("cluster-announce").start(() -> {
+                try {
+                    connect(member).announce(cluster.members());
+                } catch (RuntimeException e) {
+                    log.info("Could not announce members to {}: {}", member, e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.filters.FilterParallelism;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+@Configuration
+public class FilterParallelismConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool filterPool(@Value("${blueprints.filters.pool-size:0}") int poolSize) {
+        int parallelism = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("bp-filter-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+    }
+
+    @Bean
+    public FilterParallelism filterParallelism(
+            @Qualifier("filterPool") ForkJoinPool filterPool,
+            @Value("${blueprints.filters.parallel.blueprint-threshold:" + FilterParallelism.DEFAULT_BLUEPRINT_THRESHOLD + "}")
+            int blueprintThreshold,
+            @Value("${blueprints.filters.parallel.point-threshold:" + FilterParallelism.DEFAULT_POINT_THRESHOLD + "}")
+            int pointThreshold) {
+        return new FilterParallelism(filterPool, blueprintThreshold, pointThreshold);
+    }
+}
@@ -0,0 +1,17 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.json.BlueprintJsonModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Registers the blueprint (de)serializers with Boot's {@code ObjectMapper}. */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    public BlueprintJsonModule blueprintJsonModule(
+            @Value("${blueprints.json.compact-points:false}") boolean compactPoints) {
+        return new BlueprintJsonModule(compactPoints);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+import edu.eci.arsw.blueprints.persistence.compact.CompactingPointStorageFactory;
+import edu.eci.arsw.blueprints.persistence.compact.PointCompactor;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapPointStorageFactory;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapSlabAllocator;
+import edu.eci.arsw.blueprints.persistence.tiered.PointTier;
+import edu.eci.arsw.blueprints.persistence.tiered.TieredPointStorageFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** Selects the point storage used by the in-memory backend. */
+@Configuration
+public class PointStorageConfig {
+
+    @Bean
+    public PointStorageFactory pointStorageFactory(
+            @Value("${blueprints.inmemory.storage:heap}") String storage,
+            @Value("${blueprints.inmemory.offheap.arena-size:64MB}") DataSize arenaSize,
+            @Value("${blueprints.inmemory.tiered.max-resident-points:1000000}") long maxResidentPoints,
+            @Value("${blueprints.inmemory.tiered.directory:${java.io.tmpdir}/blueprints-spill}") Path spillDirectory,
+            @Value("${blueprints.inmemory.tiered.segment-size:64MB}") DataSize segmentSize,
+            @Value("${blueprints.inmemory.tiered.max-spill-size:8GB}") DataSize maxSpillSize,
+            @Value("${blueprints.inmemory.compact.idle-ms:300000}") long compactIdleMillis,
+            MeterRegistry meters) {
+        return switch (storage) {
+            case "heap" -> PointStorageFactory.HEAP;
+            case "offheap" -> {
+                OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(Math.toIntExact(arenaSize.toBytes()));
+                Gauge.builder("blueprints.inmemory.offheap.bytes", allocator, OffHeapSlabAllocator::reservedBytes)
+                        .tag("state", "reserved").baseUnit("bytes").register(meters);
+                Gauge.builder("blueprints.inmemory.offheap.bytes", allocator, OffHeapSlabAllocator::usedBytes)
+                        .tag("state", "used").baseUnit("bytes").register(meters);
+                yield new OffHeapPointStorageFactory(allocator);
+            }
+            case "tiered" -> {
+                Timer faults = Timer.builder("blueprints.inmemory.tiered.fault")
+                        .description("Time to read a spilled blueprint's points back in").register(meters);
+                PointTier tier = new PointTier(maxResidentPoints, spillDirectory, Math.toIntExact(segmentSize.toBytes()),
+                        maxSpillSize.toBytes(), nanos -> faults.record(nanos, TimeUnit.NANOSECONDS));
+                Gauge.builder("blueprints.inmemory.tiered.points", tier, PointTier::residentPoints)
+                        .tag("state", "resident").register(meters);
+                Gauge.builder("blueprints.inmemory.tiered.points", tier, PointTier::spilledPoints)
+                        .tag("state", "spilled").register(meters);
+                Gauge.builder("blueprints.inmemory.tiered.mapped", tier, PointTier::mappedBytes)
+                        .baseUnit("bytes").register(meters);
+                FunctionCounter.builder("blueprints.inmemory.tiered.spills", tier, PointTier::spills).register(meters);
+                FunctionCounter.builder("blueprints.inmemory.tiered.faults", tier, PointTier::faults).register(meters);
+                yield new TieredPointStorageFactory(tier);
+            }
+            case "compact" -> {
+                PointCompactor compactor = new PointCompactor(TimeUnit.MILLISECONDS.toNanos(compactIdleMillis));
+                Gauge.builder("blueprints.inmemory.compact.points", compactor, PointCompactor::compactedPoints)
+                        .register(meters);
+                Gauge.builder("blueprints.inmemory.compact.bytes", compactor, PointCompactor::compactedBytes)
+                        .baseUnit("bytes").register(meters);
+                FunctionCounter.builder("blueprints.inmemory.compact.compactions", compactor, PointCompactor::compactions)
+                        .register(meters);
+                FunctionCounter.builder("blueprints.inmemory.compact.promotions", compactor, PointCompactor::promotions)
+                        .register(meters);
+                yield new CompactingPointStorageFactory(compactor);
+            }
+            default -> throw new IllegalArgumentException(
+                    "blueprints.inmemory.storage must be 'heap', 'offheap', 'tiered' or 'compact', got: " + storage);
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package edu.eci.arsw.blueprints.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import edu.eci.arsw.blueprints.persistence.routing.ReadWriteRoutingDataSource;
+import edu.eci.arsw.blueprints.persistence.routing.ReadYourWritesWindow;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@Profile("postgres")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow(
+            @Value("${blueprints.datasource.read-your-writes-window:2s}") Duration window) {
+        return new ReadYourWritesWindow(window);
+    }
+
+    /**
+     * Only defined when a replica is configured; otherwise Spring Boot's single
+     * {@code spring.datasource.*} pool is used as before.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "blueprints.datasource.replica.url")
+    static class Routing {
+
+        @Bean(destroyMethod = "close")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            ds.setPoolName("primary");
+            return ds;
+        }
+
+        @Bean(destroyMethod = "close")
+        public HikariDataSource replicaDataSource(
+                DataSourceProperties properties,
+                @Value("${blueprints.datasource.replica.url}") String url,
+                @Value("${blueprints.datasource.replica.username:}") String username,
+                @Value("${blueprints.datasource.replica.password:}") String password,
+                @Value("${blueprints.datasource.replica.maximum-pool-size:20}") int maxPoolSize) {
+            HikariDataSource ds = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url)
+                    .username(username.isEmpty() ? properties.determineUsername() : username)
+                    .password(password.isEmpty() ? properties.determinePassword() : password)
+                    .build();
+            ds.setPoolName("replica");
+            ds.setReadOnly(true);
+            ds.setMaximumPoolSize(maxPoolSize);
+            return ds;
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                     @Qualifier("replicaDataSource") DataSource replica,
+                                     ReadYourWritesWindow window) {
+            return ReadWriteRoutingDataSource.lazy(primary, replica, window);
+        }
+    }
+}
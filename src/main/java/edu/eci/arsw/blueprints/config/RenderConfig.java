@@ -0,0 +1,29 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.render.RenderCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/** Cache of the images served by the render and tile endpoints. */
+@Configuration
+public class RenderConfig {
+
+    @Bean
+    public RenderCache renderCache(@Value("${blueprints.render.cache-size:32MB}") DataSize cacheSize,
+                                   MeterRegistry meters) {
+        RenderCache cache = new RenderCache(cacheSize.toBytes());
+        Gauge.builder("blueprints.render.cache.bytes", cache, RenderCache::bytes).baseUnit("bytes").register(meters);
+        Gauge.builder("blueprints.render.cache.entries", cache, RenderCache::size).register(meters);
+        FunctionCounter.builder("blueprints.render.cache.requests", cache, RenderCache::hits)
+                .tag("result", "hit").register(meters);
+        FunctionCounter.builder("blueprints.render.cache.requests", cache, RenderCache::misses)
+                .tag("result", "miss").register(meters);
+        FunctionCounter.builder("blueprints.render.cache.evictions", cache, RenderCache::evictions).register(meters);
+        return cache;
+    }
+}
@@ -0,0 +1,10 @@
+package edu.eci.arsw.blueprints.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} maintenance tasks. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,34 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.timing.RequestTimingFilter;
+import edu.eci.arsw.blueprints.timing.SlowRequestLog;
+import edu.eci.arsw.blueprints.timing.SlowRequestsEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Per-request phase timings for the API: {@code Server-Timing} and {@code /actuator/slowrequests}. */
+@Configuration
+@ConditionalOnProperty(name = "blueprints.timing.enabled", havingValue = "true")
+public class TimingConfig {
+
+    @Bean
+    public SlowRequestLog slowRequestLog(@Value("${blueprints.timing.slowest:50}") int slowest) {
+        return new SlowRequestLog(slowest);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter(slowRequestLog));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+        return new SlowRequestsEndpoint(slowRequestLog);
+    }
+}
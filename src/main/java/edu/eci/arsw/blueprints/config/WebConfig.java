@@ -0,0 +1,43 @@
+package edu.eci.arsw.blueprints.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.admission.ConcurrencyLimitInterceptor;
+import edu.eci.arsw.blueprints.admission.ConcurrencyLimitProperties;
+import edu.eci.arsw.blueprints.admission.RateLimitInterceptor;
+import edu.eci.arsw.blueprints.admission.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, ConcurrencyLimitProperties.class})
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties rateLimit;
+    private final ConcurrencyLimitProperties concurrency;
+    private final ObjectMapper mapper;
+    private final MeterRegistry meters;
+
+    public WebConfig(RateLimitProperties rateLimit, ConcurrencyLimitProperties concurrency,
+                     ObjectMapper mapper, MeterRegistry meters) {
+        this.rateLimit = rateLimit;
+        this.concurrency = concurrency;
+        this.mapper = mapper;
+        this.meters = meters;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (rateLimit.enabled()) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimit, mapper, meters))
+                    .addPathPatterns("/api/v1/blueprints", "/api/v1/blueprints/**");
+        }
+        // After the rate limiter, so requests it rejects never hold a slot
+        if (concurrency.enabled()) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrency, mapper, meters))
+                    .addPathPatterns("/api/v1/blueprints", "/api/v1/blueprints/**");
+        }
+    }
+}
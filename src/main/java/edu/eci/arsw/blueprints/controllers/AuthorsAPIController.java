@@ -0,0 +1,42 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.model.AuthorStats;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/authors")
+@Tag(name = "Authors", description = "Per-author blueprint and point totals")
+public class AuthorsAPIController {
+
+    private final BlueprintsServices services;
+
+    public AuthorsAPIController(BlueprintsServices services) {
+        this.services = services;
+    }
+
+    @Operation(
+    summary = "Get totals for every author",
+    description = "Returns each author's blueprint count, total points and last modification time, sorted by "
+            + "author. Served from counters updated on every write, so the cost follows the number of authors."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Author totals successfully retrieved"
+        )
+    })
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AuthorStats>>> getAll() {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", services.getAuthorStats()));
+    }
+}
@@ -2,10 +2,25 @@ package edu.eci.arsw.blueprints.controllers;
 
 import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointDelta;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.model.SimilarBlueprint;
+import edu.eci.arsw.blueprints.model.PointPage;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.render.RenderFormat;
+import edu.eci.arsw.blueprints.render.Viewport;
+import edu.eci.arsw.blueprints.services.BlueprintsRenderService;
+import edu.eci.arsw.blueprints.services.BlueprintsIngestService;
+import edu.eci.arsw.blueprints.services.BlueprintsRenderService.Rendered;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import edu.eci.arsw.blueprints.services.BlueprintsSimilarityService;
+import edu.eci.arsw.blueprints.services.IngestSummary;
+import edu.eci.arsw.blueprints.services.MultiGetResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,11 +29,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 @RestController
@@ -27,9 +49,26 @@ import java.util.Set;
 
 public class BlueprintsAPIController {
 
+    static final int MAX_PAGE_SIZE = 10_000;
+    static final int MAX_MGET_KEYS = 1_000;
+    static final int MAX_SEARCH_RESULTS = 100;
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int MAX_IMAGE_SIZE = 2048;
+    static final int MAX_SIMILAR = 100;
+    static final int MAX_HITS = 100;
+
     private final BlueprintsServices services;
+    private final BlueprintsIngestService ingest;
+    private final BlueprintsRenderService renders;
+    private final BlueprintsSimilarityService similarity;
 
-    public BlueprintsAPIController(BlueprintsServices services) { this.services = services; }
+    public BlueprintsAPIController(BlueprintsServices services, BlueprintsIngestService ingest,
+                                   BlueprintsRenderService renders, BlueprintsSimilarityService similarity) {
+        this.services = services;
+        this.ingest = ingest;
+        this.renders = renders;
+        this.similarity = similarity;
+    }
 
 
     @Operation(
@@ -53,6 +92,70 @@ public class BlueprintsAPIController {
                 new ApiResponse<>(200, "execute ok", blueprints));
     }
 
+    @Operation(
+    summary = "Search authors and blueprint names",
+    description = "Case-insensitive autocomplete. Returns authors and blueprints whose name starts with `q`, "
+            + "exact matches first; with `substring=true` (and `q` of 3+ characters) also names containing `q`. "
+            + "Author hits have a null `name`. Shadows an author literally named \"search\" on this path."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Ranked matches, possibly none"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Blank or overly long `q`, or `limit` out of range"
+        )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<?>> search(
+            @Parameter(description = "Text to match", example = "jo")
+            @RequestParam String q,
+            @Parameter(description = "Also match inside names, not only at the start", example = "false")
+            @RequestParam(defaultValue = "false") boolean substring,
+            @Parameter(description = "Maximum number of hits (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "q must be 1-" + MAX_QUERY_LENGTH + " characters and limit between 1 and " + MAX_SEARCH_RESULTS,
+                    null));
+        }
+        List<SearchHit> hits = services.search(q.strip(), substring, limit);
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", hits));
+    }
+
+    @Operation(
+    summary = "Find blueprints containing a location",
+    description = "Reads each blueprint's stored points as a polygon closed from the last point back to the "
+            + "first, and returns those containing (`x`, `y`) inside or on the outline, smallest area first. "
+            + "Blueprints of fewer than three points contain nothing. Shadows an author literally named \"hit\" "
+            + "on this path."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Containing blueprints with their areas, possibly none"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "`limit` out of range"
+        )
+    })
+    @GetMapping("/hit")
+    public ResponseEntity<ApiResponse<?>> hit(
+            @Parameter(description = "Location x", example = "5") @RequestParam int x,
+            @Parameter(description = "Location y", example = "5") @RequestParam int y,
+            @Parameter(description = "Maximum number of hits (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_HITS) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "limit must be between 1 and " + MAX_HITS, null));
+        }
+        List<BlueprintHit> hits = services.hitTest(x, y, limit);
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", hits));
+    }
+
     @Operation(
     summary = "Get blueprints by author",
     description = "Returns all blueprints created by a specific author"
@@ -71,13 +174,13 @@ public class BlueprintsAPIController {
     public ResponseEntity<ApiResponse<?>> byAuthor(
         @Parameter(description = "Author name", example = "John") 
         @PathVariable String author) {
-        try {
-            Set<Blueprint> blueprints = services.getBlueprintsByAuthor(author);
-            return ResponseEntity.ok(
-                    new ApiResponse<>(200, "execute ok", blueprints));
-        } catch (BlueprintNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
+        Optional<Set<Blueprint>> blueprints = services.findBlueprintsByAuthor(author);
+        if (blueprints.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, "No blueprints for author: " + author, null));
         }
+        return ResponseEntity.ok(
+                new ApiResponse<>(200, "execute ok", blueprints.get()));
     }
 
     @Operation(
@@ -100,15 +203,263 @@ public class BlueprintsAPIController {
             @PathVariable String author, 
             @Parameter(description = "Blueprint name", example = "house") 
             @PathVariable String bpname) {
+        Optional<Blueprint> bp = services.findBlueprint(author, bpname);
+        if (bp.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, "Blueprint not found: %s/%s".formatted(author, bpname), null));
+        }
+        return ResponseEntity.ok(
+                new ApiResponse<>(200, "execute ok", bp.get()));
+    }
+
+    @Operation(
+    summary = "Get a page of a blueprint's points",
+    description = "Returns up to `limit` points starting at position `from`, plus the total point count "
+            + "and the offset of the next page. Points are returned unfiltered so positions stay stable."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Point page successfully retrieved"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid `from` or `limit`"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Blueprint not found"
+        )
+    })
+    @GetMapping("/{author}/{bpname}/points")
+    public ResponseEntity<ApiResponse<?>> points(
+            @Parameter(description = "Author name", example = "john")
+            @PathVariable String author,
+            @Parameter(description = "Blueprint name", example = "house")
+            @PathVariable String bpname,
+            @Parameter(description = "Position of the first point", example = "0")
+            @RequestParam(defaultValue = "0") int from,
+            @Parameter(description = "Maximum number of points (1-10000)", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (from < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "from must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE, null));
+        }
+        try {
+            PointPage page = services.getPoints(author, bpname, from, limit);
+            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", page));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    @Operation(
+    summary = "Get the points appended since a known version",
+    description = "For clients that already hold a blueprint: returns up to `limit` points appended after "
+            + "`sinceVersion` (a blueprint's version is its point count) and the version to ask from next. "
+            + "`fullReload` is set when `sinceVersion` is ahead of the blueprint. A version is only a point count, "
+            + "so after a restore (a resync in the change feed) reload the whole blueprint instead of asking for a delta."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Delta successfully retrieved (possibly empty)"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid `sinceVersion` or `limit`"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Blueprint not found"
+        )
+    })
+    @GetMapping(value = "/{author}/{bpname}/points", params = "sinceVersion")
+    public ResponseEntity<ApiResponse<?>> pointsSince(
+            @Parameter(description = "Author name", example = "john")
+            @PathVariable String author,
+            @Parameter(description = "Blueprint name", example = "house")
+            @PathVariable String bpname,
+            @Parameter(description = "Version (point count) the client already holds", example = "4")
+            @RequestParam int sinceVersion,
+            @Parameter(description = "Maximum number of points (1-10000)", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (sinceVersion < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "sinceVersion must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE, null));
+        }
+        try {
+            PointDelta delta = services.getPointsSince(author, bpname, sinceVersion, limit);
+            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", delta));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    @Operation(
+    summary = "Get a blueprint's geometry metrics",
+    description = "Returns perimeter, path length, signed area, centroid and bounding box of the stored "
+            + "(unfiltered) points. Values come from running sums kept up to date on every added point."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Metrics successfully retrieved"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Blueprint not found"
+        )
+    })
+    @GetMapping("/{author}/{bpname}/metrics")
+    public ResponseEntity<ApiResponse<?>> metrics(
+            @Parameter(description = "Author name", example = "john")
+            @PathVariable String author,
+            @Parameter(description = "Blueprint name", example = "house")
+            @PathVariable String bpname) {
         try {
-            Blueprint bp = services.getBlueprint(author, bpname);   
-            return ResponseEntity.ok(
-                    new ApiResponse<>(200, "execute ok", bp));
+            BlueprintMetrics metrics = services.getMetrics(author, bpname);
+            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", metrics));
         } catch (BlueprintNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
         }
     }
 
+    @Operation(
+    summary = "Find blueprints shaped like this one",
+    description = "Returns up to `k` other blueprints whose outline (the stored points read as a closed polygon) "
+            + "looks most alike regardless of position, size, rotation and starting point, closest first. "
+            + "Candidates come from an in-memory index of Fourier shape descriptors and are re-ranked by "
+            + "discrete Fréchet distance. New blueprints are indexed shortly after they are written. Answers 501 "
+            + "when `blueprints.similarity.enabled` is false, the default with the postgres profile."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Similar blueprints successfully retrieved (possibly none)"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid `k`"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Blueprint not found"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "501",
+            description = "Similarity search is disabled on this server"
+        )
+    })
+    @GetMapping("/{author}/{bpname}/similar")
+    public ResponseEntity<ApiResponse<?>> similar(
+            @Parameter(description = "Author name", example = "john")
+            @PathVariable String author,
+            @Parameter(description = "Blueprint name", example = "house")
+            @PathVariable String bpname,
+            @Parameter(description = "Maximum number of results (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > MAX_SIMILAR) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "k must be between 1 and " + MAX_SIMILAR, null));
+        }
+        if (!similarity.enabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(new ApiResponse<>(501,
+                    "Similarity search is disabled (blueprints.similarity.enabled)", null));
+        }
+        Optional<List<SimilarBlueprint>> similar = similarity.similar(author, bpname, k);
+        if (similar.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, "Blueprint not found: %s/%s".formatted(author, bpname), null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", similar.get()));
+    }
+
+    @Operation(
+    summary = "Render a blueprint as an image",
+    description = "Draws the filtered blueprint server-side, fitted into `w` x `h` pixels. The response size "
+            + "follows the image size, not the point count: an SVG whose path would be denser than the image "
+            + "embeds a PNG instead. Images are cached per blueprint version."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Image successfully rendered",
+            content = {@Content(mediaType = "image/png"), @Content(mediaType = "image/svg+xml")}
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Unknown `format` or invalid `w` / `h`"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Blueprint not found"
+        )
+    })
+    @GetMapping("/{author}/{bpname}/render")
+    public ResponseEntity<?> render(
+            @Parameter(description = "Author name", example = "john")
+            @PathVariable String author,
+            @Parameter(description = "Blueprint name", example = "house")
+            @PathVariable String bpname,
+            @Parameter(description = "png or svg", example = "png")
+            @RequestParam(defaultValue = "png") String format,
+            @Parameter(description = "Width in pixels (1-2048)", example = "512")
+            @RequestParam(defaultValue = "512") int w,
+            @Parameter(description = "Height in pixels (1-2048)", example = "512")
+            @RequestParam(defaultValue = "512") int h) {
+        RenderFormat renderFormat = switch (format.toLowerCase()) {
+            case "png" -> RenderFormat.PNG;
+            case "svg" -> RenderFormat.SVG;
+            default -> null;
+        };
+        if (renderFormat == null || w < 1 || w > MAX_IMAGE_SIZE || h < 1 || h > MAX_IMAGE_SIZE) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "format must be png or svg and w, h between 1 and " + MAX_IMAGE_SIZE, null));
+        }
+        return image(renders.render(author, bpname, renderFormat, w, h), author, bpname);
+    }
+
+    @Operation(
+    summary = "Get a map tile of a blueprint",
+    description = "256x256 PNG tile `x`, `y` at zoom `z` (0-16) of a square grid over the blueprint's bounding "
+            + "box: zoom 0 is the whole blueprint and each level splits every tile in four. Tiles are cached "
+            + "per blueprint version."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Tile successfully rendered",
+            content = @Content(mediaType = "image/png")
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "No such tile at that zoom"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Blueprint not found"
+        )
+    })
+    @GetMapping("/{author}/{bpname}/tiles/{z}/{x}/{y}.png")
+    public ResponseEntity<?> tile(
+            @Parameter(description = "Author name", example = "john")
+            @PathVariable String author,
+            @Parameter(description = "Blueprint name", example = "house")
+            @PathVariable String bpname,
+            @Parameter(description = "Zoom level (0-16)", example = "0")
+            @PathVariable int z,
+            @Parameter(description = "Tile column (0 to 2^z - 1)", example = "0")
+            @PathVariable int x,
+            @Parameter(description = "Tile row (0 to 2^z - 1)", example = "0")
+            @PathVariable int y) {
+        if (!Viewport.isTile(z, x, y)) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "z must be between 0 and %d and x, y between 0 and 2^z - 1".formatted(Viewport.MAX_ZOOM), null));
+        }
+        return image(renders.tile(author, bpname, z, x, y), author, bpname);
+    }
+
     @Operation(
     summary = "Create a new blueprint",
     description = "Registers a new blueprint in the system. The blueprint must have a unique author and name."
@@ -139,6 +490,56 @@ public class BlueprintsAPIController {
     }
 
 
+    @Operation(
+    summary = "Bulk-create blueprints from NDJSON",
+    description = "Streams one blueprint JSON object per line (optionally gzip-compressed) into storage in "
+            + "bounded batches. Existing blueprints are skipped and invalid records rejected; the summary "
+            + "reports both. Records stored before a malformed line are kept."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Upload fully read; see the summary for per-record outcomes"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Upload stopped at malformed JSON"
+        )
+    })
+    @PostMapping(value = "/_bulk",
+            consumes = {"application/x-ndjson", "application/gzip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<IngestSummary>> bulk(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Newline-delimited blueprints, plain or gzip")
+            InputStream body) throws IOException {
+        IngestSummary summary = ingest.ingest(body);
+        if (!summary.complete()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400, "ingest stopped at malformed JSON", summary));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(200, "ingest complete", summary));
+    }
+
+    @Operation(
+    summary = "Get many blueprints in one request",
+    description = "Resolves up to 1000 (author, name) keys with a single backend lookup. Returns the blueprints "
+            + "found, with the configured filter applied, and the keys that matched nothing."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Lookup done; see `missing` for keys that were not found"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "No keys, too many keys, or a key without author/name"
+        )
+    })
+    @PostMapping("/_mget")
+    public ResponseEntity<ApiResponse<MultiGetResult>> multiGet(@Valid @RequestBody MultiGetRequest req) {
+        MultiGetResult result = services.getBlueprints(req.keys());
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", result));
+    }
+
     @Operation(
     summary = "Add a point to a blueprint",
     description = "Adds a new point (x, y coordinate) to an existing blueprint"
@@ -172,6 +573,17 @@ public class BlueprintsAPIController {
         }
     }
 
+    private static ResponseEntity<?> image(Optional<Rendered> rendered, String author, String bpname) {
+        if (rendered.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, "Blueprint not found: %s/%s".formatted(author, bpname), null));
+        }
+        Rendered r = rendered.get();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(r.format().mediaType()))
+                .body(r.image());
+    }
+
     @Schema(description = "DTO for creating a new blueprint")
     public record NewBlueprintRequest(
 
@@ -188,4 +600,14 @@ public class BlueprintsAPIController {
             java.util.List<Point> points
 
     ) { }
+
+    @Schema(description = "Keys to resolve with POST /_mget")
+    public record MultiGetRequest(
+
+            @NotEmpty
+            @Size(max = MAX_MGET_KEYS)
+            @Schema(description = "Blueprint keys, at most 1000")
+            java.util.List<@Valid BlueprintKey> keys
+
+    ) { }
 }
@@ -0,0 +1,122 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.persistence.impl.CopyTable;
+import edu.eci.arsw.blueprints.persistence.impl.PostgresCopyService;
+import edu.eci.arsw.blueprints.persistence.impl.PostgresCopyService.CopyResult;
+import edu.eci.arsw.blueprints.persistence.impl.PostgresCopyService.Format;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/admin/copy")
+@Tag(name = "Admin", description = "Bulk export and import through PostgreSQL COPY")
+@Profile("postgres")
+@ConditionalOnProperty(name = "blueprints.admin.copy.enabled", havingValue = "true")
+public class BlueprintsAdminController {
+
+    private final PostgresCopyService copy;
+
+    public BlueprintsAdminController(PostgresCopyService copy) { this.copy = copy; }
+
+    @Operation(
+    summary = "Export a table",
+    description = "Streams every row of `blueprints` or of the active layout's point table "
+            + "(`points` for rows, `point_chunks` for packed) as COPY text or binary. "
+            + "Restore with the import endpoint, blueprints first."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "COPY stream"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Unknown table or format, or a point table of the other layout"
+        )
+    })
+    @GetMapping("/{table}")
+    public ResponseEntity<?> export(
+            @Parameter(description = "Table name", example = "points")
+            @PathVariable String table,
+            @Parameter(description = "COPY format: text or binary", example = "binary")
+            @RequestParam(defaultValue = "text") String format) {
+        Optional<CopyTable> t = copy.table(table);
+        Optional<Format> f = formatOf(format);
+        if (t.isEmpty() || f.isEmpty()) return badRequest(table, format);
+        StreamingResponseBody body = out -> {
+            try {
+                copy.export(t.get(), f.get(), out);
+            } catch (SQLException e) {
+                throw new IOException("COPY export of " + table + " failed", e);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(f.get() == Format.BINARY ? MediaType.APPLICATION_OCTET_STREAM : MediaType.TEXT_PLAIN)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"%s.%s\"".formatted(t.get().table(), f.get() == Format.BINARY ? "bin" : "tsv"))
+                .body(body);
+    }
+
+    @Operation(
+    summary = "Import a table",
+    description = "Loads a COPY text or binary stream produced by the export endpoint into an empty table. "
+            + "Importing the point table finishes the restore: author totals are recomputed, missing "
+            + "geometry sums filled, and the change feed asks consumers to resync."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Rows imported; the response reports rows and rows/sec"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Unknown table or format, or rows rejected by PostgreSQL"
+        )
+    })
+    @PostMapping(value = "/{table}",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<?>> importTable(
+            @Parameter(description = "Table name", example = "points")
+            @PathVariable String table,
+            @Parameter(description = "COPY format: text or binary", example = "binary")
+            @RequestParam(defaultValue = "text") String format,
+            InputStream body) throws IOException {
+        Optional<CopyTable> t = copy.table(table);
+        Optional<Format> f = formatOf(format);
+        if (t.isEmpty() || f.isEmpty()) return badRequest(table, format);
+        try {
+            CopyResult result = copy.importInto(t.get(), f.get(), body);
+            return ResponseEntity.ok(new ApiResponse<>(200, "import ok", result));
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(400, e.getMessage(), null));
+        }
+    }
+
+    private static Optional<Format> formatOf(String format) {
+        for (Format f : Format.values()) {
+            if (f.name().equalsIgnoreCase(format)) return Optional.of(f);
+        }
+        return Optional.empty();
+    }
+
+    private static ResponseEntity<ApiResponse<?>> badRequest(String table, String format) {
+        return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                "unknown table '%s' or format '%s'".formatted(table, format), null));
+    }
+}
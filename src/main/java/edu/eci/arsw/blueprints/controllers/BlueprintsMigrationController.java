@@ -0,0 +1,54 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.persistence.impl.PackedPointMigration;
+import edu.eci.arsw.blueprints.persistence.impl.PackedPointMigration.MigrationResult;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/migrations")
+@Tag(name = "Admin")
+@Profile("postgres")
+@ConditionalOnProperty(name = "blueprints.admin.migration.enabled", havingValue = "true")
+public class BlueprintsMigrationController {
+
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    private final PackedPointMigration migration;
+
+    public BlueprintsMigrationController(PackedPointMigration migration) { this.migration = migration; }
+
+    @Operation(
+    summary = "Pack point rows into chunks",
+    description = "Moves every blueprint still stored one row per point into `point_chunks`, "
+            + "one transaction per batch. Can be stopped and rerun; finished batches are not repeated."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Migration finished; the response reports blueprints and points moved"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "batchSize out of range"
+        )
+    })
+    @PostMapping("/packed-points")
+    public ResponseEntity<ApiResponse<?>> packPoints(
+            @Parameter(description = "Blueprints per transaction", example = "500")
+            @RequestParam(defaultValue = "500") int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "batchSize must be between 1 and " + MAX_BATCH_SIZE, null));
+        }
+        MigrationResult result = migration.migrate(batchSize);
+        return ResponseEntity.ok(new ApiResponse<>(200, "migration ok", result));
+    }
+}
@@ -0,0 +1,68 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.services.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@Tag(name = "Changes", description = "Global feed of blueprint creations and point appends")
+public class ChangesAPIController {
+
+    static final int MAX_CHANGES = 1_000;
+    /** Kept below the servlet container's default async timeout (30 s). */
+    static final int MAX_WAIT_SECONDS = 20;
+
+    private final ChangeFeedService changes;
+
+    public ChangesAPIController(ChangeFeedService changes) {
+        this.changes = changes;
+    }
+
+    @Operation(
+    summary = "Get changes after a sequence number",
+    description = "Returns up to `limit` changes recorded after `since`, in sequence order, and the sequence "
+            + "number to ask from next. With `waitSeconds` the request is held until a change arrives or the "
+            + "wait ends. `resync` is set when the changes after `since` are no longer retained: rebuild from "
+            + "GET /api/v1/blueprints and continue from `next`."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Changes retrieved (possibly none), or a resync"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid `since`, `limit` or `waitSeconds`"
+        )
+    })
+    @GetMapping
+    public CompletableFuture<ResponseEntity<ApiResponse<ChangeFeed>>> getChanges(
+            @Parameter(description = "Last sequence number already processed; 0 for the start", example = "0")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes (1-1000)", example = "100")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Seconds to wait for a change when there is none yet (0-20)", example = "10")
+            @RequestParam(defaultValue = "0") int waitSeconds) {
+        if (since < 0 || limit < 1 || limit > MAX_CHANGES || waitSeconds < 0 || waitSeconds > MAX_WAIT_SECONDS) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "since must be >= 0, limit between 1 and %d and waitSeconds between 0 and %d"
+                            .formatted(MAX_CHANGES, MAX_WAIT_SECONDS), null)));
+        }
+        return changes.await(since, limit, Duration.ofSeconds(waitSeconds))
+                .thenApply(feed -> ResponseEntity.ok(
+                        new ApiResponse<>(200, feed.resync() ? "resync required" : "execute ok", feed)));
+    }
+}
@@ -0,0 +1,190 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.cluster.ClusterSecretInterceptor;
+import edu.eci.arsw.blueprints.persistence.cluster.ClusteredBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.cluster.RemoteBlueprintPersistence;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Node-to-node API of the in-memory cluster. Serves this node's own partition,
+ * unfiltered and without routing, to the {@link RemoteBlueprintPersistence} of the
+ * other members. Not meant for clients: {@link ClusterSecretInterceptor} turns away
+ * calls without the cluster secret.
+ */
+@RestController
+@RequestMapping(RemoteBlueprintPersistence.BASE_PATH)
+@Tag(name = "Cluster", description = "Internal node-to-node API of the in-memory cluster")
+@Profile("!postgres")
+@ConditionalOnProperty(name = "blueprints.cluster.enabled", havingValue = "true")
+public class ClusterInternalController {
+
+    private final InMemoryBlueprintPersistence local;
+    private final ClusteredBlueprintPersistence cluster;
+
+    public ClusterInternalController(InMemoryBlueprintPersistence local, ClusteredBlueprintPersistence cluster) {
+        this.local = local;
+        this.cluster = cluster;
+    }
+
+    @Operation(summary = "Store a blueprint on this node")
+    @PostMapping("/blueprints")
+    public ResponseEntity<ApiResponse<?>> save(@RequestBody Blueprint bp) {
+        try {
+            local.saveBlueprint(bp);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(201, "blueprint created", null));
+        } catch (BlueprintPersistenceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse<>(409, e.getMessage(), null));
+        }
+    }
+
+    @Operation(summary = "Store a batch on this node, skipping blueprints that exist")
+    @PostMapping("/blueprints/_batch")
+    public ResponseEntity<ApiResponse<Integer>> saveBatch(@RequestBody List<Blueprint> batch) {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.saveBlueprints(batch)));
+    }
+
+    @Operation(summary = "Get the blueprints of this node matching the keys")
+    @PostMapping("/blueprints/_mget")
+    public ResponseEntity<ApiResponse<List<Blueprint>>> multiGet(@RequestBody List<BlueprintKey> keys) {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok",
+                new ArrayList<>(local.getBlueprints(keys).values())));
+    }
+
+    @Operation(summary = "Get every blueprint of this node")
+    @GetMapping("/blueprints")
+    public ResponseEntity<ApiResponse<List<Blueprint>>> getAll() {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", new ArrayList<>(local.getAllBlueprints())));
+    }
+
+    @Operation(summary = "Get the key of every blueprint on this node")
+    @GetMapping("/keys")
+    public ResponseEntity<ApiResponse<List<BlueprintKey>>> keys() {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.getBlueprintKeys()));
+    }
+
+    @Operation(summary = "Get the changes recorded by this node")
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangeFeed>> changes(@RequestParam long since, @RequestParam int limit) {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.getChanges(since, limit)));
+    }
+
+    @Operation(summary = "Get an author's blueprints on this node")
+    @GetMapping("/blueprints/{author}")
+    public ResponseEntity<ApiResponse<?>> byAuthor(@PathVariable String author) {
+        Optional<Set<Blueprint>> blueprints = local.findBlueprintsByAuthor(author);
+        if (blueprints.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, "No blueprints for author: " + author, null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", new ArrayList<>(blueprints.get())));
+    }
+
+    @Operation(summary = "Get a blueprint on this node")
+    @GetMapping("/blueprints/{author}/{bpname}")
+    public ResponseEntity<ApiResponse<?>> byAuthorAndName(@PathVariable String author, @PathVariable String bpname) {
+        Optional<Blueprint> bp = local.findBlueprint(author, bpname);
+        if (bp.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, "Blueprint not found: %s/%s".formatted(author, bpname), null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", bp.get()));
+    }
+
+    @Operation(summary = "Add a point to a blueprint on this node")
+    @PutMapping("/blueprints/{author}/{bpname}/points")
+    public ResponseEntity<ApiResponse<?>> addPoint(@PathVariable String author, @PathVariable String bpname,
+                                                   @RequestBody Point p) {
+        try {
+            local.addPoint(author, bpname, p.x(), p.y());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse<>(202, "point added", null));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    @Operation(summary = "Get a page of points of a blueprint on this node")
+    @GetMapping("/blueprints/{author}/{bpname}/points")
+    public ResponseEntity<ApiResponse<?>> points(@PathVariable String author, @PathVariable String bpname,
+                                                 @RequestParam int from, @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.getPoints(author, bpname, from, limit)));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    @Operation(summary = "Get the metrics of a blueprint on this node")
+    @GetMapping("/blueprints/{author}/{bpname}/metrics")
+    public ResponseEntity<ApiResponse<?>> metrics(@PathVariable String author, @PathVariable String bpname) {
+        try {
+            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.getMetrics(author, bpname)));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    @Operation(summary = "Search this node's authors and blueprint names")
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<?>> search(@RequestParam String q, @RequestParam boolean substring,
+                                                 @RequestParam int limit) {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.search(q, substring, limit)));
+    }
+
+    @Operation(summary = "Find this node's blueprints containing a location")
+    @GetMapping("/hit")
+    public ResponseEntity<ApiResponse<?>> hit(@RequestParam int x, @RequestParam int y, @RequestParam int limit) {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.hitTest(x, y, limit)));
+    }
+
+    @Operation(summary = "Get the totals of this node's authors")
+    @GetMapping("/authors")
+    public ResponseEntity<ApiResponse<?>> authors() {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", local.getAuthorStats()));
+    }
+
+    @Operation(summary = "Get the member list and the outcome of the last handoff")
+    @GetMapping("/members")
+    public ResponseEntity<ApiResponse<?>> members() {
+        ClusteredBlueprintPersistence.Handoff last = cluster.lastHandoff();
+        return ResponseEntity.ok(new ApiResponse<>(200, last == null ? "no handoff yet"
+                : "last handoff moved %d, failed %d".formatted(last.moved(), last.failed()), cluster.members()));
+    }
+
+    @Operation(
+    summary = "Adopt a new member list",
+    description = "Switches to the given members and hands off, in the background, the blueprints whose "
+            + "author this node no longer owns."
+    )
+    @PutMapping("/members")
+    public ResponseEntity<ApiResponse<List<String>>> adopt(@RequestBody List<String> members) {
+        if (!members.contains(cluster.self())) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "members must include this node: " + cluster.self(), cluster.members()));
+        }
+        if (!cluster.allows(members)) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(400,
+                    "members must be among the configured blueprints.cluster.allowed-members", cluster.members()));
+        }
+        Thread.ofVirtual().name("cluster-handoff").start(() -> cluster.adopt(members));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse<>(202, "members accepted", members));
+    }
+}
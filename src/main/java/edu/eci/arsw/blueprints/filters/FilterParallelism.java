@@ -0,0 +1,72 @@
+package edu.eci.arsw.blueprints.filters;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Decides when a filter pass is large enough to be worth splitting, and runs the
+ * parallel work on a dedicated {@link ForkJoinPool} instead of the common pool.
+ * Parallel streams started from inside {@link #invoke(Callable)} stay on that pool.
+ */
+public class FilterParallelism {
+
+    /** Blueprints in one result set before mapping them in parallel pays off. */
+    public static final int DEFAULT_BLUEPRINT_THRESHOLD = 64;
+    /** Points in a single blueprint before splitting its filter pass pays off. */
+    public static final int DEFAULT_POINT_THRESHOLD = 100_000;
+
+    private static final FilterParallelism SEQUENTIAL =
+            new FilterParallelism(null, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int blueprintThreshold;
+    private final int pointThreshold;
+
+    public FilterParallelism(ForkJoinPool pool, int blueprintThreshold, int pointThreshold) {
+        // A single worker only adds hand-off cost, so treat it as sequential
+        this.pool = pool != null && pool.getParallelism() > 1 ? pool : null;
+        this.blueprintThreshold = blueprintThreshold;
+        this.pointThreshold = pointThreshold;
+    }
+
+    /** Never goes parallel; used when filters or services are built by hand. */
+    public static FilterParallelism sequential() { return SEQUENTIAL; }
+
+    /**
+     * @param blueprints  size of the result set
+     * @param totalPoints points across the whole result set
+     */
+    public boolean acrossBlueprints(int blueprints, long totalPoints) {
+        return pool != null && blueprints > 1
+                && (blueprints >= blueprintThreshold || totalPoints >= pointThreshold);
+    }
+
+    public boolean withinBlueprint(int points) {
+        return pool != null && points >= pointThreshold;
+    }
+
+    /** Number of chunks a single pass over {@code points} should be cut into. */
+    public int chunksFor(int points) {
+        int byPool = pool == null ? 1 : pool.getParallelism() * 4;
+        int bySize = Math.max(1, points / (pointThreshold / 4 + 1));
+        return Math.max(1, Math.min(byPool, bySize));
+    }
+
+    public <T> T invoke(Callable<T> task) {
+        if (pool == null) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return pool.submit(ForkJoinTask.adapt(task)).join();
+    }
+
+    public void run(Runnable task) {
+        invoke(() -> { task.run(); return null; });
+    }
+}
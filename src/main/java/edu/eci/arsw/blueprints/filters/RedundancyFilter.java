@@ -2,31 +2,60 @@ package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
 import edu.eci.arsw.blueprints.model.Point;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Removes consecutive duplicate points (x,y) to reduce redundancy.
  * Profile: "redundancy"
+ * <p>
+ * A point is kept when it differs from the point right before it, so large
+ * blueprints can be cut into chunks and scanned independently: the first point
+ * of each chunk just looks back across the chunk boundary.
  */
 @Component
 @Profile("redundancy")
 public class RedundancyFilter implements BlueprintsFilter {
+
+    private final FilterParallelism parallelism;
+
+    public RedundancyFilter() { this(FilterParallelism.sequential()); }
+
+    @Autowired
+    public RedundancyFilter(FilterParallelism parallelism) { this.parallelism = parallelism; }
+
     @Override
     public Blueprint apply(Blueprint bp) {
         List<Point> in = bp.getPoints();
         if (in.isEmpty()) return bp;
+        int n = in.size();
+        if (!parallelism.withinBlueprint(n)) {
+            return new Blueprint(bp.getAuthor(), bp.getName(), keep(in, 0, n));
+        }
+        int chunks = parallelism.chunksFor(n);
+        List<List<Point>> parts = parallelism.invoke(() -> IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> keep(in, (int) ((long) c * n / chunks), (int) ((long) (c + 1) * n / chunks)))
+                .toList());
+        List<Point> out = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(out::addAll);
+        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+    }
+
+    private static List<Point> keep(List<Point> in, int from, int to) {
         List<Point> out = new ArrayList<>();
-        Point prev = null;
-        for (Point p : in) {
+        Point prev = from == 0 ? null : in.get(from - 1);
+        for (int i = from; i < to; i++) {
+            Point p = in.get(i);
             if (prev == null || !(prev.x()==p.x() && prev.y()==p.y())) {
                 out.add(p);
-                prev = p;
             }
+            prev = p;
         }
-        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+        return out;
     }
 }
@@ -2,24 +2,44 @@ package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
 import edu.eci.arsw.blueprints.model.Point;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Undersampling: keeps 1 out of every 2 points (even indices), reducing density.
  * Profile: "undersampling"
+ * <p>
+ * Output slot {@code i} always holds input point {@code 2i}, so large blueprints
+ * are filled index-parallel with no coordination between workers.
  */
 @Component
 @Profile("undersampling")
 public class UndersamplingFilter implements BlueprintsFilter {
+
+    private final FilterParallelism parallelism;
+
+    public UndersamplingFilter() { this(FilterParallelism.sequential()); }
+
+    @Autowired
+    public UndersamplingFilter(FilterParallelism parallelism) { this.parallelism = parallelism; }
+
     @Override
     public Blueprint apply(Blueprint bp) {
         List<Point> in = bp.getPoints();
         if (in.size() <= 2) return bp;
-        List<Point> out = new ArrayList<>();
+        int kept = (in.size() + 1) / 2;
+        if (parallelism.withinBlueprint(in.size())) {
+            Point[] out = new Point[kept];
+            parallelism.run(() -> IntStream.range(0, kept).parallel().forEach(i -> out[i] = in.get(2 * i)));
+            return new Blueprint(bp.getAuthor(), bp.getName(), Arrays.asList(out));
+        }
+        List<Point> out = new ArrayList<>(kept);
         for (int i = 0; i < in.size(); i++) {
             if (i % 2 == 0) out.add(in.get(i));
         }
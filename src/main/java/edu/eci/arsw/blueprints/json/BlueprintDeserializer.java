@@ -0,0 +1,31 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.io.IOException;
+
+/**
+ * Reads stored blueprints back, as cluster nodes do with each other's responses.
+ * Unlike a create request, author and name must be present.
+ */
+public class BlueprintDeserializer extends StdDeserializer<Blueprint> {
+
+    public BlueprintDeserializer() {
+        super(Blueprint.class);
+    }
+
+    @Override
+    public Blueprint deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return (Blueprint) ctxt.handleUnexpectedToken(Blueprint.class, p);
+        }
+        BlueprintJsonReader.Parsed r = BlueprintJsonReader.readBlueprint(p);
+        if (r.problem == null && (r.author == null || r.name == null)) r.problem = "author and name are required";
+        if (r.problem != null) return ctxt.reportInputMismatch(this, "%s", r.problem);
+        return new Blueprint(r.author, r.name, r.points);
+    }
+}
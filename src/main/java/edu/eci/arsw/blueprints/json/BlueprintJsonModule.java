@@ -0,0 +1,24 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Hand-written (de)serializers for the types on the hot path, replacing Jackson's
+ * reflective bean handling of {@link Blueprint} and the {@link Point} record.
+ * With {@code compactPoints} points are written as {@code [x,y]}; both forms are
+ * always accepted on input.
+ */
+public class BlueprintJsonModule extends SimpleModule {
+
+    public BlueprintJsonModule(boolean compactPoints) {
+        super("BlueprintJsonModule");
+        addSerializer(Blueprint.class, new BlueprintSerializer(compactPoints));
+        addDeserializer(Blueprint.class, new BlueprintDeserializer());
+        addSerializer(Point.class, new PointSerializer(compactPoints));
+        addDeserializer(Point.class, new PointDeserializer());
+        addDeserializer(NewBlueprintRequest.class, new NewBlueprintRequestDeserializer());
+    }
+}
@@ -0,0 +1,110 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.eci.arsw.blueprints.model.Point;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-level reader for blueprint objects, shared by the request deserializers and
+ * bulk ingest. Points may be {@code {"x":..,"y":..}} objects or {@code [x,y]} pairs.
+ * <p>
+ * Problems are collected rather than thrown so a caller can skip one bad record and
+ * keep reading; the parser is always left at the end of the object.
+ */
+public final class BlueprintJsonReader {
+
+    /** Fields of one blueprint object; {@code problem} names the first thing wrong with it. */
+    public static final class Parsed {
+        public String author;
+        public String name;
+        public final List<Point> points = new ArrayList<>();
+        public String problem;
+
+        void fail(String why) { if (problem == null) problem = why; }
+    }
+
+    private BlueprintJsonReader() { }
+
+    /** Reads the object whose {@code START_OBJECT} is the current token. */
+    public static Parsed readBlueprint(JsonParser p) throws IOException {
+        Parsed r = new Parsed();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "author" -> r.author = readText(p, t, r, "author");
+                case "name" -> r.name = readText(p, t, r, "name");
+                case "points" -> readPoints(p, t, r);
+                default -> p.skipChildren();
+            }
+        }
+        return r;
+    }
+
+    /** Reads the point starting at {@code t}, or returns null (having skipped it) if it is not one. */
+    public static Point readPoint(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.START_OBJECT) {
+            Integer x = null;
+            Integer y = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken v = p.nextToken();
+                if (field.equals("x") && isInt(p, v)) x = p.getIntValue();
+                else if (field.equals("y") && isInt(p, v)) y = p.getIntValue();
+                else p.skipChildren();
+            }
+            return x == null || y == null ? null : new Point(x, y);
+        }
+        if (t == JsonToken.START_ARRAY) {
+            int x = 0;
+            int y = 0;
+            int n = 0;
+            boolean ints = true;
+            while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (!isInt(p, t)) {
+                    ints = false;
+                    p.skipChildren();
+                } else if (n == 0) x = p.getIntValue();
+                else y = p.getIntValue();
+                n++;
+            }
+            return ints && n == 2 ? new Point(x, y) : null;
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static String readText(JsonParser p, JsonToken t, Parsed r, String field) throws IOException {
+        if (t == JsonToken.VALUE_STRING) return p.getText();
+        if (t != JsonToken.VALUE_NULL) r.fail(field + " must be a string");
+        p.skipChildren();
+        return null;
+    }
+
+    private static void readPoints(JsonParser p, JsonToken t, Parsed r) throws IOException {
+        if (t == JsonToken.VALUE_NULL) return;
+        if (t != JsonToken.START_ARRAY) {
+            r.fail("points must be an array");
+            p.skipChildren();
+            return;
+        }
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t != JsonToken.START_OBJECT && t != JsonToken.START_ARRAY) {
+                r.fail("points must contain {x, y} objects or [x, y] pairs");
+                p.skipChildren();
+                continue;
+            }
+            Point point = readPoint(p, t);
+            if (point == null) r.fail("every point needs integer x and y");
+            else if (r.problem == null) r.points.add(point);
+        }
+    }
+
+    private static boolean isInt(JsonParser p, JsonToken t) throws IOException {
+        return t == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT;
+    }
+}
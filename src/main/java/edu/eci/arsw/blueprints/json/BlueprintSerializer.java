@@ -0,0 +1,40 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Blueprint} as {@code {"author":..,"name":..,"points":[..]}}, reading
+ * coordinates from its {@link edu.eci.arsw.blueprints.model.PointStorage} instead of
+ * materializing a {@code List<Point>}.
+ */
+public class BlueprintSerializer extends StdSerializer<Blueprint> {
+
+    private static final SerializedString AUTHOR = new SerializedString("author");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString POINTS = new SerializedString("points");
+
+    private final PointsWriter points;
+
+    public BlueprintSerializer(boolean compactPoints) {
+        super(Blueprint.class);
+        this.points = new PointsWriter(compactPoints);
+    }
+
+    @Override
+    public void serialize(Blueprint bp, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(bp);
+        gen.writeFieldName(AUTHOR);
+        gen.writeString(bp.getAuthor());
+        gen.writeFieldName(NAME);
+        gen.writeString(bp.getName());
+        gen.writeFieldName(POINTS);
+        points.writePoints(gen, bp.pointStorage());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,30 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+
+import java.io.IOException;
+
+/**
+ * Reads a create request in one pass over the tokens. Only the JSON shape is checked
+ * here; blank fields are left to bean validation so the error responses stay the same.
+ */
+public class NewBlueprintRequestDeserializer extends StdDeserializer<NewBlueprintRequest> {
+
+    public NewBlueprintRequestDeserializer() {
+        super(NewBlueprintRequest.class);
+    }
+
+    @Override
+    public NewBlueprintRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return (NewBlueprintRequest) ctxt.handleUnexpectedToken(NewBlueprintRequest.class, p);
+        }
+        BlueprintJsonReader.Parsed r = BlueprintJsonReader.readBlueprint(p);
+        if (r.problem != null) return ctxt.reportInputMismatch(this, "%s", r.problem);
+        return new NewBlueprintRequest(r.author, r.name, r.points);
+    }
+}
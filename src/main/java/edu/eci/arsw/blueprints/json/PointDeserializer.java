@@ -0,0 +1,22 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import edu.eci.arsw.blueprints.model.Point;
+
+import java.io.IOException;
+
+/** Accepts both {@code {"x":..,"y":..}} and {@code [x,y]}, whichever form is being written. */
+public class PointDeserializer extends StdDeserializer<Point> {
+
+    public PointDeserializer() {
+        super(Point.class);
+    }
+
+    @Override
+    public Point deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Point point = BlueprintJsonReader.readPoint(p, p.currentToken());
+        return point != null ? point : ctxt.reportInputMismatch(this, "every point needs integer x and y");
+    }
+}
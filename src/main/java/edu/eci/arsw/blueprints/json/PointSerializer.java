@@ -0,0 +1,24 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import edu.eci.arsw.blueprints.model.Point;
+
+import java.io.IOException;
+
+/** Points outside a blueprint (pages, deltas); same shape as the ones inside it. */
+public class PointSerializer extends StdSerializer<Point> {
+
+    private final PointsWriter writer;
+
+    public PointSerializer(boolean compactPoints) {
+        super(Point.class);
+        this.writer = new PointsWriter(compactPoints);
+    }
+
+    @Override
+    public void serialize(Point p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writer.writePoint(gen, p.x(), p.y());
+    }
+}
@@ -0,0 +1,54 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/** Writes points as {@code {"x":..,"y":..}} objects or, in compact form, {@code [x,y]} pairs. */
+final class PointsWriter {
+
+    private static final SerializedString X = new SerializedString("x");
+    private static final SerializedString Y = new SerializedString("y");
+
+    private final boolean compact;
+
+    PointsWriter(boolean compact) {
+        this.compact = compact;
+    }
+
+    void writePoint(JsonGenerator gen, int x, int y) throws IOException {
+        if (compact) {
+            gen.writeStartArray();
+            gen.writeNumber(x);
+            gen.writeNumber(y);
+            gen.writeEndArray();
+        } else {
+            gen.writeStartObject();
+            gen.writeFieldName(X);
+            gen.writeNumber(x);
+            gen.writeFieldName(Y);
+            gen.writeNumber(y);
+            gen.writeEndObject();
+        }
+    }
+
+    /** Streams the whole storage as one JSON array, straight from its coordinates. */
+    void writePoints(JsonGenerator gen, PointStorage points) throws IOException {
+        gen.writeStartArray();
+        try {
+            points.forEach((x, y) -> {
+                try {
+                    writePoint(gen, x, y);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.writeEndArray();
+    }
+}
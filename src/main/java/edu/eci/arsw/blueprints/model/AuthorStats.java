@@ -0,0 +1,14 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Running totals for one author")
+public record AuthorStats(
+    @Schema(description = "Author name", example = "john") String author,
+    @Schema(description = "Number of blueprints", example = "2") long blueprints,
+    @Schema(description = "Points across all of the author's blueprints", example = "7") long points,
+    @Schema(description = "Last time a blueprint or point of this author was stored; null if unknown",
+            example = "2026-01-01T12:00:00Z") Instant lastModified
+) { }
@@ -1,6 +1,5 @@
 package edu.eci.arsw.blueprints.model;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -9,19 +8,58 @@ public class Blueprint {
 
     private String author;
     private String name;
-    private final List<Point> points = new ArrayList<>();
+    private final PointStorage points;
+    private GeometryAccumulator geometry;   // built on first use, then kept current by addPoint
 
     public Blueprint(String author, String name, List<Point> pts) {
+        this(author, name, pts == null ? new HeapPointStorage() : new HeapPointStorage(pts));
+    }
+
+    public Blueprint(String author, String name, PointStorage storage) {
         this.author = author;
         this.name = name;
-        if (pts != null) points.addAll(pts);
+        this.points = storage;
     }
 
     public String getAuthor() { return author; }
     public String getName() { return name; }
-    public List<Point> getPoints() { return Collections.unmodifiableList(points); }
+    public List<Point> getPoints() { return Collections.unmodifiableList(points.asList()); }
+
+    /** Backing storage, for code that streams coordinates instead of reading {@link Point}s. */
+    public PointStorage pointStorage() { return points; }
+
+    public void addPoint(Point p) { addPoint(p.x(), p.y()); }
 
-    public void addPoint(Point p) { points.add(p); }
+    public synchronized void addPoint(int x, int y) {
+        points.append(x, y);
+        if (geometry != null) geometry.accept(x, y);
+    }
+
+    /**
+     * Points in {@code [from, from + limit)}, clipped to the blueprint. Copied under the
+     * lock {@link #addPoint} takes, so a concurrent append cannot break the read.
+     */
+    public synchronized PointPage pointPage(int from, int limit) {
+        int total = points.size();
+        int start = Math.min(from, total);
+        int end = (int) Math.min((long) start + limit, total);
+        return PointPage.of(points.copyRange(start, end), start, total);
+    }
+
+    /** Perimeter, area, centroid and bounds; O(1) once the running sums exist. */
+    public synchronized BlueprintMetrics metrics() {
+        return geometry().snapshot();
+    }
+
+    /** Running sums, for backends that store them next to the blueprint. */
+    public synchronized GeometryAccumulator.State geometryState() {
+        return geometry().state();
+    }
+
+    private GeometryAccumulator geometry() {
+        if (geometry == null) geometry = GeometryAccumulator.of(points);
+        return geometry;
+    }
 
     @Override
     public boolean equals(Object o) {
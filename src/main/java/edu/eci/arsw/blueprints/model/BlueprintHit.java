@@ -0,0 +1,19 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Comparator;
+
+@Schema(description = "A blueprint whose outline, closed from the last point back to the first, contains a location")
+public record BlueprintHit(
+    @Schema(description = "Blueprint author", example = "john") String author,
+    @Schema(description = "Blueprint name", example = "house") String name,
+    @Schema(description = "Area enclosed by the outline", example = "100.0") double area
+) {
+
+    /** Smallest area first, so the innermost of nested blueprints leads; then by author and name. */
+    public static final Comparator<BlueprintHit> INNERMOST_FIRST = Comparator
+            .comparingDouble(BlueprintHit::area)
+            .thenComparing(BlueprintHit::author)
+            .thenComparing(BlueprintHit::name);
+}
@@ -0,0 +1,13 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(description = "Identifies a blueprint by author and name")
+public record BlueprintKey(
+    @NotBlank @Schema(description = "Blueprint author", example = "john") String author,
+    @NotBlank @Schema(description = "Blueprint name", example = "house") String name
+) {
+
+    public static BlueprintKey of(Blueprint bp) { return new BlueprintKey(bp.getAuthor(), bp.getName()); }
+}
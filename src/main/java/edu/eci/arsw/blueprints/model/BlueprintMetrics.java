@@ -0,0 +1,29 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Geometry of a blueprint's points, read as a polygon closed from the last point back to the first")
+public record BlueprintMetrics(
+    @Schema(description = "Number of points", example = "4") int points,
+    @Schema(description = "Length of the closed outline", example = "40.0") double perimeter,
+    @Schema(description = "Length of the open path through the points in order", example = "30.0") double pathLength,
+    @Schema(description = "Shoelace area; positive when the points run counter-clockwise", example = "100.0") double signedArea,
+    @Schema(description = "Polygon centroid, or the mean of the points when the area is zero") Centroid centroid,
+    @Schema(description = "Axis-aligned bounds of the points") BoundingBox boundingBox
+) {
+
+    /** Metrics of a blueprint without points. */
+    public static final BlueprintMetrics EMPTY = new BlueprintMetrics(0, 0, 0, 0, null, null);
+
+    public record Centroid(
+        @Schema(example = "5.0") double x,
+        @Schema(example = "5.0") double y
+    ) { }
+
+    public record BoundingBox(
+        @Schema(example = "0") int minX,
+        @Schema(example = "0") int minY,
+        @Schema(example = "10") int maxX,
+        @Schema(example = "10") int maxY
+    ) { }
+}
@@ -0,0 +1,19 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "One write in the global change feed")
+public record ChangeEvent(
+    @Schema(description = "Position in the feed; strictly increasing across all blueprints", example = "42") long seq,
+    @Schema(description = "What happened to the blueprint", example = "POINT_ADDED") Type type,
+    @Schema(description = "Blueprint author", example = "john") String author,
+    @Schema(description = "Blueprint name", example = "house") String name,
+    @Schema(description = "Point count right after the change; fetch the new points with sinceVersion", example = "5") int version,
+    @Schema(description = "When the change was recorded") Instant at
+) {
+
+    /** RESYNC marks a bulk change (a COPY restore); the feed turns it into a resync page. */
+    public enum Type { CREATED, POINT_ADDED, RESYNC }
+}
@@ -0,0 +1,38 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A page of the global change feed. Consumers keep {@link #next()} and ask from it;
+ * when {@link #resync()} is set the events they missed are no longer retained.
+ */
+@Schema(description = "Changes recorded after a sequence number the consumer already holds")
+public record ChangeFeed(
+    @Schema(description = "Sequence number the consumer asked from", example = "40") long since,
+    @Schema(description = "Changes after since, in sequence order") List<ChangeEvent> events,
+    @Schema(description = "Sequence number to ask from next", example = "42") long next,
+    @Schema(description = "Latest sequence number handed out", example = "42") long latestSeq,
+    @Schema(description = "True when changes after since were already discarded, since is unknown, or "
+            + "a restore replaced the data; "
+            + "rebuild from GET /api/v1/blueprints and continue from next") boolean resync
+) {
+
+    /** A page of {@code events}, cut short at a RESYNC event, which makes it a resync page from there. */
+    public static ChangeFeed of(long since, List<ChangeEvent> events, long latestSeq) {
+        for (int i = 0; i < events.size(); i++) {
+            ChangeEvent e = events.get(i);
+            if (e.type() == ChangeEvent.Type.RESYNC) {
+                return new ChangeFeed(since, List.copyOf(events.subList(0, i)), e.seq(), latestSeq, true);
+            }
+        }
+        long next = events.isEmpty() ? since : events.get(events.size() - 1).seq();
+        return new ChangeFeed(since, events, next, latestSeq, false);
+    }
+
+    /** Restarting from {@code latestSeq} after a full rebuild may repeat, but never skip, a change. */
+    public static ChangeFeed resync(long since, long latestSeq) {
+        return new ChangeFeed(since, List.of(), latestSeq, latestSeq, true);
+    }
+}
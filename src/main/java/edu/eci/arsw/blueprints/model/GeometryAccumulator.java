@@ -0,0 +1,92 @@
+package edu.eci.arsw.blueprints.model;
+
+/**
+ * Running sums from which {@link BlueprintMetrics} are derived in O(1).
+ * <p>
+ * Points are treated as an open path; the closing edge (last point back to the
+ * first) is only added when a snapshot is taken, so appending a point touches a
+ * constant number of fields. Area and centroid use the shoelace formula.
+ * Not thread-safe: {@link Blueprint} guards it together with its points.
+ */
+public final class GeometryAccumulator {
+
+    /** Everything needed to resume accumulation without rereading the points. */
+    public record State(int points, int firstX, int firstY, int lastX, int lastY,
+                        int minX, int minY, int maxX, int maxY,
+                        long sumX, long sumY,
+                        double pathLength, double twiceArea, double centroidX6, double centroidY6) { }
+
+    private int points;
+    private int firstX, firstY, lastX, lastY;
+    private int minX, minY, maxX, maxY;
+    private long sumX, sumY;
+    private double pathLength;
+    // Σ cross(p_i, p_i+1) and Σ (x_i + x_i+1)·cross, Σ (y_i + y_i+1)·cross over the open path
+    private double twiceArea, centroidX6, centroidY6;
+
+    public GeometryAccumulator() { }
+
+    public GeometryAccumulator(State s) {
+        points = s.points();
+        firstX = s.firstX(); firstY = s.firstY(); lastX = s.lastX(); lastY = s.lastY();
+        minX = s.minX(); minY = s.minY(); maxX = s.maxX(); maxY = s.maxY();
+        sumX = s.sumX(); sumY = s.sumY();
+        pathLength = s.pathLength();
+        twiceArea = s.twiceArea(); centroidX6 = s.centroidX6(); centroidY6 = s.centroidY6();
+    }
+
+    /** Full scan; only used when points are loaded without stored sums. */
+    public static GeometryAccumulator of(PointStorage storage) {
+        GeometryAccumulator acc = new GeometryAccumulator();
+        storage.forEach(acc::accept);
+        return acc;
+    }
+
+    public void accept(int x, int y) {
+        if (points == 0) {
+            firstX = minX = maxX = x;
+            firstY = minY = maxY = y;
+        } else {
+            pathLength += Math.hypot((double) x - lastX, (double) y - lastY);
+            double cross = cross(lastX, lastY, x, y);
+            twiceArea += cross;
+            centroidX6 += ((double) lastX + x) * cross;
+            centroidY6 += ((double) lastY + y) * cross;
+            if (x < minX) minX = x; else if (x > maxX) maxX = x;
+            if (y < minY) minY = y; else if (y > maxY) maxY = y;
+        }
+        lastX = x;
+        lastY = y;
+        sumX += x;
+        sumY += y;
+        points++;
+    }
+
+    public State state() {
+        return new State(points, firstX, firstY, lastX, lastY, minX, minY, maxX, maxY,
+                sumX, sumY, pathLength, twiceArea, centroidX6, centroidY6);
+    }
+
+    public BlueprintMetrics snapshot() {
+        if (points == 0) return BlueprintMetrics.EMPTY;
+        double closing = cross(lastX, lastY, firstX, firstY);
+        double area2 = twiceArea + closing;
+        double perimeter = pathLength + Math.hypot((double) firstX - lastX, (double) firstY - lastY);
+        double cx, cy;
+        if (area2 != 0) {
+            cx = (centroidX6 + ((double) lastX + firstX) * closing) / (3 * area2);
+            cy = (centroidY6 + ((double) lastY + firstY) * closing) / (3 * area2);
+        } else {
+            // Degenerate polygon (fewer than 3 points or collinear): fall back to the vertex mean
+            cx = (double) sumX / points;
+            cy = (double) sumY / points;
+        }
+        return new BlueprintMetrics(points, perimeter, pathLength, area2 / 2,
+                new BlueprintMetrics.Centroid(cx, cy),
+                new BlueprintMetrics.BoundingBox(minX, minY, maxX, maxY));
+    }
+
+    private static double cross(int x0, int y0, int x1, int y1) {
+        return (double) x0 * y1 - (double) x1 * y0;
+    }
+}
@@ -0,0 +1,22 @@
+package edu.eci.arsw.blueprints.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/** The original layout: one {@link Point} object per point in an {@link ArrayList}. */
+public final class HeapPointStorage implements PointStorage {
+
+    private final List<Point> points;
+
+    public HeapPointStorage() { this.points = new ArrayList<>(); }
+
+    public HeapPointStorage(Collection<Point> initial) { this.points = new ArrayList<>(initial); }
+
+    @Override public int size() { return points.size(); }
+    @Override public Point get(int index) { return points.get(index); }
+    @Override public void append(int x, int y) { points.add(new Point(x, y)); }
+    @Override public void append(Point p) { points.add(p); }
+    @Override public List<Point> asList() { return points; }
+    @Override public List<Point> copyRange(int from, int to) { return new ArrayList<>(points.subList(from, to)); }
+}
@@ -0,0 +1,30 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Points appended since a version a client already holds. Points are append-only,
+ * so a blueprint's version is simply its point count. The count does not tell one
+ * blueprint from a restored replacement, so {@link #fullReload()} only catches a
+ * replacement with fewer points; the change feed's resync covers the rest.
+ */
+@Schema(description = "Points appended after a known version of a blueprint")
+public record PointDelta(
+    @Schema(description = "Version the client asked from", example = "4") int sinceVersion,
+    @Schema(description = "Version the client holds after applying these points; ask from here next", example = "6") int version,
+    @Schema(description = "Current version of the blueprint", example = "6") int latestVersion,
+    @Schema(description = "Points appended after sinceVersion, in drawing order") List<Point> points,
+    @Schema(description = "True when sinceVersion is not part of this blueprint's history; "
+            + "discard local points and reload the whole blueprint") boolean fullReload
+) {
+
+    public static PointDelta of(int sinceVersion, List<Point> points, int latestVersion) {
+        return new PointDelta(sinceVersion, sinceVersion + points.size(), latestVersion, points, false);
+    }
+
+    public static PointDelta reload(int sinceVersion, int latestVersion) {
+        return new PointDelta(sinceVersion, latestVersion, latestVersion, List.of(), true);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "A slice of a blueprint's points, addressed by position")
+public record PointPage(
+    @Schema(description = "Points in the slice, in drawing order") List<Point> points,
+    @Schema(description = "Position of the first point in the slice", example = "0") int from,
+    @Schema(description = "Total number of points in the blueprint", example = "4") int total,
+    @Schema(description = "Position to request next, or null when the slice reaches the end", example = "2") Integer nextOffset
+) {
+
+    public static PointPage of(List<Point> points, int from, int total) {
+        int end = from + points.size();
+        return new PointPage(points, from, total, end < total ? end : null);
+    }
+}
@@ -0,0 +1,59 @@
+package edu.eci.arsw.blueprints.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Append-only sequence of points backing a {@link Blueprint}. Implementations
+ * decide where coordinates live (heap objects, off-heap slabs, ...); callers that
+ * only need coordinates should prefer {@link #forEach(PointVisitor)}, which does
+ * not allocate a {@link Point} per element.
+ */
+public interface PointStorage {
+
+    @FunctionalInterface
+    interface PointVisitor {
+        void visit(int x, int y);
+    }
+
+    int size();
+
+    Point get(int index);
+
+    void append(int x, int y);
+
+    default void append(Point p) { append(p.x(), p.y()); }
+
+    default void forEach(PointVisitor visitor) {
+        for (int i = 0, n = size(); i < n; i++) {
+            Point p = get(i);
+            visitor.visit(p.x(), p.y());
+        }
+    }
+
+    /** Read-only list view; elements are materialized on access. */
+    default List<Point> asList() {
+        class View extends AbstractList<Point> implements RandomAccess {
+            @Override public Point get(int index) { return PointStorage.this.get(index); }
+            @Override public int size() { return PointStorage.this.size(); }
+        }
+        return new View();
+    }
+
+    /**
+     * Copy of the points in {@code [from, to)}. Unlike a sub-list of {@link #asList()} it
+     * stays valid after later appends; callers hold off appends while it is taken.
+     */
+    default List<Point> copyRange(int from, int to) {
+        Objects.checkFromToIndex(from, to, size());
+        List<Point> copy = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) copy.add(get(i));
+        return copy;
+    }
+
+    /** Returns any memory held outside the heap; the storage must not be used afterwards. */
+    default void release() { }
+}
@@ -0,0 +1,38 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+@Schema(description = "An author or blueprint name matching a search")
+public record SearchHit(
+    @Schema(description = "Matching author, or the author of the matching blueprint", example = "john") String author,
+    @Schema(description = "Matching blueprint name; null when the author itself matched", example = "house") String name,
+    @Schema(description = "How the query matched: EXACT, PREFIX or SUBSTRING", example = "PREFIX") Match match
+) {
+
+    public enum Match { EXACT, PREFIX, SUBSTRING }
+
+    /** Shorter queries only match by prefix, even when substring matching is asked for. */
+    public static final int MIN_SUBSTRING_QUERY = 3;
+
+    /** Exact before prefix before substring, then by matched text, authors before blueprint names. */
+    public static final Comparator<SearchHit> RANKING = Comparator
+            .comparing(SearchHit::match)
+            .thenComparing(h -> normalize(h.name() == null ? h.author() : h.name()))
+            .thenComparing(h -> h.name() != null)
+            .thenComparing(SearchHit::author)
+            .thenComparing(h -> h.name() == null ? "" : h.name());
+
+    /** Case folding shared by every backend so they rank the same way. */
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    public static SearchHit of(String author, String name, String query) {
+        String text = normalize(name == null ? author : name);
+        Match match = text.equals(query) ? Match.EXACT : text.startsWith(query) ? Match.PREFIX : Match.SUBSTRING;
+        return new SearchHit(author, name, match);
+    }
+}
@@ -0,0 +1,11 @@
+package edu.eci.arsw.blueprints.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A blueprint whose outline resembles the one asked about")
+public record SimilarBlueprint(
+    @Schema(description = "Blueprint author", example = "jane") String author,
+    @Schema(description = "Blueprint name", example = "garden") String name,
+    @Schema(description = "Discrete Fréchet distance between the outlines once both are centred, scaled to unit "
+            + "RMS radius and best aligned; 0 for the same shape", example = "0.12") double distance
+) { }
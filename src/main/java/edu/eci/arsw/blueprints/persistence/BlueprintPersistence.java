@@ -1,17 +1,178 @@
 package edu.eci.arsw.blueprints.persistence;
 
+import edu.eci.arsw.blueprints.model.AuthorStats;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.persistence.spatial.PointInPolygon;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 public interface BlueprintPersistence {
 
     void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException;
 
+    /**
+     * Stores every blueprint of the batch that does not exist yet and skips the rest.
+     *
+     * @return how many blueprints were actually created
+     */
+    default int saveBlueprints(List<Blueprint> batch) {
+        int created = 0;
+        for (Blueprint bp : batch) {
+            try {
+                saveBlueprint(bp);
+                created++;
+            } catch (BlueprintPersistenceException e) {
+                // duplicate: counted by the caller as batch size minus created
+            }
+        }
+        return created;
+    }
+
     Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException;
 
+    /**
+     * {@link #getBlueprint} for the request path: a missing blueprint is an empty result,
+     * not an exception, so probes for unknown blueprints build no stack trace. The
+     * default adapts {@code getBlueprint}; backends override it and adapt the other way.
+     */
+    default Optional<Blueprint> findBlueprint(String author, String name) {
+        try {
+            return Optional.of(getBlueprint(author, name));
+        } catch (BlueprintNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Resolves many blueprints at once. Keys with no stored blueprint are simply absent
+     * from the result; iteration follows the order of {@code keys}.
+     */
+    default Map<BlueprintKey, Blueprint> getBlueprints(Collection<BlueprintKey> keys) {
+        Map<BlueprintKey, Blueprint> found = new LinkedHashMap<>();
+        for (BlueprintKey key : keys) {
+            try {
+                found.put(key, getBlueprint(key.author(), key.name()));
+            } catch (BlueprintNotFoundException e) {
+                // reported by the caller as missing
+            }
+        }
+        return found;
+    }
+
     Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException;
 
+    /** {@link #getBlueprintsByAuthor} without the exception: empty when the author has no blueprints. */
+    default Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+        try {
+            return Optional.of(getBlueprintsByAuthor(author));
+        } catch (BlueprintNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
     Set<Blueprint> getAllBlueprints();
 
+    /**
+     * The key of every blueprint, for callers that walk all of them a page at a time
+     * through {@link #getBlueprints}. The default loads everything; backends override
+     * it to read just the keys.
+     */
+    default List<BlueprintKey> getBlueprintKeys() {
+        return getAllBlueprints().stream().map(BlueprintKey::of).toList();
+    }
+
     void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException;
+
+    /**
+     * Returns up to {@code limit} points starting at position {@code from}, without
+     * reading the rest of the blueprint. A {@code from} past the end yields an empty page.
+     */
+    PointPage getPoints(String author, String name, int from, int limit) throws BlueprintNotFoundException;
+
+    /** Geometry of the stored (unfiltered) points, served from running sums kept on write. */
+    default BlueprintMetrics getMetrics(String author, String name) throws BlueprintNotFoundException {
+        return getBlueprint(author, name).metrics();
+    }
+
+    /**
+     * Authors and blueprint names starting with {@code query} (and, when {@code substring}
+     * is set and the query has at least {@link SearchHit#MIN_SUBSTRING_QUERY} characters,
+     * containing it), case-insensitively, ranked by {@link SearchHit#RANKING}.
+     * The default walks every blueprint; backends override it with an index.
+     */
+    default List<SearchHit> search(String query, boolean substring, int limit) {
+        String q = SearchHit.normalize(query);
+        boolean anywhere = substring && q.length() >= SearchHit.MIN_SUBSTRING_QUERY;
+        Set<String> authors = new TreeSet<>();
+        List<SearchHit> hits = new ArrayList<>();
+        for (Blueprint bp : getAllBlueprints()) {
+            if (authors.add(bp.getAuthor()) && matches(bp.getAuthor(), q, anywhere)) {
+                hits.add(SearchHit.of(bp.getAuthor(), null, q));
+            }
+            if (matches(bp.getName(), q, anywhere)) hits.add(SearchHit.of(bp.getAuthor(), bp.getName(), q));
+        }
+        hits.sort(SearchHit.RANKING);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private static boolean matches(String text, String q, boolean substring) {
+        String t = SearchHit.normalize(text);
+        return substring ? t.contains(q) : t.startsWith(q);
+    }
+
+    /**
+     * Blueprints whose points, read as a polygon closed from the last point back to the
+     * first, contain {@code (x, y)} inside or on the outline, ranked by
+     * {@link BlueprintHit#INNERMOST_FIRST}. The default tests every blueprint; backends
+     * override it with an index.
+     */
+    default List<BlueprintHit> hitTest(int x, int y, int limit) {
+        List<BlueprintHit> hits = new ArrayList<>();
+        for (Blueprint bp : getAllBlueprints()) {
+            if (PointInPolygon.contains(bp.pointStorage(), x, y)) {
+                hits.add(new BlueprintHit(bp.getAuthor(), bp.getName(), Math.abs(bp.metrics().signedArea())));
+            }
+        }
+        hits.sort(BlueprintHit.INNERMOST_FIRST);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Blueprint and point totals per author, sorted by author. Backends keep these as
+     * counters updated on write; the default aggregates everything and knows no times.
+     */
+    default List<AuthorStats> getAuthorStats() {
+        Map<String, long[]> totals = new TreeMap<>();
+        for (Blueprint bp : getAllBlueprints()) {
+            long[] t = totals.computeIfAbsent(bp.getAuthor(), a -> new long[2]);
+            t[0]++;
+            t[1] += bp.getPoints().size();
+        }
+        List<AuthorStats> stats = new ArrayList<>();
+        totals.forEach((author, t) -> stats.add(new AuthorStats(author, t[0], t[1], null)));
+        return stats;
+    }
+
+    /**
+     * Creations and point appends recorded after sequence number {@code since}, in
+     * order, at most {@code limit}; a resync when {@code since} is outside what the
+     * backend still retains.
+     */
+    ChangeFeed getChanges(long since, int limit);
+
+    /** Runs {@code listener} after each write whose change {@link #getChanges} can already return. */
+    default void addChangeListener(Runnable listener) { }
 }
@@ -1,19 +1,77 @@
 package edu.eci.arsw.blueprints.persistence;
 
+import edu.eci.arsw.blueprints.model.AuthorStats;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics.BoundingBox;
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.persistence.changes.ChangeRing;
+import edu.eci.arsw.blueprints.persistence.search.BlueprintSearchIndex;
+import edu.eci.arsw.blueprints.persistence.spatial.HitIndex;
+import edu.eci.arsw.blueprints.persistence.spatial.PointInPolygon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Repository
 public class InMemoryBlueprintPersistence implements BlueprintPersistence {
 
+    /** Per-author totals; LongAdders keep concurrent addPoint calls on one author cheap. */
+    private static final class AuthorCounters {
+        final LongAdder blueprints = new LongAdder();
+        final LongAdder points = new LongAdder();
+        final AtomicLong lastModified = new AtomicLong();
+
+        void add(long newBlueprints, long newPoints) {
+            if (newBlueprints != 0) blueprints.add(newBlueprints);
+            if (newPoints != 0) points.add(newPoints);
+            lastModified.accumulateAndGet(System.currentTimeMillis(), Math::max);
+        }
+    }
+
     private final Map<String, Blueprint> blueprints = new ConcurrentHashMap<>();
+    private final Map<String, AuthorCounters> authors = new ConcurrentHashMap<>();
+    private final PointStorageFactory storage;
+    private final BlueprintSearchIndex searchIndex;
+    private final HitIndex hitIndex;   // null unless enabled: it copies every outline
+    private final ChangeRing changes;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
 
     public InMemoryBlueprintPersistence() {
+        this(PointStorageFactory.HEAP);
+    }
+
+    public InMemoryBlueprintPersistence(PointStorageFactory storage) {
+        this(storage, true, ChangeRing.DEFAULT_CAPACITY);
+    }
+
+    public InMemoryBlueprintPersistence(PointStorageFactory storage, boolean substringIndex, int changeCapacity) {
+        this(storage, substringIndex, false, changeCapacity);
+    }
+
+    @Autowired
+    public InMemoryBlueprintPersistence(PointStorageFactory storage,
+                                        @Value("${blueprints.search.substring-index:true}") boolean substringIndex,
+                                        @Value("${blueprints.search.hit-index:false}") boolean hitIndex,
+                                        @Value("${blueprints.changes.capacity:65536}") int changeCapacity) {
+        this.storage = storage;
+        this.searchIndex = new BlueprintSearchIndex(substringIndex);
+        this.hitIndex = hitIndex ? new HitIndex() : null;
+        this.changes = new ChangeRing(changeCapacity);
         // Sample data 1:1 style (author/name key)
         Blueprint bp1 = new Blueprint("john", "house",
                 List.of(new Point(0,0), new Point(10,0), new Point(10,10), new Point(0,10)));
@@ -21,9 +79,55 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
                 List.of(new Point(5,5), new Point(15,5), new Point(15,15)));
         Blueprint bp3 = new Blueprint("jane", "garden",
                 List.of(new Point(2,2), new Point(3,4), new Point(6,7)));
-        blueprints.put(keyOf(bp1), bp1);
-        blueprints.put(keyOf(bp2), bp2);
-        blueprints.put(keyOf(bp3), bp3);
+        for (Blueprint bp : List.of(bp1, bp2, bp3)) {
+            Blueprint stored = adopt(bp);
+            blueprints.put(keyOf(bp), stored);
+            recordNew(stored);
+        }
+    }
+
+    /** Moves the points of an incoming blueprint into the configured storage. */
+    private Blueprint adopt(Blueprint bp) {
+        if (storage == PointStorageFactory.HEAP) return bp;
+        return new Blueprint(bp.getAuthor(), bp.getName(), storage.copyOf(bp.getPoints()));
+    }
+
+    /** Bookkeeping for a blueprint that was just added to the map; {@code bp} is the stored instance. */
+    private void recordNew(Blueprint bp) {
+        if (hitIndex != null) hitIndex.add(bp);
+        countBlueprint(bp, 1);
+        recordChange(ChangeEvent.Type.CREATED, bp.getAuthor(), bp.getName(), bp.pointStorage().size());
+    }
+
+    private void recordChange(ChangeEvent.Type type, String author, String name, int version) {
+        changes.append(type, author, name, version);
+        changeListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Counts a blueprint in ({@code +1}) or out ({@code -1}) of its author's totals and
+     * search entries. Runs inside {@code authors.compute}, so the author's counters are
+     * created and unlinked atomically with the count that decides it: a save racing the
+     * removal of the author's last blueprint can neither lose its increment to an unlinked
+     * counter nor leave the author without one.
+     */
+    private void countBlueprint(Blueprint bp, int delta) {
+        authors.compute(bp.getAuthor(), (author, c) -> {
+            if (c == null) c = new AuthorCounters();
+            c.add(delta, (long) delta * bp.pointStorage().size());
+            if (delta > 0) {
+                searchIndex.add(author, bp.getName());
+                return c;
+            }
+            boolean last = c.blueprints.sum() == 0;
+            searchIndex.remove(author, bp.getName(), last);
+            return last ? null : c;
+        });
+    }
+
+    /** For point-only updates: an author with a stored blueprint always has counters. */
+    private AuthorCounters countersOf(String author) {
+        return authors.computeIfAbsent(author, a -> new AuthorCounters());
     }
 
     private String keyOf(Blueprint bp) { return bp.getAuthor() + ":" + bp.getName(); }
@@ -33,23 +137,65 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
     public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
         String k = keyOf(bp);
         if (blueprints.containsKey(k)) throw new BlueprintPersistenceException("Blueprint already exists: " + k);
-        blueprints.put(k, bp);
+        Blueprint stored = adopt(bp);
+        // A concurrent save of the same key may have won since the check
+        if (blueprints.putIfAbsent(k, stored) != null) {
+            if (stored != bp) stored.pointStorage().release();
+            throw new BlueprintPersistenceException("Blueprint already exists: " + k);
+        }
+        recordNew(stored);
+    }
+
+    @Override
+    public int saveBlueprints(List<Blueprint> batch) {
+        int created = 0;
+        for (Blueprint bp : batch) {
+            String k = keyOf(bp);
+            if (blueprints.containsKey(k)) continue;
+            Blueprint stored = adopt(bp);
+            if (blueprints.putIfAbsent(k, stored) == null) {
+                recordNew(stored);
+                created++;
+            } else if (stored != bp) stored.pointStorage().release();
+        }
+        return created;
     }
 
     @Override
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        Blueprint bp = blueprints.get(keyOf(author, name));
-        if (bp == null) throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
-        return bp;
+        return findBlueprint(author, name).orElseThrow(
+                () -> new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name)));
+    }
+
+    @Override
+    public Optional<Blueprint> findBlueprint(String author, String name) {
+        return Optional.ofNullable(blueprints.get(keyOf(author, name)));
+    }
+
+    @Override
+    public Map<BlueprintKey, Blueprint> getBlueprints(Collection<BlueprintKey> keys) {
+        Map<BlueprintKey, Blueprint> found = new LinkedHashMap<>();
+        for (BlueprintKey key : keys) {
+            Blueprint bp = blueprints.get(keyOf(key.author(), key.name()));
+            if (bp != null) found.put(key, bp);
+        }
+        return found;
     }
 
     @Override
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return findBlueprintsByAuthor(author).orElseThrow(
+                () -> new BlueprintNotFoundException("No blueprints for author: " + author));
+    }
+
+    @Override
+    public Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+        // The author counters answer "no such author" without a scan
+        if (!authors.containsKey(author)) return Optional.empty();
         Set<Blueprint> set = blueprints.values().stream()
                 .filter(bp -> bp.getAuthor().equals(author))
                 .collect(Collectors.toSet());
-        if (set.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
-        return set;
+        return set.isEmpty() ? Optional.empty() : Optional.of(set);
     }
 
     @Override
@@ -57,9 +203,107 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
         return new HashSet<>(blueprints.values());
     }
 
+    @Override
+    public List<BlueprintKey> getBlueprintKeys() {
+        return blueprints.values().stream().map(BlueprintKey::of).toList();
+    }
+
     @Override
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
         Blueprint bp = getBlueprint(author, name);
-        bp.addPoint(new Point(x, y));
+        // Under the blueprint's lock, so the hit index sees points in storage order and
+        // removeBlueprint cannot take the blueprint away between the check and the append
+        synchronized (bp) {
+            if (blueprints.get(keyOf(author, name)) != bp) {
+                throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+            }
+            bp.addPoint(x, y);
+            if (hitIndex != null) hitIndex.append(author, name, x, y);
+            countersOf(author).add(0, 1);
+        }
+        recordChange(ChangeEvent.Type.POINT_ADDED, author, name, bp.pointStorage().size());
+    }
+
+    @Override
+    public PointPage getPoints(String author, String name, int from, int limit) throws BlueprintNotFoundException {
+        // Copies only the page, never the whole blueprint
+        return getBlueprint(author, name).pointPage(from, limit);
+    }
+
+    @Override
+    public List<SearchHit> search(String query, boolean substring, int limit) {
+        if (substring && !searchIndex.supportsSubstring()) {
+            return BlueprintPersistence.super.search(query, true, limit);
+        }
+        return searchIndex.search(query, substring, limit);
+    }
+
+    /**
+     * Through the hit index when enabled. Otherwise every blueprint's bounds, kept as
+     * running sums, are checked and only outlines around the location are read, through
+     * the blueprint's own storage.
+     */
+    @Override
+    public List<BlueprintHit> hitTest(int x, int y, int limit) {
+        if (hitIndex != null) return hitIndex.hits(x, y, limit);
+        List<BlueprintHit> hits = new ArrayList<>();
+        for (Blueprint bp : blueprints.values()) {
+            BlueprintMetrics metrics = bp.metrics();
+            BoundingBox box = metrics.boundingBox();
+            if (box == null || x < box.minX() || x > box.maxX() || y < box.minY() || y > box.maxY()) continue;
+            if (PointInPolygon.contains(bp.pointStorage(), x, y)) {
+                hits.add(new BlueprintHit(bp.getAuthor(), bp.getName(), Math.abs(metrics.signedArea())));
+            }
+        }
+        hits.sort(BlueprintHit.INNERMOST_FIRST);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    @Override
+    public List<AuthorStats> getAuthorStats() {
+        List<AuthorStats> stats = new ArrayList<>(authors.size());
+        authors.forEach((author, c) -> stats.add(new AuthorStats(author, c.blueprints.sum(), c.points.sum(),
+                Instant.ofEpochMilli(c.lastModified.get()))));
+        stats.sort(Comparator.comparing(AuthorStats::author));
+        return stats;
+    }
+
+    /**
+     * Takes a blueprint out of this store, e.g. to hand it to the cluster node that now
+     * owns its author. Not a user-visible deletion: no change event is recorded, and the
+     * caller owns the returned blueprint's storage. Taken under the blueprint's lock: once
+     * this returns, {@link #addPoint} on it fails as not found instead of writing to a copy
+     * that has already left.
+     *
+     * @return the removed blueprint, or null if there was none
+     */
+    public Blueprint removeBlueprint(String author, String name) {
+        String k = keyOf(author, name);
+        Blueprint bp = blueprints.get(k);
+        if (bp == null) return null;
+        synchronized (bp) {
+            if (!blueprints.remove(k, bp)) return null;
+            countBlueprint(bp, -1);
+            if (hitIndex != null) hitIndex.remove(author, name);
+        }
+        return bp;
+    }
+
+    /** Puts back a blueprint returned by {@link #removeBlueprint}, storage and all. */
+    public boolean reinstate(Blueprint bp) {
+        if (blueprints.putIfAbsent(keyOf(bp), bp) != null) return false;
+        if (hitIndex != null) hitIndex.add(bp);
+        countBlueprint(bp, 1);
+        return true;
+    }
+
+    @Override
+    public ChangeFeed getChanges(long since, int limit) {
+        return changes.read(since, limit);
+    }
+
+    @Override
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
     }
 }
@@ -0,0 +1,17 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+import java.util.List;
+
+/** Chooses where {@link InMemoryBlueprintPersistence} keeps the points of stored blueprints. */
+@FunctionalInterface
+public interface PointStorageFactory {
+
+    /** Keeps the points of incoming blueprints as they are. */
+    PointStorageFactory HEAP = HeapPointStorage::new;
+
+    PointStorage copyOf(List<Point> points);
+}
@@ -0,0 +1,69 @@
+package edu.eci.arsw.blueprints.persistence.changes;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring of the latest change events.
+ * <p>
+ * A writer claims a sequence number with one atomic increment and publishes its
+ * event into slot {@code seq & mask}; nothing else is shared between writers.
+ * Readers walk slots from {@code since + 1} and stop at the first one not yet
+ * published, so a slow writer can delay but never hide an earlier change. A slot
+ * holding a newer sequence number than expected has been overwritten: the reader
+ * fell out of the window and is told to resync.
+ */
+public class ChangeRing {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final AtomicReferenceArray<ChangeEvent> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong(1);
+
+    public ChangeRing() { this(DEFAULT_CAPACITY); }
+
+    /** @param capacity events retained; rounded up to a power of two */
+    public ChangeRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Bad ring capacity: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        this.capacity = size < capacity ? size << 1 : size;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    public int capacity() { return capacity; }
+
+    public ChangeEvent append(ChangeEvent.Type type, String author, String name, int version) {
+        long seq = next.getAndIncrement();
+        ChangeEvent event = new ChangeEvent(seq, type, author, name, version, Instant.now());
+        slots.set(slot(seq), event);
+        return event;
+    }
+
+    /** Latest sequence number handed out; its event may still be in flight. */
+    public long latestSeq() { return next.get() - 1; }
+
+    public ChangeFeed read(long since, int limit) {
+        long latest = latestSeq();
+        // Ahead of the ring: the process restarted and sequence numbers began again
+        if (since > latest || since < latest - capacity) return ChangeFeed.resync(since, latest);
+        List<ChangeEvent> events = new ArrayList<>(Math.min(limit, (int) (latest - since)));
+        for (long seq = since + 1; seq <= latest && events.size() < limit; seq++) {
+            ChangeEvent e = slots.get(slot(seq));
+            if (e == null || e.seq() < seq) break;                              // not published yet
+            if (e.seq() > seq) return ChangeFeed.resync(since, latestSeq());    // lapped while reading
+            events.add(e);
+        }
+        return ChangeFeed.of(since, events, latest);
+    }
+
+    private int slot(long seq) { return (int) (seq & mask); }
+}
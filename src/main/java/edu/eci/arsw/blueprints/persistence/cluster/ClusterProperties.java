@@ -0,0 +1,48 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Static membership of an in-memory cluster.
+ *
+ * @param self          this node's base URL, exactly as it appears in {@code members}
+ * @param members       base URLs of every node, this one included
+ * @param allowedMembers base URLs a member list announced at runtime may name; always includes {@code members}
+ * @param secret        shared by every node and sent with each internal call; required
+ * @param virtualNodes  ring points per member
+ * @param timeout       connect and read timeout for calls to other nodes
+ * @param handoffGrace  how long lookups that miss on an author's new owner also try its previous one
+ */
+@ConfigurationProperties("blueprints.cluster")
+public record ClusterProperties(
+        boolean enabled,
+        String self,
+        List<String> members,
+        List<String> allowedMembers,
+        String secret,
+        int virtualNodes,
+        Duration timeout,
+        Duration handoffGrace) {
+
+    public ClusterProperties {
+        if (members == null) members = List.of();
+        members = members.stream().map(ClusterProperties::normalize).distinct().toList();
+        if (allowedMembers == null) allowedMembers = List.of();
+        allowedMembers = Stream.concat(members.stream(), allowedMembers.stream().map(ClusterProperties::normalize))
+                .distinct().toList();
+        if (self != null) self = normalize(self);
+        if (virtualNodes <= 0) virtualNodes = HashRing.DEFAULT_VIRTUAL_NODES;
+        if (timeout == null) timeout = Duration.ofSeconds(2);
+        if (handoffGrace == null) handoffGrace = Duration.ofSeconds(30);
+    }
+
+    /** Base URLs are compared as strings; a trailing slash must not make two of one node. */
+    static String normalize(String url) {
+        String u = url.strip();
+        return u.endsWith("/") ? u.substring(0, u.length() - 1) : u;
+    }
+}
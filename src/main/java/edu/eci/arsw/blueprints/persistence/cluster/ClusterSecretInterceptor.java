@@ -0,0 +1,45 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Lets through only internal cluster calls that carry the shared secret in
+ * {@value RemoteBlueprintPersistence#SECRET_HEADER}; anything else is answered 401.
+ * Those routes stay outside the client rate limits: the callers are peers.
+ */
+public class ClusterSecretInterceptor implements HandlerInterceptor {
+
+    private final byte[] secret;
+    private final ObjectMapper mapper;
+
+    public ClusterSecretInterceptor(String secret, ObjectMapper mapper) {
+        if (secret == null || secret.isBlank()) throw new IllegalArgumentException("Cluster secret must not be blank");
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String presented = request.getHeader(RemoteBlueprintPersistence.SECRET_HEADER);
+        // Constant time, so the secret cannot be guessed byte by byte from response times
+        if (presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(),
+                new ApiResponse<>(401, "missing or wrong cluster secret", null));
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Another node needed to answer a request could not be reached or failed. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ClusterUnavailableException extends RuntimeException {
+
+    public ClusterUnavailableException(String member, Throwable cause) {
+        super("Cluster node unavailable: " + member, cause);
+    }
+}
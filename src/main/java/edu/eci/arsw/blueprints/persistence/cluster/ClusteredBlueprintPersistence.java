@@ -0,0 +1,488 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import edu.eci.arsw.blueprints.model.AuthorStats;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory backend partitioned across cluster members by author.
+ * <p>
+ * Each author is owned by one member of a {@link HashRing}. Calls for one author go
+ * to its owner, which is either this node's {@link InMemoryBlueprintPersistence} or
+ * another node reached over HTTP. Calls spanning authors (listing, search, author
+ * totals, multi-get) are sent to every member involved at once, on virtual threads,
+ * and merged here. Any member failing such a call fails the whole call rather than
+ * returning a partial answer.
+ * <p>
+ * When the member list changes, blueprints whose author now belongs elsewhere are
+ * handed over: removed here, then pushed to the new owner (and put back if the push
+ * fails, or if the new owner already holds the key with other points). For {@code handoffGrace} after a change, a lookup that misses on the new
+ * owner also tries the previous one, and then the new owner once more, so readers
+ * do not see authors vanish while the handoff runs; one that still misses while a
+ * batch is in flight waits for the batch and looks again. A write that loses the race
+ * with the removal fails here and follows the same path to the new owner. Storage of
+ * handed-off blueprints is released only after {@code handoffGrace}, so readers still
+ * serializing them are not cut off. Member lists may only name configured members.
+ * The change feed stays per node.
+ */
+public class ClusteredBlueprintPersistence implements BlueprintPersistence, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusteredBlueprintPersistence.class);
+
+    static final int HANDOFF_BATCH = 500;
+
+    /** Lookup against one member's store. */
+    @FunctionalInterface
+    interface Lookup<T> {
+        T apply(BlueprintPersistence store) throws BlueprintNotFoundException;
+    }
+
+    /** Ring in force, plus the one it replaced while its grace period lasts. */
+    private record Membership(HashRing ring, HashRing previous, long previousUntilNanos) {
+
+        String formerOwner(String author) {
+            if (previous == null || System.nanoTime() - previousUntilNanos > 0) return null;
+            String former = previous.ownerOf(author);
+            return former.equals(ring.ownerOf(author)) ? null : former;
+        }
+    }
+
+    /** Outcome of the last handoff run. */
+    public record Handoff(List<String> members, int moved, int failed, Instant finishedAt) { }
+
+    private final String self;
+    private final Set<String> allowed;
+    private final InMemoryBlueprintPersistence local;
+    private final Function<String, BlueprintPersistence> connect;
+    private final int virtualNodes;
+    private final Duration handoffGrace;
+    private final Map<String, BlueprintPersistence> stores = new ConcurrentHashMap<>();
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService releases = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cluster-release");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile CountDownLatch batchInFlight;   // set while a handoff batch is out of every store
+    private volatile Membership membership;
+    private volatile Handoff lastHandoff;
+
+    public ClusteredBlueprintPersistence(String self, List<String> members, int virtualNodes, Duration handoffGrace,
+                                         InMemoryBlueprintPersistence local,
+                                         Function<String, BlueprintPersistence> connect) {
+        this(self, members, members, virtualNodes, handoffGrace, local, connect);
+    }
+
+    /**
+     * @param allowed every member a later member list may name; {@code members} must be among them
+     * @param connect opens the store of another member, given its base URL
+     */
+    public ClusteredBlueprintPersistence(String self, List<String> members, Collection<String> allowed,
+                                         int virtualNodes, Duration handoffGrace,
+                                         InMemoryBlueprintPersistence local,
+                                         Function<String, BlueprintPersistence> connect) {
+        if (!members.contains(self)) {
+            throw new IllegalArgumentException("blueprints.cluster.self (" + self + ") is not one of the members " + members);
+        }
+        if (!allowed.containsAll(members)) {
+            throw new IllegalArgumentException("Members " + members + " are not all among the allowed " + allowed);
+        }
+        this.self = self;
+        this.allowed = Set.copyOf(allowed);
+        this.local = local;
+        this.connect = connect;
+        this.virtualNodes = virtualNodes;
+        this.handoffGrace = handoffGrace;
+        this.membership = new Membership(new HashRing(members, virtualNodes), null, 0);
+        stores.put(self, local);
+        // Every node starts with the same sample blueprints; only their owner keeps them
+        HashRing ring = membership.ring();
+        for (Blueprint bp : local.getAllBlueprints()) {
+            if (ring.ownerOf(bp.getAuthor()).equals(self)) continue;
+            Blueprint dropped = local.removeBlueprint(bp.getAuthor(), bp.getName());
+            if (dropped != null) dropped.pointStorage().release();
+        }
+    }
+
+    public String self() { return self; }
+
+    public List<String> members() { return membership.ring().members(); }
+
+    /** Whether {@code members} names only configured members. */
+    public boolean allows(Collection<String> members) { return allowed.containsAll(members); }
+
+    public String ownerOf(String author) { return membership.ring().ownerOf(author); }
+
+    /** Null until membership first changes. */
+    public Handoff lastHandoff() { return lastHandoff; }
+
+    /**
+     * Switches to {@code members} and hands off the blueprints this node no longer owns.
+     *
+     * @return whether the member list actually changed
+     */
+    public boolean adopt(List<String> members) {
+        HashRing next = new HashRing(members, virtualNodes);
+        if (!next.members().contains(self)) {
+            throw new IllegalArgumentException("New member list does not contain this node (" + self + ")");
+        }
+        if (!allows(next.members())) {
+            throw new IllegalArgumentException("New member list " + next.members() + " names unconfigured members");
+        }
+        synchronized (this) {
+            Membership current = membership;
+            if (current.ring().equals(next)) return false;
+            membership = new Membership(next, current.ring(), System.nanoTime() + handoffGrace.toNanos());
+        }
+        handOff();
+        return true;
+    }
+
+    /** Pushes every local blueprint owned by another member to that member. */
+    public synchronized Handoff handOff() {
+        HashRing ring = membership.ring();
+        Map<String, List<Blueprint>> leaving = new TreeMap<>();
+        for (Blueprint bp : local.getAllBlueprints()) {
+            String owner = ring.ownerOf(bp.getAuthor());
+            if (!owner.equals(self)) leaving.computeIfAbsent(owner, o -> new ArrayList<>()).add(bp);
+        }
+        int moved = 0;
+        int failed = 0;
+        for (Map.Entry<String, List<Blueprint>> e : leaving.entrySet()) {
+            List<Blueprint> all = e.getValue();
+            for (int from = 0; from < all.size(); from += HANDOFF_BATCH) {
+                List<Blueprint> batch = new ArrayList<>();
+                CountDownLatch done = new CountDownLatch(1);
+                batchInFlight = done;
+                try {
+                    // Taken out first, under each blueprint's lock, so no write can land here after its copy has left
+                    for (Blueprint bp : all.subList(from, Math.min(from + HANDOFF_BATCH, all.size()))) {
+                        Blueprint removed = local.removeBlueprint(bp.getAuthor(), bp.getName());
+                        if (removed != null) batch.add(removed);
+                    }
+                    try {
+                        BlueprintPersistence owner = store(e.getKey());
+                        List<Blueprint> accepted = owner.saveBlueprints(batch) == batch.size()
+                                ? batch : acceptedBy(owner, batch);
+                        releaseLater(accepted);
+                        moved += accepted.size();
+                        Set<Blueprint> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+                        taken.addAll(accepted);
+                        for (Blueprint bp : batch) {
+                            if (taken.contains(bp)) continue;
+                            log.warn("{} already holds {}/{} with other points; keeping this copy here",
+                                    e.getKey(), bp.getAuthor(), bp.getName());
+                            local.reinstate(bp);
+                            failed++;
+                        }
+                    } catch (RuntimeException ex) {
+                        log.warn("Handoff of {} blueprints to {} failed; keeping them here", batch.size(), e.getKey(), ex);
+                        batch.forEach(local::reinstate);
+                        failed += batch.size();
+                    }
+                } finally {
+                    batchInFlight = null;
+                    done.countDown();
+                }
+            }
+        }
+        Handoff result = new Handoff(ring.members(), moved, failed, Instant.now());
+        lastHandoff = result;
+        return result;
+    }
+
+    // ── single-author calls: routed to the owner ─────────────────────────────
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        ownerStore(bp.getAuthor()).saveBlueprint(bp);
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        return findBlueprint(author, name).orElseThrow(
+                () -> new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name)));
+    }
+
+    @Override
+    public Optional<Blueprint> findBlueprint(String author, String name) {
+        return routedFind(author, s -> s.findBlueprint(author, name));
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return findBlueprintsByAuthor(author).orElseThrow(
+                () -> new BlueprintNotFoundException("No blueprints for author: " + author));
+    }
+
+    @Override
+    public Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+        return routedFind(author, s -> s.findBlueprintsByAuthor(author));
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        routed(author, s -> {
+            s.addPoint(author, name, x, y);
+            return null;
+        });
+    }
+
+    @Override
+    public PointPage getPoints(String author, String name, int from, int limit) throws BlueprintNotFoundException {
+        return routed(author, s -> s.getPoints(author, name, from, limit));
+    }
+
+    @Override
+    public BlueprintMetrics getMetrics(String author, String name) throws BlueprintNotFoundException {
+        return routed(author, s -> s.getMetrics(author, name));
+    }
+
+    // ── multi-author calls: split by owner or sent to every member ───────────
+
+    @Override
+    public int saveBlueprints(List<Blueprint> batch) {
+        Map<String, List<Blueprint>> byOwner = groupByOwner(batch, Blueprint::getAuthor);
+        return scatter(byOwner.keySet(), (m, s) -> s.saveBlueprints(byOwner.get(m))).stream()
+                .mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public Map<BlueprintKey, Blueprint> getBlueprints(Collection<BlueprintKey> keys) {
+        Map<String, List<BlueprintKey>> byOwner = groupByOwner(keys, BlueprintKey::author);
+        Map<BlueprintKey, Blueprint> found = new HashMap<>();
+        scatter(byOwner.keySet(), (m, s) -> s.getBlueprints(byOwner.get(m))).forEach(found::putAll);
+        // Keys that moved recently may still sit on their previous owner
+        Membership current = membership;
+        Map<String, List<BlueprintKey>> retry = new TreeMap<>();
+        for (BlueprintKey key : keys) {
+            String former = found.containsKey(key) ? null : current.formerOwner(key.author());
+            if (former != null) retry.computeIfAbsent(former, f -> new ArrayList<>()).add(key);
+        }
+        if (!retry.isEmpty()) scatter(retry.keySet(), (m, s) -> s.getBlueprints(retry.get(m))).forEach(found::putAll);
+        Map<BlueprintKey, Blueprint> ordered = new LinkedHashMap<>();
+        for (BlueprintKey key : keys) {
+            Blueprint bp = found.get(key);
+            if (bp != null) ordered.put(key, bp);
+        }
+        return ordered;
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        Set<Blueprint> all = new HashSet<>();
+        scatter(members(), (m, s) -> s.getAllBlueprints()).forEach(all::addAll);
+        return all;
+    }
+
+    @Override
+    public List<BlueprintKey> getBlueprintKeys() {
+        List<BlueprintKey> all = new ArrayList<>();
+        scatter(members(), (m, s) -> s.getBlueprintKeys()).forEach(all::addAll);
+        return all;
+    }
+
+    @Override
+    public List<SearchHit> search(String query, boolean substring, int limit) {
+        // Each member returns its own best hits; the global best are among them
+        Set<SearchHit> hits = new LinkedHashSet<>();
+        scatter(members(), (m, s) -> s.search(query, substring, limit)).forEach(hits::addAll);
+        return hits.stream().sorted(SearchHit.RANKING).limit(limit).toList();
+    }
+
+    @Override
+    public List<BlueprintHit> hitTest(int x, int y, int limit) {
+        Set<BlueprintHit> hits = new LinkedHashSet<>();
+        scatter(members(), (m, s) -> s.hitTest(x, y, limit)).forEach(hits::addAll);
+        return hits.stream().sorted(BlueprintHit.INNERMOST_FIRST).limit(limit).toList();
+    }
+
+    @Override
+    public List<AuthorStats> getAuthorStats() {
+        // Authors are disjoint across members except while a handoff is splitting one
+        Map<String, AuthorStats> merged = new TreeMap<>();
+        scatter(members(), (m, s) -> s.getAuthorStats()).forEach(part -> part.forEach(s ->
+                merged.merge(s.author(), s, (a, b) -> new AuthorStats(a.author(), a.blueprints() + b.blueprints(),
+                        a.points() + b.points(), latest(a.lastModified(), b.lastModified())))));
+        return List.copyOf(merged.values());
+    }
+
+    // ── per node ─────────────────────────────────────────────────────────────
+
+    /** This node's feed only: sequence numbers are not comparable across nodes. */
+    @Override
+    public ChangeFeed getChanges(long since, int limit) {
+        return local.getChanges(since, limit);
+    }
+
+    @Override
+    public void addChangeListener(Runnable listener) {
+        local.addChangeListener(listener);
+    }
+
+    /** Releases the storage of handed-off blueprints still waiting out their grace period. */
+    @Override
+    public void close() {
+        fanOut.close();
+        releases.shutdownNow().forEach(Runnable::run);
+    }
+
+    // ── helpers ──────────────────────────────────────────────────────────────
+
+    /** Readers may still hold these blueprints; their storage goes once the grace period is over. */
+    /**
+     * The blueprints of a batch the owner saved only in part that it now holds: those
+     * whose copy there starts with these points (appends since can only extend it). The
+     * rest were skipped because the owner already had the key with other points.
+     */
+    private static List<Blueprint> acceptedBy(BlueprintPersistence owner, List<Blueprint> batch) {
+        Map<BlueprintKey, Blueprint> held = owner.getBlueprints(batch.stream().map(BlueprintKey::of).toList());
+        return batch.stream().filter(bp -> {
+            Blueprint there = held.get(BlueprintKey.of(bp));
+            if (there == null) return false;
+            List<Point> ours = bp.getPoints();
+            List<Point> theirs = there.getPoints();
+            return theirs.size() >= ours.size() && theirs.subList(0, ours.size()).equals(ours);
+        }).toList();
+    }
+
+    private void releaseLater(List<Blueprint> handedOff) {
+        releases.schedule(() -> handedOff.forEach(bp -> bp.pointStorage().release()),
+                handoffGrace.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Waits for the handoff batch in flight, if any; whether there was one. */
+    private boolean awaitBatch() {
+        CountDownLatch batch = batchInFlight;
+        if (batch == null) return false;
+        try {
+            return batch.await(handoffGrace.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private BlueprintPersistence store(String member) {
+        return stores.computeIfAbsent(member, connect);
+    }
+
+    private BlueprintPersistence ownerStore(String author) {
+        return store(ownerOf(author));
+    }
+
+    /**
+     * Owner first; during a handoff grace period, then the previous owner. A blueprint
+     * missed by both may be in transit between them, out of the former owner and not
+     * yet stored by the new one. When this node is the former owner its batch latch
+     * says so: if a batch is in flight, both are asked once more after it lands.
+     * Another node's handoff cannot be observed from here, so the owner is asked once
+     * more straight away; that third call is what a miss costs during the grace period.
+     */
+    private <T> T routed(String author, Lookup<T> call) throws BlueprintNotFoundException {
+        Membership m = membership;
+        BlueprintPersistence owner = store(m.ring().ownerOf(author));
+        try {
+            return call.apply(owner);
+        } catch (BlueprintNotFoundException e) {
+            String former = m.formerOwner(author);
+            if (former == null) throw e;
+            try {
+                return call.apply(store(former));
+            } catch (BlueprintNotFoundException again) {
+                if (!former.equals(self)) return call.apply(owner);
+                if (!awaitBatch()) throw again;
+                try {
+                    return call.apply(owner);
+                } catch (BlueprintNotFoundException notMoved) {
+                    return call.apply(local);   // the push failed and it was put back
+                }
+            }
+        }
+    }
+
+    /** {@link #routed} for lookups reporting a miss as an empty result. */
+    private <T> Optional<T> routedFind(String author, Function<BlueprintPersistence, Optional<T>> call) {
+        Membership m = membership;
+        BlueprintPersistence owner = store(m.ring().ownerOf(author));
+        Optional<T> found = call.apply(owner);
+        String former = found.isPresent() ? null : m.formerOwner(author);
+        if (former == null) return found;
+        found = call.apply(store(former));
+        if (found.isPresent()) return found;
+        if (!former.equals(self)) return call.apply(owner);
+        if (!awaitBatch()) return found;
+        found = call.apply(owner);
+        return found.isPresent() ? found : call.apply(local);
+    }
+
+    private <T> Map<String, List<T>> groupByOwner(Collection<T> items, Function<T, String> author) {
+        HashRing ring = membership.ring();
+        return items.stream().collect(Collectors.groupingBy(i -> ring.ownerOf(author.apply(i)), TreeMap::new,
+                Collectors.toList()));
+    }
+
+    /** Runs {@code call} against every given member at once; this node's part runs on the caller. */
+    private <T> List<T> scatter(Collection<String> members, BiFunction<String, BlueprintPersistence, T> call) {
+        List<CompletableFuture<T>> remote = new ArrayList<>();
+        for (String member : members) {
+            if (member.equals(self)) continue;
+            BlueprintPersistence s = store(member);
+            remote.add(CompletableFuture.supplyAsync(() -> call.apply(member, s), fanOut));
+        }
+        List<T> results = new ArrayList<>(members.size());
+        if (members.contains(self)) results.add(call.apply(self, local));
+        try {
+            for (CompletableFuture<T> f : remote) results.add(f.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw e;
+        }
+        return results;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+}
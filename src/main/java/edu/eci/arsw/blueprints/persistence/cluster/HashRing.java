@@ -0,0 +1,92 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring assigning authors to cluster members.
+ * <p>
+ * Each member is placed on the ring {@code virtualNodes} times; an author belongs
+ * to the first point at or after its own hash. Adding a member therefore moves
+ * only the authors that land on the new member's points, about {@code 1/n} of
+ * them, and spreads the load it takes over every existing member. Points are kept
+ * in two sorted arrays, so a lookup is one hash and a binary search. Immutable.
+ */
+public final class HashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final List<String> members;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public HashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) throw new IllegalArgumentException("A ring needs at least one member");
+        if (virtualNodes < 1) throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+        this.members = List.copyOf(new TreeSet<>(members));
+        this.virtualNodes = virtualNodes;
+        int n = this.members.size() * virtualNodes;
+        long[] hashes = new long[n];
+        String[] by = new String[n];
+        Integer[] order = new Integer[n];
+        for (int m = 0, i = 0; m < this.members.size(); m++) {
+            for (int v = 0; v < virtualNodes; v++, i++) {
+                hashes[i] = hash(this.members.get(m) + '#' + v);
+                by[i] = this.members.get(m);
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[n];
+        this.owners = new String[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = by[order[i]];
+        }
+    }
+
+    /** Members in sorted order. */
+    public List<String> members() { return members; }
+
+    public int virtualNodes() { return virtualNodes; }
+
+    public String ownerOf(String author) {
+        int i = Arrays.binarySearch(points, hash(author));
+        if (i < 0) i = -i - 1;
+        return owners[i == points.length ? 0 : i];
+    }
+
+    /** FNV-1a over the UTF-8 bytes, then MurmurHash3's finalizer to spread nearby keys. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HashRing r && r.virtualNodes == virtualNodes && r.members.equals(members);
+    }
+
+    @Override
+    public int hashCode() {
+        return members.hashCode() * 31 + virtualNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "HashRing" + members + "x" + virtualNodes;
+    }
+}
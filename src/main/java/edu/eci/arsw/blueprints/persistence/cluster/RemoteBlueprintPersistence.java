@@ -0,0 +1,217 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.model.AuthorStats;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The node-local store of another cluster member, reached over its internal API
+ * ({@value #BASE_PATH}). Blueprints travel unfiltered; the node that received the
+ * client request applies the filter once. Missing blueprints and duplicates come
+ * back as the same checked exceptions a local store throws; anything else that
+ * goes wrong is a {@link ClusterUnavailableException}. Every call carries the
+ * cluster's shared secret, which {@link ClusterSecretInterceptor} checks.
+ */
+public class RemoteBlueprintPersistence implements BlueprintPersistence {
+
+    public static final String BASE_PATH = "/internal/v1/cluster";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private static final ParameterizedTypeReference<ApiResponse<Blueprint>> BLUEPRINT = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<List<Blueprint>>> BLUEPRINTS = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<Integer>> COUNT = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<Void>> NOTHING = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<PointPage>> PAGE = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<BlueprintMetrics>> METRICS = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<List<SearchHit>>> HITS = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<List<BlueprintHit>>> CONTAINING = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<List<AuthorStats>>> STATS = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<List<String>>> MEMBERS = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<List<BlueprintKey>>> KEYS = new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<ApiResponse<ChangeFeed>> CHANGES = new ParameterizedTypeReference<>() { };
+
+    // The find* calls read a 404 like any other response: its envelope carries no data
+    private static final Predicate<HttpStatusCode> NOT_FOUND = status -> status.value() == 404;
+    private static final RestClient.ResponseSpec.ErrorHandler EMPTY = (request, response) -> { };
+
+    private final String member;
+    private final RestClient http;
+
+    public RemoteBlueprintPersistence(String member, RestClient.Builder builder, Duration timeout, String secret) {
+        this.member = member;
+        // Keep-alive connections come from the JDK client's pool, one client per member
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        JdkClientHttpRequestFactory requests = new JdkClientHttpRequestFactory(client);
+        requests.setReadTimeout(timeout);
+        this.http = builder.clone().baseUrl(member + BASE_PATH).requestFactory(requests)
+                .defaultHeader(SECRET_HEADER, secret)
+                .build();
+    }
+
+    public String member() { return member; }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        try {
+            call(() -> http.post().uri("/blueprints").body(bp).retrieve().body(NOTHING));
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new BlueprintPersistenceException("Blueprint already exists: %s:%s".formatted(bp.getAuthor(), bp.getName()));
+        }
+    }
+
+    @Override
+    public int saveBlueprints(List<Blueprint> batch) {
+        Integer created = call(() -> http.post().uri("/blueprints/_batch").body(batch).retrieve().body(COUNT));
+        return created == null ? 0 : created;
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        try {
+            return call(() -> http.get().uri("/blueprints/{author}/{name}", author, name).retrieve().body(BLUEPRINT));
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+        }
+    }
+
+    @Override
+    public Optional<Blueprint> findBlueprint(String author, String name) {
+        return Optional.ofNullable(call(() -> http.get().uri("/blueprints/{author}/{name}", author, name)
+                .retrieve().onStatus(NOT_FOUND, EMPTY).body(BLUEPRINT)));
+    }
+
+    @Override
+    public Map<BlueprintKey, Blueprint> getBlueprints(Collection<BlueprintKey> keys) {
+        List<Blueprint> found = call(() -> http.post().uri("/blueprints/_mget").body(keys).retrieve().body(BLUEPRINTS));
+        Map<BlueprintKey, Blueprint> byKey = new LinkedHashMap<>();
+        if (found != null) found.forEach(bp -> byKey.put(BlueprintKey.of(bp), bp));
+        return byKey;
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        try {
+            return new HashSet<>(call(() -> http.get().uri("/blueprints/{author}", author).retrieve().body(BLUEPRINTS)));
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        }
+    }
+
+    @Override
+    public Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+        List<Blueprint> found = call(() -> http.get().uri("/blueprints/{author}", author)
+                .retrieve().onStatus(NOT_FOUND, EMPTY).body(BLUEPRINTS));
+        return found == null ? Optional.empty() : Optional.of(new HashSet<>(found));
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return new HashSet<>(call(() -> http.get().uri("/blueprints").retrieve().body(BLUEPRINTS)));
+    }
+
+    @Override
+    public List<BlueprintKey> getBlueprintKeys() {
+        return call(() -> http.get().uri("/keys").retrieve().body(KEYS));
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        try {
+            call(() -> http.put().uri("/blueprints/{author}/{name}/points", author, name)
+                    .body(new Point(x, y)).retrieve().body(NOTHING));
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+        }
+    }
+
+    @Override
+    public PointPage getPoints(String author, String name, int from, int limit) throws BlueprintNotFoundException {
+        try {
+            return call(() -> http.get()
+                    .uri("/blueprints/{author}/{name}/points?from={from}&limit={limit}", author, name, from, limit)
+                    .retrieve().body(PAGE));
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+        }
+    }
+
+    @Override
+    public BlueprintMetrics getMetrics(String author, String name) throws BlueprintNotFoundException {
+        try {
+            return call(() -> http.get().uri("/blueprints/{author}/{name}/metrics", author, name)
+                    .retrieve().body(METRICS));
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String query, boolean substring, int limit) {
+        return call(() -> http.get().uri("/search?q={q}&substring={substring}&limit={limit}", query, substring, limit)
+                .retrieve().body(HITS));
+    }
+
+    @Override
+    public List<BlueprintHit> hitTest(int x, int y, int limit) {
+        return call(() -> http.get().uri("/hit?x={x}&y={y}&limit={limit}", x, y, limit).retrieve().body(CONTAINING));
+    }
+
+    @Override
+    public List<AuthorStats> getAuthorStats() {
+        return call(() -> http.get().uri("/authors").retrieve().body(STATS));
+    }
+
+    /** The member's own feed, which covers only the blueprints it stores. */
+    @Override
+    public ChangeFeed getChanges(long since, int limit) {
+        return call(() -> http.get().uri("/changes?since={since}&limit={limit}", since, limit)
+                .retrieve().body(CHANGES));
+    }
+
+    /** Tells the member about a new member list; it rebalances in the background. */
+    public void announce(List<String> members) {
+        call(() -> http.put().uri("/members").body(members).retrieve().body(MEMBERS));
+    }
+
+    private <T> T call(Supplier<ApiResponse<T>> request) {
+        try {
+            ApiResponse<T> response = request.get();
+            return response == null ? null : response.data();
+        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.Conflict e) {
+            throw e;
+        } catch (RestClientException e) {
+            throw new ClusterUnavailableException(member, e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package edu.eci.arsw.blueprints.persistence.compact;
+
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Point storage that {@link PointCompactor} re-encodes as {@link DeltaVarintPoints}
+ * once it has gone unwritten for a while.
+ * <p>
+ * Hot points are a {@link HeapPointStorage}. Compacted points are read in place,
+ * decoded as they are streamed; only an append turns them back into a heap list.
+ * Reads take no lock: they work on whichever form was current when they started,
+ * and a compacted form never changes. Appends and transitions synchronize on the
+ * storage.
+ */
+public final class CompactingPointStorage implements PointStorage {
+
+    enum CompactResult { COMPACTED, KEEP, GONE }
+
+    private final PointCompactor compactor;
+    private volatile Object points;          // HeapPointStorage while hot, DeltaVarintPoints once compacted
+    private volatile long lastWrite;         // compactor clock
+    private boolean released;
+
+    public CompactingPointStorage(PointCompactor compactor, List<Point> points) {
+        this.compactor = compactor;
+        this.points = new HeapPointStorage(points);
+        this.lastWrite = compactor.now();
+        compactor.admitted(this);
+    }
+
+    /** Whether the points are held encoded right now; for metrics and tests. */
+    public boolean isCompacted() { return points instanceof DeltaVarintPoints; }
+
+    @Override
+    public int size() {
+        return switch (points) {
+            case DeltaVarintPoints cold -> cold.size();
+            case HeapPointStorage hot -> hot.size();
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    @Override
+    public Point get(int index) {
+        return switch (points) {
+            case DeltaVarintPoints cold -> cold.get(index);
+            case HeapPointStorage hot -> hot.get(index);
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    @Override
+    public synchronized void append(int x, int y) {
+        if (released) throw new IllegalStateException("Point storage already released");
+        if (points instanceof DeltaVarintPoints cold) {
+            HeapPointStorage hot = new HeapPointStorage();
+            cold.forEach(hot::append);
+            points = hot;
+            compactor.promoted(this, cold);
+        }
+        ((HeapPointStorage) points).append(x, y);
+        lastWrite = compactor.now();
+    }
+
+    @Override
+    public void forEach(PointVisitor visitor) {
+        switch (points) {
+            case DeltaVarintPoints cold -> cold.forEach(visitor);
+            case HeapPointStorage hot -> hot.forEach(visitor);
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Live view. Iterators work on the form current when they are created; over
+     * compacted points they decode sequentially, so walking the points costs one pass.
+     */
+    @Override
+    public List<Point> asList() {
+        // Not RandomAccess: bulk readers should take the iterator rather than call get(i)
+        class View extends AbstractList<Point> {
+            @Override public Point get(int index) { return CompactingPointStorage.this.get(index); }
+            @Override public int size() { return CompactingPointStorage.this.size(); }
+
+            @Override public Iterator<Point> iterator() { return listIterator(0); }
+
+            /** Over compacted points, a copy decoded in one pass: serializers index into lists. */
+            @Override
+            public List<Point> subList(int from, int to) {
+                if (!(points instanceof DeltaVarintPoints cold)) return super.subList(from, to);
+                return decode(cold, from, to);
+            }
+
+            @Override
+            public ListIterator<Point> listIterator(int index) {
+                return switch (points) {
+                    case DeltaVarintPoints cold -> new Decoding(cold, index);
+                    case HeapPointStorage hot -> hot.asList().listIterator(index);
+                    default -> throw new IllegalStateException();
+                };
+            }
+        }
+        return new View();
+    }
+
+    @Override
+    public List<Point> copyRange(int from, int to) {
+        return switch (points) {
+            case DeltaVarintPoints cold -> decode(cold, from, to);
+            case HeapPointStorage hot -> hot.copyRange(from, to);
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    private static List<Point> decode(DeltaVarintPoints cold, int from, int to) {
+        if (from < 0 || to > cold.size() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + cold.size());
+        }
+        List<Point> slice = new ArrayList<>(to - from);
+        cold.forEach(from, to, (x, y) -> slice.add(new Point(x, y)));
+        return slice;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (released) return;
+        released = true;
+        if (points instanceof DeltaVarintPoints cold) compactor.released(cold);
+    }
+
+    /** Called by the compactor; encodes the points if they have been idle for long enough. */
+    synchronized CompactResult tryCompact(long now, long idleNanos) {
+        if (released || !(points instanceof HeapPointStorage hot)) return CompactResult.GONE;
+        if (now - lastWrite < idleNanos) return CompactResult.KEEP;
+        DeltaVarintPoints cold = DeltaVarintPoints.encode(hot);
+        points = cold;
+        compactor.compacted(cold);
+        return CompactResult.COMPACTED;
+    }
+
+    /** Forward decoding over a compacted snapshot; stepping back re-seeks from a checkpoint. */
+    private static final class Decoding implements ListIterator<Point> {
+        private final DeltaVarintPoints points;
+        private DeltaVarintPoints.Cursor cursor;
+        private int next;
+
+        Decoding(DeltaVarintPoints points, int index) {
+            if (index < 0 || index > points.size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + points.size());
+            }
+            this.points = points;
+            this.cursor = points.cursor(index);
+            this.next = index;
+        }
+
+        @Override public boolean hasNext() { return next < points.size(); }
+        @Override public boolean hasPrevious() { return next > 0; }
+        @Override public int nextIndex() { return next; }
+        @Override public int previousIndex() { return next - 1; }
+
+        @Override
+        public Point next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            cursor.next();
+            next++;
+            return new Point(cursor.x, cursor.y);
+        }
+
+        @Override
+        public Point previous() {
+            if (!hasPrevious()) throw new NoSuchElementException();
+            next--;
+            cursor = points.cursor(next);
+            return points.get(next);
+        }
+
+        @Override public void remove() { throw new UnsupportedOperationException(); }
+        @Override public void set(Point p) { throw new UnsupportedOperationException(); }
+        @Override public void add(Point p) { throw new UnsupportedOperationException(); }
+    }
+}
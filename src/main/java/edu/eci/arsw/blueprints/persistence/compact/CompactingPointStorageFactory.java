@@ -0,0 +1,23 @@
+package edu.eci.arsw.blueprints.persistence.compact;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+
+import java.util.List;
+
+public class CompactingPointStorageFactory implements PointStorageFactory {
+
+    private final PointCompactor compactor;
+
+    public CompactingPointStorageFactory(PointCompactor compactor) {
+        this.compactor = compactor;
+    }
+
+    public PointCompactor compactor() { return compactor; }
+
+    @Override
+    public PointStorage copyOf(List<Point> points) {
+        return new CompactingPointStorage(compactor, points);
+    }
+}
@@ -0,0 +1,148 @@
+package edu.eci.arsw.blueprints.persistence.compact;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import edu.eci.arsw.blueprints.model.PointStorage.PointVisitor;
+
+import java.util.Arrays;
+
+/**
+ * Immutable points encoded as deltas from the previous point (the first from the
+ * origin), each coordinate zigzag-mapped and written as an unsigned LEB128 varint.
+ * Pen strokes move a few units per point, so most points take two bytes instead of
+ * the eight of packed ints. Deltas wrap like int arithmetic, so any coordinates
+ * round-trip exactly, at worst in five bytes each.
+ * <p>
+ * Reading is sequential: {@link #forEach} streams the points without materializing
+ * them. Every {@value #CHECKPOINT_EVERY} points a checkpoint keeps the byte offset and
+ * the previous point, so {@link #get} and ranged reads start decoding at most that
+ * many points before where they are asked to.
+ */
+public final class DeltaVarintPoints {
+
+    static final int CHECKPOINT_EVERY = 128;
+
+    private final byte[] data;
+    private final int size;
+    // Per checkpoint k: byte offset of point k * CHECKPOINT_EVERY, then the point before it
+    private final int[] checkpoints;
+
+    private DeltaVarintPoints(byte[] data, int size, int[] checkpoints) {
+        this.data = data;
+        this.size = size;
+        this.checkpoints = checkpoints;
+    }
+
+    public static DeltaVarintPoints encode(PointStorage points) {
+        int n = points.size();
+        Encoder encoder = new Encoder(n);
+        points.forEach(encoder);
+        if (encoder.count != n) throw new IllegalStateException("Points changed while encoding");
+        if (n % CHECKPOINT_EVERY == 0) encoder.checkpoint();
+        return new DeltaVarintPoints(Arrays.copyOf(encoder.data, encoder.length), n, encoder.checkpoints);
+    }
+
+    public int size() { return size; }
+
+    /** Bytes held, checkpoints included. */
+    public long encodedBytes() { return data.length + 4L * checkpoints.length; }
+
+    public Point get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        Point[] found = new Point[1];
+        forEach(index, index + 1, (x, y) -> found[0] = new Point(x, y));
+        return found[0];
+    }
+
+    public void forEach(PointVisitor visitor) {
+        forEach(0, size, visitor);
+    }
+
+    /** Visits the points with index in {@code [from, to)}. */
+    public void forEach(int from, int to, PointVisitor visitor) {
+        Cursor cursor = cursor(from);
+        for (int i = from; i < to; i++) {
+            cursor.next();
+            visitor.visit(cursor.x, cursor.y);
+        }
+    }
+
+    /** Positioned so that the first {@link Cursor#next} decodes point {@code index}. */
+    Cursor cursor(int index) {
+        int k = index / CHECKPOINT_EVERY;
+        Cursor cursor = new Cursor(checkpoints[3 * k], checkpoints[3 * k + 1], checkpoints[3 * k + 2]);
+        for (int skip = index - k * CHECKPOINT_EVERY; skip > 0; skip--) cursor.next();
+        return cursor;
+    }
+
+    /** Decodes forward one point at a time; {@link #x} and {@link #y} hold the last point decoded. */
+    final class Cursor {
+        private int offset;
+        int x, y;
+
+        private Cursor(int offset, int x, int y) {
+            this.offset = offset;
+            this.x = x;
+            this.y = y;
+        }
+
+        void next() {
+            x += unzigzag(readVarint());
+            y += unzigzag(readVarint());
+        }
+
+        private int readVarint() {
+            byte[] d = data;
+            int b = d[offset++];
+            if (b >= 0) return b;
+            int value = b & 0x7f;
+            for (int shift = 7; ; shift += 7) {
+                b = d[offset++];
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+
+    private static int zigzag(int v) { return (v << 1) ^ (v >> 31); }
+
+    private static int unzigzag(int v) { return (v >>> 1) ^ -(v & 1); }
+
+    private static final class Encoder implements PointVisitor {
+        byte[] data;
+        final int[] checkpoints;
+        int length, count, lastX, lastY;
+
+        Encoder(int n) {
+            data = new byte[Math.max(16, 2 * n + 10)];
+            // Including one at index n, where a cursor may be asked to start
+            checkpoints = new int[3 * (n / CHECKPOINT_EVERY + 1)];
+        }
+
+        @Override
+        public void visit(int x, int y) {
+            if (count % CHECKPOINT_EVERY == 0) checkpoint();
+            if (data.length - length < 10) data = Arrays.copyOf(data, data.length * 2);
+            writeVarint(zigzag(x - lastX));
+            writeVarint(zigzag(y - lastY));
+            lastX = x;
+            lastY = y;
+            count++;
+        }
+
+        void checkpoint() {
+            int k = 3 * (count / CHECKPOINT_EVERY);
+            checkpoints[k] = length;
+            checkpoints[k + 1] = lastX;
+            checkpoints[k + 2] = lastY;
+        }
+
+        private void writeVarint(int v) {
+            while ((v & ~0x7f) != 0) {
+                data[length++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            data[length++] = (byte) v;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package edu.eci.arsw.blueprints.persistence.compact;
+
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Runs the {@link PointCompactor} of the {@code compact} in-memory storage in the background. */
+@Component
+@ConditionalOnProperty(name = "blueprints.inmemory.storage", havingValue = "compact")
+public class PointCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PointCompactionJob.class);
+
+    private final PointCompactor compactor;
+
+    public PointCompactionJob(PointStorageFactory storage) {
+        this.compactor = ((CompactingPointStorageFactory) storage).compactor();
+    }
+
+    @Scheduled(fixedDelayString = "${blueprints.inmemory.compact.interval-ms:30000}")
+    public void compact() {
+        int compacted = compactor.compactIdle();
+        if (compacted > 0) log.debug("Compacted {} idle blueprints", compacted);
+    }
+}
@@ -0,0 +1,102 @@
+package edu.eci.arsw.blueprints.persistence.compact;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Compacts {@link CompactingPointStorage}s that have not been written for
+ * {@code idleNanos}.
+ * <p>
+ * Hot storages wait in a queue in the order they became hot. Each
+ * {@link #compactIdle} pass visits every storage queued at its start once: idle ones
+ * are encoded and leave the queue, the rest go to the back. A promoted storage joins
+ * the queue again. Passes never overlap; a pass that finds one running returns.
+ */
+public final class PointCompactor {
+
+    private final long idleNanos;
+    private final LongSupplier clock;
+
+    private final Queue<CompactingPointStorage> hot = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock compacting = new ReentrantLock();
+
+    private final AtomicLong compactedPoints = new AtomicLong();
+    private final AtomicLong compactedBytes = new AtomicLong();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+
+    public PointCompactor(long idleNanos) {
+        this(idleNanos, System::nanoTime);
+    }
+
+    /** @param clock nanosecond clock, replaceable in tests */
+    public PointCompactor(long idleNanos, LongSupplier clock) {
+        if (idleNanos < 0) throw new IllegalArgumentException("Negative idle time: " + idleNanos);
+        this.idleNanos = idleNanos;
+        this.clock = clock;
+    }
+
+    /** Points currently held encoded. */
+    public long compactedPoints() { return compactedPoints.get(); }
+
+    /** Bytes those points take encoded, checkpoints included. */
+    public long compactedBytes() { return compactedBytes.get(); }
+
+    /** Blueprints encoded so far. */
+    public long compactions() { return compactions.sum(); }
+
+    /** Encoded blueprints turned back into heap lists by a write so far. */
+    public long promotions() { return promotions.sum(); }
+
+    long now() { return clock.getAsLong(); }
+
+    void admitted(CompactingPointStorage storage) {
+        queued.incrementAndGet();
+        hot.add(storage);
+    }
+
+    void compacted(DeltaVarintPoints points) {
+        compactedPoints.addAndGet(points.size());
+        compactedBytes.addAndGet(points.encodedBytes());
+        compactions.increment();
+    }
+
+    void promoted(CompactingPointStorage storage, DeltaVarintPoints points) {
+        released(points);
+        promotions.increment();
+        admitted(storage);
+    }
+
+    void released(DeltaVarintPoints points) {
+        compactedPoints.addAndGet(-points.size());
+        compactedBytes.addAndGet(-points.encodedBytes());
+    }
+
+    /** One pass over the hot storages; returns how many were compacted. */
+    public int compactIdle() {
+        if (!compacting.tryLock()) return 0;
+        try {
+            int compacted = 0;
+            long now = now();
+            for (int budget = queued.get(); budget > 0; budget--) {
+                CompactingPointStorage s = hot.poll();
+                if (s == null) break;
+                queued.decrementAndGet();
+                switch (s.tryCompact(now, idleNanos)) {
+                    case COMPACTED -> compacted++;
+                    case KEEP -> admitted(s);
+                    case GONE -> { }
+                }
+            }
+            return compacted;
+        } finally {
+            compacting.unlock();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.eci.arsw.blueprints.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/** One row per author, kept current by the write paths instead of aggregated on read. */
+@Entity
+@Table(name = "author_stats")
+public class AuthorStatsEntity {
+
+    @Id
+    private String author;
+
+    @Column(nullable = false)
+    private long blueprints;
+
+    @Column(nullable = false)
+    private long points;
+
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
+    protected AuthorStatsEntity() {}
+
+    public AuthorStatsEntity(String author, long blueprints, long points, Instant lastModified) {
+        this.author = author;
+        this.blueprints = blueprints;
+        this.points = points;
+        this.lastModified = lastModified;
+    }
+
+    public String getAuthor()        { return author; }
+    public long getBlueprints()      { return blueprints; }
+    public long getPoints()          { return points; }
+    public Instant getLastModified() { return lastModified; }
+}
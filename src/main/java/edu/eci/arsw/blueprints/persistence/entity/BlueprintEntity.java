@@ -1,5 +1,6 @@
 package edu.eci.arsw.blueprints.persistence.entity;
 
+import edu.eci.arsw.blueprints.model.GeometryAccumulator;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +27,15 @@ public class BlueprintEntity {
     @OrderColumn(name = "position")
     private List<PointEntity> points = new ArrayList<>();
 
+    // Packed layout only; written through the cascade, read with PointChunkJpaRepository
+    @OneToMany(mappedBy = "blueprint",
+               cascade = CascadeType.PERSIST,
+               fetch = FetchType.LAZY)
+    private List<PointChunkEntity> chunks = new ArrayList<>();
+
+    @Embedded
+    private GeometryColumns geometry;
+
     protected BlueprintEntity() {}
 
     public BlueprintEntity(String author, String name) {
@@ -38,9 +48,24 @@ public class BlueprintEntity {
     public String getAuthor()       { return author; }
     public String getName()         { return name; }
     public List<PointEntity> getPoints() { return points; }
+    public List<PointChunkEntity> getChunks() { return chunks; }
+
+    /** Stored running sums, or null if this row was written without them. */
+    public GeometryAccumulator.State getGeometry() {
+        return geometry == null ? null : geometry.toState();
+    }
+
+    public void setGeometry(GeometryAccumulator.State state) {
+        this.geometry = new GeometryColumns(state);
+    }
 
     public void addPoint(PointEntity p) {
         p.setBlueprint(this);
         points.add(p);
     }
+
+    public void addChunk(PointChunkEntity c) {
+        c.setBlueprint(this);
+        chunks.add(c);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package edu.eci.arsw.blueprints.persistence.entity;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/** Outbox row for the change feed, written in the same transaction as the change it records. */
+@Entity
+@Table(name = "change_events")
+public class ChangeEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeEvent.Type type;
+
+    @Column(nullable = false)
+    private String author;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected ChangeEventEntity() {}
+
+    public ChangeEventEntity(ChangeEvent.Type type, String author, String name, int version, Instant createdAt) {
+        this.type = type;
+        this.author = author;
+        this.name = name;
+        this.version = version;
+        this.createdAt = createdAt;
+    }
+
+    public Long getSeq()             { return seq; }
+    public ChangeEvent.Type getType() { return type; }
+    public String getAuthor()        { return author; }
+    public String getName()          { return name; }
+    public int getVersion()          { return version; }
+    public Instant getCreatedAt()    { return createdAt; }
+
+    public ChangeEvent toEvent() {
+        return new ChangeEvent(seq, type, author, name, version, createdAt);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.eci.arsw.blueprints.persistence.entity;
+
+import edu.eci.arsw.blueprints.model.GeometryAccumulator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Running geometry sums stored on the blueprint row. Nullable so rows written
+ * before these columns existed (or loaded through COPY) simply have none yet.
+ */
+@Embeddable
+public class GeometryColumns {
+
+    @Column(name = "geo_points")       private Integer points;
+    @Column(name = "geo_first_x")      private Integer firstX;
+    @Column(name = "geo_first_y")      private Integer firstY;
+    @Column(name = "geo_last_x")       private Integer lastX;
+    @Column(name = "geo_last_y")       private Integer lastY;
+    @Column(name = "geo_min_x")        private Integer minX;
+    @Column(name = "geo_min_y")        private Integer minY;
+    @Column(name = "geo_max_x")        private Integer maxX;
+    @Column(name = "geo_max_y")        private Integer maxY;
+    @Column(name = "geo_sum_x")        private Long sumX;
+    @Column(name = "geo_sum_y")        private Long sumY;
+    @Column(name = "geo_path_length")  private Double pathLength;
+    @Column(name = "geo_twice_area")   private Double twiceArea;
+    @Column(name = "geo_centroid_x6")  private Double centroidX6;
+    @Column(name = "geo_centroid_y6")  private Double centroidY6;
+
+    protected GeometryColumns() {}
+
+    public GeometryColumns(GeometryAccumulator.State s) {
+        points = s.points();
+        firstX = s.firstX(); firstY = s.firstY(); lastX = s.lastX(); lastY = s.lastY();
+        minX = s.minX(); minY = s.minY(); maxX = s.maxX(); maxY = s.maxY();
+        sumX = s.sumX(); sumY = s.sumY();
+        pathLength = s.pathLength();
+        twiceArea = s.twiceArea(); centroidX6 = s.centroidX6(); centroidY6 = s.centroidY6();
+    }
+
+    /** The stored sums, or null when this row has none. */
+    public GeometryAccumulator.State toState() {
+        if (points == null) return null;
+        return new GeometryAccumulator.State(points, firstX, firstY, lastX, lastY, minX, minY, maxX, maxY,
+                sumX, sumY, pathLength, twiceArea, centroidX6, centroidY6);
+    }
+}
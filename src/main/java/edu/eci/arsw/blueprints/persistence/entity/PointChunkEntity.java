@@ -0,0 +1,73 @@
+package edu.eci.arsw.blueprints.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Up to {@link #CHUNK_POINTS} consecutive points of a blueprint packed into one
+ * {@code bytea}: big-endian {@code int} x then y, 8 bytes per point. Every chunk
+ * but the last is full, so point {@code i} lives in chunk {@code i / CHUNK_POINTS}.
+ */
+@Entity
+@Table(name = "point_chunks")
+@IdClass(PointChunkEntity.Key.class)
+public class PointChunkEntity {
+
+    /** Points per chunk; an append rewrites at most one chunk (32 KB) of the column. */
+    public static final int CHUNK_POINTS = 4096;
+    public static final int POINT_BYTES = 8;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blueprint_id", nullable = false)
+    private BlueprintEntity blueprint;
+
+    @Id
+    @Column(name = "chunk")
+    private int chunk;
+
+    @Column(nullable = false)
+    private int points;
+
+    @Column(nullable = false)
+    private byte[] data;
+
+    protected PointChunkEntity() {}
+
+    public PointChunkEntity(int chunk, byte[] data) {
+        this.chunk = chunk;
+        this.points = data.length / POINT_BYTES;
+        this.data = data;
+    }
+
+    public int getChunk()                      { return chunk; }
+    public int getPoints()                     { return points; }
+    public byte[] getData()                    { return data; }
+    public BlueprintEntity getBlueprint()      { return blueprint; }
+    public void setBlueprint(BlueprintEntity b){ this.blueprint = b; }
+
+    /** Composite key (blueprint id, chunk number). */
+    public static class Key implements Serializable {
+        private Long blueprint;
+        private int chunk;
+
+        protected Key() {}
+
+        public Key(Long blueprint, int chunk) {
+            this.blueprint = blueprint;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && chunk == k.chunk && Objects.equals(blueprint, k.blueprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blueprint, chunk);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.persistence.jpa.ChangeEventJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the change_events outbox to the newest {@code blueprints.changes.retention}
+ * events, the Postgres counterpart of the in-memory ring's fixed capacity. Consumers
+ * behind the retained window get a resync from the feed.
+ */
+@Component
+@Profile("postgres")
+public class ChangeOutboxPruner {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeOutboxPruner.class);
+
+    private final ChangeEventJpaRepository changes;
+    private final long retention;
+
+    public ChangeOutboxPruner(ChangeEventJpaRepository changes,
+                              @Value("${blueprints.changes.retention:1000000}") long retention) {
+        this.changes = changes;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${blueprints.changes.prune-interval-ms:60000}")
+    public void prune() {
+        int removed = changes.prune(retention);
+        if (removed > 0) log.debug("Pruned {} change events", removed);
+    }
+}
@@ -0,0 +1,66 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity.CHUNK_POINTS;
+
+/**
+ * Tables that can be moved with PostgreSQL COPY, in the order a restore must load them.
+ * Only one point table is in play at a time, chosen by the point layout: {@code points}
+ * for rows, {@code point_chunks} for packed.
+ */
+public enum CopyTable {
+
+    BLUEPRINTS("blueprints", "id, author, name, geo_points, geo_first_x, geo_first_y, geo_last_x, geo_last_y, "
+            + "geo_min_x, geo_min_y, geo_max_x, geo_max_y, geo_sum_x, geo_sum_y, geo_path_length, "
+            + "geo_twice_area, geo_centroid_x6, geo_centroid_y6", null),
+    POINTS("points", "id, blueprint_id, x, y, position", false),
+    /**
+     * Exported together with the blueprints packed mode still reads from rows, packed on
+     * the fly the way the packed migration does, so a packed-mode dump holds every point.
+     */
+    POINT_CHUNKS("point_chunks", "blueprint_id, chunk, points, data", true) {
+        @Override
+        String exportSource() {
+            return ("(select blueprint_id, chunk, points, data from point_chunks union all "
+                    + "select blueprint_id, position / %d, count(*), "
+                    + "string_agg(int4send(x) || int4send(y), cast('' as bytea) order by position) "
+                    + "from points group by blueprint_id, position / %1$d)").formatted(CHUNK_POINTS);
+        }
+    };
+
+    private final String table;
+    private final String columns;
+    /** Null for tables copied in both layouts, else whether the table holds packed points. */
+    private final Boolean packed;
+
+    CopyTable(String table, String columns, Boolean packed) {
+        this.table = table;
+        this.columns = columns;
+        this.packed = packed;
+    }
+
+    public String table()   { return table; }
+    public String columns() { return columns; }
+
+    /** True for the table holding the points; importing it completes a restore. */
+    public boolean holdsPoints() { return packed != null; }
+
+    /** Whether the table has a serial {@code id} whose sequence an import must move forward. */
+    boolean hasIdSequence() { return columns.startsWith("id,"); }
+
+    /** What {@code COPY ... TO STDOUT} reads: the table and its columns, or a query. */
+    String exportSource() {
+        return "%s (%s)".formatted(table, columns);
+    }
+
+    public static Optional<CopyTable> byName(String name) {
+        return Arrays.stream(values()).filter(t -> t.table.equalsIgnoreCase(name)).findFirst();
+    }
+
+    /** {@link #byName}, limited to the tables of the given point layout. */
+    public static Optional<CopyTable> byName(String name, boolean packedLayout) {
+        return byName(name).filter(t -> t.packed == null || t.packed == packedLayout);
+    }
+}
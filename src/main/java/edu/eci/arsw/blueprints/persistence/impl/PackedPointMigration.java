@@ -0,0 +1,67 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.persistence.jpa.BlueprintJpaRepository;
+import edu.eci.arsw.blueprints.persistence.jpa.PointChunkJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity.CHUNK_POINTS;
+
+/**
+ * Moves points from the row-per-point layout ({@code points}) to packed chunks
+ * ({@code point_chunks}), a batch of blueprints per transaction. The packing runs
+ * inside PostgreSQL, so no point crosses the wire.
+ * <p>
+ * Safe to stop and rerun: a committed batch no longer has rows and is not picked
+ * again. Run it with {@code blueprints.postgres.point-layout=packed}, which already
+ * reads unmigrated blueprints from their rows.
+ */
+@Service
+@Profile("postgres")
+public class PackedPointMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(PackedPointMigration.class);
+
+    public record MigrationResult(long blueprints, long points, long millis) { }
+
+    private final BlueprintJpaRepository repo;
+    private final PointChunkJpaRepository chunks;
+    private final TransactionTemplate tx;
+
+    public PackedPointMigration(BlueprintJpaRepository repo, PointChunkJpaRepository chunks,
+                                PlatformTransactionManager transactions) {
+        this.repo = repo;
+        this.chunks = chunks;
+        this.tx = new TransactionTemplate(transactions);
+    }
+
+    /** Migrates every blueprint that still has point rows, {@code batchSize} blueprints at a time. */
+    public MigrationResult migrate(int batchSize) {
+        long start = System.nanoTime();
+        long blueprints = 0;
+        long points = 0;
+        long[] moved;
+        // {blueprints, points} moved by one committed batch
+        while ((moved = tx.execute(status -> migrateBatch(batchSize)))[0] > 0) {
+            blueprints += moved[0];
+            points += moved[1];
+        }
+        MigrationResult result = new MigrationResult(blueprints, points, (System.nanoTime() - start) / 1_000_000);
+        log.info("Packed point migration {}", result);
+        return result;
+    }
+
+    private long[] migrateBatch(int batchSize) {
+        List<Long> batch = repo.findIdsWithPointRows(batchSize);
+        if (batch.isEmpty()) return new long[2];
+        Long[] ids = batch.toArray(Long[]::new);
+        chunks.packRows(ids, CHUNK_POINTS);
+        return new long[] {ids.length, repo.deletePointRows(ids)};
+    }
+}
@@ -0,0 +1,53 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.PointStorage;
+import edu.eci.arsw.blueprints.model.PointStorage.PointVisitor;
+import edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity.CHUNK_POINTS;
+import static edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity.POINT_BYTES;
+
+/** Encoding of the packed point layout; {@link ByteBuffer}'s default big-endian order matches {@code int4send}. */
+final class PackedPoints {
+
+    private PackedPoints() { }
+
+    /** Cuts the points into chunks, all full except the last. */
+    static List<PointChunkEntity> chunksOf(PointStorage points) {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        points.forEach((x, y) -> {
+            ByteBuffer buf = buffers.isEmpty() ? null : buffers.get(buffers.size() - 1);
+            if (buf == null || !buf.hasRemaining()) {
+                buf = ByteBuffer.allocate(CHUNK_POINTS * POINT_BYTES);
+                buffers.add(buf);
+            }
+            buf.putInt(x).putInt(y);
+        });
+        List<PointChunkEntity> chunks = new ArrayList<>(buffers.size());
+        for (ByteBuffer buf : buffers) {
+            byte[] data = buf.hasRemaining() ? Arrays.copyOf(buf.array(), buf.position()) : buf.array();
+            chunks.add(new PointChunkEntity(chunks.size(), data));
+        }
+        return chunks;
+    }
+
+    static byte[] encode(int x, int y) {
+        return ByteBuffer.allocate(POINT_BYTES).putInt(x).putInt(y).array();
+    }
+
+    /** Visits the points of {@code chunk} whose blueprint-wide index is in {@code [from, to)}. */
+    static void decode(PointChunkEntity chunk, long from, long to, PointVisitor visitor) {
+        long base = (long) chunk.getChunk() * CHUNK_POINTS;
+        int first = (int) Math.max(0, from - base);
+        int last = (int) Math.min(chunk.getPoints(), to - base);
+        ByteBuffer buf = ByteBuffer.wrap(chunk.getData());
+        for (int i = first; i < last; i++) {
+            visitor.visit(buf.getInt(i * POINT_BYTES), buf.getInt(i * POINT_BYTES + 4));
+        }
+    }
+}
@@ -1,88 +1,527 @@
 package edu.eci.arsw.blueprints.persistence.impl;
 
+import edu.eci.arsw.blueprints.model.AuthorStats;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.GeometryAccumulator;
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.PointStorage.PointVisitor;
+import edu.eci.arsw.blueprints.model.SearchHit;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
 import edu.eci.arsw.blueprints.persistence.entity.BlueprintEntity;
+import edu.eci.arsw.blueprints.persistence.entity.ChangeEventEntity;
+import edu.eci.arsw.blueprints.persistence.entity.GeometryColumns;
+import edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity;
 import edu.eci.arsw.blueprints.persistence.entity.PointEntity;
+import edu.eci.arsw.blueprints.persistence.jpa.AuthorStatsJpaRepository;
 import edu.eci.arsw.blueprints.persistence.jpa.BlueprintJpaRepository;
+import edu.eci.arsw.blueprints.persistence.jpa.ChangeEventJpaRepository;
+import edu.eci.arsw.blueprints.persistence.jpa.PointChunkJpaRepository;
+import edu.eci.arsw.blueprints.persistence.spatial.PointInPolygon;
+import edu.eci.arsw.blueprints.persistence.routing.ReadYourWritesWindow;
+import edu.eci.arsw.blueprints.persistence.routing.ReadYourWritesWindow.Pin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity.CHUNK_POINTS;
 
 @Repository
 @Primary                         // ← overrides InMemoryBlueprintPersistence
 @Profile("postgres")             // ← only active with the "postgres" Spring profile
-public class PostgresBlueprintPersistence implements BlueprintPersistence {
+public class PostgresBlueprintPersistence implements BlueprintPersistence, SmartInitializingSingleton {
+
+    // Reads run in read-only transactions, which the routing DataSource (when a
+    // replica is configured) sends to the replica unless the author was just written.
+    //
+    // Point layout (blueprints.postgres.point-layout): "rows" keeps one points row per
+    // point; "packed" keeps them in point_chunks. In packed mode a blueprint that still
+    // has rows (written before the switch, not yet migrated) is read from its rows and
+    // packed on its next addPoint, so both layouts can coexist during a migration.
+
+    /** Keys per multi-get query; keeps bind arrays and IN lists at a bounded size. */
+    private static final Logger log = LoggerFactory.getLogger(PostgresBlueprintPersistence.class);
+
+    static final int MULTI_GET_CHUNK = 500;
 
     private final BlueprintJpaRepository repo;
+    private final AuthorStatsJpaRepository authorStats;
+    private final ChangeEventJpaRepository changes;
+    private final ReadYourWritesWindow window;
+    private final PointChunkJpaRepository chunks;
+    private final boolean packed;
+    private final TransactionTemplate tx;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    public PostgresBlueprintPersistence(BlueprintJpaRepository repo, AuthorStatsJpaRepository authorStats,
+                                        ChangeEventJpaRepository changes, ReadYourWritesWindow window,
+                                        PlatformTransactionManager transactions) {
+        this(repo, authorStats, changes, window, null, "rows", transactions);
+    }
 
-    public PostgresBlueprintPersistence(BlueprintJpaRepository repo) {
+    @Autowired
+    public PostgresBlueprintPersistence(BlueprintJpaRepository repo, AuthorStatsJpaRepository authorStats,
+                                        ChangeEventJpaRepository changes, ReadYourWritesWindow window,
+                                        PointChunkJpaRepository chunks,
+                                        @Value("${blueprints.postgres.point-layout:rows}") String pointLayout,
+                                        PlatformTransactionManager transactions) {
+        this.tx = new TransactionTemplate(transactions);
         this.repo = repo;
+        this.authorStats = authorStats;
+        this.changes = changes;
+        this.window = window;
+        this.chunks = chunks;
+        this.packed = switch (pointLayout) {
+            case "rows" -> false;
+            case "packed" -> true;
+            default -> throw new IllegalArgumentException(
+                    "blueprints.postgres.point-layout must be 'rows' or 'packed', got: " + pointLayout);
+        };
     }
 
     // ── Mapping helpers ──────────────────────────────────────────────────────
 
     private Blueprint toDomain(BlueprintEntity e) {
-        List<Point> pts = e.getPoints().stream()
-                .map(p -> new Point(p.getX(), p.getY()))
-                .collect(Collectors.toList());
-        return new Blueprint(e.getAuthor(), e.getName(), pts);
+        return toDomain(e, hasPackedPoints(e) ? chunks.findAllByBlueprintIdIn(List.of(e.getId())) : List.of());
+    }
+
+    private Blueprint toDomain(BlueprintEntity e, List<PointChunkEntity> packedPoints) {
+        if (packedPoints.isEmpty()) {
+            List<Point> pts = e.getPoints().stream()
+                    .map(p -> new Point(p.getX(), p.getY()))
+                    .collect(Collectors.toList());
+            return new Blueprint(e.getAuthor(), e.getName(), pts);
+        }
+        HeapPointStorage storage = new HeapPointStorage();
+        packedPoints.forEach(c -> PackedPoints.decode(c, 0, Long.MAX_VALUE, storage::append));
+        return new Blueprint(e.getAuthor(), e.getName(), storage);
+    }
+
+    /** Maps a result set, fetching the chunks of all its packed blueprints in a few queries. */
+    private Stream<Blueprint> toDomain(List<BlueprintEntity> entities) {
+        List<Long> ids = entities.stream().filter(this::hasPackedPoints).map(BlueprintEntity::getId).toList();
+        Map<Long, List<PointChunkEntity>> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MULTI_GET_CHUNK) {
+            chunks.findAllByBlueprintIdIn(ids.subList(from, Math.min(from + MULTI_GET_CHUNK, ids.size())))
+                    .forEach(c -> byId.computeIfAbsent(c.getBlueprint().getId(), id -> new ArrayList<>()).add(c));
+        }
+        return entities.stream().map(e -> toDomain(e, byId.getOrDefault(e.getId(), List.of())));
     }
 
+    /** Rows win: a blueprint that still has them has not been packed yet. */
+    private boolean hasPackedPoints(BlueprintEntity e) {
+        return packed && e.getPoints().isEmpty();
+    }
+
+    private static String keyOf(String author, String name) { return author + ":" + name; }
+
     private BlueprintEntity toEntity(Blueprint bp) {
         BlueprintEntity e = new BlueprintEntity(bp.getAuthor(), bp.getName());
-        bp.getPoints().forEach(p -> e.addPoint(new PointEntity(p.x(), p.y())));
+        if (packed) PackedPoints.chunksOf(bp.pointStorage()).forEach(e::addChunk);
+        else bp.getPoints().forEach(p -> e.addPoint(new PointEntity(p.x(), p.y())));
+        e.setGeometry(bp.geometryState());
         return e;
     }
 
+    /** Stored sums, or a one-off scan for rows written before they were kept. */
+    private GeometryAccumulator geometryOf(BlueprintEntity e) {
+        GeometryAccumulator.State state = e.getGeometry();
+        if (state != null) return new GeometryAccumulator(state);
+        GeometryAccumulator acc = new GeometryAccumulator();
+        if (hasPackedPoints(e)) scanPoints(e.getId(), 0, Integer.MAX_VALUE, acc::accept);
+        else e.getPoints().forEach(p -> acc.accept(p.getX(), p.getY()));
+        return acc;
+    }
+
+    /** Points {@code [from, from + limit)} in order: from the chunks when packed, else from the rows. */
+    private void scanPoints(Long id, int from, int limit, PointVisitor visitor) {
+        long to = (long) from + limit;
+        if (packed && limit > 0) {
+            int last = (int) Math.min(Integer.MAX_VALUE, (to - 1) / CHUNK_POINTS);
+            List<PointChunkEntity> range = chunks.findRange(id, from / CHUNK_POINTS, last);
+            if (!range.isEmpty()) {
+                range.forEach(c -> PackedPoints.decode(c, from, to, visitor));
+                return;
+            }
+        }
+        repo.findPointSlice(id, from, limit).forEach(r -> visitor.visit(r.getX(), r.getY()));
+    }
+
+    /**
+     * Appends to the last chunk, or starts the next one when it is full. Rows left by
+     * the row layout are packed first; the loaded (now stale) collection is not dirty,
+     * so the flush does not touch the deleted rows again.
+     */
+    private void appendPacked(BlueprintEntity e, int x, int y) {
+        if (!e.getPoints().isEmpty()) {
+            Long[] ids = {e.getId()};
+            chunks.packRows(ids, CHUNK_POINTS);
+            repo.deletePointRows(ids);
+        }
+        byte[] xy = PackedPoints.encode(x, y);
+        if (chunks.appendToLastChunk(e.getId(), xy, CHUNK_POINTS) == 0) chunks.appendChunk(e.getId(), xy);
+    }
+
+    /** Appends to the outbox; last in its transaction so the advisory lock is held briefly. */
+    private void recordChange(ChangeEvent.Type type, Collection<Blueprint> blueprints) {
+        changes.append(type,
+                blueprints.stream().map(Blueprint::getAuthor).toArray(String[]::new),
+                blueprints.stream().map(Blueprint::getName).toArray(String[]::new),
+                blueprints.stream().map(bp -> bp.pointStorage().size()).toArray(Integer[]::new));
+        notifyAfterCommit();
+    }
+
+    private void notifyAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeListeners.forEach(Runnable::run);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changeListeners.forEach(Runnable::run);
+            }
+        });
+    }
+
     // ── Interface methods ────────────────────────────────────────────────────
 
     @Override
+    @Transactional
     public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
-        if (repo.findByAuthorAndName(bp.getAuthor(), bp.getName()).isPresent()) {
+        if (!insert(bp)) {
             throw new BlueprintPersistenceException(
                 "Blueprint already exists: %s/%s".formatted(bp.getAuthor(), bp.getName()));
         }
+        window.recordWrite(bp.getAuthor());
+    }
+
+    /** Stores a blueprint with its stats and outbox entry; false, storing nothing, when it exists. */
+    private boolean insert(Blueprint bp) {
+        if (repo.findByAuthorAndName(bp.getAuthor(), bp.getName()).isPresent()) return false;
         repo.save(toEntity(bp));
+        authorStats.increment(bp.getAuthor(), 1, bp.pointStorage().size());
+        recordChange(ChangeEvent.Type.CREATED, List.of(bp));
+        return true;
     }
 
     @Override
+    public int saveBlueprints(List<Blueprint> batch) {
+        // Each attempt is its own transaction, so the per-item fallback starts clean after
+        // a failed batch; the pin keeps the duplicate checks on the primary in between.
+        try (Pin pin = window.pinToPrimary()) {
+            int created;
+            try {
+                created = tx.execute(status -> saveNew(batch));
+            } catch (DataIntegrityViolationException e) {
+                // Lost a race with a concurrent writer: the whole batch rolled back, so
+                // settle it one blueprint at a time
+                created = saveEach(batch);
+            }
+            batch.forEach(bp -> window.recordWrite(bp.getAuthor()));
+            return created;
+        }
+    }
+
+    /** One transaction per blueprint; one that loses a race on its key counts as skipped. */
+    private int saveEach(List<Blueprint> batch) {
+        int created = 0;
+        for (Blueprint bp : batch) {
+            try {
+                if (Boolean.TRUE.equals(tx.execute(status -> insert(bp)))) created++;
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently: counted by the caller as batch size minus created
+            }
+        }
+        return created;
+    }
+
+    /** The batch minus blueprints that exist or repeat a key, stored in the caller's transaction. */
+    private int saveNew(List<Blueprint> batch) {
+        Map<String, Blueprint> fresh = new LinkedHashMap<>();
+        batch.forEach(bp -> fresh.putIfAbsent(keyOf(bp.getAuthor(), bp.getName()), bp));
+        Set<String> authors = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        fresh.values().forEach(bp -> { authors.add(bp.getAuthor()); names.add(bp.getName()); });
+        // One lookup for the whole batch; the author/name IN lists may over-match, the key check does not
+        repo.findKeysByAuthorInAndNameIn(authors, names).forEach(fresh::remove);
+        if (fresh.isEmpty()) return 0;
+        repo.saveAll(fresh.values().stream().map(this::toEntity).toList());
+        // One upsert per author of the batch, in the batch's transaction
+        Map<String, long[]> perAuthor = new HashMap<>();
+        fresh.values().forEach(bp -> {
+            long[] t = perAuthor.computeIfAbsent(bp.getAuthor(), a -> new long[2]);
+            t[0]++;
+            t[1] += bp.pointStorage().size();
+        });
+        perAuthor.forEach((author, t) -> authorStats.increment(author, t[0], t[1]));
+        recordChange(ChangeEvent.Type.CREATED, fresh.values());
+        return fresh.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        return repo.findByAuthorAndName(author, name)
-                .map(this::toDomain)
-                .orElseThrow(() -> new BlueprintNotFoundException(
-                    "Blueprint not found: %s/%s".formatted(author, name)));
+        return findBlueprint(author, name).orElseThrow(() -> new BlueprintNotFoundException(
+                "Blueprint not found: %s/%s".formatted(author, name)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Blueprint> findBlueprint(String author, String name) {
+        try (Pin pin = window.pinIfRecentlyWritten(author)) {
+            return repo.findByAuthorAndName(author, name).map(this::toDomain);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<BlueprintKey, Blueprint> getBlueprints(Collection<BlueprintKey> keys) {
+        List<BlueprintKey> distinct = List.copyOf(new LinkedHashSet<>(keys));
+        Set<String> authors = distinct.stream().map(BlueprintKey::author).collect(Collectors.toSet());
+        try (Pin pin = window.pinIfAnyRecentlyWritten(authors)) {
+            Map<BlueprintKey, Blueprint> loaded = new HashMap<>();
+            for (int from = 0; from < distinct.size(); from += MULTI_GET_CHUNK) {
+                List<BlueprintKey> chunk = distinct.subList(from, Math.min(from + MULTI_GET_CHUNK, distinct.size()));
+                List<Long> ids = repo.findIdsByKeys(
+                        chunk.stream().map(BlueprintKey::author).toArray(String[]::new),
+                        chunk.stream().map(BlueprintKey::name).toArray(String[]::new));
+                if (ids.isEmpty()) continue;
+                toDomain(repo.findAllWithPointsByIdIn(ids)).forEach(bp -> loaded.put(BlueprintKey.of(bp), bp));
+            }
+            Map<BlueprintKey, Blueprint> found = new LinkedHashMap<>();
+            distinct.forEach(k -> { Blueprint bp = loaded.get(k); if (bp != null) found.put(k, bp); });
+            return found;
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        List<BlueprintEntity> entities = repo.findByAuthor(author);
-        if (entities.isEmpty())
-            throw new BlueprintNotFoundException("No blueprints for author: " + author);
-        return entities.stream().map(this::toDomain).collect(Collectors.toSet());
+        return findBlueprintsByAuthor(author).orElseThrow(
+                () -> new BlueprintNotFoundException("No blueprints for author: " + author));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+        try (Pin pin = window.pinIfRecentlyWritten(author)) {
+            List<BlueprintEntity> entities = repo.findByAuthor(author);
+            if (entities.isEmpty()) return Optional.empty();
+            return Optional.of(toDomain(entities).collect(Collectors.toSet()));
+        }
     }
 
+    /** Always served by the replica when one is configured: there is no author to pin on. */
     @Override
+    @Transactional(readOnly = true)
     public Set<Blueprint> getAllBlueprints() {
-        return repo.findAll().stream()
-                .map(this::toDomain)
-                .collect(Collectors.toSet());
+        return toDomain(repo.findAll()).collect(Collectors.toSet());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<BlueprintKey> getBlueprintKeys() {
+        return repo.findAllNames().stream().map(r -> new BlueprintKey(r.getAuthor(), r.getName())).toList();
+    }
+
+    @Override
+    @Transactional
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
-        BlueprintEntity e = repo.findByAuthorAndName(author, name)
+        // Row lock: the geometry sums are read, updated and written back as one step
+        BlueprintEntity e = repo.findForUpdate(author, name)
                 .orElseThrow(() -> new BlueprintNotFoundException(
                     "Blueprint not found: %s/%s".formatted(author, name)));
-        e.addPoint(new PointEntity(x, y));
+        GeometryAccumulator geometry = geometryOf(e);
+        geometry.accept(x, y);
+        if (packed) appendPacked(e, x, y);
+        else e.addPoint(new PointEntity(x, y));
+        e.setGeometry(geometry.state());
         repo.save(e);
+        authorStats.increment(author, 0, 1);
+        changes.append(ChangeEvent.Type.POINT_ADDED, new String[] {author}, new String[] {name},
+                new Integer[] {geometry.state().points()});
+        notifyAfterCommit();
+        window.recordWrite(author);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PointPage getPoints(String author, String name, int from, int limit) throws BlueprintNotFoundException {
+        try (Pin pin = window.pinIfRecentlyWritten(author)) {
+            Long id = repo.findIdByAuthorAndName(author, name)
+                    .orElseThrow(() -> new BlueprintNotFoundException(
+                        "Blueprint not found: %s/%s".formatted(author, name)));
+            int total = pointCount(id);
+            int start = Math.min(from, total);
+            List<Point> pts = new ArrayList<>();
+            if (start < total) scanPoints(id, start, limit, (x, y) -> pts.add(new Point(x, y)));
+            return PointPage.of(pts, start, total);
+        }
+    }
+
+    /** The stored geometry already counts the points; only older rows need a count(*). */
+    private int pointCount(Long id) {
+        GeometryColumns stored = repo.findGeometry(id);
+        GeometryAccumulator.State state = stored == null ? null : stored.toState();
+        if (state != null) return state.points();
+        return packed ? repo.countPoints(id) + chunks.countPoints(id) : repo.countPoints(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BlueprintMetrics getMetrics(String author, String name) throws BlueprintNotFoundException {
+        try (Pin pin = window.pinIfRecentlyWritten(author)) {
+            Long id = repo.findIdByAuthorAndName(author, name)
+                    .orElseThrow(() -> new BlueprintNotFoundException(
+                        "Blueprint not found: %s/%s".formatted(author, name)));
+            GeometryColumns stored = repo.findGeometry(id);
+            GeometryAccumulator.State state = stored == null ? null : stored.toState();
+            if (state != null) return new GeometryAccumulator(state).snapshot();
+            // No sums stored yet: scan the points once, in position order
+            GeometryAccumulator acc = new GeometryAccumulator();
+            scanPoints(id, 0, Integer.MAX_VALUE, acc::accept);
+            return acc.snapshot();
+        }
+    }
+
+    /**
+     * Rows seeded by data.sql have no geometry sums; they are filled before the server
+     * takes requests, so hit testing can rely on the box index alone.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long filled = backfillGeometry(PostgresCopyService.BACKFILL_BATCH);
+        if (filled > 0) log.info("Filled the geometry sums of {} blueprints", filled);
+    }
+
+    /**
+     * Stores the geometry sums of every row that has none, {@code batchSize} rows per
+     * transaction; returns the rows filled. Safe to rerun: a filled row is not picked again.
+     */
+    public long backfillGeometry(int batchSize) {
+        long filled = 0;
+        int n;
+        while ((n = tx.execute(status -> backfillBatch(batchSize))) > 0) filled += n;
+        return filled;
+    }
+
+    private int backfillBatch(int batchSize) {
+        List<BlueprintEntity> batch = repo.findAllById(repo.findIdsWithoutGeometry(batchSize));
+        batch.forEach(e -> e.setGeometry(geometryOf(e).state()));
+        repo.saveAll(batch);
+        return batch.size();
+    }
+
+    /** Reads the maintained author_stats rows: one row per author, no scan of blueprints or points. */
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorStats> getAuthorStats() {
+        return authorStats.findAllByAuthor().stream()
+                .map(a -> new AuthorStats(a.getAuthor(), a.getBlueprints(), a.getPoints(), a.getLastModified()))
+                .toList();
+    }
+
+    /** Not pinned: a search names no author, so it is always served by the replica if any. */
+    @Override
+    @Transactional(readOnly = true)
+    public List<SearchHit> search(String query, boolean substring, int limit) {
+        String q = SearchHit.normalize(query);
+        String prefix = escapeLike(q) + "%";
+        // "" never excludes a non-blank value, so the first tier keeps everything that matches
+        List<SearchHit> hits = searchTier(q, prefix, "", limit);
+        if (substring && q.length() >= SearchHit.MIN_SUBSTRING_QUERY && hits.size() < limit) {
+            hits.addAll(searchTier(q, "%" + prefix, prefix, limit - hits.size()));
+        }
+        return hits;
+    }
+
+    /**
+     * Not pinned, like search. The box index narrows the blueprints to those whose bounds
+     * hold the location; only those are loaded and tested point by point.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BlueprintHit> hitTest(int x, int y, int limit) {
+        List<BlueprintKey> candidates = repo.findHitCandidates(x, y).stream()
+                .map(r -> new BlueprintKey(r.getAuthor(), r.getName()))
+                .toList();
+        List<BlueprintHit> hits = new ArrayList<>();
+        for (Blueprint bp : getBlueprints(candidates).values()) {
+            if (PointInPolygon.contains(bp.pointStorage(), x, y)) {
+                hits.add(new BlueprintHit(bp.getAuthor(), bp.getName(), Math.abs(bp.metrics().signedArea())));
+            }
+        }
+        hits.sort(BlueprintHit.INNERMOST_FIRST);
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private List<SearchHit> searchTier(String q, String pattern, String exclude, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        repo.searchAuthors(pattern, exclude, limit).forEach(a -> hits.add(SearchHit.of(a, null, q)));
+        repo.searchNames(pattern, exclude, limit).forEach(r -> hits.add(SearchHit.of(r.getAuthor(), r.getName(), q)));
+        hits.sort(SearchHit.RANKING);
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Reads the outbox. Not pinned, so a lagging replica may return fewer events; a
+     * since beyond its latest seq is therefore answered empty rather than with a resync.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeed getChanges(long since, int limit) {
+        long latest = changes.latestSeq();
+        long oldest = changes.oldestSeq();
+        // Sequence gaps (rolled-back appends) can only make this resync early, never skip events
+        if (oldest > 0 && since < oldest - 1) return ChangeFeed.resync(since, latest);
+        if (since >= latest) return ChangeFeed.of(since, List.of(), latest);
+        List<ChangeEvent> events = changes.findAfter(since, Limit.of(limit)).stream()
+                .map(ChangeEventEntity::toEvent)
+                .toList();
+        return ChangeFeed.of(since, events, latest);
+    }
+
+    @Override
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
     }
-}
\ No newline at end of file
+}
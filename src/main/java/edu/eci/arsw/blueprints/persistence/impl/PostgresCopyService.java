@@ -0,0 +1,146 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.persistence.jpa.ChangeEventJpaRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+/**
+ * Streams whole tables in and out through PostgreSQL's COPY protocol. Rows flow
+ * straight between the caller's stream and the server; nothing is buffered here
+ * beyond the driver's copy buffer.
+ * <p>
+ * A restore loads {@code blueprints}, then the point table of the active layout.
+ * Importing the point table finishes it: author_stats is recomputed from the loaded
+ * rows and one RESYNC change event is recorded in the same transaction, and after the
+ * commit any row without geometry sums (a dump from before they were exported) gets them.
+ */
+@Service
+@Profile("postgres")
+public class PostgresCopyService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCopyService.class);
+
+    public enum Format { TEXT, BINARY }
+
+    public record CopyResult(String table, String format, long rows, long millis, long rowsPerSecond) {
+        static CopyResult of(CopyTable table, Format format, long rows, long startNanos) {
+            long nanos = Math.max(1, System.nanoTime() - startNanos);
+            return new CopyResult(table.table(), format.name().toLowerCase(), rows,
+                    nanos / 1_000_000, rows * 1_000_000_000L / nanos);
+        }
+    }
+
+    /** Rows without geometry sums filled per transaction after a restore. */
+    static final int BACKFILL_BATCH = 500;
+
+    static final String RECOMPUTE_AUTHOR_STATS = """
+            insert into author_stats (author, blueprints, points, last_modified)
+            select b.author, count(*), coalesce(sum(coalesce(p.n, 0) + coalesce(c.n, 0)), 0), now()
+            from blueprints b
+            left join (select blueprint_id, count(*) as n from points group by blueprint_id) p
+              on p.blueprint_id = b.id
+            left join (select blueprint_id, sum(points) as n from point_chunks group by blueprint_id) c
+              on c.blueprint_id = b.id
+            group by b.author""";
+
+    private final DataSource dataSource;
+    private final PostgresBlueprintPersistence persistence;
+    private final boolean packed;
+
+    public PostgresCopyService(DataSource dataSource, PostgresBlueprintPersistence persistence,
+                               @Value("${blueprints.postgres.point-layout:rows}") String pointLayout) {
+        this.dataSource = dataSource;
+        this.persistence = persistence;
+        this.packed = "packed".equals(pointLayout);
+    }
+
+    /** The table named {@code name}, if it can be copied under the active point layout. */
+    public Optional<CopyTable> table(String name) {
+        return CopyTable.byName(name, packed);
+    }
+
+    public CopyResult export(CopyTable table, Format format, OutputStream out) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try (Connection c = dataSource.getConnection()) {
+            long rows = copyManager(c).copyOut(
+                    "COPY %s TO STDOUT%s".formatted(table.exportSource(), options(format)), out);
+            CopyResult result = CopyResult.of(table, format, rows, start);
+            log.info("COPY export {}", result);
+            return result;
+        }
+    }
+
+    /**
+     * Loads rows into {@code table}; meant for restoring into empty tables, parents
+     * ({@link CopyTable#BLUEPRINTS}) before children. The id sequence is moved past
+     * the imported ids so later inserts do not collide with them; importing the point
+     * table also finishes the restore (see the class comment).
+     */
+    public CopyResult importInto(CopyTable table, Format format, InputStream in) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try (Connection c = dataSource.getConnection()) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try {
+                long rows = copyManager(c).copyIn(
+                        "COPY %s (%s) FROM STDIN%s".formatted(table.table(), table.columns(), options(format)), in);
+                try (Statement st = c.createStatement()) {
+                    if (table.hasIdSequence()) {
+                        st.execute(("SELECT setval(pg_get_serial_sequence('%1$s', 'id'), COALESCE(MAX(id), 1), "
+                                + "MAX(id) IS NOT NULL) FROM %1$s").formatted(table.table()));
+                    }
+                    if (table.holdsPoints()) finishRestore(st);
+                }
+                c.commit();
+                CopyResult result = CopyResult.of(table, format, rows, start);
+                log.info("COPY import {}", result);
+                if (table.holdsPoints()) {
+                    log.info("Filled geometry sums of {} restored blueprints",
+                            persistence.backfillGeometry(BACKFILL_BATCH));
+                }
+                return result;
+            } catch (SQLException | IOException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Totals derived from the restored rows replace whatever author_stats held, and one
+     * RESYNC event tells feed consumers to rebuild rather than wait for per-blueprint
+     * events the COPY never recorded.
+     */
+    private static void finishRestore(Statement st) throws SQLException {
+        st.execute("delete from author_stats");
+        st.execute(RECOMPUTE_AUTHOR_STATS);
+        st.execute("select pg_advisory_xact_lock(" + ChangeEventJpaRepository.APPEND_LOCK + ")");
+        st.execute("insert into change_events (type, author, name, version, created_at) "
+                + "values ('" + ChangeEvent.Type.RESYNC.name() + "', '', '', 0, now())");
+    }
+
+    private static String options(Format format) {
+        return format == Format.BINARY ? " (FORMAT binary)" : "";
+    }
+
+    private static CopyManager copyManager(Connection c) throws SQLException {
+        return c.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
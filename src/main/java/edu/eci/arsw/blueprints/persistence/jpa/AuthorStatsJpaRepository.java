@@ -0,0 +1,31 @@
+package edu.eci.arsw.blueprints.persistence.jpa;
+
+import edu.eci.arsw.blueprints.persistence.entity.AuthorStatsEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface AuthorStatsJpaRepository extends JpaRepository<AuthorStatsEntity, String> {
+
+    /** Adds to an author's totals in one statement; concurrent writers cannot lose updates. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            insert into author_stats (author, blueprints, points, last_modified)
+            values (:author, :blueprints, :points, now())
+            on conflict (author) do update set
+              blueprints = author_stats.blueprints + excluded.blueprints,
+              points = author_stats.points + excluded.points,
+              last_modified = excluded.last_modified""", nativeQuery = true)
+    void increment(@Param("author") String author, @Param("blueprints") long blueprints,
+                   @Param("points") long points);
+
+    default List<AuthorStatsEntity> findAllByAuthor() {
+        return findAll(Sort.by("author"));
+    }
+}
@@ -1,8 +1,15 @@
 package edu.eci.arsw.blueprints.persistence.jpa;
 
 import edu.eci.arsw.blueprints.persistence.entity.BlueprintEntity;
+import edu.eci.arsw.blueprints.persistence.entity.GeometryColumns;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +17,94 @@ public interface BlueprintJpaRepository extends JpaRepository<BlueprintEntity, L
 
     Optional<BlueprintEntity> findByAuthorAndName(String author, String name);
 
+    /**
+     * The blueprint row locked {@code FOR UPDATE} until the transaction ends, so concurrent
+     * appends to one blueprint apply their geometry updates one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BlueprintEntity b where b.author = :author and b.name = :name")
+    Optional<BlueprintEntity> findForUpdate(@Param("author") String author, @Param("name") String name);
+
     List<BlueprintEntity> findByAuthor(String author);
-}
\ No newline at end of file
+
+    /** {@code author:name} keys of the stored blueprints whose author and name are both listed. */
+    @Query("select concat(b.author, ':', b.name) from BlueprintEntity b where b.author in :authors and b.name in :names")
+    List<String> findKeysByAuthorInAndNameIn(@Param("authors") Collection<String> authors,
+                                             @Param("names") Collection<String> names);
+
+    /** Ids of the blueprints whose (author, name) pair appears at the same index of both arrays. */
+    @Query(value = """
+            select b.id from blueprints b
+            join unnest(cast(:authors as text[]), cast(:names as text[])) as k(author, name)
+              on b.author = k.author and b.name = k.name""", nativeQuery = true)
+    List<Long> findIdsByKeys(@Param("authors") String[] authors, @Param("names") String[] names);
+
+    /** Blueprints with their points in one query, instead of one points select per blueprint. */
+    @Query("select distinct b from BlueprintEntity b left join fetch b.points where b.id in :ids")
+    List<BlueprintEntity> findAllWithPointsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id from BlueprintEntity b where b.author = :author and b.name = :name")
+    Optional<Long> findIdByAuthorAndName(@Param("author") String author, @Param("name") String name);
+
+    /** Just the running geometry sums; null when the row has none. */
+    @Query("select b.geometry from BlueprintEntity b where b.id = :id")
+    GeometryColumns findGeometry(@Param("id") Long blueprintId);
+
+    /** Every blueprint's key, without touching the points. */
+    @Query(value = "select author as author, name as name from blueprints order by id", nativeQuery = true)
+    List<NameRow> findAllNames();
+
+    /** Rows with no geometry sums (seeded by data.sql or loaded through COPY), lowest id first. */
+    @Query(value = "select id from blueprints where geo_points is null order by id limit :limit", nativeQuery = true)
+    List<Long> findIdsWithoutGeometry(@Param("limit") int limit);
+
+    // Search: patterns are built on lower-cased, LIKE-escaped queries; the prefix forms
+    // are served by the lower(...) text_pattern_ops indexes created in data.sql.
+
+    @Query(value = """
+            select author from blueprints
+            where lower(author) like :pattern escape '\\' and lower(author) not like :exclude escape '\\'
+            group by author
+            order by lower(author), author
+            limit :limit""", nativeQuery = true)
+    List<String> searchAuthors(@Param("pattern") String pattern, @Param("exclude") String exclude,
+                               @Param("limit") int limit);
+
+    @Query(value = """
+            select author as author, name as name from blueprints
+            where lower(name) like :pattern escape '\\' and lower(name) not like :exclude escape '\\'
+            order by lower(name), author, name
+            limit :limit""", nativeQuery = true)
+    List<NameRow> searchNames(@Param("pattern") String pattern, @Param("exclude") String exclude,
+                              @Param("limit") int limit);
+
+    /**
+     * Blueprints of three or more points whose bounding box holds the location, served by
+     * the GiST box index created in data.sql. Rows without geometry sums are not found
+     * until {@code PostgresBlueprintPersistence#backfillGeometry} has filled them.
+     */
+    @Query(value = """
+            select author as author, name as name from blueprints
+            where geo_points >= 3
+              and box(point(geo_min_x, geo_min_y), point(geo_max_x, geo_max_y)) @> point(:x, :y)""", nativeQuery = true)
+    List<NameRow> findHitCandidates(@Param("x") int x, @Param("y") int y);
+
+    @Query(value = "select count(*) from points where blueprint_id = :id", nativeQuery = true)
+    int countPoints(@Param("id") Long blueprintId);
+
+    /** Range scan over the (blueprint_id, position) index. */
+    @Query(value = """
+            select p.x as x, p.y as y from points p
+            where p.blueprint_id = :id and p.position >= :from
+            order by p.position
+            limit :limit""", nativeQuery = true)
+    List<PointRow> findPointSlice(@Param("id") Long blueprintId, @Param("from") int from, @Param("limit") int limit);
+
+    /** Blueprints that still keep points as rows, lowest id first; served by the (blueprint_id, position) index. */
+    @Query(value = "select distinct blueprint_id from points order by blueprint_id limit :limit", nativeQuery = true)
+    List<Long> findIdsWithPointRows(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from points where blueprint_id = any(cast(:ids as bigint[]))", nativeQuery = true)
+    int deletePointRows(@Param("ids") Long[] blueprintIds);
+}
@@ -0,0 +1,59 @@
+package edu.eci.arsw.blueprints.persistence.jpa;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.persistence.entity.ChangeEventEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * The change feed outbox. Appends take a transaction-scoped advisory lock before
+ * drawing sequence numbers, so appending transactions commit in sequence order and a
+ * reader can never see seq n+1 while n is still uncommitted (and then skip it).
+ */
+public interface ChangeEventJpaRepository extends JpaRepository<ChangeEventEntity, Long> {
+
+    /** Arbitrary application-wide key for {@code pg_advisory_xact_lock}. */
+    long APPEND_LOCK = 0x626c7565_7072696eL;
+
+    @Query(value = "select 1 from pg_advisory_xact_lock(:key)", nativeQuery = true)
+    int lockAppends(@Param("key") long key);
+
+    @Modifying
+    @Query(value = """
+            insert into change_events (type, author, name, version, created_at)
+            select :type, k.author, k.name, k.version, now()
+            from unnest(cast(:authors as text[]), cast(:names as text[]), cast(:versions as int[]))
+                 with ordinality as k(author, name, version, ord)
+            order by k.ord""", nativeQuery = true)
+    int insertAll(@Param("type") String type, @Param("authors") String[] authors,
+                  @Param("names") String[] names, @Param("versions") Integer[] versions);
+
+    /** Records one change per (author, name, version) triple, in array order. */
+    @Transactional
+    default void append(ChangeEvent.Type type, String[] authors, String[] names, Integer[] versions) {
+        lockAppends(APPEND_LOCK);
+        insertAll(type.name(), authors, names, versions);
+    }
+
+    @Query("select e from ChangeEventEntity e where e.seq > :since order by e.seq")
+    List<ChangeEventEntity> findAfter(@Param("since") long since, Limit limit);
+
+    @Query("select coalesce(max(e.seq), 0) from ChangeEventEntity e")
+    long latestSeq();
+
+    @Query("select coalesce(min(e.seq), 0) from ChangeEventEntity e")
+    long oldestSeq();
+
+    /** Keeps the newest {@code retain} sequence numbers; returns the rows removed. */
+    @Modifying
+    @Transactional
+    @Query(value = "delete from change_events where seq <= (select max(seq) from change_events) - :retain",
+            nativeQuery = true)
+    int prune(@Param("retain") long retain);
+}
@@ -0,0 +1,7 @@
+package edu.eci.arsw.blueprints.persistence.jpa;
+
+/** Projection of a blueprint's key, without its points. */
+public interface NameRow {
+    String getAuthor();
+    String getName();
+}
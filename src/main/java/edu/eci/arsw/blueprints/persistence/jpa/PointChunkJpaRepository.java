@@ -0,0 +1,63 @@
+package edu.eci.arsw.blueprints.persistence.jpa;
+
+import edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/** Packed point chunks ({@code point_chunks}); see {@link PointChunkEntity} for the encoding. */
+public interface PointChunkJpaRepository extends JpaRepository<PointChunkEntity, PointChunkEntity.Key> {
+
+    /** Chunks {@code first..last} of one blueprint, in order; a primary key range scan. */
+    @Query("""
+            select c from PointChunkEntity c
+            where c.blueprint.id = :id and c.chunk between :first and :last
+            order by c.chunk""")
+    List<PointChunkEntity> findRange(@Param("id") Long blueprintId, @Param("first") int first,
+                                     @Param("last") int last);
+
+    /** Every chunk of the given blueprints, grouped by blueprint and in chunk order. */
+    @Query("select c from PointChunkEntity c where c.blueprint.id in :ids order by c.blueprint.id, c.chunk")
+    List<PointChunkEntity> findAllByBlueprintIdIn(@Param("ids") Collection<Long> blueprintIds);
+
+    @Query(value = "select coalesce(sum(points), 0) from point_chunks where blueprint_id = :id", nativeQuery = true)
+    int countPoints(@Param("id") Long blueprintId);
+
+    /**
+     * Appends one encoded point to the last chunk if it still has room; returns 0 when
+     * it is full or missing. The room check is re-evaluated under the row lock, so
+     * concurrent appends never overfill a chunk.
+     */
+    @Modifying
+    @Query(value = """
+            update point_chunks set data = data || :xy, points = points + 1
+            where blueprint_id = :id and points < :max
+              and chunk = (select max(chunk) from point_chunks where blueprint_id = :id)""", nativeQuery = true)
+    int appendToLastChunk(@Param("id") Long blueprintId, @Param("xy") byte[] xy, @Param("max") int maxPoints);
+
+    /** Starts the next chunk with one encoded point. */
+    @Modifying
+    @Query(value = """
+            insert into point_chunks (blueprint_id, chunk, points, data)
+            select :id, coalesce(max(chunk) + 1, 0), 1, :xy from point_chunks where blueprint_id = :id""",
+            nativeQuery = true)
+    int appendChunk(@Param("id") Long blueprintId, @Param("xy") byte[] xy);
+
+    /**
+     * Packs the row-per-point layout of the given blueprints into chunks, entirely in
+     * the database: {@code int4send} yields the same big-endian bytes the Java side writes.
+     */
+    @Modifying
+    @Query(value = """
+            insert into point_chunks (blueprint_id, chunk, points, data)
+            select blueprint_id, position / :chunkPoints, count(*),
+                   string_agg(int4send(x) || int4send(y), cast('' as bytea) order by position)
+            from points
+            where blueprint_id = any(cast(:ids as bigint[]))
+            group by blueprint_id, position / :chunkPoints""", nativeQuery = true)
+    int packRows(@Param("ids") Long[] blueprintIds, @Param("chunkPoints") int chunkPoints);
+}
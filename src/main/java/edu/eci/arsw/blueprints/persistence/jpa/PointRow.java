@@ -0,0 +1,7 @@
+package edu.eci.arsw.blueprints.persistence.jpa;
+
+/** Coordinates of a stored point, read without loading its entity. */
+public interface PointRow {
+    int getX();
+    int getY();
+}
@@ -0,0 +1,126 @@
+package edu.eci.arsw.blueprints.persistence.offheap;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapSlabAllocator.Slab;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Point storage whose coordinates live in an off-heap slab; the only heap objects
+ * per blueprint are this handle and the slab's buffer view.
+ * <p>
+ * Appends take the write lock and move to a slab of the next size class when the
+ * current one is full. Single-point reads are optimistic and retry under the read
+ * lock only if an append or release raced with them.
+ */
+public final class OffHeapPointStorage implements PointStorage {
+
+    private static final int POINT_BYTES = OffHeapSlabAllocator.POINT_BYTES;
+
+    private final OffHeapSlabAllocator allocator;
+    private final StampedLock lock = new StampedLock();
+    private Slab slab;   // null once released
+    private int size;
+
+    public OffHeapPointStorage(OffHeapSlabAllocator allocator, int expectedPoints) {
+        this.allocator = allocator;
+        this.slab = allocator.allocate(Math.max(expectedPoints, OffHeapSlabAllocator.MIN_SLAB_POINTS));
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = size;
+        if (lock.validate(stamp)) return n;
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Point get(int index) {
+        long stamp = lock.tryOptimisticRead();
+        Slab s = slab;
+        int n = size;
+        // The capacity check keeps a torn read of (slab, size) from indexing past the buffer
+        if (s != null && index >= 0 && index < n && index < s.capacity()) {
+            ByteBuffer buf = s.buffer();
+            int x = buf.getInt(index * POINT_BYTES);
+            int y = buf.getInt(index * POINT_BYTES + 4);
+            if (lock.validate(stamp)) return new Point(x, y);
+        }
+        stamp = lock.readLock();
+        try {
+            checkIndex(index);
+            ByteBuffer buf = slab.buffer();
+            return new Point(buf.getInt(index * POINT_BYTES), buf.getInt(index * POINT_BYTES + 4));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void append(int x, int y) {
+        long stamp = lock.writeLock();
+        try {
+            if (slab == null) throw new IllegalStateException("Point storage already released");
+            if (size == slab.capacity()) grow();
+            ByteBuffer buf = slab.buffer();
+            buf.putInt(size * POINT_BYTES, x);
+            buf.putInt(size * POINT_BYTES + 4, y);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Visits every point under the read lock; appends wait until the walk is done. */
+    @Override
+    public void forEach(PointVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            if (slab == null) return;
+            ByteBuffer buf = slab.buffer();
+            for (int i = 0, off = 0; i < size; i++, off += POINT_BYTES) {
+                visitor.visit(buf.getInt(off), buf.getInt(off + 4));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void release() {
+        long stamp = lock.writeLock();
+        try {
+            if (slab == null) return;
+            allocator.free(slab);
+            slab = null;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void grow() {
+        long wanted = (long) slab.capacity() * 2;
+        if (wanted > Integer.MAX_VALUE / POINT_BYTES) throw new IllegalStateException("Blueprint too large: " + size);
+        Slab bigger = allocator.allocate((int) wanted);
+        ByteBuffer from = slab.buffer().duplicate().clear().limit(size * POINT_BYTES);
+        bigger.buffer().duplicate().clear().put(from);
+        allocator.free(slab);
+        slab = bigger;
+    }
+
+    private void checkIndex(int index) {
+        if (slab == null) throw new IllegalStateException("Point storage already released");
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package edu.eci.arsw.blueprints.persistence.offheap;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+
+import java.util.List;
+
+public class OffHeapPointStorageFactory implements PointStorageFactory {
+
+    private final OffHeapSlabAllocator allocator;
+
+    public OffHeapPointStorageFactory(OffHeapSlabAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    public OffHeapSlabAllocator allocator() { return allocator; }
+
+    @Override
+    public PointStorage copyOf(List<Point> points) {
+        OffHeapPointStorage storage = new OffHeapPointStorage(allocator, points.size());
+        for (Point p : points) storage.append(p.x(), p.y());
+        return storage;
+    }
+}
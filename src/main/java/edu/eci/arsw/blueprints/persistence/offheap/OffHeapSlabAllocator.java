@@ -0,0 +1,130 @@
+package edu.eci.arsw.blueprints.persistence.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Hands out point slabs carved from large direct {@link ByteBuffer} arenas.
+ * <p>
+ * Slabs come in power-of-two size classes (16, 32, 64, ... points of
+ * {@value #POINT_BYTES} bytes each) so a freed slab can be reused by any blueprint
+ * of the same class. Freed slabs go back to a per-class free list; arenas are
+ * never returned to the OS. Requests bigger than an arena get a dedicated buffer
+ * which is dropped on free and reclaimed with its (small) heap handle.
+ */
+public class OffHeapSlabAllocator {
+
+    /** Two ints per point: x then y. */
+    public static final int POINT_BYTES = 8;
+    public static final int MIN_SLAB_POINTS = 16;
+    public static final int DEFAULT_ARENA_BYTES = 64 << 20;
+
+    /** A block of off-heap memory able to hold {@link #capacity()} points. */
+    public record Slab(ByteBuffer buffer, int capacity, int sizeClass) {
+        static final int DEDICATED = -1;
+    }
+
+    private final int arenaBytes;
+    private final int maxClass;
+    private final List<ConcurrentLinkedDeque<Slab>> freeLists;   // by size class
+
+    private final Object arenaLock = new Object();
+    private ByteBuffer arena;   // guarded by arenaLock; carved front to back
+
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong arenas = new AtomicLong();
+
+    public OffHeapSlabAllocator() { this(DEFAULT_ARENA_BYTES); }
+
+    public OffHeapSlabAllocator(int arenaBytes) {
+        if (arenaBytes < MIN_SLAB_POINTS * POINT_BYTES) {
+            throw new IllegalArgumentException("Arena must hold at least one slab: " + arenaBytes);
+        }
+        this.arenaBytes = arenaBytes;
+        int c = 0;
+        while ((long) pointsIn(c + 1) * POINT_BYTES <= arenaBytes) c++;
+        this.maxClass = c;
+        this.freeLists = Stream.generate(ConcurrentLinkedDeque<Slab>::new).limit(maxClass + 1).toList();
+    }
+
+    /** Returns a slab with room for at least {@code minPoints} points. */
+    public Slab allocate(int minPoints) {
+        if (minPoints > pointsIn(maxClass)) {
+            long bytes = (long) minPoints * POINT_BYTES;
+            if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many points: " + minPoints);
+            ByteBuffer dedicated = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+            reservedBytes.addAndGet(bytes);
+            usedBytes.addAndGet(bytes);
+            return new Slab(dedicated, minPoints, Slab.DEDICATED);
+        }
+        int sizeClass = classFor(minPoints);
+        Slab slab = freeLists.get(sizeClass).pollFirst();
+        if (slab == null) slab = carve(sizeClass);
+        usedBytes.addAndGet(slabBytes(sizeClass));
+        return slab;
+    }
+
+    /** Returns a slab obtained from {@link #allocate(int)}; it must not be touched afterwards. */
+    public void free(Slab slab) {
+        if (slab.sizeClass() == Slab.DEDICATED) {
+            long bytes = (long) slab.capacity() * POINT_BYTES;
+            usedBytes.addAndGet(-bytes);
+            reservedBytes.addAndGet(-bytes);
+            return;
+        }
+        usedBytes.addAndGet(-slabBytes(slab.sizeClass()));
+        freeLists.get(slab.sizeClass()).offerFirst(slab);
+    }
+
+    /** Off-heap bytes obtained from the OS so far. */
+    public long reservedBytes() { return reservedBytes.get(); }
+
+    /** Off-heap bytes currently handed out as slabs. */
+    public long usedBytes() { return usedBytes.get(); }
+
+    public long arenaCount() { return arenas.get(); }
+
+    private Slab carve(int sizeClass) {
+        int bytes = slabBytes(sizeClass);
+        synchronized (arenaLock) {
+            if (arena == null || arena.remaining() < bytes) {
+                if (arena != null) recycleTail(arena);
+                arena = ByteBuffer.allocateDirect(arenaBytes);
+                reservedBytes.addAndGet(arenaBytes);
+                arenas.incrementAndGet();
+            }
+            return new Slab(take(arena, bytes), pointsIn(sizeClass), sizeClass);
+        }
+    }
+
+    /** Cuts what is left of a retired arena into the largest slabs that fit. */
+    private void recycleTail(ByteBuffer tail) {
+        for (int c = maxClass; c >= 0; c--) {
+            int bytes = slabBytes(c);
+            while (tail.remaining() >= bytes) {
+                freeLists.get(c).offerLast(new Slab(take(tail, bytes), pointsIn(c), c));
+            }
+        }
+    }
+
+    private static ByteBuffer take(ByteBuffer from, int bytes) {
+        ByteBuffer slice = from.slice(from.position(), bytes).order(ByteOrder.nativeOrder());
+        from.position(from.position() + bytes);
+        return slice;
+    }
+
+    /** Smallest class holding {@code points}; callers guarantee it fits an arena. */
+    static int classFor(int points) {
+        if (points <= MIN_SLAB_POINTS) return 0;
+        return 32 - Integer.numberOfLeadingZeros((points - 1) / MIN_SLAB_POINTS);
+    }
+
+    private static int pointsIn(int sizeClass) { return MIN_SLAB_POINTS << sizeClass; }
+
+    private static int slabBytes(int sizeClass) { return pointsIn(sizeClass) * POINT_BYTES; }
+}
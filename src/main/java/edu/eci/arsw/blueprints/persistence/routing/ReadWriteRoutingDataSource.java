@@ -0,0 +1,44 @@
+package edu.eci.arsw.blueprints.persistence.routing;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the
+ * primary, unless the current thread is pinned by {@link ReadYourWritesWindow}.
+ * <p>
+ * Transaction managers open their connection before the read-only flag is
+ * published, so this must sit behind a {@link LazyConnectionDataSourceProxy}
+ * (see {@link #lazy}) to decide on the first statement instead.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReadYourWritesWindow window;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow window) {
+        this.window = window;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static DataSource lazy(DataSource primary, DataSource replica, ReadYourWritesWindow window) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, window));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    Route currentRoute() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && !window.isPinnedToPrimary() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
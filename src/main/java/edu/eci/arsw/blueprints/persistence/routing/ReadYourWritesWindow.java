@@ -0,0 +1,75 @@
+package edu.eci.arsw.blueprints.persistence.routing;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which authors were written recently so their reads can be pinned to
+ * the primary until the replica has had time to catch up.
+ * <p>
+ * A pin is a per-thread flag checked by {@link ReadWriteRoutingDataSource} when a
+ * transaction first touches the database; close it when the read is done.
+ */
+public class ReadYourWritesWindow {
+
+    /** Closing a pin never throws, so it fits in try-with-resources without a catch. */
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    static final int MAX_TRACKED_KEYS = 100_000;
+
+    private static final Pin NOT_PINNED = () -> { };
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrite = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> pinned = new ThreadLocal<>();
+
+    public ReadYourWritesWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String key) {
+        if (windowNanos <= 0) return;
+        long now = System.nanoTime();
+        lastWrite.put(key, now);
+        if (lastWrite.size() > MAX_TRACKED_KEYS) {
+            lastWrite.values().removeIf(t -> now - t >= windowNanos);
+        }
+    }
+
+    public boolean recentlyWritten(String key) {
+        Long at = lastWrite.get(key);
+        if (at == null) return false;
+        if (System.nanoTime() - at < windowNanos) return true;
+        lastWrite.remove(key, at);
+        return false;
+    }
+
+    /** Pins this thread to the primary if {@code key} was written within the window. */
+    public Pin pinIfRecentlyWritten(String key) {
+        return recentlyWritten(key) ? pinToPrimary() : NOT_PINNED;
+    }
+
+    /** Pins this thread to the primary if any of {@code keys} was written within the window. */
+    public Pin pinIfAnyRecentlyWritten(Collection<String> keys) {
+        for (String key : keys) {
+            if (recentlyWritten(key)) return pinToPrimary();
+        }
+        return NOT_PINNED;
+    }
+
+    /** Pins this thread to the primary, e.g. for the reads a write path depends on. */
+    public Pin pinToPrimary() {
+        if (Boolean.TRUE.equals(pinned.get())) return NOT_PINNED;
+        pinned.set(Boolean.TRUE);
+        return pinned::remove;
+    }
+
+    public boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(pinned.get());
+    }
+}
@@ -0,0 +1,134 @@
+package edu.eci.arsw.blueprints.persistence.search;
+
+import edu.eci.arsw.blueprints.model.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Incrementally maintained search index over authors and blueprint names.
+ * <p>
+ * Prefix lookups are a range scan over a sorted skip list of lower-cased terms, so
+ * they cost O(log n + limit) regardless of how many terms share the prefix.
+ * Substring lookups (queries of {@value #GRAM} or more characters) walk the
+ * shortest trigram posting list of the query and keep the terms that contain it.
+ * Entries are only removed when a blueprint moves to another cluster node.
+ */
+public class BlueprintSearchIndex {
+
+    static final int GRAM = SearchHit.MIN_SUBSTRING_QUERY;
+
+    /**
+     * An indexed term; {@code name} is null for author entries. {@code key} orders entries
+     * by term, then author, then name with a single string comparison.
+     */
+    private record Entry(String key, String term, String author, String name) {
+        static Entry of(String term, String author, String name) {
+            return new Entry(term + '\0' + author + '\0' + (name == null ? "" : name), term, author, name);
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key);
+
+    private static final class Posting {
+        final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+        final AtomicInteger size = new AtomicInteger();   // skip list size() is a full walk
+    }
+
+    private final NavigableSet<Entry> authors = new ConcurrentSkipListSet<>(ORDER);
+    private final NavigableSet<Entry> names = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentHashMap<String, Posting> grams;   // null when substring search is off
+
+    public BlueprintSearchIndex(boolean substringIndex) {
+        this.grams = substringIndex ? new ConcurrentHashMap<>() : null;
+    }
+
+    public void add(String author, String name) {
+        Entry a = Entry.of(SearchHit.normalize(author), author, null);
+        if (authors.add(a)) indexGrams(a);
+        Entry n = Entry.of(SearchHit.normalize(name), author, name);
+        if (names.add(n)) indexGrams(n);
+    }
+
+    /** Drops a blueprint name, and its author too when {@code lastOfAuthor} is set. */
+    public void remove(String author, String name, boolean lastOfAuthor) {
+        Entry n = Entry.of(SearchHit.normalize(name), author, name);
+        if (names.remove(n)) unindexGrams(n);
+        if (!lastOfAuthor) return;
+        Entry a = Entry.of(SearchHit.normalize(author), author, null);
+        if (authors.remove(a)) unindexGrams(a);
+    }
+
+    public boolean supportsSubstring() { return grams != null; }
+
+    /**
+     * Up to {@code limit} hits ranked by {@link SearchHit#RANKING}: exact and prefix
+     * matches first, then (if asked and the query is long enough) substring matches.
+     */
+    public List<SearchHit> search(String query, boolean substring, int limit) {
+        String q = SearchHit.normalize(query);
+        List<SearchHit> hits = new ArrayList<>();
+        prefix(authors, q, limit, hits);
+        prefix(names, q, limit, hits);
+        hits.sort(SearchHit.RANKING);
+        if (hits.size() > limit) hits.subList(limit, hits.size()).clear();
+        if (substring && grams != null && q.length() >= GRAM && hits.size() < limit) {
+            List<SearchHit> more = new ArrayList<>();
+            contains(q, limit - hits.size(), more);
+            more.sort(SearchHit.RANKING);
+            hits.addAll(more);
+        }
+        return hits;
+    }
+
+    private static void prefix(NavigableSet<Entry> set, String q, int limit, List<SearchHit> out) {
+        int taken = 0;
+        for (Entry e : set.tailSet(Entry.of(q, "", null), true)) {
+            if (!e.term().startsWith(q) || taken == limit) break;
+            out.add(hit(e, q));
+            taken++;
+        }
+    }
+
+    private void contains(String q, int limit, List<SearchHit> out) {
+        Posting shortest = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Posting p = grams.get(q.substring(i, i + GRAM));
+            if (p == null) return;   // some trigram of the query occurs nowhere
+            if (shortest == null || p.size.get() < shortest.size.get()) shortest = p;
+        }
+        for (Entry e : shortest.entries) {
+            if (out.size() == limit) return;
+            // prefix matches were already reported in the first tier
+            if (e.term().contains(q) && !e.term().startsWith(q)) out.add(hit(e, q));
+        }
+    }
+
+    private void indexGrams(Entry e) {
+        if (grams == null) return;
+        String t = e.term();
+        for (int i = 0; i + GRAM <= t.length(); i++) {
+            Posting p = grams.computeIfAbsent(t.substring(i, i + GRAM), k -> new Posting());
+            if (p.entries.add(e)) p.size.incrementAndGet();
+        }
+    }
+
+    private void unindexGrams(Entry e) {
+        if (grams == null) return;
+        String t = e.term();
+        for (int i = 0; i + GRAM <= t.length(); i++) {
+            Posting p = grams.get(t.substring(i, i + GRAM));
+            // Empty postings are left in place: a concurrent add may be about to use them
+            if (p != null && p.entries.remove(e)) p.size.decrementAndGet();
+        }
+    }
+
+    private static SearchHit hit(Entry e, String q) {
+        return SearchHit.of(e.author(), e.name(), q);
+    }
+}
@@ -0,0 +1,167 @@
+package edu.eci.arsw.blueprints.persistence.spatial;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "which blueprints contain this location" for the in-memory store.
+ * <p>
+ * Bounding boxes live in a hierarchy of square grids with cells of {@code 2^level}
+ * units. Each blueprint sits at the finest level where its box touches at most two
+ * cells per axis, in those (up to four) cells; a lookup visits the single cell holding
+ * the location at each level in use, so its cost follows the number of boxes around
+ * the location, not the size of the map. Boxes that survive the bounds check go through
+ * their {@link PolygonEdgeIndex}. A box that grows moves to its new cells; nothing is
+ * ever rebuilt.
+ * <p>
+ * {@link #append} must be called in the order points are added to the blueprint, e.g.
+ * while holding the blueprint's lock; {@link #add} takes that lock to snapshot the points.
+ */
+public class HitIndex {
+
+    private static final int LEVELS = 32;   // at 2^31 any int box spans at most two cells per axis
+
+    private static final class Shape {
+        final BlueprintKey key;
+        final PolygonEdgeIndex outline;
+        int level = -1;
+        long[] cells = new long[0];
+
+        Shape(BlueprintKey key, PolygonEdgeIndex outline) {
+            this.key = key;
+            this.outline = outline;
+        }
+    }
+
+    private final Map<BlueprintKey, Shape> shapes = new ConcurrentHashMap<>();
+    private final List<Map<Long, Set<Shape>>> grids = new ArrayList<>(LEVELS);
+
+    public HitIndex() {
+        for (int level = 0; level < LEVELS; level++) grids.add(new ConcurrentHashMap<>());
+    }
+
+    public void add(Blueprint bp) {
+        Shape shape;
+        synchronized (bp) {
+            shape = new Shape(BlueprintKey.of(bp), new PolygonEdgeIndex(bp.pointStorage()));
+            shapes.put(shape.key, shape);
+        }
+        place(shape);
+    }
+
+    /** Indexes a point just added to the blueprint; ignored if the blueprint is not indexed yet. */
+    public void append(String author, String name, int x, int y) {
+        Shape shape = shapes.get(new BlueprintKey(author, name));
+        if (shape == null) return;
+        shape.outline.append(x, y);
+        place(shape);
+    }
+
+    public void remove(String author, String name) {
+        Shape shape = shapes.remove(new BlueprintKey(author, name));
+        if (shape == null) return;
+        synchronized (shape) {
+            for (long cell : shape.cells) leave(shape.level, cell, shape);
+            shape.cells = new long[0];
+        }
+    }
+
+    /** Blueprints containing the location, innermost first, at most {@code limit}. */
+    public List<BlueprintHit> hits(int x, int y, int limit) {
+        List<Shape> found = new ArrayList<>();
+        for (int level = 0; level < LEVELS; level++) {
+            Map<Long, Set<Shape>> grid = grids.get(level);
+            if (grid.isEmpty()) continue;
+            Set<Shape> here = grid.get(cell(x >> level, y >> level));
+            if (here == null) continue;
+            for (Shape shape : here) {
+                // A shape moving between levels may briefly be in both
+                if (shape.outline.contains(x, y) && !containsSame(found, shape)) found.add(shape);
+            }
+        }
+        List<BlueprintHit> hits = new ArrayList<>(found.size());
+        for (Shape shape : found) {
+            hits.add(new BlueprintHit(shape.key.author(), shape.key.name(), shape.outline.area()));
+        }
+        hits.sort(BlueprintHit.INNERMOST_FIRST);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /** Moves the shape to the cells its current box covers, if they changed. */
+    private void place(Shape shape) {
+        synchronized (shape) {
+            BoundingBox box = shape.outline.bounds();
+            if (box == null || shapes.get(shape.key) != shape) return;   // no points, or removed meanwhile
+            int level = 0;
+            while (cellsAcross(box.minX(), box.maxX(), level) > 2 || cellsAcross(box.minY(), box.maxY(), level) > 2) {
+                level++;
+            }
+            long[] cells = cellsOf(box, level);
+            if (level == shape.level && Arrays.equals(cells, shape.cells)) return;
+            // Join the new cells before leaving the old ones, so lookups never miss the shape
+            Map<Long, Set<Shape>> grid = grids.get(level);
+            for (long cell : cells) {
+                grid.compute(cell, (c, set) -> {
+                    if (set == null) set = ConcurrentHashMap.newKeySet();
+                    set.add(shape);
+                    return set;
+                });
+            }
+            for (long cell : shape.cells) {
+                if (level != shape.level || !contains(cells, cell)) leave(shape.level, cell, shape);
+            }
+            shape.level = level;
+            shape.cells = cells;
+        }
+    }
+
+    private void leave(int level, long cell, Shape shape) {
+        grids.get(level).computeIfPresent(cell, (c, set) -> {
+            set.remove(shape);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static long[] cellsOf(BoundingBox box, int level) {
+        int x0 = box.minX() >> level, x1 = box.maxX() >> level;
+        int y0 = box.minY() >> level, y1 = box.maxY() >> level;
+        long[] cells = new long[(x1 - x0 + 1) * (y1 - y0 + 1)];
+        int i = 0;
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) cells[i++] = cell(cx, cy);
+        }
+        return cells;
+    }
+
+    private static long cellsAcross(int min, int max, int level) {
+        return (long) (max >> level) - (min >> level) + 1;
+    }
+
+    /**
+     * Unique key of a cell. Long.hashCode folds the halves with xor, which would put every
+     * cell with the same {@code cx ^ cy} in one bucket; multiplying by an odd constant is a
+     * bijection that spreads them.
+     */
+    private static long cell(int cx, int cy) {
+        return (((long) cx << 32) | (cy & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+    }
+
+    private static boolean containsSame(List<Shape> shapes, Shape shape) {
+        for (Shape s : shapes) if (s == shape) return true;
+        return false;
+    }
+
+    private static boolean contains(long[] cells, long cell) {
+        for (long c : cells) if (c == cell) return true;
+        return false;
+    }
+}
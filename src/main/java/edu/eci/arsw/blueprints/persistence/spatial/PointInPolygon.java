@@ -0,0 +1,74 @@
+package edu.eci.arsw.blueprints.persistence.spatial;
+
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+/**
+ * Even-odd point-in-polygon test over a blueprint's points read as a polygon closed
+ * from the last point back to the first. A point on the outline counts as inside.
+ * Exact for any {@code int} coordinates: orientations are compared as 128-bit products.
+ */
+public final class PointInPolygon {
+
+    /** Outcome of testing one edge. */
+    enum Edge { NONE, CROSSES, ON }
+
+    private PointInPolygon() { }
+
+    /** Streams the points once; for a polygon tested repeatedly use a {@link PolygonEdgeIndex}. */
+    public static boolean contains(PointStorage points, int x, int y) {
+        if (points.size() < 3) return false;
+        class Walk implements PointStorage.PointVisitor {
+            boolean started, inside, on;
+            int firstX, firstY, lastX, lastY;
+
+            @Override
+            public void visit(int px, int py) {
+                if (!started) {
+                    started = true;
+                    firstX = px;
+                    firstY = py;
+                } else {
+                    step(lastX, lastY, px, py);
+                }
+                lastX = px;
+                lastY = py;
+            }
+
+            void step(int x0, int y0, int x1, int y1) {
+                switch (edge(x0, y0, x1, y1, x, y)) {
+                    case ON -> on = true;
+                    case CROSSES -> inside = !inside;
+                    case NONE -> { }
+                }
+            }
+        }
+        Walk walk = new Walk();
+        points.forEach(walk);
+        walk.step(walk.lastX, walk.lastY, walk.firstX, walk.firstY);
+        return walk.on || walk.inside;
+    }
+
+    /**
+     * Whether {@code (px, py)} lies on the edge, or else whether a ray from it towards
+     * +x crosses the edge. The half-open rule on y counts a vertex once.
+     */
+    static Edge edge(int x0, int y0, int x1, int y1, int px, int py) {
+        long dx = (long) x1 - x0, dy = (long) y1 - y0;
+        int orientation = compareProducts(dx, (long) py - y0, (long) px - x0, dy);
+        if (orientation == 0
+                && px >= Math.min(x0, x1) && px <= Math.max(x0, x1)
+                && py >= Math.min(y0, y1) && py <= Math.max(y0, y1)) {
+            return Edge.ON;
+        }
+        if ((y0 > py) == (y1 > py)) return Edge.NONE;
+        // The crossing is right of the point when the point is on the left of the edge's upward direction
+        return orientation == Long.signum(dy) ? Edge.CROSSES : Edge.NONE;
+    }
+
+    /** Sign of {@code a*b - c*d}, computed without overflow. */
+    static int compareProducts(long a, long b, long c, long d) {
+        long hi1 = Math.multiplyHigh(a, b), hi2 = Math.multiplyHigh(c, d);
+        if (hi1 != hi2) return hi1 < hi2 ? -1 : 1;
+        return Integer.signum(Long.compareUnsigned(a * b, c * d));
+    }
+}
@@ -0,0 +1,158 @@
+package edu.eci.arsw.blueprints.persistence.spatial;
+
+import edu.eci.arsw.blueprints.model.BlueprintMetrics.BoundingBox;
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One blueprint's outline, prepared for repeated point-in-polygon tests.
+ * <p>
+ * Edges are bucketed into horizontal slabs of {@code 2^shift} units: a test only
+ * looks at the edges of the slab holding the point, plus the closing edge (last point
+ * back to the first), which is not indexed because every append moves it. Edges
+ * spanning more than {@value #LONG_EDGE_SLABS} slabs are kept in one list checked on
+ * every test instead of being copied into each slab. Appending a point indexes its
+ * edge in place; whenever the point count doubles the slab height is re-chosen for
+ * about {@value #EDGES_PER_SLAB} edges per slab, so indexing stays amortized O(1) per
+ * point. Small outlines are simply scanned.
+ * <p>
+ * Keeps its own copy of the coordinates (8 bytes per point) so tests never go
+ * through the blueprint's storage. Thread-safe.
+ */
+public final class PolygonEdgeIndex {
+
+    static final int SCAN_BELOW = 16;
+    static final int EDGES_PER_SLAB = 4;
+    static final int LONG_EDGE_SLABS = 16;
+
+    /** Growable list of edge numbers; edge {@code i} runs from point {@code i} to {@code i + 1}. */
+    private static final class Edges {
+        int[] items = new int[4];
+        int size;
+
+        void add(int edge) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = edge;
+        }
+    }
+
+    private int[] xs = new int[8];
+    private int[] ys = new int[8];
+    private int n;
+    private int minX, minY, maxX, maxY;
+    private double twiceArea;   // over the open path; the closing edge is added when asked
+
+    private Map<Integer, Edges> slabs;   // null while scanning
+    private Edges longEdges;
+    private int shift;
+    private int reindexAt = SCAN_BELOW;
+
+    public PolygonEdgeIndex(PointStorage points) {
+        points.forEach(this::append);
+    }
+
+    public synchronized void append(int x, int y) {
+        if (n == xs.length) {
+            xs = Arrays.copyOf(xs, n * 2);
+            ys = Arrays.copyOf(ys, n * 2);
+        }
+        xs[n] = x;
+        ys[n] = y;
+        if (n == 0) {
+            minX = maxX = x;
+            minY = maxY = y;
+        } else {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            twiceArea += (double) xs[n - 1] * y - (double) x * ys[n - 1];
+        }
+        n++;
+        if (n == reindexAt) {
+            reindex();
+            reindexAt *= 2;
+        } else if (slabs != null) {
+            index(n - 2);
+        }
+    }
+
+    /** Inside or on the outline; never for fewer than three points. */
+    public synchronized boolean contains(int x, int y) {
+        if (n < 3 || x < minX || x > maxX || y < minY || y > maxY) return false;
+        int crossings = crossings(n - 1, 0, x, y);
+        if (crossings < 0) return true;
+        if (slabs == null) {
+            for (int e = 0; e < n - 1; e++) {
+                int c = crossings(e, e + 1, x, y);
+                if (c < 0) return true;
+                crossings += c;
+            }
+        } else {
+            int inSlab = crossings(slabs.get(y >> shift), x, y);
+            int inLong = crossings(longEdges, x, y);
+            if (inSlab < 0 || inLong < 0) return true;
+            crossings += inSlab + inLong;
+        }
+        return (crossings & 1) == 1;
+    }
+
+    public synchronized int size() { return n; }
+
+    /** Null while there are no points. */
+    public synchronized BoundingBox bounds() {
+        return n == 0 ? null : new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    /** Area enclosed by the closed outline. */
+    public synchronized double area() {
+        if (n < 3) return 0;
+        double closing = (double) xs[n - 1] * ys[0] - (double) xs[0] * ys[n - 1];
+        return Math.abs(twiceArea + closing) / 2;
+    }
+
+    /** Crossings of the edges in the list, or -1 when the point is on one of them. */
+    private int crossings(Edges edges, int x, int y) {
+        if (edges == null) return 0;
+        int crossings = 0;
+        for (int i = 0; i < edges.size; i++) {
+            int e = edges.items[i];
+            int c = crossings(e, e + 1, x, y);
+            if (c < 0) return -1;
+            crossings += c;
+        }
+        return crossings;
+    }
+
+    /** 1 if the ray from the point crosses the edge between points {@code i} and {@code j}, -1 if the point is on it. */
+    private int crossings(int i, int j, int x, int y) {
+        return switch (PointInPolygon.edge(xs[i], ys[i], xs[j], ys[j], x, y)) {
+            case ON -> -1;
+            case CROSSES -> 1;
+            case NONE -> 0;
+        };
+    }
+
+    private void reindex() {
+        long height = (long) maxY - minY + 1;
+        long wanted = Math.max(1, (long) (n - 1) / EDGES_PER_SLAB);
+        // Smallest power of two at least height / wanted; int shifts stop at 31
+        shift = Math.min(31, 64 - Long.numberOfLeadingZeros(Math.max(0, height / wanted - 1)));
+        slabs = new HashMap<>();
+        longEdges = new Edges();
+        for (int e = 0; e < n - 1; e++) index(e);
+    }
+
+    private void index(int e) {
+        int from = Math.min(ys[e], ys[e + 1]) >> shift;
+        int to = Math.max(ys[e], ys[e + 1]) >> shift;
+        if (to - from >= LONG_EDGE_SLABS) {
+            longEdges.add(e);
+            return;
+        }
+        for (int slab = from; slab <= to; slab++) slabs.computeIfAbsent(slab, s -> new Edges()).add(e);
+    }
+}
@@ -0,0 +1,154 @@
+package edu.eci.arsw.blueprints.persistence.tiered;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps the points of {@link TieredPointStorage}s within a resident budget.
+ * <p>
+ * Resident storages wait in a queue in the order they became resident. When the
+ * budget is exceeded, the thread that exceeded it walks the queue CLOCK-style: a
+ * storage used since its last visit gets a second chance at the back of the queue,
+ * anything else is spilled to the {@link SpillSegments}. Marking a storage as used
+ * is a single volatile write, so reads never contend on a shared LRU list. Only one
+ * thread evicts at a time; others go over budget briefly rather than wait. Once the
+ * segment files reach their cap, storages stay resident over budget until spilled
+ * records are freed.
+ */
+public final class PointTier implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointTier.class);
+
+    private final long maxResidentPoints;
+    private final SpillSegments segments;
+    private final LongConsumer faultNanos;
+
+    private final Queue<TieredPointStorage> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    private final AtomicLong residentPoints = new AtomicLong();
+    private final AtomicLong spilledPoints = new AtomicLong();
+    private final LongAdder spills = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private boolean full;   // guarded by evicting; for logging the cap once per episode
+
+    public PointTier(long maxResidentPoints, Path directory, int segmentBytes) {
+        this(maxResidentPoints, directory, segmentBytes, Long.MAX_VALUE, nanos -> { });
+    }
+
+    /**
+     * @param maxMappedBytes cap on the segment files, rewound and partly live ones included
+     * @param faultNanos     told how long each fault-in took, e.g. to feed a timer
+     */
+    public PointTier(long maxResidentPoints, Path directory, int segmentBytes, long maxMappedBytes,
+                     LongConsumer faultNanos) {
+        if (maxResidentPoints < 0) throw new IllegalArgumentException("Negative resident budget: " + maxResidentPoints);
+        this.maxResidentPoints = maxResidentPoints;
+        this.segments = new SpillSegments(directory, segmentBytes, maxMappedBytes);
+        this.faultNanos = faultNanos;
+    }
+
+    public long maxResidentPoints() { return maxResidentPoints; }
+
+    /** Points currently held on the heap. */
+    public long residentPoints() { return residentPoints.get(); }
+
+    /** Points currently held only in the segment files. */
+    public long spilledPoints() { return spilledPoints.get(); }
+
+    /** Blueprints written out to disk so far. */
+    public long spills() { return spills.sum(); }
+
+    /** Spilled blueprints read back on access so far. */
+    public long faults() { return faults.sum(); }
+
+    public long mappedBytes() { return segments.mappedBytes(); }
+
+    SpillSegments segments() { return segments; }
+
+    /** A storage became resident (created or faulted in) with {@code points} points. */
+    void admitted(TieredPointStorage storage, int points) {
+        residentPoints.addAndGet(points);
+        queued.incrementAndGet();
+        clock.add(storage);
+    }
+
+    void grew(int points) {
+        residentPoints.addAndGet(points);
+    }
+
+    void spilled(int points) {
+        residentPoints.addAndGet(-points);
+        spilledPoints.addAndGet(points);
+        spills.increment();
+    }
+
+    void faulted(int points, long nanos) {
+        spilledPoints.addAndGet(-points);
+        faults.increment();
+        faultNanos.accept(nanos);
+    }
+
+    void released(int points, boolean resident) {
+        (resident ? residentPoints : spilledPoints).addAndGet(-points);
+    }
+
+    /**
+     * Spills unused storages until the budget holds again. Called by storages after
+     * they grew, outside their own lock; victims are only ever try-locked.
+     */
+    void evictIfOverBudget() {
+        if (residentPoints.get() <= maxResidentPoints || !evicting.tryLock()) return;
+        try {
+            // Two full turns of the clock: the first may only clear reference bits
+            int budget = 2 * queued.get() + 1;
+            while (residentPoints.get() > maxResidentPoints && budget-- > 0) {
+                TieredPointStorage s = clock.poll();
+                if (s == null) return;
+                queued.decrementAndGet();
+                TieredPointStorage.SpillResult result;
+                try {
+                    result = s.trySpill();
+                } catch (UncheckedIOException e) {
+                    // Disk full or unwritable: stay over budget rather than fail the caller's request
+                    log.warn("Could not spill blueprint points, keeping them resident", e);
+                    queued.incrementAndGet();
+                    clock.add(s);
+                    return;
+                }
+                if (result == TieredPointStorage.SpillResult.FULL) {
+                    if (!full) log.warn("Spill files reached their size cap ({} bytes mapped); "
+                            + "keeping points resident over budget", segments.mappedBytes());
+                    full = true;
+                    queued.incrementAndGet();
+                    clock.add(s);
+                    return;
+                }
+                if (result == TieredPointStorage.SpillResult.SPILLED) full = false;
+                if (result == TieredPointStorage.SpillResult.KEEP) {
+                    queued.incrementAndGet();
+                    clock.add(s);
+                }
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        segments.close();
+    }
+}
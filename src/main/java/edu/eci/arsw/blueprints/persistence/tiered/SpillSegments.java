@@ -0,0 +1,173 @@
+package edu.eci.arsw.blueprints.persistence.tiered;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Memory-mapped segment files holding the coordinates of spilled blueprints.
+ * <p>
+ * Records are appended to the active segment as packed {@code x, y} ints. Each
+ * segment counts its live records; once the last one is freed the segment is
+ * rewound and reused. Records are never moved, so a single live record keeps its
+ * whole segment mapped: with spilled blueprints faulted back in at random, the
+ * files can hold far more bytes than the points still spilled. What is mapped is
+ * therefore capped; at the cap {@link #write} refuses and the points stay on the
+ * heap. Records larger than a segment get a dedicated file, within the same cap,
+ * that is closed as soon as the record is freed. Reads go straight to the mapping
+ * without locking: a record is never moved or overwritten while it is live.
+ * <p>
+ * Spilled points are a cache of the in-memory store, not a durable copy. Each store
+ * works in its own subdirectory, which is deleted with its files on close.
+ */
+final class SpillSegments implements Closeable {
+
+    static final int POINT_BYTES = 8;
+
+    /** Where one spilled blueprint's points live. */
+    record Slot(Segment segment, int offset, int points) { }
+
+    static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final boolean dedicated;
+        private int writePos;   // guarded by SpillSegments.this
+        private int live;       // guarded by SpillSegments.this
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, boolean dedicated) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.dedicated = dedicated;
+        }
+
+        int capacity() { return buffer.capacity(); }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxMappedBytes;
+    private final List<Segment> segments = new ArrayList<>();     // every mapped file, for close()
+    private final Deque<Segment> emptySegments = new ArrayDeque<>();
+    private Segment active;
+    private long mappedBytes;
+    private int nextFileId;
+    private boolean closed;
+
+    SpillSegments(Path directory, int segmentBytes, long maxMappedBytes) {
+        if (segmentBytes < POINT_BYTES) throw new IllegalArgumentException("Segment too small: " + segmentBytes);
+        this.segmentBytes = segmentBytes - segmentBytes % POINT_BYTES;
+        this.maxMappedBytes = maxMappedBytes;
+        try {
+            this.directory = Files.createTempDirectory(Files.createDirectories(directory), "spill-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill directory under " + directory, e);
+        }
+    }
+
+    /**
+     * Copies the first {@code points} points of {@code coords} to disk; null when that
+     * would take a new file past the mapped-bytes cap.
+     */
+    synchronized Slot write(int[] coords, int points) {
+        if (closed) throw new IllegalStateException("Spill segments already closed");
+        long bytes = (long) points * POINT_BYTES;
+        if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many points: " + points);
+        Segment target;
+        if (bytes > segmentBytes) {
+            if (mappedBytes + bytes > maxMappedBytes) return null;
+            target = map((int) bytes, true);
+        } else {
+            if (active == null || active.capacity() - active.writePos < bytes) {
+                Segment next = nextSegment();
+                if (next == null) return null;
+                active = next;
+            }
+            target = active;
+        }
+        int offset = target.writePos;
+        target.buffer.slice(offset, (int) bytes).order(ByteOrder.nativeOrder())
+                .asIntBuffer().put(coords, 0, points * 2);
+        target.writePos += (int) bytes;
+        target.live++;
+        return new Slot(target, offset, points);
+    }
+
+    /** Reads a live record into {@code into}, which must hold {@code 2 * slot.points()} ints. */
+    void read(Slot slot, int[] into) {
+        slot.segment().buffer.slice(slot.offset(), slot.points() * POINT_BYTES).order(ByteOrder.nativeOrder())
+                .asIntBuffer().get(into, 0, slot.points() * 2);
+    }
+
+    /** Marks a record dead; its bytes are reused once its whole segment is dead. */
+    synchronized void free(Slot slot) {
+        Segment s = slot.segment();
+        if (--s.live > 0 || closed) return;
+        if (s.dedicated) {
+            segments.remove(s);
+            mappedBytes -= s.capacity();
+            closeQuietly(s.channel);
+        } else {
+            s.writePos = 0;
+            if (s != active) emptySegments.push(s);
+        }
+    }
+
+    /** Bytes of disk currently mapped, including rewound segments kept for reuse. */
+    synchronized long mappedBytes() { return mappedBytes; }
+
+    /** A rewound segment, else a new one if the cap allows, else null. */
+    private Segment nextSegment() {
+        Segment reused = emptySegments.poll();
+        if (reused != null) return reused;
+        return mappedBytes + segmentBytes > maxMappedBytes ? null : map(segmentBytes, false);
+    }
+
+    private Segment map(int bytes, boolean dedicated) {
+        Path file = directory.resolve("points-%05d.seg".formatted(nextFileId++));
+        try {
+            // The file is unlinked when its channel closes; nothing is left behind after close()
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            Segment s = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes), dedicated);
+            segments.add(s);
+            mappedBytes += bytes;
+            return s;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map spill segment " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        segments.forEach(s -> closeQuietly(s.channel));
+        segments.clear();
+        emptySegments.clear();
+        active = null;
+        mappedBytes = 0;
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException ignored) {
+            // Not empty on platforms that keep mapped files until unmapped; harmless
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Best effort: the mapping stays valid until it is garbage collected either way
+        }
+    }
+}
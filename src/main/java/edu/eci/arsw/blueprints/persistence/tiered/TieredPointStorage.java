@@ -0,0 +1,243 @@
+package edu.eci.arsw.blueprints.persistence.tiered;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Point storage that {@link PointTier} may spill to disk while it is not in use.
+ * <p>
+ * Resident coordinates are packed {@code x, y} ints in one array. When spilled,
+ * only this handle and the size stay on the heap; the next read or append faults
+ * the points back in (under the write lock) and makes the storage resident again.
+ * {@link #size()} never faults. Reads of resident points share the read lock,
+ * which also keeps the tier from spilling the storage mid-read.
+ */
+public final class TieredPointStorage implements PointStorage {
+
+    enum SpillResult { SPILLED, KEEP, GONE, FULL }
+
+    private static final int MIN_POINTS = 16;
+
+    private final PointTier tier;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int[] coords;                   // null while spilled or once released
+    private SpillSegments.Slot slot;        // non-null only while spilled
+    private boolean released;
+    private volatile int size;
+    private volatile boolean referenced;     // set on use, cleared by the tier's clock hand
+
+    public TieredPointStorage(PointTier tier, List<Point> points) {
+        this.tier = tier;
+        int n = points.size();
+        this.coords = new int[Math.max(n, MIN_POINTS) * 2];
+        for (int i = 0; i < n; i++) {
+            Point p = points.get(i);
+            coords[2 * i] = p.x();
+            coords[2 * i + 1] = p.y();
+        }
+        this.size = n;
+        tier.admitted(this, n);
+        tier.evictIfOverBudget();
+    }
+
+    @Override
+    public int size() { return size; }
+
+    /** Whether the points are on the heap right now; for metrics and tests. */
+    public boolean isResident() {
+        lock.readLock().lock();
+        try {
+            return coords != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Point get(int index) {
+        ReentrantReadWriteLock.ReadLock r = lockResident();
+        try {
+            checkIndex(index);
+            return new Point(coords[2 * index], coords[2 * index + 1]);
+        } finally {
+            r.unlock();
+            tier.evictIfOverBudget();
+        }
+    }
+
+    /**
+     * Live view. Iterating, or taking a sub-list, copies the points under one lock
+     * and checks the budget once, rather than once per element.
+     */
+    @Override
+    public List<Point> asList() {
+        // Not RandomAccess: bulk readers should take the iterator rather than call get(i)
+        class View extends AbstractList<Point> {
+            @Override public Point get(int index) { return TieredPointStorage.this.get(index); }
+            @Override public int size() { return TieredPointStorage.this.size(); }
+            @Override public Iterator<Point> iterator() { return listIterator(0); }
+            @Override public ListIterator<Point> listIterator(int index) { return snapshot().listIterator(index); }
+            @Override public List<Point> subList(int from, int to) { return copyRange(from, to); }
+        }
+        return new View();
+    }
+
+    @Override
+    public List<Point> copyRange(int from, int to) {
+        ReentrantReadWriteLock.ReadLock r = lockResident();
+        try {
+            if (released) throw new IllegalStateException("Point storage already released");
+            Objects.checkFromToIndex(from, to, size);
+            return copy(from, to);
+        } finally {
+            r.unlock();
+            tier.evictIfOverBudget();
+        }
+    }
+
+    /** Every point, as of now; empty once released. */
+    private List<Point> snapshot() {
+        ReentrantReadWriteLock.ReadLock r = lockResident();
+        try {
+            return released ? List.of() : copy(0, size);
+        } finally {
+            r.unlock();
+            tier.evictIfOverBudget();
+        }
+    }
+
+    /** Caller holds the read lock of a resident storage. */
+    private List<Point> copy(int from, int to) {
+        int[] c = coords;
+        List<Point> points = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) points.add(new Point(c[2 * i], c[2 * i + 1]));
+        return points;
+    }
+
+    @Override
+    public void append(int x, int y) {
+        referenced = true;
+        ReentrantReadWriteLock.WriteLock w = lock.writeLock();
+        w.lock();
+        try {
+            if (released) throw new IllegalStateException("Point storage already released");
+            if (coords == null) faultIn();
+            int n = size;
+            if (2 * n == coords.length) {
+                if (coords.length > Integer.MAX_VALUE / 2 - 8) throw new IllegalStateException("Blueprint too large: " + n);
+                coords = Arrays.copyOf(coords, coords.length * 2);
+            }
+            coords[2 * n] = x;
+            coords[2 * n + 1] = y;
+            size = n + 1;
+            tier.grew(1);
+        } finally {
+            w.unlock();
+        }
+        tier.evictIfOverBudget();
+    }
+
+    /** Visits every point under the read lock, faulting them in first if they were spilled. */
+    @Override
+    public void forEach(PointVisitor visitor) {
+        ReentrantReadWriteLock.ReadLock r = lockResident();
+        try {
+            if (released) return;
+            int[] c = coords;
+            for (int i = 0, n = size; i < n; i++) visitor.visit(c[2 * i], c[2 * i + 1]);
+        } finally {
+            r.unlock();
+            tier.evictIfOverBudget();
+        }
+    }
+
+    @Override
+    public void release() {
+        ReentrantReadWriteLock.WriteLock w = lock.writeLock();
+        w.lock();
+        try {
+            if (released) return;
+            tier.released(size, coords != null);
+            if (slot != null) tier.segments().free(slot);
+            coords = null;
+            slot = null;
+            size = 0;
+            released = true;
+        } finally {
+            w.unlock();
+        }
+    }
+
+    /**
+     * Returns the held read lock of a resident (or released) storage. Faulting in
+     * happens under the write lock, downgraded so no spill can slip in before the
+     * caller reads.
+     */
+    private ReentrantReadWriteLock.ReadLock lockResident() {
+        referenced = true;
+        ReentrantReadWriteLock.ReadLock r = lock.readLock();
+        r.lock();
+        if (coords != null || released) return r;
+        r.unlock();
+        ReentrantReadWriteLock.WriteLock w = lock.writeLock();
+        w.lock();
+        try {
+            if (coords == null && !released) faultIn();
+            r.lock();
+        } finally {
+            w.unlock();
+        }
+        return r;
+    }
+
+    /** Called by the tier's evicting thread; a storage in use is never waited for. */
+    SpillResult trySpill() {
+        if (referenced) {
+            referenced = false;
+            return SpillResult.KEEP;
+        }
+        ReentrantReadWriteLock.WriteLock w = lock.writeLock();
+        if (!w.tryLock()) return SpillResult.KEEP;     // in use right now
+        try {
+            if (released || coords == null) return SpillResult.GONE;
+            if (size == 0) return SpillResult.KEEP;
+            SpillSegments.Slot written = tier.segments().write(coords, size);
+            if (written == null) return SpillResult.FULL;
+            slot = written;
+            coords = null;
+            tier.spilled(size);
+            return SpillResult.SPILLED;
+        } finally {
+            w.unlock();
+        }
+    }
+
+    /** Caller holds the write lock. */
+    private void faultIn() {
+        long start = System.nanoTime();
+        int n = size;
+        int[] loaded = new int[Math.max(n, MIN_POINTS) * 2];
+        tier.segments().read(slot, loaded);
+        tier.segments().free(slot);
+        slot = null;
+        coords = loaded;
+        tier.faulted(n, System.nanoTime() - start);
+        tier.admitted(this, n);
+    }
+
+    private void checkIndex(int index) {
+        if (released) throw new IllegalStateException("Point storage already released");
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+}
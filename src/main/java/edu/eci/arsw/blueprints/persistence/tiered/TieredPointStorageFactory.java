@@ -0,0 +1,30 @@
+package edu.eci.arsw.blueprints.persistence.tiered;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+
+import java.io.Closeable;
+import java.util.List;
+
+public class TieredPointStorageFactory implements PointStorageFactory, Closeable {
+
+    private final PointTier tier;
+
+    public TieredPointStorageFactory(PointTier tier) {
+        this.tier = tier;
+    }
+
+    public PointTier tier() { return tier; }
+
+    @Override
+    public PointStorage copyOf(List<Point> points) {
+        return new TieredPointStorage(tier, points);
+    }
+
+    /** Unmaps the spill files; called by Spring on shutdown. */
+    @Override
+    public void close() {
+        tier.close();
+    }
+}
@@ -0,0 +1,182 @@
+package edu.eci.arsw.blueprints.render;
+
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Draws a blueprint's points, in order, as an open polyline with Java2D; needs
+ * no display ({@code java.awt.headless}).
+ * <p>
+ * Points are projected and snapped to whole pixels on the way in; consecutive
+ * points landing on the same pixel are dropped and segments that miss the image
+ * are skipped, which thins dense blueprints and tiles that show a small part of
+ * one. A PNG is bounded by its size anyway; an SVG keeps the vector path while it
+ * has at most one vertex per {@value #PIXELS_PER_VERTEX} pixels and otherwise
+ * embeds the PNG, so both formats scale with {@code width x height}, not with the
+ * point count.
+ */
+public final class BlueprintRenderer {
+
+    static final int PIXELS_PER_VERTEX = 16;
+
+    private static final Color INK = new Color(0x1f4e79);
+    private static final float STROKE_WIDTH = 1.5f;
+    // Round caps also make a single point (a zero-length segment) visible as a dot
+    private static final BasicStroke STROKE = new BasicStroke(STROKE_WIDTH, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final int CLIP_PAD = 2;
+
+    private BlueprintRenderer() { }
+
+    public static byte[] png(PointStorage points, Viewport view) {
+        return png(trace(points, view), view);
+    }
+
+    public static byte[] svg(PointStorage points, Viewport view) {
+        Trace trace = trace(points, view);
+        StringBuilder svg = new StringBuilder(256)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(view.width())
+                .append("\" height=\"").append(view.height())
+                .append("\" viewBox=\"0 0 ").append(view.width()).append(' ').append(view.height()).append("\">");
+        if (trace.vertices > vertexBudget(view)) {
+            svg.append("<image width=\"").append(view.width()).append("\" height=\"").append(view.height())
+                    .append("\" href=\"data:image/png;base64,")
+                    .append(Base64.getEncoder().encodeToString(png(trace, view))).append("\"/>");
+        } else if (trace.vertices > 0) {
+            svg.append("<path fill=\"none\" stroke=\"#1f4e79\" stroke-width=\"").append(STROKE_WIDTH)
+                    .append("\" stroke-linecap=\"round\" stroke-linejoin=\"round\" d=\"");
+            appendPathData(svg, trace.path);
+            svg.append("\"/>");
+        }
+        return svg.append("</svg>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int vertexBudget(Viewport view) {
+        return Math.max(64, view.width() * view.height() / PIXELS_PER_VERTEX);
+    }
+
+    static Trace trace(PointStorage points, Viewport view) {
+        Trace trace = new Trace(view);
+        points.forEach(trace);
+        trace.finish();
+        return trace;
+    }
+
+    private static byte[] png(Trace trace, Viewport view) {
+        BufferedImage image = new BufferedImage(view.width(), view.height(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            g.setColor(INK);
+            g.setStroke(STROKE);
+            g.draw(trace.path);
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void appendPathData(StringBuilder d, Path2D path) {
+        double[] c = new double[6];
+        for (PathIterator it = path.getPathIterator(null); !it.isDone(); it.next()) {
+            d.append(it.currentSegment(c) == PathIterator.SEG_MOVETO ? 'M' : 'L')
+                    .append(Math.round(c[0])).append(' ').append(Math.round(c[1]));
+        }
+    }
+
+    /** Builds the pixel-snapped path; see the class comment. */
+    static final class Trace implements PointStorage.PointVisitor {
+
+        final Path2D.Double path = new Path2D.Double();
+        int vertices;
+
+        private final double minX, minY, maxX, maxY;
+        private final Viewport view;
+        private boolean started;
+        private boolean open;
+        private int segments;
+        private long prevX, prevY, lastX, lastY;
+
+        Trace(Viewport view) {
+            this.view = view;
+            minX = -CLIP_PAD;
+            minY = -CLIP_PAD;
+            maxX = view.width() + CLIP_PAD;
+            maxY = view.height() + CLIP_PAD;
+        }
+
+        @Override
+        public void visit(int x, int y) {
+            long px = Math.round(view.px(x));
+            long py = Math.round(view.py(y));
+            if (!started) {
+                started = true;
+            } else if (misses(prevX, prevY, px, py)) {
+                closeSubpath();
+            } else {
+                if (!open) {
+                    path.moveTo(prevX, prevY);
+                    lastX = prevX;
+                    lastY = prevY;
+                    open = true;
+                    segments = 0;
+                    vertices++;
+                }
+                if (px != lastX || py != lastY) {
+                    path.lineTo(px, py);
+                    lastX = px;
+                    lastY = py;
+                    segments++;
+                    vertices++;
+                }
+            }
+            prevX = px;
+            prevY = py;
+        }
+
+        void finish() {
+            if (started && !open && vertices == 0 && !misses(prevX, prevY, prevX, prevY)) {
+                // A lone point
+                path.moveTo(prevX, prevY);
+                lastX = prevX;
+                lastY = prevY;
+                open = true;
+                vertices++;
+            }
+            closeSubpath();
+        }
+
+        /** A subpath whose points all fell on one pixel still gets its dot. */
+        private void closeSubpath() {
+            if (open && segments == 0) {
+                path.lineTo(lastX, lastY);
+                vertices++;
+            }
+            open = false;
+        }
+
+        private boolean misses(long x0, long y0, long x1, long y1) {
+            return Math.max(x0, x1) < minX || Math.min(x0, x1) > maxX
+                    || Math.max(y0, y1) < minY || Math.min(y0, y1) > maxY;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package edu.eci.arsw.blueprints.render;
+
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendered images, bounded by their total size in bytes and evicted least recently
+ * used first. Entries are keyed by the blueprint's version (its point count), so a
+ * lookup after a write misses even if {@link #invalidate} was never called; the
+ * invalidation only frees the stale entries early. Thread-safe.
+ */
+public final class RenderCache {
+
+    /** {@code spec} tells renderings of the same version apart, e.g. {@code "png:512x512"}. */
+    public record Key(BlueprintKey blueprint, int version, String spec) { }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<BlueprintKey, Set<Key>> byBlueprint = new HashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RenderCache(long maxBytes) {
+        if (maxBytes < 0) throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        this.maxBytes = maxBytes;
+    }
+
+    /** The cached image, or {@code null}. */
+    public synchronized byte[] get(Key key) {
+        byte[] image = entries.get(key);
+        if (image == null) misses++;
+        else hits++;
+        return image;
+    }
+
+    /** Images larger than the whole cache are not kept. */
+    public synchronized void put(Key key, byte[] image) {
+        if (image.length > maxBytes) return;
+        byte[] previous = entries.put(key, image);
+        if (previous != null) bytes -= previous.length;
+        bytes += image.length;
+        byBlueprint.computeIfAbsent(key.blueprint(), k -> new HashSet<>()).add(key);
+        Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<Key, byte[]> e = eldest.next();
+            bytes -= e.getValue().length;
+            eldest.remove();
+            unindex(e.getKey());
+            evictions++;
+        }
+    }
+
+    /** Drops every rendering of the blueprint, whatever its version. */
+    public synchronized void invalidate(String author, String name) {
+        Set<Key> keys = byBlueprint.remove(new BlueprintKey(author, name));
+        if (keys == null) return;
+        for (Key key : keys) bytes -= entries.remove(key).length;
+    }
+
+    public synchronized long bytes() { return bytes; }
+
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized long hits() { return hits; }
+
+    public synchronized long misses() { return misses; }
+
+    public synchronized long evictions() { return evictions; }
+
+    private void unindex(Key key) {
+        Set<Key> keys = byBlueprint.get(key.blueprint());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) byBlueprint.remove(key.blueprint());
+    }
+}
@@ -0,0 +1,24 @@
+package edu.eci.arsw.blueprints.render;
+
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+/** Image formats served by the render endpoints. */
+public enum RenderFormat {
+
+    PNG("image/png") {
+        @Override
+        public byte[] render(PointStorage points, Viewport view) { return BlueprintRenderer.png(points, view); }
+    },
+    SVG("image/svg+xml") {
+        @Override
+        public byte[] render(PointStorage points, Viewport view) { return BlueprintRenderer.svg(points, view); }
+    };
+
+    private final String mediaType;
+
+    RenderFormat(String mediaType) { this.mediaType = mediaType; }
+
+    public String mediaType() { return mediaType; }
+
+    public abstract byte[] render(PointStorage points, Viewport view);
+}
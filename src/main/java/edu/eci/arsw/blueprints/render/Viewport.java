@@ -0,0 +1,54 @@
+package edu.eci.arsw.blueprints.render;
+
+import edu.eci.arsw.blueprints.model.BlueprintMetrics.BoundingBox;
+
+/**
+ * Maps blueprint coordinates onto an image of {@code width x height} pixels:
+ * {@code px = (x - originX) * scale}, and likewise for y. Y grows downwards, as
+ * on the canvas the points were drawn on.
+ */
+public record Viewport(double originX, double originY, double scale, int width, int height) {
+
+    /** Edge length of a map tile, in pixels. */
+    public static final int TILE_SIZE = 256;
+
+    /** Deepest zoom served; a tile there spans 1/2^MAX_ZOOM of the blueprint's longer side. */
+    public static final int MAX_ZOOM = 16;
+
+    private static final int MARGIN = 4;
+
+    /** The whole bounding box, centred and scaled to fit with a small margin, aspect ratio kept. */
+    public static Viewport fit(BoundingBox box, int width, int height) {
+        double spanX = Math.max(1, box.maxX() - box.minX());
+        double spanY = Math.max(1, box.maxY() - box.minY());
+        int margin = Math.min(MARGIN, Math.min(width, height) / 4);
+        double scale = Math.min((width - 2 * margin) / spanX, (height - 2 * margin) / spanY);
+        return new Viewport(
+                box.minX() - (width - spanX * scale) / 2 / scale,
+                box.minY() - (height - spanY * scale) / 2 / scale,
+                scale, width, height);
+    }
+
+    /**
+     * Tile {@code (x, y)} at zoom {@code z} of a square grid laid over the bounding box:
+     * zoom 0 is one tile holding the whole blueprint, each further level splits every
+     * tile in four. The grid only moves when the bounding box grows.
+     */
+    public static Viewport tile(BoundingBox box, int z, int x, int y) {
+        if (!isTile(z, x, y)) throw new IllegalArgumentException("No tile %d/%d/%d".formatted(z, x, y));
+        double side = Math.max(1, Math.max(box.maxX() - box.minX(), box.maxY() - box.minY()));
+        // Pad so strokes through the outermost points are not cut at the edge of zoom 0
+        double pad = side / 64;
+        double span = (side + 2 * pad) / (1 << z);
+        return new Viewport(box.minX() - pad + x * span, box.minY() - pad + y * span,
+                TILE_SIZE / span, TILE_SIZE, TILE_SIZE);
+    }
+
+    public static boolean isTile(int z, int x, int y) {
+        return z >= 0 && z <= MAX_ZOOM && x >= 0 && y >= 0 && x < (1 << z) && y < (1 << z);
+    }
+
+    public double px(int x) { return (x - originX) * scale; }
+
+    public double py(int y) { return (y - originY) * scale; }
+}
@@ -0,0 +1,135 @@
+package edu.eci.arsw.blueprints.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.json.BlueprintJsonReader;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams newline-delimited JSON blueprints ({@code {"author":..,"name":..,"points":[..]}}
+ * per record, optionally gzip-compressed) into the persistence layer. Points may be
+ * objects or {@code [x,y]} pairs, as accepted by {@link BlueprintJsonReader}.
+ * <p>
+ * Records are read one token at a time and handed over in batches bounded both by
+ * record count and by point count, so memory use does not depend on upload size.
+ */
+@Service
+public class BlueprintsIngestService {
+
+    static final int MAX_REPORTED_ERRORS = 20;
+
+    private final BlueprintPersistence persistence;
+    private final JsonFactory jsonFactory;
+    private final int batchSize;
+    private final int batchPoints;
+    private final BlueprintsSimilarityService similarity;
+
+    public BlueprintsIngestService(BlueprintPersistence persistence, ObjectMapper mapper,
+                                   int batchSize, int batchPoints) {
+        this(persistence, mapper, batchSize, batchPoints, BlueprintsSimilarityService.disabled(persistence));
+    }
+
+    @Autowired
+    public BlueprintsIngestService(BlueprintPersistence persistence, ObjectMapper mapper,
+                                   @Value("${blueprints.ingest.batch-size:500}") int batchSize,
+                                   @Value("${blueprints.ingest.batch-points:200000}") int batchPoints,
+                                   BlueprintsSimilarityService similarity) {
+        this.persistence = persistence;
+        this.similarity = similarity;
+        this.jsonFactory = mapper.getFactory();
+        this.batchSize = batchSize;
+        this.batchPoints = batchPoints;
+    }
+
+    public IngestSummary ingest(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        long record = 0;
+        boolean complete = true;
+        try (JsonParser p = jsonFactory.createParser(decompressIfGzip(body))) {
+            JsonToken t;
+            // Every root-level value is one record; NDJSON newlines are just whitespace here
+            while ((t = p.nextToken()) != null) {
+                record++;
+                if (t != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    batch.reject("record " + record, "not a JSON object");
+                    continue;
+                }
+                BlueprintJsonReader.Parsed r = readRecord(p);
+                if (r.problem != null) {
+                    batch.reject("record " + record, r.problem);
+                    continue;
+                }
+                batch.add(new Blueprint(r.author, r.name, r.points));
+                if (batch.blueprints.size() >= batchSize || batch.points >= batchPoints) batch.flush();
+            }
+        } catch (JsonProcessingException e) {
+            complete = false;
+            int line = e.getLocation() == null ? -1 : e.getLocation().getLineNr();
+            batch.reject("line " + line, "malformed JSON, ingest stopped: " + e.getOriginalMessage());
+        }
+        batch.flush();
+        return new IngestSummary(batch.created, batch.duplicates, batch.rejected, complete, batch.errors);
+    }
+
+    private static InputStream decompressIfGzip(InputStream body) throws IOException {
+        InputStream in = body.markSupported() ? body : new BufferedInputStream(body);
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        return b1 == 0x1f && b2 == 0x8b ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    private static BlueprintJsonReader.Parsed readRecord(JsonParser p) throws IOException {
+        BlueprintJsonReader.Parsed r = BlueprintJsonReader.readBlueprint(p);
+        if (r.problem == null && (r.author == null || r.author.isBlank())) r.problem = "author must not be blank";
+        if (r.problem == null && (r.name == null || r.name.isBlank())) r.problem = "name must not be blank";
+        return r;
+    }
+
+    private final class Batch {
+        final List<Blueprint> blueprints = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        long points;
+        long created;
+        long duplicates;
+        long rejected;
+
+        void add(Blueprint bp) {
+            blueprints.add(bp);
+            points += bp.getPoints().size();
+        }
+
+        void reject(String where, String why) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(where + ": " + why);
+        }
+
+        void flush() {
+            if (blueprints.isEmpty()) return;
+            List<Blueprint> saved = List.copyOf(blueprints);
+            int stored = persistence.saveBlueprints(saved);
+            // With duplicates in the batch, which ones were stored is left to the change feed
+            if (stored == saved.size()) similarity.created(saved);
+            created += stored;
+            duplicates += blueprints.size() - stored;
+            blueprints.clear();
+            points = 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics.BoundingBox;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.render.RenderCache;
+import edu.eci.arsw.blueprints.render.RenderFormat;
+import edu.eci.arsw.blueprints.render.Viewport;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Server-side images of the filtered blueprints, cached by version.
+ * <p>
+ * A cache hit costs one metrics read, which the backends serve from running sums;
+ * only a miss loads and filters the points. The version and the tile grid both come
+ * from those metrics, i.e. from the stored points, which always bound the filtered ones.
+ */
+@Service
+public class BlueprintsRenderService {
+
+    /** An encoded image and its format. */
+    public record Rendered(byte[] image, RenderFormat format) { }
+
+    private static final BoundingBox ORIGIN = new BoundingBox(0, 0, 0, 0);
+
+    private final BlueprintsServices services;
+    private final RenderCache cache;
+
+    public BlueprintsRenderService(BlueprintsServices services, RenderCache cache) {
+        this.services = services;
+        this.cache = cache;
+    }
+
+    /** The whole blueprint fitted into {@code width x height}; empty when there is no such blueprint. */
+    public Optional<Rendered> render(String author, String name, RenderFormat format, int width, int height) {
+        return draw(author, name, format, "%s:%dx%d".formatted(format, width, height),
+                box -> Viewport.fit(box, width, height));
+    }
+
+    /** Tile {@code z/x/y} as a PNG; see {@link Viewport#tile}. */
+    public Optional<Rendered> tile(String author, String name, int z, int x, int y) {
+        return draw(author, name, RenderFormat.PNG, "tile:%d/%d/%d".formatted(z, x, y),
+                box -> Viewport.tile(box, z, x, y));
+    }
+
+    private Optional<Rendered> draw(String author, String name, RenderFormat format, String spec,
+                                    Function<BoundingBox, Viewport> viewport) {
+        BlueprintMetrics metrics;
+        try {
+            metrics = services.getMetrics(author, name);
+        } catch (BlueprintNotFoundException e) {
+            return Optional.empty();
+        }
+        RenderCache.Key key = new RenderCache.Key(new BlueprintKey(author, name), metrics.points(), spec);
+        byte[] image = cache.get(key);
+        if (image == null) {
+            Optional<Blueprint> bp = services.findBlueprint(author, name);
+            if (bp.isEmpty()) return Optional.empty();
+            BoundingBox box = metrics.boundingBox() == null ? ORIGIN : metrics.boundingBox();
+            image = format.render(bp.get().pointStorage(), viewport.apply(box));
+            // Points added since the metrics read only make this newer than its key says;
+            // the next request sees the new version and renders again
+            cache.put(key, image);
+        }
+        return Optional.of(new Rendered(image, format));
+    }
+}
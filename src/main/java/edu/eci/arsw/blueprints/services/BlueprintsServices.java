@@ -1,47 +1,204 @@
 package edu.eci.arsw.blueprints.services;
 
 import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterParallelism;
+import edu.eci.arsw.blueprints.model.AuthorStats;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.PointDelta;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.SearchHit;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.render.RenderCache;
+import edu.eci.arsw.blueprints.timing.RequestTiming;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static edu.eci.arsw.blueprints.timing.RequestTiming.Phase.FILTER;
+import static edu.eci.arsw.blueprints.timing.RequestTiming.Phase.PERSISTENCE;
+import static edu.eci.arsw.blueprints.timing.RequestTiming.time;
+
+/**
+ * Calls into persistence and the filter are timed for {@link RequestTiming}; with no
+ * request being timed that costs one thread-local read each.
+ */
 @Service
 public class BlueprintsServices {
 
+    /** What a read returns depends on the kind of read, its target and the active filter. */
+    record ReadKey(String kind, String author, String name, String filter) { }
+
     private final BlueprintPersistence persistence;
     private final BlueprintsFilter filter;
+    private final FilterParallelism parallelism;
+    private final String filterName;
+    private final RenderCache renders;
+    private final BlueprintsSimilarityService similarity;
+    // Concurrent identical reads share one backend load and one filter pass
+    private final SingleFlight<ReadKey, Optional<Blueprint>> blueprintReads = new SingleFlight<>();
+    private final SingleFlight<ReadKey, Optional<Set<Blueprint>>> authorReads = new SingleFlight<>();
 
     public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter) {
+        this(persistence, filter, FilterParallelism.sequential());
+    }
+
+    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter,
+                              FilterParallelism parallelism) {
+        this(persistence, filter, parallelism, new RenderCache(0));
+    }
+
+    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter,
+                              FilterParallelism parallelism, RenderCache renders) {
+        this(persistence, filter, parallelism, renders, BlueprintsSimilarityService.disabled(persistence));
+    }
+
+    @Autowired
+    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter,
+                              FilterParallelism parallelism, RenderCache renders,
+                              BlueprintsSimilarityService similarity) {
         this.persistence = persistence;
+        this.renders = renders;
+        this.similarity = similarity;
         this.filter = filter;
+        this.parallelism = parallelism;
+        this.filterName = filter.getClass().getName();
     }
 
     public void addNewBlueprint(Blueprint bp) throws BlueprintPersistenceException {
-        persistence.saveBlueprint(bp);
+        time(PERSISTENCE, () -> {
+            persistence.saveBlueprint(bp);
+            return null;
+        });
+        forgetReads(bp.getAuthor(), bp.getName());
+        similarity.created(List.of(bp));
     }
 
     public Set<Blueprint> getAllBlueprints() {
-        return persistence.getAllBlueprints().stream()
-                .map(filter::apply)
-                .collect(Collectors.toSet());
+        return filterAll(time(PERSISTENCE, persistence::getAllBlueprints));
     }
 
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        return persistence.getBlueprintsByAuthor(author).stream()
-                .map(filter::apply)
-                .collect(Collectors.toSet());
+        return findBlueprintsByAuthor(author).orElseThrow(
+                () -> new BlueprintNotFoundException("No blueprints for author: " + author));
+    }
+
+    /** Empty when the author has no blueprints; the request path uses this instead of catching. */
+    public Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+        return authorReads.load(new ReadKey("author", author, null, filterName),
+                () -> time(PERSISTENCE, () -> persistence.findBlueprintsByAuthor(author)).map(this::filterAll));
     }
 
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        return filter.apply(persistence.getBlueprint(author, name));
+        return findBlueprint(author, name).orElseThrow(
+                () -> new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name)));
+    }
+
+    /** Empty when there is no such blueprint; the request path uses this instead of catching. */
+    public Optional<Blueprint> findBlueprint(String author, String name) {
+        return blueprintReads.load(new ReadKey("blueprint", author, name, filterName),
+                () -> time(PERSISTENCE, () -> persistence.findBlueprint(author, name))
+                        .map(bp -> time(FILTER, () -> filter.apply(bp))));
+    }
+
+    /** One backend lookup for all keys; repeated keys are resolved once. */
+    public MultiGetResult getBlueprints(List<BlueprintKey> keys) {
+        Set<BlueprintKey> distinct = new LinkedHashSet<>(keys);
+        Map<BlueprintKey, Blueprint> stored = time(PERSISTENCE, () -> persistence.getBlueprints(distinct));
+        List<BlueprintKey> missing = new ArrayList<>();
+        for (BlueprintKey key : distinct) {
+            if (!stored.containsKey(key)) missing.add(key);
+        }
+        List<Blueprint> raw = List.copyOf(stored.values());
+        long totalPoints = raw.stream().mapToLong(bp -> bp.getPoints().size()).sum();
+        List<Blueprint> found = time(FILTER, () -> parallelism.acrossBlueprints(raw.size(), totalPoints)
+                ? parallelism.invoke(() -> raw.parallelStream().map(filter::apply).toList())
+                : raw.stream().map(filter::apply).toList());
+        return new MultiGetResult(found, missing);
     }
 
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
-        persistence.addPoint(author, name, x, y);
+        time(PERSISTENCE, () -> {
+            persistence.addPoint(author, name, x, y);
+            return null;
+        });
+        forgetReads(author, name);
+        // Version-keyed, so never served stale; this only frees the old images early
+        renders.invalidate(author, name);
+    }
+
+    /** Raw points by position; not filtered, so offsets stay stable across pages. */
+    public PointPage getPoints(String author, String name, int from, int limit) throws BlueprintNotFoundException {
+        return time(PERSISTENCE, () -> persistence.getPoints(author, name, from, limit));
+    }
+
+    /**
+     * Points appended after {@code sinceVersion}, at most {@code limit} of them. Served by
+     * the backends' position-range reads, so the cost follows the delta, not the blueprint.
+     * A version ahead of the blueprint asks for a reload.
+     * <p>
+     * The version is a point count and carries no identity of the blueprint. The API never
+     * deletes or rewrites points, but a COPY restore can replace a blueprint; if the new one
+     * has at least as many points, a client holding the old one gets a delta that does not
+     * fit. Consumers learn of restores from the change feed's resync and must reload then.
+     */
+    public PointDelta getPointsSince(String author, String name, int sinceVersion, int limit)
+            throws BlueprintNotFoundException {
+        PointPage page = time(PERSISTENCE, () -> persistence.getPoints(author, name, sinceVersion, limit));
+        if (sinceVersion > page.total()) return PointDelta.reload(sinceVersion, page.total());
+        return PointDelta.of(sinceVersion, page.points(), page.total());
+    }
+
+    /** Per-author totals, read from counters the backends keep current on write. */
+    public List<AuthorStats> getAuthorStats() {
+        return time(PERSISTENCE, persistence::getAuthorStats);
+    }
+
+    /** Ranked author and blueprint-name matches for autocomplete. */
+    public List<SearchHit> search(String query, boolean substring, int limit) {
+        return time(PERSISTENCE, () -> persistence.search(query, substring, limit));
+    }
+
+    /** Blueprints whose stored outline contains the location, innermost first. */
+    public List<BlueprintHit> hitTest(int x, int y, int limit) {
+        return time(PERSISTENCE, () -> persistence.hitTest(x, y, limit));
+    }
+
+    /** Geometry of the stored points; like {@link #getPoints}, not filtered. */
+    public BlueprintMetrics getMetrics(String author, String name) throws BlueprintNotFoundException {
+        return time(PERSISTENCE, () -> persistence.getMetrics(author, name));
+    }
+
+    /** Callers arriving after a write must not join a load that may predate it. */
+    private void forgetReads(String author, String name) {
+        blueprintReads.forget(new ReadKey("blueprint", author, name, filterName));
+        authorReads.forget(new ReadKey("author", author, null, filterName));
+    }
+
+    private Set<Blueprint> filterAll(Set<Blueprint> blueprints) {
+        return time(FILTER, () -> filterEach(blueprints));
+    }
+
+    private Set<Blueprint> filterEach(Set<Blueprint> blueprints) {
+        long totalPoints = blueprints.stream().mapToLong(bp -> bp.getPoints().size()).sum();
+        if (!parallelism.acrossBlueprints(blueprints.size(), totalPoints)) {
+            return blueprints.stream()
+                    .map(filter::apply)
+                    .collect(Collectors.toSet());
+        }
+        return parallelism.invoke(() -> blueprints.parallelStream()
+                .map(filter::apply)
+                .collect(Collectors.toSet()));
     }
 }
@@ -0,0 +1,211 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.SimilarBlueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.similarity.ShapeDescriptor;
+import edu.eci.arsw.blueprints.similarity.ShapeIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static edu.eci.arsw.blueprints.timing.RequestTiming.Phase.PERSISTENCE;
+import static edu.eci.arsw.blueprints.timing.RequestTiming.time;
+
+/**
+ * Finds blueprints with a similar outline (see {@link ShapeDescriptor}).
+ * <p>
+ * A query takes the {@code candidates} nearest descriptors from the in-memory
+ * {@link ShapeIndex} and re-ranks them by Fréchet distance between the outlines,
+ * so only that many blueprints are loaded. Descriptors are of the stored,
+ * unfiltered points. The index is built at startup, {@value #REBUILD_PAGE}
+ * blueprints at a time, then follows the change feed on one background thread:
+ * writes through this instance wake it, and it also polls, which picks up writes
+ * made by other instances. Blueprints created through this instance are indexed on
+ * write, so only point appends and other instances' creations are loaded back.
+ * <p>
+ * In a cluster the feed is the node's own partition; blueprints created through
+ * other nodes appear at the next periodic rebuild ({@code rebuild-interval-ms}).
+ * When disabled there is no index and no background thread.
+ */
+@Service
+public class BlueprintsSimilarityService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BlueprintsSimilarityService.class);
+
+    private static final int FEED_BATCH = 1_000;
+    private static final int REBUILD_PAGE = 500;
+
+    private record Scored(Blueprint bp, double distance) { }
+
+    private final BlueprintPersistence persistence;
+    private final boolean enabled;
+    private final int candidates;
+    private final long rebuildNanos;
+    private final ScheduledExecutorService indexer;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private volatile ShapeIndex index = new ShapeIndex();
+    // Only touched by the indexer thread
+    private long next = -1;   // change feed position
+    private long rebuiltAt;
+
+    public BlueprintsSimilarityService(BlueprintPersistence persistence, int candidates, long refreshMillis) {
+        this(persistence, true, candidates, refreshMillis, 0);
+    }
+
+    @Autowired
+    public BlueprintsSimilarityService(BlueprintPersistence persistence,
+                                       @Value("${blueprints.similarity.enabled:true}") boolean enabled,
+                                       @Value("${blueprints.similarity.candidates:200}") int candidates,
+                                       @Value("${blueprints.similarity.refresh-interval-ms:1000}") long refreshMillis,
+                                       @Value("${blueprints.similarity.rebuild-interval-ms:0}") long rebuildMillis) {
+        this.persistence = persistence;
+        this.enabled = enabled;
+        this.candidates = candidates;
+        this.rebuildNanos = TimeUnit.MILLISECONDS.toNanos(rebuildMillis);
+        if (!enabled) {
+            this.indexer = null;
+            return;
+        }
+        this.indexer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "similarity-indexer");
+            t.setDaemon(true);
+            return t;
+        });
+        indexer.scheduleWithFixedDelay(this::refresh, 0, refreshMillis, TimeUnit.MILLISECONDS);
+        persistence.addChangeListener(this::wake);
+    }
+
+    /** An instance that indexes nothing, for callers wired without one. */
+    static BlueprintsSimilarityService disabled(BlueprintPersistence persistence) {
+        return new BlueprintsSimilarityService(persistence, false, 0, 0, 0);
+    }
+
+    public boolean enabled() { return enabled; }
+
+    /**
+     * Up to {@code k} blueprints shaped most like the given one, closest first; empty
+     * when there is no such blueprint. A blueprint with no outline (fewer than two
+     * distinct points) resembles nothing.
+     *
+     * @throws IllegalStateException when the service is disabled
+     */
+    public Optional<List<SimilarBlueprint>> similar(String author, String name, int k) {
+        if (!enabled) throw new IllegalStateException("Similarity search is disabled");
+        Optional<Blueprint> found = time(PERSISTENCE, () -> persistence.findBlueprint(author, name));
+        if (found.isEmpty()) return Optional.empty();
+        double[] query = ShapeDescriptor.contour(found.get().pointStorage());
+        if (query == null) return Optional.of(List.of());
+
+        List<BlueprintKey> nearest = index.nearest(ShapeDescriptor.descriptor(query),
+                Math.max(k, candidates), new BlueprintKey(author, name));
+        Map<BlueprintKey, Blueprint> loaded = time(PERSISTENCE, () -> persistence.getBlueprints(nearest));
+        List<Scored> scored = new ArrayList<>(loaded.size());
+        for (Blueprint bp : loaded.values()) {
+            double[] outline = ShapeDescriptor.contour(bp.pointStorage());
+            if (outline != null) scored.add(new Scored(bp, ShapeDescriptor.frechet(query, outline)));
+        }
+        return Optional.of(scored.stream()
+                .sorted(Comparator.comparingDouble(Scored::distance))
+                .limit(k)
+                .map(s -> new SimilarBlueprint(s.bp().getAuthor(), s.bp().getName(), s.distance()))
+                .toList());
+    }
+
+    /** Blueprints currently indexed. */
+    public int indexed() { return index.size(); }
+
+    /**
+     * Indexes blueprints this instance has just created, from the points in hand;
+     * their creations then need no reload when they come through the feed.
+     */
+    public void created(Collection<Blueprint> blueprints) {
+        if (enabled) index(index, blueprints);
+    }
+
+    /** Coalesces bursts of writes into one pending refresh. */
+    private void wake() {
+        if (refreshPending.compareAndSet(false, true)) indexer.execute(this::refresh);
+    }
+
+    /** Applies the changes recorded since the last refresh, or rebuilds when they are no longer retained. */
+    void refresh() {
+        refreshPending.set(false);
+        try {
+            if (next < 0 || (rebuildNanos > 0 && System.nanoTime() - rebuiltAt >= rebuildNanos)) {
+                rebuild(persistence.getChanges(0, 1).latestSeq());
+                return;
+            }
+            while (true) {
+                ChangeFeed feed = persistence.getChanges(next, FEED_BATCH);
+                if (feed.resync()) {
+                    rebuild(feed.latestSeq());
+                    return;
+                }
+                if (feed.events().isEmpty()) return;
+                Set<BlueprintKey> changed = new LinkedHashSet<>();
+                Set<BlueprintKey> appended = new HashSet<>();
+                for (ChangeEvent e : feed.events()) {
+                    BlueprintKey key = new BlueprintKey(e.author(), e.name());
+                    changed.add(key);
+                    if (e.type() != ChangeEvent.Type.CREATED) appended.add(key);
+                }
+                ShapeIndex current = index;
+                // Already indexed on write, and unchanged since
+                changed.removeIf(key -> !appended.contains(key) && current.contains(key));
+                if (!changed.isEmpty()) index(current, persistence.getBlueprints(changed).values());
+                next = feed.next();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the similarity index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indexes everything into a fresh index, a page of blueprints at a time so only
+     * one page is loaded at once; changes from {@code latestSeq} on are applied afterwards.
+     */
+    private void rebuild(long latestSeq) {
+        ShapeIndex fresh = new ShapeIndex();
+        List<BlueprintKey> keys = persistence.getBlueprintKeys();
+        for (int from = 0; from < keys.size(); from += REBUILD_PAGE) {
+            List<BlueprintKey> page = keys.subList(from, Math.min(from + REBUILD_PAGE, keys.size()));
+            index(fresh, persistence.getBlueprints(page).values());
+        }
+        index = fresh;
+        next = latestSeq;
+        rebuiltAt = System.nanoTime();
+    }
+
+    private static void index(ShapeIndex into, Collection<Blueprint> blueprints) {
+        for (Blueprint bp : blueprints) {
+            double[] outline = ShapeDescriptor.contour(bp.pointStorage());
+            if (outline != null) into.put(BlueprintKey.of(bp), ShapeDescriptor.descriptor(outline));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (indexer != null) indexer.shutdownNow();
+    }
+}
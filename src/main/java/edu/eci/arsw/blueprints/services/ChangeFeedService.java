@@ -0,0 +1,156 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the global change feed, including long polls.
+ * <p>
+ * A long poll that finds nothing new parks a waiter instead of a thread. Writes
+ * through this instance wake the waiters at once; a periodic sweep also rechecks
+ * them, which is how writes made by other instances sharing the database arrive.
+ * All rechecks run on one background thread, never on the writer's. A sweep reads
+ * the feed once, from the oldest cursor any waiter holds, and hands each waiter its
+ * part of that page; only waiters the page cannot answer (a resync, or a cursor
+ * past its end) read on their own.
+ */
+@Service
+public class ChangeFeedService implements DisposableBean {
+
+    record Waiter(long since, int limit, CompletableFuture<ChangeFeed> result) { }
+
+    private final BlueprintPersistence persistence;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean sweepPending = new AtomicBoolean();
+
+    public ChangeFeedService(BlueprintPersistence persistence,
+                             @Value("${blueprints.changes.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.persistence = persistence;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-feed-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(() -> { if (!waiters.isEmpty()) sweep(); },
+                pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        persistence.addChangeListener(this::wake);
+    }
+
+    public ChangeFeed read(long since, int limit) {
+        return persistence.getChanges(since, limit);
+    }
+
+    /**
+     * Completes with the first page holding events (or a resync) after {@code since},
+     * or with an empty page once {@code wait} has passed.
+     */
+    public CompletableFuture<ChangeFeed> await(long since, int limit, Duration wait) {
+        ChangeFeed now = read(since, limit);
+        if (ready(now) || wait.isZero()) return CompletableFuture.completedFuture(now);
+        Waiter w = new Waiter(since, limit, new CompletableFuture<>());
+        waiters.add(w);
+        sweeper.schedule(() -> check(w, true), wait.toMillis(), TimeUnit.MILLISECONDS);
+        // A write may have landed between the read above and the registration
+        wake();
+        return w.result();
+    }
+
+    int waiting() { return waiters.size(); }
+
+    private static boolean ready(ChangeFeed feed) {
+        return feed.resync() || !feed.events().isEmpty();
+    }
+
+    /** Coalesces bursts of writes into one pending sweep. */
+    private void wake() {
+        if (sweepPending.compareAndSet(false, true)) sweeper.execute(this::sweep);
+    }
+
+    private void sweep() {
+        sweepPending.set(false);
+        long since = Long.MAX_VALUE;
+        int limit = 0;
+        for (Waiter w : waiters) {
+            since = Math.min(since, w.since());
+            limit = Math.max(limit, w.limit());
+        }
+        if (limit == 0) return;
+        ChangeFeed page;
+        try {
+            page = read(since, limit);
+        } catch (RuntimeException e) {
+            for (Waiter w : waiters) fail(w, e);
+            return;
+        }
+        for (Waiter w : waiters) {
+            if (w.result().isDone()) continue;
+            ChangeFeed feed = slice(page, w);
+            if (feed == null) check(w, false);
+            else if (ready(feed)) complete(w, feed);
+        }
+    }
+
+    /**
+     * What {@code w} would have read, cut from {@code page}; null when the page cannot
+     * tell: a resync, a cursor it does not start at or before, or one past its end
+     * while more changes were left unread.
+     */
+    static ChangeFeed slice(ChangeFeed page, Waiter w) {
+        if (page.resync() || w.since() < page.since() || w.since() > page.latestSeq()) return null;
+        if (w.since() >= page.next() && page.next() < page.latestSeq()) return null;
+        List<ChangeEvent> events = page.events();
+        int from = firstAfter(events, w.since());
+        int to = (int) Math.min(events.size(), (long) from + w.limit());
+        return ChangeFeed.of(w.since(), List.copyOf(events.subList(from, to)), page.latestSeq());
+    }
+
+    /** Index of the first event with a sequence number above {@code seq}; events are in order. */
+    private static int firstAfter(List<ChangeEvent> events, long seq) {
+        int lo = 0, hi = events.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (events.get(mid).seq() <= seq) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Completes {@code w} when there is something to return, or regardless once it timed out. */
+    private void check(Waiter w, boolean timedOut) {
+        if (w.result().isDone()) return;
+        try {
+            ChangeFeed feed = read(w.since(), w.limit());
+            if (timedOut || ready(feed)) complete(w, feed);
+        } catch (RuntimeException e) {
+            fail(w, e);
+        }
+    }
+
+    private void complete(Waiter w, ChangeFeed feed) {
+        if (waiters.remove(w)) w.result().complete(feed);
+    }
+
+    private void fail(Waiter w, RuntimeException e) {
+        if (waiters.remove(w)) w.result().completeExceptionally(e);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+}
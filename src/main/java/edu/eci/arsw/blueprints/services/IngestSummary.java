@@ -0,0 +1,14 @@
+package edu.eci.arsw.blueprints.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk ingest")
+public record IngestSummary(
+    @Schema(description = "Blueprints stored", example = "998") long created,
+    @Schema(description = "Records skipped because the blueprint already exists", example = "1") long duplicates,
+    @Schema(description = "Records that were not valid blueprints", example = "1") long rejected,
+    @Schema(description = "Whether the whole upload was read; false when it stopped at malformed JSON") boolean complete,
+    @Schema(description = "First problems found, by 1-based record number") List<String> errors
+) { }
@@ -0,0 +1,13 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a multi-get: blueprints found and keys that matched nothing, both in request order")
+public record MultiGetResult(
+    @Schema(description = "Blueprints found, with the configured filter applied") List<Blueprint> found,
+    @Schema(description = "Requested keys with no stored blueprint") List<BlueprintKey> missing
+) { }
@@ -0,0 +1,57 @@
+package edu.eci.arsw.blueprints.services;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader,
+ * callers arriving while it runs wait for and share its result (or exception).
+ * Nothing is cached; the entry is gone as soon as the load completes.
+ */
+public final class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public <E extends Exception> V load(K key, Loader<V, E> loader) throws E {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) return await(leader);
+        try {
+            V value = loader.load();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Detaches an in-flight load so later callers start a fresh one; current waiters keep theirs. */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    int inFlight() { return inFlight.size(); }
+
+    @SuppressWarnings("unchecked")
+    private static <V, E extends Exception> V await(CompletableFuture<V> leader) throws E {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            // The leader's loader can only throw E or unchecked exceptions
+            throw (E) cause;
+        }
+    }
+}
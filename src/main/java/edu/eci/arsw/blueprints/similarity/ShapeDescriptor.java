@@ -0,0 +1,220 @@
+package edu.eci.arsw.blueprints.similarity;
+
+import edu.eci.arsw.blueprints.model.PointStorage;
+
+/**
+ * Shape of a blueprint independent of where it sits, how large it is, how it is
+ * rotated and where along its outline the points start.
+ * <p>
+ * The points are read, like the metrics do, as a polygon closed from the last point
+ * back to the first. A {@link #contour} resamples that outline to {@value #SAMPLES}
+ * points evenly spaced by arc length, centred on the origin, scaled to unit RMS
+ * radius and turned counter-clockwise. Its {@link #descriptor} is the magnitude of the
+ * Fourier coefficients ±1..±{@value #HARMONICS}: translation only moves coefficient 0,
+ * and rotation and start point only change phases. Nearby descriptors are a cheap
+ * filter; {@link #frechet} is the exact comparison.
+ */
+public final class ShapeDescriptor {
+
+    public static final int SAMPLES = 64;
+    public static final int HARMONICS = 8;
+    public static final int DIMENSIONS = 2 * HARMONICS;
+
+    // e^{2πi t / SAMPLES}
+    private static final double[] COS = new double[SAMPLES];
+    private static final double[] SIN = new double[SAMPLES];
+
+    static {
+        for (int t = 0; t < SAMPLES; t++) {
+            COS[t] = Math.cos(2 * Math.PI * t / SAMPLES);
+            SIN[t] = Math.sin(2 * Math.PI * t / SAMPLES);
+        }
+    }
+
+    private ShapeDescriptor() { }
+
+    /**
+     * Interleaved {@code x, y} of the normalized outline, or {@code null} when there is
+     * no shape to speak of (no points, or all of them on one spot).
+     */
+    public static double[] contour(PointStorage points) {
+        if (points.size() < 2) return null;
+        double[] length = new double[1];
+        new Walker() {
+            @Override void edge(double x0, double y0, double x1, double y1, double len) { length[0] += len; }
+        }.walk(points);
+        if (length[0] == 0) return null;
+
+        double step = length[0] / SAMPLES;
+        double[] c = new double[2 * SAMPLES];
+        new Walker() {
+            int taken;
+            double walked;
+
+            @Override
+            void edge(double x0, double y0, double x1, double y1, double len) {
+                // Samples at arc positions k * step falling within this edge; rounding
+                // may leave the last one for the closing edge's far end
+                while (taken < SAMPLES && (taken * step < walked + len || last)) {
+                    double t = len == 0 ? 0 : Math.min(1, (taken * step - walked) / len);
+                    c[2 * taken] = x0 + t * (x1 - x0);
+                    c[2 * taken + 1] = y0 + t * (y1 - y0);
+                    taken++;
+                }
+                walked += len;
+            }
+        }.walk(points);
+        return normalize(c);
+    }
+
+    /** Unit-length vector of {@value #DIMENSIONS} Fourier magnitudes of a {@link #contour}. */
+    public static float[] descriptor(double[] contour) {
+        float[] d = new float[DIMENSIONS];
+        double norm = 0;
+        for (int h = 0; h < HARMONICS; h++) {
+            for (int sign = 0; sign < 2; sign++) {
+                int m = sign == 0 ? h + 1 : -(h + 1);
+                double re = 0, im = 0;
+                for (int k = 0; k < SAMPLES; k++) {
+                    int turn = Math.floorMod(-m * k, SAMPLES);
+                    double cos = COS[turn], sin = SIN[turn];
+                    double x = contour[2 * k], y = contour[2 * k + 1];
+                    re += x * cos - y * sin;
+                    im += x * sin + y * cos;
+                }
+                double magnitude = Math.hypot(re, im) / SAMPLES;
+                d[2 * h + sign] = (float) magnitude;
+                norm += magnitude * magnitude;
+            }
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < d.length; i++) d[i] = (float) (d[i] / norm);
+        return d;
+    }
+
+    /**
+     * Discrete Fréchet distance between two {@link #contour}s after turning and
+     * shifting {@code b} to its least-squares fit on {@code a}. In units of the
+     * shapes' RMS radius; 0 for the same shape.
+     */
+    public static double frechet(double[] a, double[] b) {
+        // The start offset and rotation minimizing Σ|a_k - e^{iθ} b_{k+s}|² maximize |Σ a_k conj(b_{k+s})|
+        int bestShift = 0;
+        double bestRe = 0, bestIm = 0, best = -1;
+        for (int s = 0; s < SAMPLES; s++) {
+            double re = 0, im = 0;
+            for (int k = 0; k < SAMPLES; k++) {
+                int j = (k + s) % SAMPLES;
+                double ax = a[2 * k], ay = a[2 * k + 1], bx = b[2 * j], by = b[2 * j + 1];
+                re += ax * bx + ay * by;
+                im += ay * bx - ax * by;
+            }
+            double size = re * re + im * im;
+            if (size > best) {
+                best = size;
+                bestShift = s;
+                bestRe = re;
+                bestIm = im;
+            }
+        }
+        double r = Math.sqrt(best);
+        double cos = r == 0 ? 1 : bestRe / r, sin = r == 0 ? 0 : bestIm / r;
+        double[] aligned = new double[2 * SAMPLES];
+        for (int k = 0; k < SAMPLES; k++) {
+            int j = (k + bestShift) % SAMPLES;
+            aligned[2 * k] = b[2 * j] * cos - b[2 * j + 1] * sin;
+            aligned[2 * k + 1] = b[2 * j] * sin + b[2 * j + 1] * cos;
+        }
+        return discreteFrechet(a, aligned);
+    }
+
+    /**
+     * Eiter-Mannila dynamic program over both outlines, each closed by repeating its
+     * first sample. Runs on squared distances, which order the same way.
+     */
+    static double discreteFrechet(double[] a, double[] b) {
+        int n = SAMPLES + 1;
+        double[] prev = new double[n], row = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double d = squaredDistance(a, i % SAMPLES, b, j % SAMPLES);
+                if (i == 0 && j == 0) row[j] = d;
+                else if (i == 0) row[j] = Math.max(row[j - 1], d);
+                else if (j == 0) row[j] = Math.max(prev[0], d);
+                else row[j] = Math.max(Math.min(Math.min(prev[j], prev[j - 1]), row[j - 1]), d);
+            }
+            double[] t = prev;
+            prev = row;
+            row = t;
+        }
+        return Math.sqrt(prev[n - 1]);
+    }
+
+    private static double squaredDistance(double[] a, int i, double[] b, int j) {
+        double dx = a[2 * i] - b[2 * j], dy = a[2 * i + 1] - b[2 * j + 1];
+        return dx * dx + dy * dy;
+    }
+
+    /** Centres, scales to unit RMS radius and orients counter-clockwise, in place. */
+    private static double[] normalize(double[] c) {
+        double cx = 0, cy = 0;
+        for (int k = 0; k < SAMPLES; k++) {
+            cx += c[2 * k];
+            cy += c[2 * k + 1];
+        }
+        cx /= SAMPLES;
+        cy /= SAMPLES;
+        double squares = 0, twiceArea = 0;
+        for (int k = 0; k < SAMPLES; k++) {
+            c[2 * k] -= cx;
+            c[2 * k + 1] -= cy;
+            squares += c[2 * k] * c[2 * k] + c[2 * k + 1] * c[2 * k + 1];
+        }
+        for (int k = 0; k < SAMPLES; k++) {
+            int j = (k + 1) % SAMPLES;
+            twiceArea += c[2 * k] * c[2 * j + 1] - c[2 * j] * c[2 * k + 1];
+        }
+        double rms = Math.sqrt(squares / SAMPLES);
+        if (rms == 0) return null;
+        for (int i = 0; i < c.length; i++) c[i] /= rms;
+        if (twiceArea < 0) {
+            // Reverse, keeping sample 0 first
+            for (int lo = 1, hi = SAMPLES - 1; lo < hi; lo++, hi--) {
+                double x = c[2 * lo], y = c[2 * lo + 1];
+                c[2 * lo] = c[2 * hi];
+                c[2 * lo + 1] = c[2 * hi + 1];
+                c[2 * hi] = x;
+                c[2 * hi + 1] = y;
+            }
+        }
+        return c;
+    }
+
+    /** Feeds the edges of the closed polygon, closing edge last. */
+    private abstract static class Walker implements PointStorage.PointVisitor {
+        boolean last;
+        private boolean started;
+        private int firstX, firstY, lastX, lastY;
+
+        abstract void edge(double x0, double y0, double x1, double y1, double len);
+
+        void walk(PointStorage points) {
+            points.forEach(this);
+            last = true;
+            visit(firstX, firstY);
+        }
+
+        @Override
+        public void visit(int x, int y) {
+            if (started) {
+                edge(lastX, lastY, x, y, Math.hypot((double) x - lastX, (double) y - lastY));
+            } else {
+                started = true;
+                firstX = x;
+                firstY = y;
+            }
+            lastX = x;
+            lastY = y;
+        }
+    }
+}
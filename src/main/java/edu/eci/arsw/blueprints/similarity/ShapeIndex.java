@@ -0,0 +1,132 @@
+package edu.eci.arsw.blueprints.similarity;
+
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Shape descriptors of every blueprint, searched by brute force.
+ * <p>
+ * Descriptors sit back to back in one {@code float[]}, so a query is a single
+ * sequential pass of {@value ShapeDescriptor#DIMENSIONS} multiply-adds per blueprint
+ * that the JIT unrolls and vectorizes; at a million blueprints that is a 64 MB scan
+ * of a few milliseconds, with exact results and no structure to rebalance on write.
+ * Queries share a read lock; {@link #put} takes the write lock briefly.
+ */
+public final class ShapeIndex {
+
+    private static final int D = ShapeDescriptor.DIMENSIONS;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<BlueprintKey, Integer> slots = new HashMap<>();
+    private BlueprintKey[] keys = new BlueprintKey[1024];
+    private float[] vectors = new float[1024 * D];
+    private int size;
+
+    /** Adds the blueprint's descriptor or replaces the one it had. */
+    public void put(BlueprintKey key, float[] descriptor) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    vectors = Arrays.copyOf(vectors, size * 2 * D);
+                }
+                slot = size++;
+                slots.put(key, slot);
+                keys[slot] = key;
+            }
+            System.arraycopy(descriptor, 0, vectors, slot * D, D);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(BlueprintKey key) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The {@code n} blueprints with the closest descriptors, closest first, leaving out {@code exclude}. */
+    public List<BlueprintKey> nearest(float[] query, int n, BlueprintKey exclude) {
+        if (n < 1) return List.of();
+        lock.readLock().lock();
+        try {
+            // Max-heap on distance of the best n so far
+            float[] heapDist = new float[n];
+            int[] heapSlot = new int[n];
+            int found = 0;
+            float[] v = vectors;
+            for (int slot = 0, base = 0; slot < size; slot++, base += D) {
+                float d = 0;
+                for (int i = 0; i < D; i++) {
+                    float diff = v[base + i] - query[i];
+                    d += diff * diff;
+                }
+                if (found == n && d >= heapDist[0]) continue;
+                if (keys[slot].equals(exclude)) continue;
+                if (found < n) {
+                    siftUp(heapDist, heapSlot, found++, d, slot);
+                } else {
+                    siftDown(heapDist, heapSlot, n, d, slot);
+                }
+            }
+            Integer[] order = new Integer[found];
+            for (int i = 0; i < found; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Float.compare(heapDist[a], heapDist[b]));
+            List<BlueprintKey> nearest = new ArrayList<>(found);
+            for (int i : order) nearest.add(keys[heapSlot[i]]);
+            return nearest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void siftUp(float[] dist, int[] slots, int at, float d, int slot) {
+        while (at > 0) {
+            int parent = (at - 1) / 2;
+            if (dist[parent] >= d) break;
+            dist[at] = dist[parent];
+            slots[at] = slots[parent];
+            at = parent;
+        }
+        dist[at] = d;
+        slots[at] = slot;
+    }
+
+    /** Replaces the root, the farthest of the best n. */
+    private static void siftDown(float[] dist, int[] slots, int n, float d, int slot) {
+        int at = 0;
+        while (true) {
+            int child = 2 * at + 1;
+            if (child >= n) break;
+            if (child + 1 < n && dist[child + 1] > dist[child]) child++;
+            if (dist[child] <= d) break;
+            dist[at] = dist[child];
+            slots[at] = slots[child];
+            at = child;
+        }
+        dist[at] = d;
+        slots[at] = slot;
+    }
+}
@@ -0,0 +1,140 @@
+package edu.eci.arsw.blueprints.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Phase timings of the request running on the current thread.
+ * <p>
+ * {@link RequestTimingFilter} starts one per API request; code along the way wraps
+ * the calls it wants attributed in {@link #time}. Without a running timing (the
+ * feature is off, or the call does not come from a request) {@code time} is one
+ * thread-local read. A timing is a single object with a {@code long} per phase; the
+ * lambda handed to {@code time} is allocated by the caller whenever it captures
+ * arguments (16 bytes per call here, timing or not, which escape analysis did not
+ * remove). Work handed to other threads (the parallel filter pool) is counted as the
+ * caller's wait for it.
+ */
+public final class RequestTiming {
+
+    /**
+     * Phases in {@code Server-Timing} order. Durations may overlap. The header goes out
+     * before the body, so it never carries {@link #SERIALIZE}, and {@link #TOTAL} only
+     * for responses without a body; both are in the {@link SlowRequestLog}.
+     */
+    public enum Phase {
+        /** Calls to the active {@code BlueprintPersistence}. */
+        PERSISTENCE("persistence"),
+        /** The active {@code BlueprintsFilter}. */
+        FILTER("filter"),
+        /** Everything before the body is written: interceptors, controller and service code. */
+        APP("app"),
+        /** Writing the body; only known once the response is complete, so never in the header. */
+        SERIALIZE("serialize"),
+        TOTAL("total");
+
+        private final String metric;
+
+        Phase(String metric) { this.metric = metric; }
+
+        public String metric() { return metric; }
+    }
+
+    /** A call whose duration is attributed to a phase. */
+    @FunctionalInterface
+    public interface Work<V, E extends Exception> {
+        V run() throws E;
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long[] nanos = new long[PHASES.length];
+    private long bodyStartNanos;
+    private boolean reported;
+
+    private RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /** Starts timing the current thread's request; pair with {@link #end()}. */
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /** The current thread's timing, or null. */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /** Runs {@code work}, adding its duration to {@code phase} of the current timing if there is one. */
+    public static <V, E extends Exception> V time(Phase phase, Work<V, E> work) throws E {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) return work.run();
+        long start = System.nanoTime();
+        try {
+            return work.run();
+        } finally {
+            timing.nanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Closes {@link Phase#APP} as the body is about to be written and returns the
+     * {@code Server-Timing} value for the phases known so far. Only the first call counts.
+     */
+    public String bodyStarting() {
+        if (bodyStartNanos == 0) {
+            bodyStartNanos = System.nanoTime();
+            nanos[Phase.APP.ordinal()] = bodyStartNanos - startNanos;
+        }
+        reported = true;
+        return serverTiming();
+    }
+
+    /** Whether {@link #bodyStarting()} already produced the header. */
+    public boolean reported() { return reported; }
+
+    /** Stops timing; {@link Phase#SERIALIZE} is what followed {@link #bodyStarting()}. */
+    public void end() {
+        CURRENT.remove();
+        long now = System.nanoTime();
+        nanos[Phase.TOTAL.ordinal()] = now - startNanos;
+        if (bodyStartNanos == 0) {
+            nanos[Phase.APP.ordinal()] = now - startNanos;
+        } else {
+            nanos[Phase.SERIALIZE.ordinal()] = now - bodyStartNanos;
+        }
+    }
+
+    public long nanos(Phase phase) { return nanos[phase.ordinal()]; }
+
+    /** Recorded phases in milliseconds, in header order; phases never entered are left out. */
+    public Map<String, Double> millis() {
+        Map<String, Double> ms = new LinkedHashMap<>();
+        for (Phase p : PHASES) {
+            if (nanos[p.ordinal()] > 0) ms.put(p.metric(), nanos[p.ordinal()] / 1e6);
+        }
+        return ms;
+    }
+
+    /** e.g. {@code persistence;dur=0.412, filter;dur=0.051, app;dur=0.733}; durations in ms. */
+    public String serverTiming() {
+        StringBuilder sb = new StringBuilder(96);
+        for (Phase p : PHASES) {
+            long n = nanos[p.ordinal()];
+            if (n <= 0) continue;
+            if (!sb.isEmpty()) sb.append(", ");
+            long micros = n / 1_000;
+            sb.append(p.metric()).append(";dur=").append(micros / 1_000).append('.');
+            long frac = micros % 1_000;
+            if (frac < 100) sb.append('0');
+            if (frac < 10) sb.append('0');
+            sb.append(frac);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package edu.eci.arsw.blueprints.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Times each API request. The {@code Server-Timing} header is set by
+ * {@link ServerTimingAdvice} just before the body is written, since it cannot be
+ * added afterwards; responses without a body get it here. Serialization time is
+ * therefore only in the {@link SlowRequestLog}. Async requests (long polls) are
+ * timed up to the point they are suspended and not logged.
+ * <p>
+ * Cost: with two timed calls, a request spends about 0.5 µs more with timing on
+ * than off (clock reads and formatting the header), measured in isolation. The
+ * overhead on a whole GET-heavy load has not been benchmarked.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final SlowRequestLog slowest;
+
+    public RequestTimingFilter(SlowRequestLog slowest) {
+        this.slowest = slowest;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            timing.end();
+            if (!timing.reported() && !response.isCommitted()) response.setHeader(HEADER, timing.serverTiming());
+            double total = timing.nanos(RequestTiming.Phase.TOTAL) / 1e6;
+            if (!request.isAsyncStarted() && slowest.qualifies(total)) {
+                slowest.offer(new SlowRequest(Instant.now(), request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), total, timing.millis()));
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package edu.eci.arsw.blueprints.timing;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One request kept by {@link SlowRequestLog}.
+ *
+ * @param phases milliseconds per {@link RequestTiming.Phase}, by metric name
+ */
+public record SlowRequest(
+        Instant finishedAt,
+        String method,
+        String path,
+        int status,
+        double totalMillis,
+        Map<String, Double> phases) { }
@@ -0,0 +1,51 @@
+package edu.eci.arsw.blueprints.timing;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The {@code capacity} slowest requests seen since startup (or the last {@link #clear()}).
+ * <p>
+ * Once full, a request has to beat the fastest one kept. That bar is read without
+ * locking, so the common case, a request faster than all of them, costs one volatile
+ * read and allocates nothing; callers build the {@link SlowRequest} only when
+ * {@link #qualifies} says so.
+ */
+public class SlowRequestLog {
+
+    private static final Comparator<SlowRequest> BY_TOTAL = Comparator.comparingDouble(SlowRequest::totalMillis);
+
+    private final int capacity;
+    private final PriorityQueue<SlowRequest> slowest;    // fastest kept request at the head
+    private volatile double bar;
+
+    public SlowRequestLog(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.slowest = new PriorityQueue<>(capacity, BY_TOTAL);
+    }
+
+    public int capacity() { return capacity; }
+
+    public boolean qualifies(double totalMillis) {
+        return totalMillis > bar;
+    }
+
+    public synchronized void offer(SlowRequest request) {
+        if (!qualifies(request.totalMillis())) return;
+        slowest.add(request);
+        if (slowest.size() > capacity) slowest.poll();
+        if (slowest.size() == capacity) bar = slowest.peek().totalMillis();
+    }
+
+    /** Slowest first. */
+    public synchronized List<SlowRequest> snapshot() {
+        return slowest.stream().sorted(BY_TOTAL.reversed()).toList();
+    }
+
+    public synchronized void clear() {
+        slowest.clear();
+        bar = 0;
+    }
+}
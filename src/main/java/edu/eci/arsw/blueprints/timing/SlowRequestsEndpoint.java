@@ -0,0 +1,28 @@
+package edu.eci.arsw.blueprints.timing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/** {@code /actuator/slowrequests}: the slowest API requests with their phase timings. */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestLog log;
+
+    public SlowRequestsEndpoint(SlowRequestLog log) {
+        this.log = log;
+    }
+
+    @ReadOperation
+    public List<SlowRequest> slowest() {
+        return log.snapshot();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        log.clear();
+    }
+}
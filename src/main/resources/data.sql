@@ -26,4 +26,24 @@ SELECT b.id, 10, 10, 2 FROM blueprints b WHERE b.author='john' AND b.name='house
 
 INSERT INTO points (blueprint_id, x, y, position)
 SELECT b.id, 0,  10, 3 FROM blueprints b WHERE b.author='john' AND b.name='house'
-  AND (SELECT COUNT(*) FROM points p WHERE p.blueprint_id=b.id) < 4;
\ No newline at end of file
+  AND (SELECT COUNT(*) FROM points p WHERE p.blueprint_id=b.id) < 4;
+
+-- Serves paged point reads as an index range scan
+CREATE INDEX IF NOT EXISTS idx_points_blueprint_position ON points (blueprint_id, position);
+
+-- Case-insensitive prefix search (GET /api/v1/blueprints/search) as index range scans.
+-- Substring search scans; for large tables enable pg_trgm and add, e.g.:
+--   CREATE INDEX idx_blueprints_name_trgm ON blueprints USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_blueprints_lower_author_pattern ON blueprints (lower(author) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_blueprints_lower_name_pattern ON blueprints (lower(name) text_pattern_ops);
+
+-- Bounding-box lookups for hit testing (GET /api/v1/blueprints/hit)
+CREATE INDEX IF NOT EXISTS idx_blueprints_geo_box ON blueprints
+  USING gist (box(point(geo_min_x, geo_min_y), point(geo_max_x, geo_max_y)));
+
+-- Author totals for rows that predate author_stats (only while the table is empty)
+INSERT INTO author_stats (author, blueprints, points, last_modified)
+SELECT b.author, COUNT(DISTINCT b.id), COUNT(p.id), NOW()
+FROM blueprints b LEFT JOIN points p ON p.blueprint_id = b.id
+WHERE NOT EXISTS (SELECT 1 FROM author_stats)
+GROUP BY b.author;
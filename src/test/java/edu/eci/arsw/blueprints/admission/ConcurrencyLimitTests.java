@@ -0,0 +1,212 @@
+package edu.eci.arsw.blueprints.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitTests {
+
+    private static final long MS = 1_000_000L;
+
+    private static AdaptiveLimit limit(int initial, int min, int max) {
+        return new AdaptiveLimit(initial, min, max, 2.0, 0.5, 10_000 * MS, 0);
+    }
+
+    @Test
+    void testAdmitsUpToLimitOnly() {
+        AdaptiveLimit limit = limit(2, 1, 10);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.inFlight());
+
+        limit.release(0, 10 * MS);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void testGrowsWhileFastAndBusy() {
+        AdaptiveLimit limit = limit(4, 1, 6);
+        long now = 0;
+        for (int round = 0; round < 100; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) admitted++;
+            for (int i = 0; i < admitted; i++) limit.release(now, now + 10 * MS);
+            now += 10 * MS;
+        }
+        assertEquals(6, limit.limit());
+    }
+
+    @Test
+    void testSlowBurstCutsOnceAndNeverBelowMin() {
+        AdaptiveLimit limit = limit(40, 5, 100);
+        for (int i = 0; i < 40; i++) assertTrue(limit.tryAcquire());
+        limit.release(0, 10 * MS);                                  // sets the baseline
+        for (int i = 1; i < 40; i++) limit.release(0, 100 * MS);   // all admitted before the cut
+
+        assertEquals(20, limit.limit());
+
+        long now = 200 * MS;
+        for (int i = 0; i < 10; i++) {                      // slow again, with the limit in use
+            int admitted = 0;
+            while (limit.tryAcquire()) admitted++;
+            for (int j = 0; j < admitted; j++) limit.release(now, now + 100 * MS);
+            now += 200 * MS;
+        }
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void testSlowRequestsUnderLightLoadDoNotCut() {
+        AdaptiveLimit limit = limit(40, 5, 100);
+        long now = 0;
+        // A few requests in flight at a time, fast and slow endpoints mixed, over many windows
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = 0; i < 3; i++) assertTrue(limit.tryAcquire());
+            limit.release(now, now + 2 * MS);
+            limit.release(now, now + 5 * MS);
+            limit.release(now, now + (round % 3 == 0 ? 400 : 40) * MS);
+            now += 500 * MS;
+        }
+        assertEquals(40, limit.limit());
+    }
+
+    @Test
+    void testLightLoadDoesNotDecayAcrossWindows() {
+        AdaptiveLimit limit = limit(40, 5, 100);
+        long now = 0;
+        for (int i = 0; i < 20; i++) {                     // one request at a time, a window or more apart
+            assertTrue(limit.tryAcquire());
+            limit.release(now, now + 10 * MS);
+            now += 20_000 * MS;
+        }
+        assertEquals(40, limit.limit());
+    }
+
+    @Test
+    void testProbeAfterCutsRestoresLimitOnceCalm() {
+        AdaptiveLimit limit = limit(40, 5, 100);
+        assertTrue(limit.tryAcquire());
+        limit.release(0, 10 * MS);                         // baseline
+        for (int i = 0; i < 20; i++) assertTrue(limit.tryAcquire());
+        limit.release(MS, 100 * MS);                       // one slow request with half the limit busy: a cut
+        assertEquals(20, limit.limit());
+        for (int i = 1; i < 20; i++) limit.release(0, 5 * MS);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(10_000 * MS, 10_010 * MS);           // the window with the cut ends: probe
+        assertEquals(10, limit.limit());
+
+        assertTrue(limit.tryAcquire());
+        limit.release(20_000 * MS, 20_010 * MS);           // the probe window was calm
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void testJitterUnderFloorDoesNotCut() {
+        AdaptiveLimit limit = new AdaptiveLimit(40, 5, 100, 2.0, 0.5, 10_000 * MS, MS, 0);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(now, now + (i % 2 == 0 ? 20_000 : 200_000));   // 20us vs 200us: 10x, under 1ms
+            now += MS;
+        }
+        assertEquals(40, limit.limit());
+    }
+
+    /**
+     * Simulated 3x overload: the backend serves {@code capacity} requests at the base
+     * latency and slows down in proportion beyond that. After a quiet start clients
+     * offer three times its capacity for a minute, long enough for several baseline
+     * windows to pass. Unlimited, every request would take 3x the base latency.
+     */
+    @Test
+    void testBoundsLatencyUnderThreeTimesOverload() {
+        final int capacity = 20;
+        final long base = 10 * MS;
+        AdaptiveLimit limit = new AdaptiveLimit(100, 1, 1_000, 2.0, 0.9, 5_000 * MS, 0);
+        List<Long> latencies = new ArrayList<>();
+        long shed = 0;
+        long now = 0;
+        for (int round = 0; round < 3_200; round++) {
+            int offered = round < 200 ? capacity / 2 : 3 * capacity;
+            int admitted = 0;
+            for (int i = 0; i < offered; i++) {
+                if (limit.tryAcquire()) admitted++; else shed++;
+            }
+            long latency = base * Math.max(capacity, admitted) / capacity;
+            for (int i = 0; i < admitted; i++) limit.release(now, now + latency);
+            if (round >= 400) for (int i = 0; i < admitted; i++) latencies.add(latency);
+            now += latency;
+        }
+        Collections.sort(latencies);
+        long p99 = latencies.get((int) (latencies.size() * 0.99));
+
+        // Within the 2x tolerance, give or take the request that triggers each cut; unlimited it is 3x
+        assertTrue(p99 <= 2.1 * base, "p99 " + p99 / MS + "ms");
+        assertTrue(limit.limit() >= capacity / 2 && limit.limit() <= 2 * capacity, "limit " + limit.limit());
+        assertTrue(shed > 0);
+    }
+
+    @Test
+    void testInterceptorShedsWith503AndExportsMetrics() throws Exception {
+        ConcurrencyLimitProperties props = new ConcurrencyLimitProperties(true,
+                new ConcurrencyLimitProperties.Limit(1, 1, 1), new ConcurrencyLimitProperties.Limit(1, 1, 1),
+                new ConcurrencyLimitProperties.Limit(1, 1, 1), 2.0, Duration.ofMillis(1), 0.9, Duration.ofSeconds(30));
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(props, new ObjectMapper(), meters);
+
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/v1/blueprints/john");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/blueprints/jane"), shed, null));
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("\"code\":503"));
+        // Writes have their own limit
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/blueprints"),
+                new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertEquals(0, interceptor.limit(ConcurrencyLimitInterceptor.RouteClass.READ).inFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/blueprints/jane"),
+                new MockHttpServletResponse(), null));
+
+        assertEquals(1.0, meters.get("blueprints.concurrency.shed").tag("class", "read").counter().count());
+        assertEquals(1.0, meters.get("blueprints.concurrency.limit").tag("class", "read").gauge().value());
+        assertEquals(1.0, meters.get("blueprints.concurrency.inflight").tag("class", "write").gauge().value());
+        // Long-running routes have a limit of their own too
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/blueprints/john/house/render"),
+                new MockHttpServletResponse(), null));
+        assertEquals(1.0, meters.get("blueprints.concurrency.inflight").tag("class", "heavy").gauge().value());
+    }
+
+    @Test
+    void testLongRunningRoutesAreClassedApart() {
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.HEAVY, classOf("GET", "/api/v1/blueprints"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.HEAVY, classOf("POST", "/api/v1/blueprints/_bulk"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.HEAVY, classOf("GET", "/api/v1/blueprints/john/house/render"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.HEAVY,
+                classOf("GET", "/api/v1/blueprints/john/house/tiles/2/1/0.png"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.HEAVY, classOf("GET", "/api/v1/blueprints/john/house/similar"));
+
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.READ, classOf("GET", "/api/v1/blueprints/john/render"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.READ, classOf("GET", "/api/v1/blueprints/john/house/points"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.READ, classOf("POST", "/api/v1/blueprints/_mget"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.WRITE, classOf("POST", "/api/v1/blueprints"));
+        assertEquals(ConcurrencyLimitInterceptor.RouteClass.WRITE, classOf("PUT", "/api/v1/blueprints/john/house/points"));
+    }
+
+    private static ConcurrencyLimitInterceptor.RouteClass classOf(String method, String uri) {
+        return ConcurrencyLimitInterceptor.classify(new MockHttpServletRequest(method, uri));
+    }
+}
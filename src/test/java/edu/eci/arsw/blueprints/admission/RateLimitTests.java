@@ -0,0 +1,150 @@
+package edu.eci.arsw.blueprints.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBucketAdmitsBurstThenRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        long wait = bucket.tryAcquire(0);
+        assertTrue(wait > 0 && wait <= SECOND / 10);
+        assertEquals(0, bucket.tryAcquire(SECOND / 10));
+        assertFalse(bucket.isFull(SECOND / 10));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    void testBucketIsExactUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.001, 1_000, System.nanoTime());
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try { start.await(); } catch (InterruptedException e) { return; }
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryAcquire(System.nanoTime()) == 0) admitted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1_000, admitted.get());
+    }
+
+    @Test
+    void testTableStaysBounded() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) table.tryAcquire("author" + i, now);
+        assertEquals(10, table.size());
+    }
+
+    @Test
+    void testTableSweepsFullBuckets() {
+        TokenBucketTable table = new TokenBucketTable(1_000, 1, 10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) table.tryAcquire("old" + i, now);
+        // Two seconds later every old bucket has refilled and can be dropped
+        assertEquals(0, table.tryAcquire("new", now + 2 * SECOND));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testFloodingOverflowKeyLeavesOtherNewcomersAlone() {
+        TokenBucketTable table = new TokenBucketTable(0.001, 2, 1);
+        long now = System.nanoTime();
+        assertEquals(0, table.tryAcquire("resident", now));
+        // The table is full: later keys go to overflow buckets
+        while (table.tryAcquire("flood", now) == 0) { }
+        String newcomer = "author-0";
+        for (int i = 1; Math.floorMod(newcomer.hashCode(), TokenBucketTable.OVERFLOW_BUCKETS)
+                == Math.floorMod("flood".hashCode(), TokenBucketTable.OVERFLOW_BUCKETS); i++) {
+            newcomer = "author-" + i;
+        }
+        assertEquals(0, table.tryAcquire(newcomer, now));
+        assertEquals(1, table.size());
+    }
+
+    private static MockHttpServletRequest request(String method, String author) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/blueprints/" + author);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("author", author));
+        return request;
+    }
+
+    @Test
+    void testInterceptorRejectsWith429PerAuthor() throws Exception {
+        RateLimitProperties props = new RateLimitProperties(true,
+                new RateLimitProperties.Limit(0.01, 2), new RateLimitProperties.Limit(0.01, 1), false, null, 0);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(props, new ObjectMapper(), meters);
+
+        assertTrue(interceptor.preHandle(request("GET", "john"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("GET", "john"), new MockHttpServletResponse(), null));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET", "john"), rejected, null));
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"code\":429"));
+
+        // Other authors and the write class have their own buckets
+        assertTrue(interceptor.preHandle(request("GET", "jane"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("PUT", "john"), new MockHttpServletResponse(), null));
+
+        assertEquals(1.0, meters.get("blueprints.ratelimit.requests")
+                .tag("class", "read").tag("outcome", "rejected").counter().count());
+        assertEquals(3.0, meters.get("blueprints.ratelimit.requests")
+                .tag("class", "read").tag("outcome", "allowed").counter().count());
+    }
+
+    @Test
+    void testAuthorlessRequestsAreKeyedByAddressNotClientHeaders() throws Exception {
+        RateLimitProperties props = new RateLimitProperties(true,
+                new RateLimitProperties.Limit(0.01, 1), new RateLimitProperties.Limit(0.01, 1), false, null, 0);
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(props, new ObjectMapper(), new SimpleMeterRegistry());
+
+        assertTrue(interceptor.preHandle(listing("10.0.0.1", "a"), new MockHttpServletResponse(), null));
+        // A fresh X-Client-Id is no fresh bucket
+        assertFalse(interceptor.preHandle(listing("10.0.0.1", "b"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(listing("10.0.0.2", "b"), new MockHttpServletResponse(), null));
+
+        // Behind a trusted proxy, the address it appends counts, not what the client sent before it
+        RateLimitInterceptor proxied = new RateLimitInterceptor(new RateLimitProperties(true,
+                new RateLimitProperties.Limit(0.01, 1), new RateLimitProperties.Limit(0.01, 1), false,
+                "X-Forwarded-For", 0), new ObjectMapper(), new SimpleMeterRegistry());
+        MockHttpServletRequest first = listing("10.9.9.9", null);
+        first.addHeader("X-Forwarded-For", "1.1.1.1, 203.0.113.7");
+        assertTrue(proxied.preHandle(first, new MockHttpServletResponse(), null));
+        MockHttpServletRequest spoofed = listing("10.9.9.9", null);
+        spoofed.addHeader("X-Forwarded-For", "2.2.2.2, 203.0.113.7");
+        assertFalse(proxied.preHandle(spoofed, new MockHttpServletResponse(), null));
+    }
+
+    private static MockHttpServletRequest listing(String remoteAddr, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/blueprints");
+        request.setRemoteAddr(remoteAddr);
+        if (clientId != null) request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
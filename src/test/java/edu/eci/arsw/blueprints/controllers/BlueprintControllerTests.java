@@ -3,6 +3,7 @@ package edu.eci.arsw.blueprints.controllers;
 import edu.eci.arsw.blueprints.model.Blueprint;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import edu.eci.arsw.blueprints.timing.SlowRequestLog;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,6 +13,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,6 +28,9 @@ class BlueprintControllerTests {
     @Autowired
     private BlueprintsServices services;
 
+    @Autowired
+    private SlowRequestLog slowRequests;
+
     @Test
     void testGetAllBlueprints() throws Exception {
         mockMvc.perform(get("/api/v1/blueprints"))
@@ -118,6 +124,43 @@ class BlueprintControllerTests {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testCreateBlueprintWithPointPairs() throws Exception {
+        String requestBody = """
+        {
+            "author": "bob",
+            "name": "pairs",
+            "points": [[1, 2], {"x": 3, "y": 4}]
+        }
+        """;
+
+        mockMvc.perform(post("/api/v1/blueprints")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/blueprints/bob/pairs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points[0].x").value(1))
+                .andExpect(jsonPath("$.data.points[1].y").value(4));
+    }
+
+    @Test
+    void testCreateBlueprintMalformedPoint() throws Exception {
+        String requestBody = """
+        {
+            "author": "bob",
+            "name": "broken",
+            "points": [[1, 2, 3]]
+        }
+        """;
+
+        mockMvc.perform(post("/api/v1/blueprints")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testAddPoint() throws Exception {
         String requestBody = """
@@ -150,4 +193,248 @@ class BlueprintControllerTests {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(404));
     }
+
+    @Test
+    void testGetPointsPage() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/jane/garden/points").param("from", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.points.length()").value(1))
+                .andExpect(jsonPath("$.data.points[0].x").value(3))
+                .andExpect(jsonPath("$.data.from").value(1))
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andExpect(jsonPath("$.data.nextOffset").value(2));
+    }
+
+    @Test
+    void testGetPointsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/jane/garden/points").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+    }
+
+    @Test
+    void testGetPointsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/nonexistent/points"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(404));
+    }
+
+    @Test
+    void testBulkIngest() throws Exception {
+        String body = """
+        {"author": "carl", "name": "shed", "points": [{"x": 1, "y": 1}]}
+        {"author": "carl", "name": "barn", "points": []}
+        {"author": "john", "name": "house", "points": []}
+        {"name": "orphan"}
+        """;
+
+        mockMvc.perform(post("/api/v1/blueprints/_bulk")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created").value(2))
+                .andExpect(jsonPath("$.data.duplicates").value(1))
+                .andExpect(jsonPath("$.data.rejected").value(1))
+                .andExpect(jsonPath("$.data.complete").value(true));
+    }
+
+    @Test
+    void testGetMetrics() throws Exception {
+        // john/garage is the triangle (5,5) (15,5) (15,15); no other test writes to it
+        mockMvc.perform(get("/api/v1/blueprints/john/garage/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points").value(3))
+                .andExpect(jsonPath("$.data.pathLength").value(20.0))
+                .andExpect(jsonPath("$.data.signedArea").value(50.0))
+                .andExpect(jsonPath("$.data.boundingBox.minX").value(5))
+                .andExpect(jsonPath("$.data.boundingBox.maxY").value(15));
+    }
+
+    @Test
+    void testGetMetricsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/nonexistent/metrics"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(404));
+    }
+
+    @Test
+    void testGetPointsSinceVersion() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/jane/garden/points").param("sinceVersion", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points.length()").value(2))
+                .andExpect(jsonPath("$.data.points[0].x").value(3))
+                .andExpect(jsonPath("$.data.version").value(3))
+                .andExpect(jsonPath("$.data.fullReload").value(false));
+    }
+
+    @Test
+    void testGetPointsSinceUnknownVersion() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/jane/garden/points").param("sinceVersion", "99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.fullReload").value(true))
+                .andExpect(jsonPath("$.data.points.length()").value(0));
+    }
+
+    @Test
+    void testGetPointsSinceNegativeVersion() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/jane/garden/points").param("sinceVersion", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+    }
+
+    @Test
+    void testMultiGet() throws Exception {
+        String body = """
+        {"keys": [{"author": "jane", "name": "garden"}, {"author": "nobody", "name": "nothing"}]}
+        """;
+        mockMvc.perform(post("/api/v1/blueprints/_mget").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.found.length()").value(1))
+                .andExpect(jsonPath("$.data.found[0].name").value("garden"))
+                .andExpect(jsonPath("$.data.missing[0].author").value("nobody"));
+    }
+
+    @Test
+    void testMultiGetRejectsEmptyKeys() throws Exception {
+        mockMvc.perform(post("/api/v1/blueprints/_mget").contentType(MediaType.APPLICATION_JSON).content("{\"keys\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearch() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/search").param("q", "GAR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].name").value("garage"))
+                .andExpect(jsonPath("$.data[0].match").value("PREFIX"))
+                .andExpect(jsonPath("$.data[1].name").value("garden"));
+    }
+
+    @Test
+    void testSearchAuthor() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/search").param("q", "jane"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].author").value("jane"))
+                .andExpect(jsonPath("$.data[0].match").value("EXACT"));
+    }
+
+    @Test
+    void testSearchRejectsBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testHit() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/hit").param("x", "5").param("y", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].name").value("garage"))
+                .andExpect(jsonPath("$.data[0].area").value(50.0))
+                .andExpect(jsonPath("$.data[1].name").value("house"));
+    }
+
+    @Test
+    void testHitRejectsLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/hit").param("x", "5").param("y", "5").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAuthorStats() throws Exception {
+        mockMvc.perform(get("/api/v1/authors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[?(@.author == 'jane')].blueprints").value(1))
+                .andExpect(jsonPath("$.data[0].lastModified").exists());
+    }
+
+    @Test
+    void testGetChanges() throws Exception {
+        var pending = mockMvc.perform(get("/api/v1/changes").param("since", "0").param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.events.length()").value(2))
+                .andExpect(jsonPath("$.data.events[0].seq").value(1))
+                .andExpect(jsonPath("$.data.events[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.data.next").value(2))
+                .andExpect(jsonPath("$.data.resync").value(false));
+    }
+
+    @Test
+    void testGetChangesInvalidLimit() throws Exception {
+        var pending = mockMvc.perform(get("/api/v1/changes").param("limit", "0")).andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testServerTimingHeader() throws Exception {
+        slowRequests.clear();
+        String timing = mockMvc.perform(get("/api/v1/blueprints/john/house"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Server-Timing"))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertTrue(timing.matches("persistence;dur=\\d+\\.\\d{3}, (filter;dur=\\d+\\.\\d{3}, )?app;dur=\\d+\\.\\d{3}"),
+                timing);
+        assertTrue(slowRequests.snapshot().stream()
+                .anyMatch(r -> r.path().equals("/api/v1/blueprints/john/house") && r.status() == 200));
+    }
+
+    @Test
+    void testRenderPng() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/house/render").param("w", "64").param("h", "32"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG));
+    }
+
+    @Test
+    void testRenderSvg() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/house/render").param("format", "svg"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"))
+                .andExpect(content().string(startsWith("<svg")));
+    }
+
+    @Test
+    void testRenderRejectsUnknownFormatAndSize() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/house/render").param("format", "gif"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(get("/api/v1/blueprints/john/house/render").param("w", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRenderNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/nonexistent/render"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(404));
+    }
+
+    @Test
+    void testGetTile() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/house/tiles/1/1/0.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG));
+        mockMvc.perform(get("/api/v1/blueprints/john/house/tiles/1/2/0.png"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSimilar() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/john/house/similar").param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data").isArray());
+        mockMvc.perform(get("/api/v1/blueprints/john/house/similar").param("k", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/blueprints/john/nonexistent/similar"))
+                .andExpect(status().isNotFound());
+    }
 }
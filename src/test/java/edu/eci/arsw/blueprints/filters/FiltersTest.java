@@ -4,7 +4,10 @@ import edu.eci.arsw.blueprints.model.Blueprint;
 import edu.eci.arsw.blueprints.model.Point;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,4 +86,56 @@ class FiltersTest {
 
         assertEquals(2, filtered.getPoints().size()); 
     }
+
+    // ── Parallel passes ──────────────────────────────────────────────────────
+
+    private static List<Point> noisyPoints(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<Point> pts = new ArrayList<>(n);
+        Point last = new Point(0, 0);
+        for (int i = 0; i < n; i++) {
+            // Runs of repeated points make chunk boundaries land inside duplicates
+            if (rnd.nextInt(3) != 0) last = new Point(rnd.nextInt(4), rnd.nextInt(4));
+            pts.add(last);
+        }
+        return pts;
+    }
+
+    @Test
+    void testRedundancyFilterParallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FilterParallelism parallel = new FilterParallelism(pool, 2, 16);
+            for (int n : new int[]{16, 17, 100, 1_001, 10_007}) {
+                Blueprint bp = new Blueprint("john", "noisy", noisyPoints(n, n));
+                assertTrue(parallel.withinBlueprint(n));
+                assertEquals(new RedundancyFilter().apply(bp).getPoints(),
+                        new RedundancyFilter(parallel).apply(bp).getPoints());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUndersamplingFilterParallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FilterParallelism parallel = new FilterParallelism(pool, 2, 16);
+            for (int n : new int[]{16, 17, 1_001, 10_000}) {
+                Blueprint bp = new Blueprint("john", "dense", noisyPoints(n, 31L * n));
+                assertEquals(new UndersamplingFilter().apply(bp).getPoints(),
+                        new UndersamplingFilter(parallel).apply(bp).getPoints());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSequentialParallelismNeverSplits() {
+        FilterParallelism sequential = FilterParallelism.sequential();
+        assertFalse(sequential.withinBlueprint(Integer.MAX_VALUE));
+        assertFalse(sequential.acrossBlueprints(Integer.MAX_VALUE, Long.MAX_VALUE));
+    }
 }
@@ -0,0 +1,111 @@
+package edu.eci.arsw.blueprints.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.controllers.dto.ApiResponse;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapPointStorage;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapSlabAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintJsonModuleTests {
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper objects = new ObjectMapper().registerModule(new BlueprintJsonModule(false));
+    private final ObjectMapper compact = new ObjectMapper().registerModule(new BlueprintJsonModule(true));
+
+    private static Blueprint randomBlueprint(Random random, int points) {
+        List<Point> pts = new ArrayList<>();
+        for (int i = 0; i < points; i++) pts.add(new Point(random.nextInt(), random.nextInt(2_000) - 1_000));
+        return new Blueprint("ann", "plan \"" + points + "\"", pts);
+    }
+
+    @Test
+    void testSerializedFormMatchesDefaultMapper() throws Exception {
+        Random random = new Random(39);
+        for (int n : new int[] {0, 1, 7, 500}) {
+            ApiResponse<Set<Blueprint>> body = new ApiResponse<>(200, "execute ok", Set.of(randomBlueprint(random, n)));
+            assertEquals(reflective.writeValueAsString(body), objects.writeValueAsString(body));
+        }
+        Point p = new Point(-3, 4);
+        assertEquals(reflective.writeValueAsString(p), objects.writeValueAsString(p));
+    }
+
+    @Test
+    void testCompactPoints() throws Exception {
+        Blueprint bp = new Blueprint("ann", "a", List.of(new Point(1, 2), new Point(-3, 4)));
+
+        assertEquals("{\"author\":\"ann\",\"name\":\"a\",\"points\":[[1,2],[-3,4]]}", compact.writeValueAsString(bp));
+        assertEquals("[5,6]", compact.writeValueAsString(new Point(5, 6)));
+    }
+
+    @Test
+    void testStreamsOffHeapStorage() throws Exception {
+        OffHeapPointStorage storage = new OffHeapPointStorage(new OffHeapSlabAllocator(1 << 16), 4);
+        storage.append(1, 2);
+        storage.append(3, 4);
+        Blueprint bp = new Blueprint("ann", "a", storage);
+
+        assertEquals("{\"author\":\"ann\",\"name\":\"a\",\"points\":[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]}",
+                objects.writeValueAsString(bp));
+    }
+
+    @Test
+    void testReadsBothPointForms() throws Exception {
+        assertEquals(new Point(1, 2), objects.readValue("{\"y\":2,\"x\":1,\"z\":9}", Point.class));
+        assertEquals(new Point(1, 2), objects.readValue("[1,2]", Point.class));
+
+        NewBlueprintRequest req = compact.readValue(
+                "{\"author\":\"ann\",\"name\":\"a\",\"extra\":{\"k\":[1]},\"points\":[[1,2],{\"x\":3,\"y\":4}]}",
+                NewBlueprintRequest.class);
+        assertEquals(new NewBlueprintRequest("ann", "a", List.of(new Point(1, 2), new Point(3, 4))), req);
+    }
+
+    @Test
+    void testCompactRoundTrip() throws Exception {
+        Blueprint bp = randomBlueprint(new Random(7), 100);
+        NewBlueprintRequest back = compact.readValue(compact.writeValueAsString(bp), NewBlueprintRequest.class);
+
+        assertEquals(bp.getAuthor(), back.author());
+        assertEquals(bp.getName(), back.name());
+        assertEquals(bp.getPoints(), back.points());
+    }
+
+    @Test
+    void testReadsStoredBlueprint() throws Exception {
+        Blueprint bp = randomBlueprint(new Random(43), 50);
+
+        Blueprint back = objects.readValue(compact.writeValueAsString(bp), Blueprint.class);
+
+        assertEquals(bp, back);
+        assertEquals(bp.getPoints(), back.getPoints());
+        assertThrows(MismatchedInputException.class, () -> objects.readValue("{\"name\":\"a\"}", Blueprint.class));
+    }
+
+    @Test
+    void testRejectsMalformedPoints() {
+        assertThrows(MismatchedInputException.class, () -> objects.readValue("[1,2,3]", Point.class));
+        assertThrows(MismatchedInputException.class, () -> objects.readValue("{\"x\":1.5,\"y\":2}", Point.class));
+        MismatchedInputException e = assertThrows(MismatchedInputException.class, () -> objects.readValue(
+                "{\"author\":\"ann\",\"name\":\"a\",\"points\":[7]}", NewBlueprintRequest.class));
+        assertTrue(e.getOriginalMessage().contains("points must contain"));
+    }
+
+    @Test
+    void testBlankFieldsAreLeftToValidation() throws Exception {
+        NewBlueprintRequest req = objects.readValue("{\"name\":\"\"}", NewBlueprintRequest.class);
+
+        assertNull(req.author());
+        assertEquals("", req.name());
+        assertEquals(List.of(), req.points());
+    }
+}
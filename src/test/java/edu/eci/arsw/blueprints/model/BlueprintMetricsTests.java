@@ -0,0 +1,133 @@
+package edu.eci.arsw.blueprints.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintMetricsTests {
+
+    private static final int RUNS = 500;
+
+    /** Straightforward full scan over the closed polygon, used as the oracle. */
+    static BlueprintMetrics reference(List<Point> pts) {
+        int n = pts.size();
+        if (n == 0) return BlueprintMetrics.EMPTY;
+        double path = 0, perimeter = 0, area2 = 0, cx = 0, cy = 0, sumX = 0, sumY = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            Point a = pts.get(i);
+            Point b = pts.get((i + 1) % n);
+            double len = Math.hypot((double) b.x() - a.x(), (double) b.y() - a.y());
+            perimeter += len;
+            if (i < n - 1) path += len;
+            double cross = (double) a.x() * b.y() - (double) b.x() * a.y();
+            area2 += cross;
+            cx += ((double) a.x() + b.x()) * cross;
+            cy += ((double) a.y() + b.y()) * cross;
+            sumX += a.x();
+            sumY += a.y();
+            minX = Math.min(minX, a.x()); maxX = Math.max(maxX, a.x());
+            minY = Math.min(minY, a.y()); maxY = Math.max(maxY, a.y());
+        }
+        BlueprintMetrics.Centroid centroid = area2 != 0
+                ? new BlueprintMetrics.Centroid(cx / (3 * area2), cy / (3 * area2))
+                : new BlueprintMetrics.Centroid(sumX / n, sumY / n);
+        return new BlueprintMetrics(n, perimeter, path, area2 / 2, centroid,
+                new BlueprintMetrics.BoundingBox(minX, minY, maxX, maxY));
+    }
+
+    private static List<Point> randomPoints(Random rnd, int n) {
+        int range = rnd.nextBoolean() ? 100 : 1_000_000;
+        List<Point> pts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) pts.add(new Point(rnd.nextInt(2 * range + 1) - range, rnd.nextInt(2 * range + 1) - range));
+        return pts;
+    }
+
+    private static void assertClose(double expected, double actual, String what) {
+        double tolerance = 1e-9 * Math.max(1, Math.abs(expected));
+        assertEquals(expected, actual, tolerance, what);
+    }
+
+    private static void assertMatches(BlueprintMetrics expected, BlueprintMetrics actual) {
+        assertEquals(expected.points(), actual.points(), "points");
+        assertClose(expected.perimeter(), actual.perimeter(), "perimeter");
+        assertClose(expected.pathLength(), actual.pathLength(), "pathLength");
+        assertClose(expected.signedArea(), actual.signedArea(), "signedArea");
+        assertEquals(expected.boundingBox(), actual.boundingBox(), "boundingBox");
+        if (expected.centroid() == null) {
+            assertNull(actual.centroid());
+        } else {
+            assertClose(expected.centroid().x(), actual.centroid().x(), "centroid.x");
+            assertClose(expected.centroid().y(), actual.centroid().y(), "centroid.y");
+        }
+    }
+
+    @Test
+    void testIncrementalMatchesFullScan() {
+        Random rnd = new Random(34);
+        for (int run = 0; run < RUNS; run++) {
+            List<Point> initial = randomPoints(rnd, rnd.nextInt(50));
+            List<Point> added = randomPoints(rnd, rnd.nextInt(50));
+            Blueprint bp = new Blueprint("a", "b", initial);
+            bp.metrics();   // build the sums before appending so the rest is incremental
+            List<Point> all = new ArrayList<>(initial);
+            for (Point p : added) {
+                bp.addPoint(p);
+                all.add(p);
+                assertMatches(reference(all), bp.metrics());
+            }
+            assertMatches(reference(all), bp.metrics());
+        }
+    }
+
+    @Test
+    void testRestoredStateContinuesLikeFullScan() {
+        Random rnd = new Random(3434);
+        for (int run = 0; run < RUNS; run++) {
+            List<Point> initial = randomPoints(rnd, rnd.nextInt(30));
+            List<Point> added = randomPoints(rnd, 1 + rnd.nextInt(30));
+            GeometryAccumulator stored = new GeometryAccumulator();
+            initial.forEach(p -> stored.accept(p.x(), p.y()));
+
+            GeometryAccumulator resumed = new GeometryAccumulator(stored.state());
+            added.forEach(p -> resumed.accept(p.x(), p.y()));
+
+            List<Point> all = new ArrayList<>(initial);
+            all.addAll(added);
+            assertMatches(reference(all), resumed.snapshot());
+        }
+    }
+
+    @Test
+    void testSquare() {
+        Blueprint bp = new Blueprint("john", "house",
+                List.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)));
+        BlueprintMetrics m = bp.metrics();
+
+        assertEquals(40.0, m.perimeter(), 1e-12);
+        assertEquals(30.0, m.pathLength(), 1e-12);
+        assertEquals(100.0, m.signedArea(), 1e-12);
+        assertEquals(new BlueprintMetrics.Centroid(5.0, 5.0), m.centroid());
+        assertEquals(new BlueprintMetrics.BoundingBox(0, 0, 10, 10), m.boundingBox());
+    }
+
+    @Test
+    void testClockwiseAreaIsNegative() {
+        Blueprint bp = new Blueprint("a", "b", List.of(new Point(0, 0), new Point(0, 4), new Point(4, 0)));
+        assertEquals(-8.0, bp.metrics().signedArea(), 1e-12);
+    }
+
+    @Test
+    void testDegenerateShapesUseVertexMean() {
+        BlueprintMetrics line = new Blueprint("a", "b", List.of(new Point(0, 0), new Point(4, 0))).metrics();
+        assertEquals(0.0, line.signedArea());
+        assertEquals(8.0, line.perimeter(), 1e-12);
+        assertEquals(new BlueprintMetrics.Centroid(2.0, 0.0), line.centroid());
+
+        assertSame(BlueprintMetrics.EMPTY, new Blueprint("a", "b", List.of()).metrics());
+    }
+}
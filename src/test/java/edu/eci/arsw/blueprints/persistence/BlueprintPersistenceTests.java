@@ -1,12 +1,25 @@
 package edu.eci.arsw.blueprints.persistence;
 
+import edu.eci.arsw.blueprints.model.AuthorStats;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapPointStorage;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapPointStorageFactory;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapSlabAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +58,14 @@ class BlueprintPersistenceTests {
         });
     }
 
+    @Test
+    void testFindBlueprintReportsMissAsEmpty() {
+        assertEquals("house", persistence.findBlueprint("john", "house").orElseThrow().getName());
+        assertTrue(persistence.findBlueprint("john", "nonexistent").isEmpty());
+        assertEquals(2, persistence.findBlueprintsByAuthor("john").orElseThrow().size());
+        assertTrue(persistence.findBlueprintsByAuthor("nonexistent").isEmpty());
+    }
+
     @Test
     void testGetBlueprintsByAuthor() throws BlueprintNotFoundException {
         Set<Blueprint> blueprints = persistence.getBlueprintsByAuthor("john");
@@ -79,4 +100,203 @@ class BlueprintPersistenceTests {
             persistence.addPoint("nonexistent", "blueprint", 1, 1);
         });
     }
+
+    @Test
+    void testGetPointsPage() throws BlueprintNotFoundException {
+        PointPage page = persistence.getPoints("john", "house", 1, 2);
+        assertEquals(List.of(new Point(10, 0), new Point(10, 10)), page.points());
+        assertEquals(1, page.from());
+        assertEquals(4, page.total());
+        assertEquals(3, page.nextOffset());
+    }
+
+    @Test
+    void testGetPointsLastPage() throws BlueprintNotFoundException {
+        PointPage page = persistence.getPoints("john", "house", 3, 10);
+        assertEquals(List.of(new Point(0, 10)), page.points());
+        assertNull(page.nextOffset());
+    }
+
+    @Test
+    void testGetPointsPastEnd() throws BlueprintNotFoundException {
+        PointPage page = persistence.getPoints("john", "house", 50, 10);
+        assertTrue(page.points().isEmpty());
+        assertEquals(4, page.total());
+        assertNull(page.nextOffset());
+    }
+
+    @Test
+    void testGetPointsWhileAppending() throws Exception {
+        Thread writer = Thread.ofPlatform().start(() -> {
+            try {
+                for (int i = 0; i < 20_000; i++) persistence.addPoint("john", "house", i, i);
+            } catch (BlueprintNotFoundException e) {
+                throw new AssertionError(e);
+            }
+        });
+        while (writer.isAlive()) {
+            PointPage page = persistence.getPoints("john", "house", 2, 100);
+            assertEquals(Math.min(100, page.total() - 2), page.points().size());
+            page.points().forEach(Objects::requireNonNull);   // reading a page never fails later
+        }
+        writer.join();
+        assertEquals(20_004, persistence.getPoints("john", "house", 0, 1).total());
+    }
+
+    @Test
+    void testGetPointsNotFound() {
+        assertThrows(BlueprintNotFoundException.class, () -> {
+            persistence.getPoints("nonexistent", "blueprint", 0, 10);
+        });
+    }
+
+    @Test
+    void testOffHeapStorageServesSameData() throws Exception {
+        BlueprintPersistence offHeap = new InMemoryBlueprintPersistence(
+                new OffHeapPointStorageFactory(new OffHeapSlabAllocator(1 << 16)));
+        offHeap.saveBlueprint(new Blueprint("ana", "roof", List.of(new Point(1, 2), new Point(3, 4))));
+        offHeap.addPoint("ana", "roof", 5, 6);
+
+        Blueprint bp = offHeap.getBlueprint("ana", "roof");
+        assertInstanceOf(OffHeapPointStorage.class, bp.pointStorage());
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4), new Point(5, 6)), bp.getPoints());
+        assertEquals(List.of(new Point(10, 0), new Point(10, 10)),
+                offHeap.getPoints("john", "house", 1, 2).points());
+    }
+
+    @Test
+    void testOffHeapBatchSkipsExisting() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1 << 16);
+        BlueprintPersistence offHeap = new InMemoryBlueprintPersistence(new OffHeapPointStorageFactory(allocator));
+        long before = allocator.usedBytes();
+
+        int created = offHeap.saveBlueprints(List.of(
+                new Blueprint("john", "house", List.of(new Point(9, 9))),
+                new Blueprint("ana", "roof", List.of(new Point(1, 2)))));
+
+        assertEquals(1, created);
+        assertEquals(before + OffHeapSlabAllocator.MIN_SLAB_POINTS * OffHeapSlabAllocator.POINT_BYTES,
+                allocator.usedBytes());
+    }
+
+    @Test
+    void testConcurrentSavesOfOneKeyKeepOne() throws Exception {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1 << 16);
+        BlueprintPersistence offHeap = new InMemoryBlueprintPersistence(new OffHeapPointStorageFactory(allocator));
+        long before = allocator.usedBytes();
+        int[] saved = new int[8];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < saved.length; i++) {
+            int n = i;
+            writers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    offHeap.saveBlueprint(new Blueprint("ana", "roof", List.of(new Point(n, n))));
+                    saved[n] = 1;
+                } catch (BlueprintPersistenceException | InterruptedException e) {
+                    // lost the race
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread t : writers) t.join();
+
+        assertEquals(1, Arrays.stream(saved).sum());
+        assertEquals(1, offHeap.getAuthorStats().stream().filter(s -> s.author().equals("ana")).findFirst()
+                .orElseThrow().blueprints());
+        // The losers' off-heap copies went back to the allocator
+        assertEquals(before + OffHeapSlabAllocator.MIN_SLAB_POINTS * OffHeapSlabAllocator.POINT_BYTES,
+                allocator.usedBytes());
+    }
+
+    @Test
+    void testSaveRacingRemovalOfTheLastBlueprintKeepsTheAuthor() throws Exception {
+        InMemoryBlueprintPersistence store = new InMemoryBlueprintPersistence();
+        for (int round = 0; round < 500; round++) {
+            String author = "racer-" + round;
+            store.saveBlueprint(new Blueprint(author, "old", List.of(new Point(0, 0))));
+            CountDownLatch start = new CountDownLatch(1);
+            Thread remover = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    store.removeBlueprint(author, "old");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread saver = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    store.saveBlueprint(new Blueprint(author, "new", List.of(new Point(1, 1), new Point(2, 2))));
+                } catch (BlueprintPersistenceException | InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            start.countDown();
+            remover.join();
+            saver.join();
+
+            assertEquals(Set.of("new"), store.getBlueprintsByAuthor(author).stream()
+                    .map(Blueprint::getName).collect(Collectors.toSet()), author);
+            AuthorStats stats = store.getAuthorStats().stream().filter(s -> s.author().equals(author))
+                    .findFirst().orElseThrow(() -> new AssertionError(author + " vanished from the stats"));
+            assertEquals(1, stats.blueprints());
+            assertEquals(2, stats.points());
+            assertTrue(store.search(author, false, 10).stream().anyMatch(h -> h.name() == null), author);
+        }
+    }
+
+    @Test
+    void testGetBlueprintsSkipsMissingKeys() {
+        Map<BlueprintKey, Blueprint> found = persistence.getBlueprints(List.of(
+                new BlueprintKey("jane", "garden"),
+                new BlueprintKey("john", "nonexistent"),
+                new BlueprintKey("john", "house")));
+
+        assertEquals(List.of(new BlueprintKey("jane", "garden"), new BlueprintKey("john", "house")),
+                List.copyOf(found.keySet()));
+        assertEquals(4, found.get(new BlueprintKey("john", "house")).getPoints().size());
+    }
+
+    @Test
+    void testAuthorStatsFollowWrites() throws Exception {
+        persistence.saveBlueprint(new Blueprint("jane", "shed", List.of(new Point(1, 1))));
+        persistence.addPoint("jane", "garden", 9, 9);
+        persistence.saveBlueprints(List.of(new Blueprint("zoe", "loft", List.of()),
+                new Blueprint("jane", "shed", List.of(new Point(5, 5)))));
+
+        List<AuthorStats> stats = persistence.getAuthorStats();
+
+        assertEquals(List.of("jane", "john", "zoe"), stats.stream().map(AuthorStats::author).toList());
+        AuthorStats jane = stats.get(0);
+        assertEquals(2, jane.blueprints());
+        assertEquals(5, jane.points());   // garden 3 + 1 added, shed 1; the duplicate shed is skipped
+        assertNotNull(jane.lastModified());
+        assertEquals(new AuthorStats("john", 2, 7, stats.get(1).lastModified()), stats.get(1));
+    }
+
+    @Test
+    void testHitTestFollowsWrites() throws Exception {
+        assertHitTestFollowsWrites(persistence);
+    }
+
+    @Test
+    void testHitIndexFollowsWrites() throws Exception {
+        assertHitTestFollowsWrites(new InMemoryBlueprintPersistence(PointStorageFactory.HEAP, true, true, 8));
+    }
+
+    private static void assertHitTestFollowsWrites(BlueprintPersistence persistence) throws Exception {
+        assertEquals(List.of(new BlueprintHit("john", "garage", 50), new BlueprintHit("john", "house", 100)),
+                persistence.hitTest(5, 5, 10));
+
+        persistence.saveBlueprint(new Blueprint("zoe", "closet", List.of(new Point(4, 4), new Point(6, 4))));
+        assertEquals(2, persistence.hitTest(5, 5, 10).size());
+        persistence.addPoint("zoe", "closet", 6, 6);
+
+        assertEquals(List.of("closet", "garage", "house"),
+                persistence.hitTest(5, 5, 10).stream().map(BlueprintHit::name).toList());
+        assertEquals(List.of(new BlueprintHit("john", "house", 100)), persistence.hitTest(1, 9, 10));
+        assertEquals(1, persistence.hitTest(5, 5, 1).size());
+    }
 }
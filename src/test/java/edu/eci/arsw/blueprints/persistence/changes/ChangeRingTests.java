@@ -0,0 +1,101 @@
+package edu.eci.arsw.blueprints.persistence.changes;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeRingTests {
+
+    private static ChangeRing filled(int capacity, int events) {
+        ChangeRing ring = new ChangeRing(capacity);
+        for (int i = 0; i < events; i++) ring.append(ChangeEvent.Type.POINT_ADDED, "john", "house", i + 1);
+        return ring;
+    }
+
+    @Test
+    void testCapacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new ChangeRing(5).capacity());
+        assertEquals(8, new ChangeRing(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new ChangeRing(0));
+    }
+
+    @Test
+    void testReadReturnsEventsAfterSinceInOrder() {
+        ChangeRing ring = filled(8, 5);
+
+        ChangeFeed feed = ring.read(2, 10);
+
+        assertEquals(List.of(3L, 4L, 5L), feed.events().stream().map(ChangeEvent::seq).toList());
+        assertEquals(5, feed.next());
+        assertEquals(5, feed.latestSeq());
+        assertFalse(feed.resync());
+    }
+
+    @Test
+    void testReadHonoursLimit() {
+        ChangeFeed feed = filled(8, 5).read(0, 2);
+
+        assertEquals(List.of(1L, 2L), feed.events().stream().map(ChangeEvent::seq).toList());
+        assertEquals(2, feed.next());
+    }
+
+    @Test
+    void testReadAtLatestIsEmpty() {
+        ChangeFeed feed = filled(8, 3).read(3, 10);
+
+        assertTrue(feed.events().isEmpty());
+        assertEquals(3, feed.next());
+        assertFalse(feed.resync());
+    }
+
+    @Test
+    void testReadBehindWindowResyncs() {
+        ChangeRing ring = filled(4, 10);
+
+        assertTrue(ring.read(5, 10).resync());
+        assertEquals(10, ring.read(5, 10).next());
+        assertFalse(ring.read(6, 10).resync());
+        assertEquals(4, ring.read(6, 10).events().size());
+    }
+
+    @Test
+    void testReadAheadOfRingResyncs() {
+        ChangeFeed feed = filled(8, 3).read(40, 10);
+
+        assertTrue(feed.resync());
+        assertEquals(3, feed.next());
+    }
+
+    @Test
+    void testConcurrentWritersLoseNothing() throws InterruptedException {
+        int writers = 8, perWriter = 1_000;
+        ChangeRing ring = new ChangeRing(writers * perWriter);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String author = "w" + w;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 1; i <= perWriter; i++) ring.append(ChangeEvent.Type.POINT_ADDED, author, "bp", i);
+            });
+            threads.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        ChangeFeed feed = ring.read(0, writers * perWriter);
+        assertEquals(writers * perWriter, feed.events().size());
+        for (int i = 0; i < feed.events().size(); i++) assertEquals(i + 1, feed.events().get(i).seq());
+    }
+}
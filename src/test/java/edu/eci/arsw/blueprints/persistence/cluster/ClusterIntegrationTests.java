@@ -0,0 +1,160 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static edu.eci.arsw.blueprints.persistence.cluster.RemoteBlueprintPersistence.BASE_PATH;
+import static edu.eci.arsw.blueprints.persistence.cluster.RemoteBlueprintPersistence.SECRET_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes talking over HTTP: this test's context is node A, and node B is a second
+ * application context the test starts. Both ports are picked up front, since each
+ * node's own URL has to be in its configuration before it starts.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ClusterIntegrationTests {
+
+    private static final String SECRET = "integration-secret";
+    private static final int PORT_A = freePort();
+    private static final int PORT_B = freePort();
+    private static final String A = "http://localhost:" + PORT_A;
+    private static final String B = "http://localhost:" + PORT_B;
+
+    @DynamicPropertySource
+    static void nodeA(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> PORT_A);
+        registry.add("blueprints.cluster.enabled", () -> "true");
+        registry.add("blueprints.cluster.self", () -> A);
+        registry.add("blueprints.cluster.members", () -> A);
+        registry.add("blueprints.cluster.allowed-members", () -> A + "," + B);
+        registry.add("blueprints.cluster.secret", () -> SECRET);
+    }
+
+    @Autowired
+    private InMemoryBlueprintPersistence localA;
+
+    @Autowired
+    private ClusteredBlueprintPersistence clusterA;
+
+    private final RestClient http = RestClient.create();
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) fail("timed out waiting for " + what);
+            Thread.sleep(50);
+        }
+    }
+
+    private JsonNode get(String url) {
+        return http.get().uri(url).retrieve().body(JsonNode.class);
+    }
+
+    @Test
+    void testInternalRoutesRequireTheSecret() {
+        HttpClientErrorException wrong = assertThrows(HttpClientErrorException.Unauthorized.class,
+                () -> http.get().uri(A + BASE_PATH + "/blueprints").header(SECRET_HEADER, "guess")
+                        .retrieve().body(String.class));
+        assertTrue(wrong.getResponseBodyAsString().contains("\"code\":401"), wrong.getResponseBodyAsString());
+        assertThrows(HttpClientErrorException.Unauthorized.class,
+                () -> http.put().uri(A + BASE_PATH + "/members").contentType(MediaType.APPLICATION_JSON)
+                        .body(List.of(A)).retrieve().body(String.class));
+
+        JsonNode members = http.get().uri(A + BASE_PATH + "/members").header(SECRET_HEADER, SECRET)
+                .retrieve().body(JsonNode.class);
+        assertEquals(200, members.get("code").asInt());
+    }
+
+    @Test
+    void testJoiningNodeTakesItsAuthorsAndBothNodesRoute() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            http.post().uri(A + "/api/v1/blueprints").contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("author", "joiner-" + i, "name", "plan",
+                            "points", List.of(Map.of("x", i, "y", 0), Map.of("x", 0, "y", i))))
+                    .retrieve().toBodilessEntity();
+        }
+
+        try (ConfigurableApplicationContext nodeB = new SpringApplicationBuilder(BlueprintsApplication.class).run(
+                "--server.port=" + PORT_B,
+                "--blueprints.cluster.enabled=true",
+                "--blueprints.cluster.self=" + B,
+                "--blueprints.cluster.members=" + A + "," + B,
+                "--blueprints.cluster.secret=" + SECRET)) {
+            InMemoryBlueprintPersistence localB = nodeB.getBean(InMemoryBlueprintPersistence.class);
+
+            // B announces its member list once it is up; A adopts it and hands off B's authors
+            await(() -> Set.copyOf(clusterA.members()).equals(Set.of(A, B)), "A to adopt B");
+            await(() -> clusterA.lastHandoff() != null, "A's handoff");
+            assertEquals(0, clusterA.lastHandoff().failed());
+
+            int ownedByB = 0;
+            for (int i = 0; i < 20; i++) {
+                String author = "joiner-" + i;
+                boolean onB = clusterA.ownerOf(author).equals(B);
+                if (onB) ownedByB++;
+                assertEquals(onB, localB.findBlueprint(author, "plan").isPresent(), author + " on B");
+                assertEquals(!onB, localA.findBlueprint(author, "plan").isPresent(), author + " on A");
+
+                // Either node serves every author, through the owner's internal API when remote
+                for (String node : List.of(A, B)) {
+                    JsonNode bp = get(node + "/api/v1/blueprints/" + author + "/plan");
+                    assertEquals(author, bp.at("/data/author").asText());
+                    assertEquals(i, bp.at("/data/points/0/x").asInt(), author + " via " + node);
+                }
+            }
+            assertTrue(ownedByB > 0, "no author moved to B");
+
+            // A write sent to either node lands on the owner
+            for (int i = 0; i < 20; i++) {
+                String author = "joiner-" + i;
+                String via = clusterA.ownerOf(author).equals(B) ? A : B;
+                var accepted = http.put().uri(via + "/api/v1/blueprints/" + author + "/plan/points")
+                        .contentType(MediaType.APPLICATION_JSON).body(Map.of("x", 9, "y", 9))
+                        .retrieve().toBodilessEntity();
+                assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+                InMemoryBlueprintPersistence owner = clusterA.ownerOf(author).equals(B) ? localB : localA;
+                assertEquals(3, owner.getBlueprint(author, "plan").getPoints().size(), author);
+            }
+
+            // A missing blueprint or author is a 404 on both nodes, wherever its author lives
+            for (String node : List.of(A, B)) {
+                for (int i = 0; i < 20; i++) {
+                    String author = "joiner-" + i;
+                    assertThrows(HttpClientErrorException.NotFound.class,
+                            () -> get(node + "/api/v1/blueprints/" + author + "/nonexistent"));
+                }
+                assertThrows(HttpClientErrorException.NotFound.class,
+                        () -> get(node + "/api/v1/blueprints/nobody-" + node.hashCode()));
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import edu.eci.arsw.blueprints.model.AuthorStats;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Three nodes in one JVM: each node's "remote" stores are the other nodes' local ones. */
+class ClusteredBlueprintPersistenceTests {
+
+    private static final String A = "http://a:8080";
+    private static final String B = "http://b:8080";
+    private static final String C = "http://c:8080";
+
+    private final Map<String, InMemoryBlueprintPersistence> locals = new HashMap<>(Map.of(
+            A, new InMemoryBlueprintPersistence(),
+            B, new InMemoryBlueprintPersistence(),
+            C, new InMemoryBlueprintPersistence()));
+
+    private ClusteredBlueprintPersistence node(String self, List<String> members) {
+        return node(self, members, locals::get);
+    }
+
+    private ClusteredBlueprintPersistence node(String self, List<String> members,
+                                               Function<String, BlueprintPersistence> connect) {
+        return new ClusteredBlueprintPersistence(self, members, List.of(A, B, C), 64, Duration.ofMinutes(1),
+                locals.get(self), connect);
+    }
+
+    private static List<Blueprint> blueprints(int authors) {
+        List<Blueprint> all = new ArrayList<>();
+        for (int i = 0; i < authors; i++) {
+            all.add(new Blueprint("author-" + i, "plan", List.of(new Point(i, 0), new Point(0, i))));
+            all.add(new Blueprint("author-" + i, "draft", List.of(new Point(i, i))));
+        }
+        return all;
+    }
+
+    @Test
+    void testWritesLandOnOwnerAndAreReadableFromAnyNode() throws Exception {
+        List<String> members = List.of(A, B, C);
+        ClusteredBlueprintPersistence a = node(A, members);
+        ClusteredBlueprintPersistence b = node(B, members);
+        node(C, members);
+
+        for (int i = 0; i < 30; i++) a.saveBlueprint(new Blueprint("author-" + i, "plan", List.of(new Point(i, i))));
+        b.addPoint("author-7", "plan", 1, 2);
+
+        for (int i = 0; i < 30; i++) {
+            String author = "author-" + i;
+            String owner = a.ownerOf(author);
+            for (String m : members) {
+                boolean held = locals.get(m).getAllBlueprints().contains(new Blueprint(author, "plan", List.of()));
+                assertEquals(m.equals(owner), held, author + " on " + m);
+            }
+        }
+        assertEquals(List.of(new Point(7, 7), new Point(1, 2)), a.getBlueprint("author-7", "plan").getPoints());
+        assertEquals(2, b.getPoints("author-7", "plan", 0, 10).points().size());
+        assertThrows(BlueprintPersistenceException.class,
+                () -> b.saveBlueprint(new Blueprint("author-3", "plan", List.of())));
+        assertThrows(BlueprintNotFoundException.class, () -> a.getBlueprintsByAuthor("nobody"));
+    }
+
+    @Test
+    void testSampleDataIsKeptOnlyByItsOwner() {
+        List<String> members = List.of(A, B, C);
+        ClusteredBlueprintPersistence a = node(A, members);
+        node(B, members);
+        node(C, members);
+
+        assertEquals(3, a.getAllBlueprints().size());
+        assertEquals(3, locals.values().stream().mapToInt(l -> l.getAllBlueprints().size()).sum());
+    }
+
+    @Test
+    void testBatchesAndMultiGetAreSplitByOwner() {
+        List<String> members = List.of(A, B, C);
+        ClusteredBlueprintPersistence a = node(A, members);
+        node(B, members);
+        node(C, members);
+
+        assertEquals(40, a.saveBlueprints(blueprints(20)));
+        assertEquals(0, a.saveBlueprints(blueprints(20)));
+
+        List<BlueprintKey> keys = List.of(new BlueprintKey("author-19", "draft"), new BlueprintKey("nobody", "x"),
+                new BlueprintKey("author-0", "plan"), new BlueprintKey("john", "house"));
+        Map<BlueprintKey, Blueprint> found = a.getBlueprints(keys);
+
+        assertEquals(List.of(keys.get(0), keys.get(2), keys.get(3)), List.copyOf(found.keySet()));
+        for (String m : members) assertTrue(locals.get(m).getAllBlueprints().size() < 43, "all on one node");
+    }
+
+    @Test
+    void testScatterGatherMergesEveryNode() throws Exception {
+        List<String> members = List.of(A, B, C);
+        ClusteredBlueprintPersistence a = node(A, members);
+        ClusteredBlueprintPersistence b = node(B, members);
+        node(C, members);
+        a.saveBlueprints(blueprints(20));
+        a.saveBlueprint(new Blueprint("jo", "house", List.of(new Point(0, 0))));
+
+        assertEquals(44, b.getAllBlueprints().size());
+
+        List<SearchHit> hits = b.search("house", false, 10);
+        assertEquals(List.of(new SearchHit("jo", "house", SearchHit.Match.EXACT),
+                new SearchHit("john", "house", SearchHit.Match.EXACT)), hits);
+        assertEquals(2, b.search("jo", false, 2).size());
+
+        List<AuthorStats> stats = b.getAuthorStats();
+        assertEquals(23, stats.size());
+        AuthorStats john = stats.stream().filter(s -> s.author().equals("john")).findFirst().orElseThrow();
+        assertEquals(2, john.blueprints());
+        assertEquals(7, john.points());
+        assertEquals(stats.stream().map(AuthorStats::author).sorted().toList(),
+                stats.stream().map(AuthorStats::author).toList());
+    }
+
+    @Test
+    void testAddingNodeHandsOffAndKeepsLookups() throws Exception {
+        ClusteredBlueprintPersistence a = node(A, List.of(A, B));
+        ClusteredBlueprintPersistence b = node(B, List.of(A, B));
+        a.saveBlueprints(blueprints(50));
+        assertTrue(locals.get(C).getAllBlueprints().size() <= 3);
+
+        List<String> three = List.of(A, B, C);
+        ClusteredBlueprintPersistence c = node(C, three);
+        assertTrue(a.adopt(three));
+        assertTrue(b.adopt(three));
+        assertFalse(b.adopt(List.of(C, B, A)));
+
+        assertEquals(103, c.getAllBlueprints().size());
+        for (int i = 0; i < 50; i++) {
+            String author = "author-" + i;
+            assertEquals(2, a.getBlueprintsByAuthor(author).size());
+            for (String m : three) {
+                boolean held = !locals.get(m).getBlueprints(List.of(new BlueprintKey(author, "plan"))).isEmpty();
+                assertEquals(m.equals(c.ownerOf(author)), held, author + " on " + m);
+            }
+        }
+        int moved = a.lastHandoff().moved() + b.lastHandoff().moved();
+        assertTrue(moved > 10, "moved " + moved);
+        assertEquals(0, a.lastHandoff().failed());
+    }
+
+    @Test
+    void testFailedHandoffKeepsBlueprintsReachable() throws Exception {
+        ClusteredBlueprintPersistence a = node(A, List.of(A), m -> {
+            if (m.equals(A)) return locals.get(A);
+            throw new ClusterUnavailableException(m, null);
+        });
+        a.saveBlueprints(blueprints(30));
+
+        assertTrue(a.adopt(List.of(A, C)));
+
+        assertEquals(0, a.lastHandoff().moved());
+        assertTrue(a.lastHandoff().failed() > 0);
+        assertEquals(63, locals.get(A).getAllBlueprints().size());
+        assertEquals(30, locals.get(A).getAuthorStats().stream()
+                .filter(s -> s.author().startsWith("author-")).count());
+    }
+
+    @Test
+    void testHandoffKeepsBlueprintsTheNewOwnerAlreadyHas() throws Exception {
+        ClusteredBlueprintPersistence a = node(A, List.of(A));
+        a.saveBlueprints(blueprints(30));
+        HashRing next = new HashRing(List.of(A, C), 64);
+        String author = blueprints(30).stream().map(Blueprint::getAuthor)
+                .filter(x -> next.ownerOf(x).equals(C)).findFirst().orElseThrow();
+        locals.get(C).saveBlueprint(new Blueprint(author, "plan", List.of(new Point(-1, -1))));
+        node(C, List.of(A, C));
+
+        assertTrue(a.adopt(List.of(A, C)));
+
+        assertEquals(1, a.lastHandoff().failed());
+        assertEquals(List.of(new Point(-1, -1)), locals.get(C).getBlueprint(author, "plan").getPoints());
+        Blueprint kept = locals.get(A).getBlueprint(author, "plan");
+        assertEquals(2, kept.getPoints().size(), "the copy the owner skipped is not dropped");
+        // Everything else moved, its sibling included
+        assertEquals(2, locals.get(C).getBlueprintsByAuthor(author).size());
+        long leftBehind = locals.get(A).getAllBlueprints().stream()
+                .filter(bp -> next.ownerOf(bp.getAuthor()).equals(C)).count();
+        assertEquals(1, leftBehind);
+    }
+
+    @Test
+    void testUnconfiguredMembersAreRejected() {
+        ClusteredBlueprintPersistence a = node(A, List.of(A, B));
+
+        assertFalse(a.allows(List.of(A, "http://evil:8080")));
+        assertThrows(IllegalArgumentException.class, () -> a.adopt(List.of(A, "http://evil:8080")));
+        assertEquals(List.of(A, B), a.members());
+    }
+
+    @Test
+    void testWritesRacingHandOffAreNeitherLostNorKeptLocally() throws Exception {
+        InMemoryBlueprintPersistence local = locals.get(A);
+        for (int round = 0; round < 50; round++) {
+            String author = "racer-" + round;
+            local.saveBlueprint(new Blueprint(author, "plan", List.of(new Point(0, 0))));
+            int[] written = {0};
+            Thread writer = Thread.ofPlatform().start(() -> {
+                try {
+                    for (int i = 1; ; i++) {
+                        local.addPoint(author, "plan", i, i);
+                        written[0]++;
+                    }
+                } catch (BlueprintNotFoundException gone) {
+                    // handed off: a clustered writer would now look on the new owner
+                }
+            });
+            Thread.sleep(1);
+            Blueprint leaving = local.removeBlueprint(author, "plan");
+            writer.join();
+
+            assertEquals(1 + written[0], leaving.getPoints().size(), "every acknowledged write left with it");
+            assertTrue(local.getAuthorStats().stream().noneMatch(s -> s.author().equals(author)));
+        }
+    }
+}
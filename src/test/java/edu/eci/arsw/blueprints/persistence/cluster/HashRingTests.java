@@ -0,0 +1,62 @@
+package edu.eci.arsw.blueprints.persistence.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTests {
+
+    private static final List<String> THREE = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void testOwnerIsDeterministicAndIndependentOfMemberOrder() {
+        HashRing ring = new HashRing(THREE, 128);
+        HashRing reordered = new HashRing(List.of("http://c:8080", "http://a:8080", "http://b:8080"), 128);
+
+        assertEquals(ring, reordered);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(ring.ownerOf("author-" + i), reordered.ownerOf("author-" + i));
+        }
+        assertEquals(THREE, reordered.members());
+    }
+
+    @Test
+    void testAuthorsSpreadEvenly() {
+        HashRing ring = new HashRing(THREE, 128);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) owned.merge(ring.ownerOf("author-" + i), 1, Integer::sum);
+
+        assertEquals(3, owned.size());
+        owned.values().forEach(n -> assertTrue(n > 8_000 && n < 12_000, "unbalanced: " + owned));
+    }
+
+    @Test
+    void testAddingMemberMovesAboutOneNthOnlyToIt() {
+        HashRing before = new HashRing(THREE, 128);
+        HashRing after = new HashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String author = "author-" + i;
+            String was = before.ownerOf(author);
+            String is = after.ownerOf(author);
+            if (!was.equals(is)) {
+                moved++;
+                assertEquals("http://d:8080", is);
+            }
+        }
+        assertTrue(moved > 4_000 && moved < 6_000, "moved " + moved);
+    }
+
+    @Test
+    void testSingleMemberOwnsEverything() {
+        HashRing ring = new HashRing(List.of("http://a:8080"), 4);
+
+        assertEquals("http://a:8080", ring.ownerOf(""));
+        assertEquals("http://a:8080", ring.ownerOf("anyone"));
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of(), 4));
+    }
+}
@@ -0,0 +1,154 @@
+package edu.eci.arsw.blueprints.persistence.compact;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactingPointStorageTests {
+
+    private final long[] now = {0};
+    private final PointCompactor compactor = new PointCompactor(1_000, () -> now[0]);
+
+    /** A pen stroke: small steps with the occasional jump. */
+    private static List<Point> stroke(int n, long seed) {
+        Random random = new Random(seed);
+        List<Point> points = new ArrayList<>(n);
+        int x = 500, y = 500;
+        for (int i = 0; i < n; i++) {
+            if (random.nextInt(100) == 0) {
+                x = random.nextInt(10_000);
+                y = random.nextInt(10_000);
+            } else {
+                x += random.nextInt(9) - 4;
+                y += random.nextInt(9) - 4;
+            }
+            points.add(new Point(x, y));
+        }
+        return points;
+    }
+
+    @Test
+    void testEncodingRoundTripsAnyCoordinates() {
+        List<Point> points = new ArrayList<>(stroke(1_000, 1));
+        points.add(new Point(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        points.add(new Point(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        points.add(new Point(0, 0));
+
+        DeltaVarintPoints encoded = DeltaVarintPoints.encode(new HeapPointStorage(points));
+
+        List<Point> decoded = new ArrayList<>();
+        encoded.forEach((x, y) -> decoded.add(new Point(x, y)));
+        assertEquals(points, decoded);
+        for (int i : new int[] {0, 127, 128, 129, 500, points.size() - 1}) assertEquals(points.get(i), encoded.get(i));
+        assertThrows(IndexOutOfBoundsException.class, () -> encoded.get(points.size()));
+        assertTrue(encoded.encodedBytes() < 3L * points.size(), "bytes: " + encoded.encodedBytes());
+    }
+
+    @Test
+    void testIdleStoragesAreCompactedAndStillReadable() {
+        List<Point> points = stroke(300, 2);
+        CompactingPointStorage idle = new CompactingPointStorage(compactor, points);
+        now[0] = 600;
+        CompactingPointStorage busy = new CompactingPointStorage(compactor, stroke(10, 3));
+        now[0] = 1_200;
+
+        assertEquals(1, compactor.compactIdle());
+
+        assertTrue(idle.isCompacted());
+        assertFalse(busy.isCompacted());
+        assertEquals(300, compactor.compactedPoints());
+        assertEquals(300, idle.size());
+        assertEquals(points, idle.asList());
+        assertEquals(points.subList(200, 260), idle.asList().subList(200, 260));
+        assertEquals(points.get(250), idle.get(250));
+
+        now[0] = 1_600;
+        assertEquals(1, compactor.compactIdle());
+        assertTrue(busy.isCompacted());
+        assertEquals(2, compactor.compactions());
+    }
+
+    @Test
+    void testAppendPromotesBackToHeap() {
+        List<Point> points = new ArrayList<>(stroke(200, 4));
+        CompactingPointStorage storage = new CompactingPointStorage(compactor, points);
+        now[0] = 1_000;
+        compactor.compactIdle();
+        List<Point> before = storage.asList();
+        ListIterator<Point> snapshot = before.listIterator(199);
+
+        storage.append(7, -7);
+        points.add(new Point(7, -7));
+
+        assertFalse(storage.isCompacted());
+        assertEquals(1, compactor.promotions());
+        assertEquals(0, compactor.compactedPoints());
+        assertEquals(points, storage.asList());
+        assertEquals(points, before);                       // the view is live
+        assertEquals(points.get(199), snapshot.next());
+        assertFalse(snapshot.hasNext());                    // an iterator is not
+
+        // Freshly written, so it waits a full idle period again
+        assertEquals(0, compactor.compactIdle());
+        now[0] = 2_000;
+        assertEquals(1, compactor.compactIdle());
+        assertEquals(201, compactor.compactedPoints());
+    }
+
+    @Test
+    void testIteratorStepsBothWays() {
+        List<Point> points = stroke(400, 5);
+        CompactingPointStorage storage = new CompactingPointStorage(compactor, points);
+        now[0] = 1_000;
+        compactor.compactIdle();
+
+        ListIterator<Point> it = storage.asList().listIterator(130);
+        assertEquals(points.get(130), it.next());
+        assertEquals(points.get(131), it.next());
+        assertEquals(points.get(131), it.previous());
+        assertEquals(points.get(130), it.previous());
+        assertEquals(points.get(129), it.previous());
+        assertEquals(points.get(129), it.next());
+    }
+
+    @Test
+    void testReleasedStoragesLeaveTheCompactor() {
+        CompactingPointStorage storage = new CompactingPointStorage(compactor, stroke(50, 6));
+        now[0] = 1_000;
+        compactor.compactIdle();
+        storage.release();
+
+        assertEquals(0, compactor.compactedPoints());
+        assertEquals(0, compactor.compactedBytes());
+        assertThrows(IllegalStateException.class, () -> storage.append(1, 1));
+    }
+
+    @Test
+    void testInMemoryBackendWritesThroughCompactedBlueprints() throws Exception {
+        PointStorageFactory factory = new CompactingPointStorageFactory(compactor);
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence(factory, true, 8);
+        List<Point> points = new ArrayList<>(stroke(1_000, 7));
+        persistence.saveBlueprint(new Blueprint("ann", "sketch", points));
+        now[0] = 1_000;
+
+        assertEquals(4, compactor.compactIdle());   // three sample blueprints and the sketch
+
+        Blueprint stored = persistence.getBlueprint("ann", "sketch");
+        assertEquals(points, stored.getPoints());
+        assertEquals(points.subList(990, 1_000), persistence.getPoints("ann", "sketch", 990, 50).points());
+        persistence.addPoint("ann", "sketch", 1, 2);
+        points.add(new Point(1, 2));
+        assertEquals(points, persistence.getBlueprint("ann", "sketch").getPoints());
+        assertEquals(1, compactor.promotions());
+    }
+}
@@ -1,23 +1,57 @@
 package edu.eci.arsw.blueprints.persistence.impl;
 
+import edu.eci.arsw.blueprints.model.AuthorStats;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics;
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.model.GeometryAccumulator;
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointPage;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.model.SearchHit.Match;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.entity.AuthorStatsEntity;
 import edu.eci.arsw.blueprints.persistence.entity.BlueprintEntity;
+import edu.eci.arsw.blueprints.persistence.entity.ChangeEventEntity;
+import edu.eci.arsw.blueprints.persistence.entity.GeometryColumns;
+import edu.eci.arsw.blueprints.persistence.entity.PointChunkEntity;
+import edu.eci.arsw.blueprints.persistence.jpa.AuthorStatsJpaRepository;
 import edu.eci.arsw.blueprints.persistence.jpa.BlueprintJpaRepository;
+import edu.eci.arsw.blueprints.persistence.jpa.ChangeEventJpaRepository;
+import edu.eci.arsw.blueprints.persistence.jpa.NameRow;
+import edu.eci.arsw.blueprints.persistence.jpa.PointChunkJpaRepository;
+import edu.eci.arsw.blueprints.persistence.jpa.PointRow;
+import edu.eci.arsw.blueprints.persistence.routing.ReadYourWritesWindow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +60,18 @@ class PostgresBlueprintPersistenceTest {
     @Mock
     private BlueprintJpaRepository repo;
 
+    @Mock
+    private AuthorStatsJpaRepository authorStats;
+
+    @Mock
+    private PointChunkJpaRepository chunks;
+
+    @Mock
+    private ChangeEventJpaRepository changes;
+
+    @Mock
+    private PlatformTransactionManager transactions;
+
     private PostgresBlueprintPersistence persistence;
 
     // Helper: build a BlueprintEntity with points for mocking
@@ -37,7 +83,8 @@ class PostgresBlueprintPersistenceTest {
 
     @BeforeEach
     void setUp() {
-        persistence = new PostgresBlueprintPersistence(repo);
+        persistence = new PostgresBlueprintPersistence(repo, authorStats, changes,
+                new ReadYourWritesWindow(Duration.ofSeconds(2)), transactions);
     }
 
     // ── saveBlueprint ────────────────────────────────────────────────────────
@@ -62,6 +109,60 @@ class PostgresBlueprintPersistenceTest {
         verify(repo, never()).save(any());
     }
 
+    @Test
+    void testSaveBlueprintsSkipsExistingAndRepeatedKeys() {
+        when(repo.findKeysByAuthorInAndNameIn(any(), any())).thenReturn(List.of("john:house"));
+        List<Blueprint> batch = List.of(
+                new Blueprint("john", "house", List.of()),
+                new Blueprint("ann", "loft", List.of(new Point(1, 1))),
+                new Blueprint("ann", "loft", List.of()),
+                new Blueprint("ann", "barn", List.of()));
+
+        int created = persistence.saveBlueprints(batch);
+
+        assertEquals(2, created);
+        @SuppressWarnings("unchecked")
+        var captor = org.mockito.ArgumentCaptor.forClass((Class<List<BlueprintEntity>>) (Class<?>) List.class);
+        verify(repo, times(1)).saveAll(captor.capture());
+        assertEquals(List.of("loft", "barn"), captor.getValue().stream().map(BlueprintEntity::getName).toList());
+        assertEquals(1, captor.getValue().get(0).getPoints().size());
+    }
+
+    @Test
+    void testSaveBlueprintsRunsBatchInOneTransaction() {
+        when(repo.findKeysByAuthorInAndNameIn(any(), any())).thenReturn(List.of());
+
+        persistence.saveBlueprints(List.of(new Blueprint("ann", "loft", List.of(new Point(1, 1)))));
+
+        InOrder order = inOrder(transactions, repo, authorStats, changes);
+        order.verify(transactions).getTransaction(any());
+        order.verify(repo).saveAll(any());
+        order.verify(authorStats).increment("ann", 1, 1);
+        order.verify(changes).append(any(), any(), any(), any());
+        order.verify(transactions).commit(any());
+    }
+
+    @Test
+    void testSaveBlueprintsFallbackSkipsRowsLostToConcurrentWriters() {
+        when(repo.findKeysByAuthorInAndNameIn(any(), any())).thenReturn(List.of());
+        when(repo.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repo.save(any(BlueprintEntity.class))).thenAnswer(inv -> {
+            BlueprintEntity e = inv.getArgument(0);
+            if (e.getName().equals("barn")) throw new DataIntegrityViolationException("duplicate key");
+            return e;
+        });
+
+        int created = persistence.saveBlueprints(List.of(
+                new Blueprint("ann", "loft", List.of()),
+                new Blueprint("ann", "barn", List.of())));
+
+        assertEquals(1, created);
+        // The batch, then one transaction per blueprint; only the one that failed rolls back
+        verify(transactions, times(3)).getTransaction(any());
+        verify(transactions, times(2)).rollback(any());
+        verify(authorStats).increment("ann", 1, 0);
+    }
+
     // ── getBlueprint ─────────────────────────────────────────────────────────
 
     @Test
@@ -82,6 +183,15 @@ class PostgresBlueprintPersistenceTest {
         assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprint("x", "y"));
     }
 
+    @Test
+    void testFindBlueprintMissIsEmpty() {
+        when(repo.findByAuthorAndName("x", "y")).thenReturn(Optional.empty());
+        when(repo.findByAuthor("x")).thenReturn(List.of());
+
+        assertTrue(persistence.findBlueprint("x", "y").isEmpty());
+        assertTrue(persistence.findBlueprintsByAuthor("x").isEmpty());
+    }
+
     // ── getBlueprintsByAuthor ─────────────────────────────────────────────────
 
     @Test
@@ -101,6 +211,25 @@ class PostgresBlueprintPersistenceTest {
         assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprintsByAuthor("ghost"));
     }
 
+    // ── getBlueprints (multi-get) ─────────────────────────────────────────────
+
+    @Test
+    void testGetBlueprintsResolvesKeysInOneQueryPerChunk() {
+        when(repo.findIdsByKeys(any(), any())).thenReturn(List.of(1L));
+        when(repo.findAllWithPointsByIdIn(List.of(1L)))
+                .thenReturn(List.of(entityWith("john", "house", List.of(new int[]{1, 2}))));
+        List<BlueprintKey> keys = new ArrayList<>();
+        for (int i = 0; i <= PostgresBlueprintPersistence.MULTI_GET_CHUNK; i++) keys.add(new BlueprintKey("a" + i, "b"));
+        keys.add(new BlueprintKey("john", "house"));
+
+        Map<BlueprintKey, Blueprint> found = persistence.getBlueprints(keys);
+
+        assertEquals(List.of(new BlueprintKey("john", "house")), List.copyOf(found.keySet()));
+        assertEquals(List.of(new Point(1, 2)), found.get(new BlueprintKey("john", "house")).getPoints());
+        verify(repo, times(2)).findIdsByKeys(any(), any());
+        verify(repo, never()).findByAuthorAndName(any(), any());
+    }
+
     // ── getAllBlueprints ──────────────────────────────────────────────────────
 
     @Test
@@ -126,17 +255,18 @@ class PostgresBlueprintPersistenceTest {
     @Test
     void testAddPointSuccess() throws BlueprintNotFoundException {
         BlueprintEntity e = entityWith("john", "house", List.of());
-        when(repo.findByAuthorAndName("john", "house")).thenReturn(Optional.of(e));
+        when(repo.findForUpdate("john", "house")).thenReturn(Optional.of(e));
 
         persistence.addPoint("john", "house", 5, 10);
 
         assertEquals(1, e.getPoints().size());
         verify(repo, times(1)).save(e);
+        verify(repo, never()).findByAuthorAndName(any(), any());   // only the row-locking read
     }
 
     @Test
     void testAddPointBlueprintNotFoundThrows() {
-        when(repo.findByAuthorAndName("x", "y")).thenReturn(Optional.empty());
+        when(repo.findForUpdate("x", "y")).thenReturn(Optional.empty());
         assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("x", "y", 1, 1));
         verify(repo, never()).save(any());
     }
@@ -144,7 +274,7 @@ class PostgresBlueprintPersistenceTest {
     @Test
     void testAddPointCorrectCoordinates() throws BlueprintNotFoundException {
         BlueprintEntity e = entityWith("john", "house", List.of());
-        when(repo.findByAuthorAndName("john", "house")).thenReturn(Optional.of(e));
+        when(repo.findForUpdate("john", "house")).thenReturn(Optional.of(e));
 
         persistence.addPoint("john", "house", 99, 77);
 
@@ -218,4 +348,331 @@ class PostgresBlueprintPersistenceTest {
         assertEquals(1, bp.getPoints().get(0).x());
         assertEquals(2, bp.getPoints().get(0).y());
     }
-}
\ No newline at end of file
+
+    // ── getPoints ────────────────────────────────────────────────────────────
+
+    private static PointRow row(int x, int y) {
+        return new PointRow() {
+            public int getX() { return x; }
+            public int getY() { return y; }
+        };
+    }
+
+    @Test
+    void testGetPointsUsesRangeQuery() throws BlueprintNotFoundException {
+        when(repo.findIdByAuthorAndName("john", "house")).thenReturn(Optional.of(7L));
+        when(repo.countPoints(7L)).thenReturn(4);
+        when(repo.findPointSlice(7L, 1, 2)).thenReturn(List.of(row(10, 0), row(10, 10)));
+
+        PointPage page = persistence.getPoints("john", "house", 1, 2);
+
+        assertEquals(List.of(new Point(10, 0), new Point(10, 10)), page.points());
+        assertEquals(4, page.total());
+        assertEquals(3, page.nextOffset());
+        verify(repo, never()).findByAuthorAndName(any(), any());
+    }
+
+    @Test
+    void testGetPointsPastEndSkipsQuery() throws BlueprintNotFoundException {
+        when(repo.findIdByAuthorAndName("john", "house")).thenReturn(Optional.of(7L));
+        when(repo.countPoints(7L)).thenReturn(4);
+
+        PointPage page = persistence.getPoints("john", "house", 9, 2);
+
+        assertTrue(page.points().isEmpty());
+        assertNull(page.nextOffset());
+        verify(repo, never()).findPointSlice(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetPointsCountsFromStoredGeometry() throws BlueprintNotFoundException {
+        GeometryAccumulator acc = new GeometryAccumulator();
+        for (int i = 0; i < 4; i++) acc.accept(i, i);
+        when(repo.findIdByAuthorAndName("john", "house")).thenReturn(Optional.of(7L));
+        when(repo.findGeometry(7L)).thenReturn(new GeometryColumns(acc.state()));
+        when(repo.findPointSlice(7L, 3, 10)).thenReturn(List.of(row(3, 3)));
+
+        PointPage page = persistence.getPoints("john", "house", 3, 10);
+
+        assertEquals(4, page.total());
+        assertEquals(List.of(new Point(3, 3)), page.points());
+        verify(repo, never()).countPoints(anyLong());
+    }
+
+    @Test
+    void testGetPointsNotFoundThrows() {
+        when(repo.findIdByAuthorAndName("x", "y")).thenReturn(Optional.empty());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getPoints("x", "y", 0, 10));
+    }
+
+    // ── getMetrics ───────────────────────────────────────────────────────────
+
+    @Test
+    void testAddPointUpdatesStoredGeometry() throws BlueprintNotFoundException {
+        BlueprintEntity e = entityWith("john", "house", List.of(new int[]{0, 0}, new int[]{10, 0}));
+        when(repo.findForUpdate("john", "house")).thenReturn(Optional.of(e));
+
+        persistence.addPoint("john", "house", 10, 10);
+
+        GeometryAccumulator.State state = e.getGeometry();
+        assertEquals(3, state.points());
+        assertEquals(50.0, new GeometryAccumulator(state).snapshot().signedArea(), 1e-12);
+    }
+
+    @Test
+    void testGetMetricsUsesStoredGeometry() throws BlueprintNotFoundException {
+        GeometryAccumulator acc = new GeometryAccumulator();
+        acc.accept(0, 0);
+        acc.accept(4, 0);
+        acc.accept(4, 3);
+        when(repo.findIdByAuthorAndName("john", "house")).thenReturn(Optional.of(7L));
+        when(repo.findGeometry(7L)).thenReturn(new GeometryColumns(acc.state()));
+
+        BlueprintMetrics m = persistence.getMetrics("john", "house");
+
+        assertEquals(12.0, m.perimeter(), 1e-12);
+        assertEquals(6.0, m.signedArea(), 1e-12);
+        verify(repo, never()).findPointSlice(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetMetricsScansRowsWithoutGeometry() throws BlueprintNotFoundException {
+        when(repo.findIdByAuthorAndName("john", "house")).thenReturn(Optional.of(7L));
+        when(repo.findGeometry(7L)).thenReturn(null);
+        when(repo.findPointSlice(7L, 0, Integer.MAX_VALUE))
+                .thenReturn(List.of(row(0, 0), row(10, 0), row(10, 10), row(0, 10)));
+
+        BlueprintMetrics m = persistence.getMetrics("john", "house");
+
+        assertEquals(4, m.points());
+        assertEquals(100.0, m.signedArea(), 1e-12);
+    }
+
+    // ── search ───────────────────────────────────────────────────────────────
+
+    private static NameRow nameRow(String author, String name) {
+        return new NameRow() {
+            @Override public String getAuthor() { return author; }
+            @Override public String getName() { return name; }
+        };
+    }
+
+    @Test
+    void testSearchRunsPrefixThenSubstringTier() {
+        when(repo.searchAuthors("gar%", "", 10)).thenReturn(List.of());
+        when(repo.searchNames("gar%", "", 10)).thenReturn(List.of(nameRow("john", "garage")));
+        when(repo.searchAuthors("%gar%", "gar%", 9)).thenReturn(List.of());
+        when(repo.searchNames("%gar%", "gar%", 9)).thenReturn(List.of(nameRow("ann", "cigar box")));
+
+        List<SearchHit> hits = persistence.search("Gar", true, 10);
+
+        assertEquals(List.of(new SearchHit("john", "garage", Match.PREFIX),
+                new SearchHit("ann", "cigar box", Match.SUBSTRING)), hits);
+    }
+
+    @Test
+    void testSearchEscapesLikeWildcards() {
+        when(repo.searchAuthors(any(), any(), anyInt())).thenReturn(List.of());
+        when(repo.searchNames(any(), any(), anyInt())).thenReturn(List.of());
+
+        persistence.search("50%_off", false, 10);
+
+        verify(repo).searchNames("50\\%\\_off%", "", 10);
+        verify(repo, times(1)).searchAuthors(any(), any(), anyInt());
+    }
+
+    // ── author stats ─────────────────────────────────────────────────────────
+
+    @Test
+    void testWritesIncrementAuthorStats() throws Exception {
+        when(repo.findByAuthorAndName("john", "house")).thenReturn(Optional.empty());
+        persistence.saveBlueprint(new Blueprint("john", "house", List.of(new Point(1, 1), new Point(2, 2))));
+        verify(authorStats).increment("john", 1, 2);
+
+        BlueprintEntity e = entityWith("john", "house", List.of());
+        when(repo.findForUpdate("john", "house")).thenReturn(Optional.of(e));
+        persistence.addPoint("john", "house", 3, 3);
+        verify(authorStats).increment("john", 0, 1);
+    }
+
+    @Test
+    void testSaveBlueprintsIncrementsOncePerAuthor() {
+        when(repo.findKeysByAuthorInAndNameIn(any(), any())).thenReturn(List.of());
+
+        persistence.saveBlueprints(List.of(
+                new Blueprint("ann", "loft", List.of(new Point(1, 1))),
+                new Blueprint("ann", "barn", List.of(new Point(1, 1), new Point(2, 2))),
+                new Blueprint("bob", "shed", List.of())));
+
+        verify(authorStats).increment("ann", 2, 3);
+        verify(authorStats).increment("bob", 1, 0);
+    }
+
+    @Test
+    void testGetAuthorStatsReadsSummaryRows() {
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+        when(authorStats.findAllByAuthor()).thenReturn(List.of(new AuthorStatsEntity("john", 2, 7, at)));
+
+        assertEquals(List.of(new AuthorStats("john", 2, 7, at)), persistence.getAuthorStats());
+        verify(repo, never()).findAll();
+    }
+
+    // ── change feed ──────────────────────────────────────────────────────────
+
+    @Test
+    void testWritesAppendToChangeOutbox() throws Exception {
+        when(repo.findByAuthorAndName("john", "house")).thenReturn(Optional.empty());
+        persistence.saveBlueprint(new Blueprint("john", "house", List.of(new Point(1, 1), new Point(2, 2))));
+        verify(changes).append(ChangeEvent.Type.CREATED, new String[] {"john"}, new String[] {"house"},
+                new Integer[] {2});
+
+        BlueprintEntity e = entityWith("john", "house", List.of(new int[]{1, 1}, new int[]{2, 2}));
+        when(repo.findForUpdate("john", "house")).thenReturn(Optional.of(e));
+        persistence.addPoint("john", "house", 3, 3);
+        verify(changes).append(ChangeEvent.Type.POINT_ADDED, new String[] {"john"}, new String[] {"house"},
+                new Integer[] {3});
+    }
+
+    @Test
+    void testSaveBlueprintsAppendsOneOutboxBatch() {
+        when(repo.findKeysByAuthorInAndNameIn(any(), any())).thenReturn(List.of("ann:barn"));
+        Runnable listener = mock(Runnable.class);
+        persistence.addChangeListener(listener);
+
+        persistence.saveBlueprints(List.of(
+                new Blueprint("ann", "loft", List.of(new Point(1, 1))),
+                new Blueprint("ann", "barn", List.of()),
+                new Blueprint("bob", "shed", List.of())));
+
+        verify(changes, times(1)).append(ChangeEvent.Type.CREATED, new String[] {"ann", "bob"},
+                new String[] {"loft", "shed"}, new Integer[] {1, 0});
+        verify(listener).run();
+    }
+
+    @Test
+    void testGetChangesReadsOutboxAfterSince() {
+        ChangeEventEntity row = new ChangeEventEntity(ChangeEvent.Type.CREATED, "john", "house", 4, Instant.EPOCH);
+        ReflectionTestUtils.setField(row, "seq", 8L);
+        when(changes.latestSeq()).thenReturn(8L);
+        when(changes.oldestSeq()).thenReturn(3L);
+        when(changes.findAfter(7L, Limit.of(10))).thenReturn(List.of(row));
+
+        ChangeFeed feed = persistence.getChanges(7, 10);
+
+        assertEquals(List.of(new ChangeEvent(8, ChangeEvent.Type.CREATED, "john", "house", 4, Instant.EPOCH)),
+                feed.events());
+        assertEquals(8, feed.next());
+        assertFalse(feed.resync());
+    }
+
+    @Test
+    void testGetChangesResyncsBehindRetainedWindow() {
+        when(changes.latestSeq()).thenReturn(900L);
+        when(changes.oldestSeq()).thenReturn(500L);
+
+        assertTrue(persistence.getChanges(10, 10).resync());
+        assertFalse(persistence.getChanges(499, 10).resync());
+        verify(changes, times(1)).findAfter(anyLong(), any());
+    }
+
+    // ── packed point layout ──────────────────────────────────────────────────
+
+    private PostgresBlueprintPersistence packed() {
+        return new PostgresBlueprintPersistence(repo, authorStats, changes,
+                new ReadYourWritesWindow(Duration.ofSeconds(2)), chunks, "packed", transactions);
+    }
+
+    private static List<Point> line(int n) {
+        List<Point> pts = new ArrayList<>();
+        for (int i = 0; i < n; i++) pts.add(new Point(i, -i));
+        return pts;
+    }
+
+    private static BlueprintEntity withId(BlueprintEntity e, long id) {
+        ReflectionTestUtils.setField(e, "id", id);
+        return e;
+    }
+
+    @Test
+    void testUnknownPointLayoutIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PostgresBlueprintPersistence(repo, authorStats,
+                changes, new ReadYourWritesWindow(Duration.ofSeconds(2)), chunks, "columns", transactions));
+    }
+
+    @Test
+    void testPackedSaveWritesFullChunksInsteadOfRows() throws BlueprintPersistenceException {
+        when(repo.findByAuthorAndName("john", "big")).thenReturn(Optional.empty());
+
+        packed().saveBlueprint(new Blueprint("john", "big", line(5_000)));
+
+        ArgumentCaptor<BlueprintEntity> saved = ArgumentCaptor.forClass(BlueprintEntity.class);
+        verify(repo).save(saved.capture());
+        BlueprintEntity e = saved.getValue();
+        assertTrue(e.getPoints().isEmpty());
+        assertEquals(List.of(PointChunkEntity.CHUNK_POINTS, 5_000 - PointChunkEntity.CHUNK_POINTS),
+                e.getChunks().stream().map(PointChunkEntity::getPoints).toList());
+        assertSame(e, e.getChunks().get(1).getBlueprint());
+        assertEquals(5_000, e.getGeometry().points());
+    }
+
+    @Test
+    void testPackedGetBlueprintDecodesChunks() throws BlueprintNotFoundException {
+        BlueprintEntity e = withId(new BlueprintEntity("john", "big"), 7L);
+        when(repo.findByAuthorAndName("john", "big")).thenReturn(Optional.of(e));
+        when(chunks.findAllByBlueprintIdIn(List.of(7L)))
+                .thenReturn(PackedPoints.chunksOf(new HeapPointStorage(line(5_000))));
+
+        assertEquals(line(5_000), packed().getBlueprint("john", "big").getPoints());
+    }
+
+    @Test
+    void testPackedModeReadsUnmigratedRows() throws BlueprintNotFoundException {
+        BlueprintEntity e = withId(entityWith("john", "house", List.of(new int[]{1, 2})), 7L);
+        when(repo.findByAuthorAndName("john", "house")).thenReturn(Optional.of(e));
+
+        assertEquals(List.of(new Point(1, 2)), packed().getBlueprint("john", "house").getPoints());
+        verifyNoInteractions(chunks);
+    }
+
+    @Test
+    void testPackedGetPointsSlicesAcrossChunkBoundary() throws BlueprintNotFoundException {
+        when(repo.findIdByAuthorAndName("john", "big")).thenReturn(Optional.of(7L));
+        when(chunks.countPoints(7L)).thenReturn(5_000);
+        when(chunks.findRange(7L, 0, 1)).thenReturn(PackedPoints.chunksOf(new HeapPointStorage(line(5_000))));
+
+        PointPage page = packed().getPoints("john", "big", 4_090, 10);
+
+        assertEquals(line(4_100).subList(4_090, 4_100), page.points());
+        assertEquals(5_000, page.total());
+        verify(repo, never()).findPointSlice(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testPackedAddPointStartsNextChunkWhenLastIsFull() throws BlueprintNotFoundException {
+        BlueprintEntity e = withId(new BlueprintEntity("john", "big"), 7L);
+        e.setGeometry(new GeometryAccumulator().state());
+        when(repo.findForUpdate("john", "big")).thenReturn(Optional.of(e));
+        when(chunks.appendToLastChunk(eq(7L), any(), eq(PointChunkEntity.CHUNK_POINTS))).thenReturn(0);
+
+        packed().addPoint("john", "big", 3, 4);
+
+        verify(chunks).appendChunk(eq(7L), aryEq(new byte[] {0, 0, 0, 3, 0, 0, 0, 4}));
+        assertEquals(1, e.getGeometry().points());
+    }
+
+    @Test
+    void testPackedAddPointPacksLeftoverRowsFirst() throws BlueprintNotFoundException {
+        BlueprintEntity e = withId(entityWith("john", "house", List.of(new int[]{0, 0}, new int[]{10, 0})), 7L);
+        when(repo.findForUpdate("john", "house")).thenReturn(Optional.of(e));
+        when(chunks.appendToLastChunk(eq(7L), any(), anyInt())).thenReturn(1);
+
+        packed().addPoint("john", "house", 10, 10);
+
+        InOrder order = inOrder(chunks, repo);
+        order.verify(chunks).packRows(aryEq(new Long[] {7L}), eq(PointChunkEntity.CHUNK_POINTS));
+        order.verify(repo).deletePointRows(aryEq(new Long[] {7L}));
+        order.verify(chunks).appendToLastChunk(eq(7L), any(), eq(PointChunkEntity.CHUNK_POINTS));
+        verify(chunks, never()).appendChunk(anyLong(), any());
+        assertEquals(3, e.getGeometry().points());
+    }
+}
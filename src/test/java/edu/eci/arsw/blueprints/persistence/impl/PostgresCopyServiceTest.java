@@ -0,0 +1,145 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.persistence.impl.PostgresCopyService.CopyResult;
+import edu.eci.arsw.blueprints.persistence.impl.PostgresCopyService.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresCopyServiceTest {
+
+    @Mock private DataSource dataSource;
+    @Mock private Connection connection;
+    @Mock private PGConnection pgConnection;
+    @Mock private CopyManager copyManager;
+    @Mock private Statement statement;
+    @Mock private PostgresBlueprintPersistence persistence;
+
+    private PostgresCopyService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        lenient().when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        service = new PostgresCopyService(dataSource, persistence, "rows");
+    }
+
+    @Test
+    void testExportStreamsBinaryCopy() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(copyManager.copyOut(anyString(), same(out))).thenReturn(42L);
+
+        CopyResult result = service.export(CopyTable.POINTS, Format.BINARY, out);
+
+        verify(copyManager).copyOut("COPY points (id, blueprint_id, x, y, position) TO STDOUT (FORMAT binary)", out);
+        assertEquals(42L, result.rows());
+        assertEquals("points", result.table());
+        verify(connection).close();
+    }
+
+    @Test
+    void testImportCommitsAndAdvancesSequence() throws Exception {
+        InputStream in = new ByteArrayInputStream("1\tjohn\thouse\n".getBytes());
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(copyManager.copyIn(anyString(), same(in))).thenReturn(1L);
+
+        CopyResult result = service.importInto(CopyTable.BLUEPRINTS, Format.TEXT, in);
+
+        verify(copyManager).copyIn("COPY blueprints (" + CopyTable.BLUEPRINTS.columns() + ") FROM STDIN", in);
+        assertTrue(CopyTable.BLUEPRINTS.columns().contains("geo_points"));
+        verify(statement).execute(contains("setval(pg_get_serial_sequence('blueprints', 'id')"));
+        // Not the point table yet: the restore is not finished
+        verify(statement, never()).execute(contains("author_stats"));
+        verify(persistence, never()).backfillGeometry(anyInt());
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+        verify(connection).setAutoCommit(true);
+        assertEquals(1L, result.rows());
+    }
+
+    @Test
+    void testImportRollsBackOnRejectedRows() throws Exception {
+        InputStream in = new ByteArrayInputStream("garbage".getBytes());
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(copyManager.copyIn(anyString(), same(in))).thenThrow(new SQLException("bad row"));
+
+        assertThrows(SQLException.class, () -> service.importInto(CopyTable.BLUEPRINTS, Format.TEXT, in));
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    void testTableLookupIsWhitelisted() {
+        assertEquals(CopyTable.POINTS, CopyTable.byName("POINTS").orElseThrow());
+        assertTrue(CopyTable.byName("pg_authid").isEmpty());
+    }
+
+    @Test
+    void testPointTableFollowsTheLayout() {
+        assertEquals(CopyTable.POINTS, service.table("points").orElseThrow());
+        assertTrue(service.table("point_chunks").isEmpty());
+        PostgresCopyService packed = new PostgresCopyService(dataSource, persistence, "packed");
+        assertEquals(CopyTable.BLUEPRINTS, packed.table("blueprints").orElseThrow());
+        assertEquals(CopyTable.POINT_CHUNKS, packed.table("point_chunks").orElseThrow());
+        assertTrue(packed.table("points").isEmpty());
+    }
+
+    @Test
+    void testPackedRoundTripFinishesTheRestore() throws Exception {
+        PostgresCopyService packed = new PostgresCopyService(dataSource, persistence, "packed");
+        byte[] dump = "1\t0\t2\t\\x00000001000000020000000300000004\n".getBytes();
+        when(copyManager.copyOut(anyString(), any(ByteArrayOutputStream.class))).thenAnswer(inv -> {
+            inv.getArgument(1, ByteArrayOutputStream.class).write(dump);
+            return 1L;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        packed.export(CopyTable.POINT_CHUNKS, Format.TEXT, out);
+
+        // Blueprints still kept as rows are packed into the same dump
+        verify(copyManager).copyOut(argThat(sql -> sql.startsWith("COPY (select blueprint_id, chunk, points, data "
+                + "from point_chunks union all") && sql.contains("from points group by blueprint_id")), same(out));
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(copyManager.copyIn(anyString(), same(in))).thenAnswer(inv -> {
+            assertArrayEquals(dump, inv.getArgument(1, InputStream.class).readAllBytes());
+            return 1L;
+        });
+        when(persistence.backfillGeometry(anyInt())).thenReturn(1L);
+
+        CopyResult result = packed.importInto(CopyTable.POINT_CHUNKS, Format.TEXT, in);
+
+        verify(copyManager).copyIn("COPY point_chunks (blueprint_id, chunk, points, data) FROM STDIN", in);
+        verify(statement, never()).execute(contains("setval"));
+        verify(statement).execute("delete from author_stats");
+        verify(statement).execute(PostgresCopyService.RECOMPUTE_AUTHOR_STATS);
+        verify(statement).execute(contains("values ('RESYNC'"));
+        // Sums are filled once the restored rows are committed
+        InOrder order = inOrder(connection, persistence);
+        order.verify(connection).commit();
+        order.verify(persistence).backfillGeometry(PostgresCopyService.BACKFILL_BATCH);
+        assertEquals(1L, result.rows());
+    }
+}
@@ -0,0 +1,138 @@
+package edu.eci.arsw.blueprints.persistence.offheap;
+
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.offheap.OffHeapSlabAllocator.Slab;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapPointStorageTests {
+
+    private static final int SLAB_BYTES = OffHeapSlabAllocator.MIN_SLAB_POINTS * OffHeapSlabAllocator.POINT_BYTES;
+
+    @Test
+    void testAppendAndReadBack() {
+        OffHeapPointStorage storage = new OffHeapPointStorage(new OffHeapSlabAllocator(1 << 16), 0);
+        storage.append(1, -2);
+        storage.append(new Point(Integer.MAX_VALUE, Integer.MIN_VALUE));
+
+        assertEquals(2, storage.size());
+        assertEquals(new Point(1, -2), storage.get(0));
+        assertEquals(List.of(new Point(1, -2), new Point(Integer.MAX_VALUE, Integer.MIN_VALUE)), storage.asList());
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.get(2));
+    }
+
+    @Test
+    void testGrowKeepsPointsAndFreesOldSlab() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1 << 16);
+        OffHeapPointStorage storage = new OffHeapPointStorage(allocator, 0);
+        for (int i = 0; i < 100; i++) storage.append(i, i * 2);
+
+        assertEquals(100, storage.size());
+        for (int i = 0; i < 100; i++) assertEquals(new Point(i, i * 2), storage.get(i));
+        // 100 points fit the 128-point class; the 16..64 slabs it outgrew are back on free lists
+        assertEquals(128L * OffHeapSlabAllocator.POINT_BYTES, allocator.usedBytes());
+    }
+
+    @Test
+    void testForEachVisitsInOrder() {
+        OffHeapPointStorage storage = new OffHeapPointStorage(new OffHeapSlabAllocator(1 << 16), 3);
+        storage.append(1, 1);
+        storage.append(2, 4);
+        storage.append(3, 9);
+        List<Point> seen = new ArrayList<>();
+
+        storage.forEach((x, y) -> seen.add(new Point(x, y)));
+
+        assertEquals(List.of(new Point(1, 1), new Point(2, 4), new Point(3, 9)), seen);
+    }
+
+    @Test
+    void testReleaseReturnsSlabForReuse() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1 << 16);
+        OffHeapPointStorage storage = new OffHeapPointStorage(allocator, 0);
+        storage.append(7, 7);
+        assertEquals(SLAB_BYTES, allocator.usedBytes());
+
+        storage.release();
+
+        assertEquals(0, allocator.usedBytes());
+        assertEquals(0, storage.size());
+        assertThrows(IllegalStateException.class, () -> storage.append(1, 1));
+        new OffHeapPointStorage(allocator, 0);
+        assertEquals(1, allocator.arenaCount());
+    }
+
+    @Test
+    void testSizeClasses() {
+        assertEquals(0, OffHeapSlabAllocator.classFor(1));
+        assertEquals(0, OffHeapSlabAllocator.classFor(16));
+        assertEquals(1, OffHeapSlabAllocator.classFor(17));
+        assertEquals(1, OffHeapSlabAllocator.classFor(32));
+        assertEquals(2, OffHeapSlabAllocator.classFor(33));
+    }
+
+    @Test
+    void testOversizedRequestGetsDedicatedBuffer() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024);
+        Slab slab = allocator.allocate(1000);
+
+        assertEquals(1000, slab.capacity());
+        assertEquals(8000, allocator.reservedBytes());
+        allocator.free(slab);
+        assertEquals(0, allocator.reservedBytes());
+    }
+
+    @Test
+    void testRetiredArenaTailIsRecycled() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(3 * SLAB_BYTES);
+        allocator.allocate(32);                 // 2 of 3 slab widths
+        allocator.allocate(32);                 // does not fit: new arena, tail becomes a 16-point slab
+        allocator.allocate(16);
+
+        assertEquals(2, allocator.arenaCount());
+    }
+
+    @Test
+    void testConcurrentReadersSeeConsistentPoints() throws Exception {
+        OffHeapPointStorage storage = new OffHeapPointStorage(new OffHeapSlabAllocator(1 << 20), 0);
+        int total = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < total; i++) storage.append(i, -i);
+                return null;
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    while (!writer.isDone()) {
+                        int n = storage.size();
+                        if (n == 0) continue;
+                        int i = n - 1;
+                        Point p = storage.get(i);
+                        if (p.x() != i || p.y() != -i) throw new AssertionError("Torn read at " + i + ": " + p);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(total, storage.size());
+    }
+}
@@ -0,0 +1,94 @@
+package edu.eci.arsw.blueprints.persistence.routing;
+
+import edu.eci.arsw.blueprints.persistence.routing.ReadYourWritesWindow.Pin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Two in-process H2 databases stand in for the primary and the replica. */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadYourWritesWindow window;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private static DataSource database(String name) {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return ds;
+    }
+
+    @BeforeEach
+    void setUp() {
+        window = new ReadYourWritesWindow(Duration.ofMinutes(1));
+        DataSource routing = ReadWriteRoutingDataSource.lazy(database("primary"), database("replica"), window);
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(tm);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        assertEquals("primary", node(readWrite));
+    }
+
+    @Test
+    void testNoTransactionUsesPrimary() {
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testRecentWriteStaysOnPrimary() {
+        window.recordWrite("john");
+        try (Pin pin = window.pinIfRecentlyWritten("john")) {
+            assertEquals("primary", node(readOnly));
+        }
+        try (Pin pin = window.pinIfRecentlyWritten("jane")) {
+            assertEquals("replica", node(readOnly));
+        }
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void testWindowExpires() throws InterruptedException {
+        ReadYourWritesWindow shortWindow = new ReadYourWritesWindow(Duration.ofMillis(20));
+        shortWindow.recordWrite("john");
+        assertTrue(shortWindow.recentlyWritten("john"));
+        Thread.sleep(40);
+        assertFalse(shortWindow.recentlyWritten("john"));
+    }
+
+    @Test
+    void testNestedPinKeepsOuterPin() {
+        try (Pin outer = window.pinToPrimary()) {
+            try (Pin inner = window.pinToPrimary()) {
+                assertTrue(window.isPinnedToPrimary());
+            }
+            assertTrue(window.isPinnedToPrimary());
+        }
+        assertFalse(window.isPinnedToPrimary());
+    }
+}
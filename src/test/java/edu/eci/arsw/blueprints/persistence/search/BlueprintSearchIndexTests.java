@@ -0,0 +1,114 @@
+package edu.eci.arsw.blueprints.persistence.search;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.SearchHit;
+import edu.eci.arsw.blueprints.model.SearchHit.Match;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintSearchIndexTests {
+
+    private static BlueprintSearchIndex index(String... authorNamePairs) {
+        BlueprintSearchIndex index = new BlueprintSearchIndex(true);
+        for (int i = 0; i < authorNamePairs.length; i += 2) index.add(authorNamePairs[i], authorNamePairs[i + 1]);
+        return index;
+    }
+
+    @Test
+    void testPrefixRanksExactFirstAndIgnoresCase() {
+        BlueprintSearchIndex index = index("john", "House", "jane", "houseboat", "joe", "the house");
+
+        List<SearchHit> hits = index.search("HOUSE", false, 10);
+
+        assertEquals(List.of(
+                new SearchHit("john", "House", Match.EXACT),
+                new SearchHit("jane", "houseboat", Match.PREFIX)), hits);
+    }
+
+    @Test
+    void testAuthorsAreReportedOnce() {
+        BlueprintSearchIndex index = index("john", "house", "john", "garage", "joan", "loft");
+
+        List<SearchHit> hits = index.search("jo", false, 10);
+
+        assertEquals(List.of(new SearchHit("joan", null, Match.PREFIX), new SearchHit("john", null, Match.PREFIX)), hits);
+    }
+
+    @Test
+    void testSubstringComesAfterPrefix() {
+        BlueprintSearchIndex index = index("ann", "garden", "bob", "roof garden", "carl", "gardenia");
+
+        List<SearchHit> hits = index.search("garden", true, 10);
+
+        assertEquals(List.of(
+                new SearchHit("ann", "garden", Match.EXACT),
+                new SearchHit("carl", "gardenia", Match.PREFIX),
+                new SearchHit("bob", "roof garden", Match.SUBSTRING)), hits);
+        assertEquals(2, index.search("garden", false, 10).size());
+    }
+
+    @Test
+    void testShortQueriesOnlyMatchPrefix() {
+        BlueprintSearchIndex index = index("ann", "big barn");
+        assertTrue(index.search("ba", true, 10).isEmpty());
+        assertEquals(1, index.search("bar", true, 10).size());
+    }
+
+    @Test
+    void testRemoveDropsNameAndLastAuthorEntry() {
+        BlueprintSearchIndex index = index("john", "house", "john", "garage", "jane", "greenhouse");
+
+        index.remove("john", "house", false);
+        assertEquals(List.of(new SearchHit("jane", "greenhouse", Match.SUBSTRING)), index.search("house", true, 10));
+        assertEquals(List.of(new SearchHit("john", null, Match.EXACT)), index.search("john", false, 10));
+
+        index.remove("john", "garage", true);
+        assertEquals(List.of(), index.search("john", false, 10));
+        assertEquals(List.of(), index.search("ara", true, 10));
+    }
+
+    @Test
+    void testLimit() {
+        BlueprintSearchIndex index = new BlueprintSearchIndex(true);
+        for (int i = 0; i < 50; i++) index.add("author", "plan" + i);
+
+        assertEquals(5, index.search("plan", false, 5).size());
+        assertEquals(new SearchHit("author", "plan0", Match.PREFIX), index.search("plan", false, 5).get(0));
+    }
+
+    @Test
+    void testMatchesFullScanOnRandomNames() {
+        Random rnd = new Random(37);
+        InMemoryBlueprintPersistence indexed = new InMemoryBlueprintPersistence();
+        BlueprintPersistence scanned = new BlueprintPersistence() {
+            // Only the default search, which scans getAllBlueprints, is used
+            @Override public void saveBlueprint(Blueprint bp) { }
+            @Override public Blueprint getBlueprint(String a, String n) { return null; }
+            @Override public java.util.Set<Blueprint> getBlueprintsByAuthor(String a) { return null; }
+            @Override public java.util.Set<Blueprint> getAllBlueprints() { return indexed.getAllBlueprints(); }
+            @Override public void addPoint(String a, String n, int x, int y) { }
+            @Override public edu.eci.arsw.blueprints.model.PointPage getPoints(String a, String n, int f, int l) { return null; }
+            @Override public edu.eci.arsw.blueprints.model.ChangeFeed getChanges(long s, int l) { return null; }
+        };
+        for (int i = 0; i < 2_000; i++) {
+            indexed.saveBlueprints(List.of(new Blueprint(word(rnd, 2), word(rnd, 4), List.of())));
+        }
+        for (int i = 0; i < 300; i++) {
+            String q = word(rnd, 1 + rnd.nextInt(3));
+            boolean substring = rnd.nextBoolean();
+            assertEquals(scanned.search(q, substring, 20), indexed.search(q, substring, 20), "query " + q);
+        }
+    }
+
+    private static String word(Random rnd, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ((rnd.nextBoolean() ? 'a' : 'A') + rnd.nextInt(4)));
+        return sb.toString();
+    }
+}
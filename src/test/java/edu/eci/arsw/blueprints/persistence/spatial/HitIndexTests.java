@@ -0,0 +1,124 @@
+package edu.eci.arsw.blueprints.persistence.spatial;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintHit;
+import edu.eci.arsw.blueprints.model.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitIndexTests {
+
+    private static Blueprint blueprint(String name, int... xy) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < xy.length; i += 2) points.add(new Point(xy[i], xy[i + 1]));
+        return new Blueprint("ann", name, points);
+    }
+
+    private static List<String> names(List<BlueprintHit> hits) {
+        return hits.stream().map(BlueprintHit::name).toList();
+    }
+
+    @Test
+    void testConcaveOutlineAndBoundary() {
+        // U shape: the notch between the arms is outside
+        HitIndex index = new HitIndex();
+        index.add(blueprint("u", 0, 0, 30, 0, 30, 30, 20, 30, 20, 10, 10, 10, 10, 30, 0, 30));
+
+        assertEquals(List.of("u"), names(index.hits(5, 25, 10)));
+        assertEquals(List.of(), names(index.hits(15, 20, 10)));
+        assertEquals(List.of("u"), names(index.hits(15, 10, 10)));   // on the notch's floor
+        assertEquals(List.of("u"), names(index.hits(0, 15, 10)));    // on the closing edge
+        assertEquals(List.of("u"), names(index.hits(30, 30, 10)));   // on a vertex
+        assertEquals(List.of(), names(index.hits(31, 15, 10)));
+    }
+
+    @Test
+    void testNestedOutlinesComeInnermostFirst() {
+        HitIndex index = new HitIndex();
+        index.add(blueprint("site", -1000, -1000, 1000, -1000, 1000, 1000, -1000, 1000));
+        index.add(blueprint("room", 0, 0, 10, 0, 10, 10, 0, 10));
+        index.add(blueprint("floor", -100, -100, 100, -100, 100, 100, -100, 100));
+
+        List<BlueprintHit> hits = index.hits(5, 5, 10);
+
+        assertEquals(List.of("room", "floor", "site"), names(hits));
+        assertEquals(100.0, hits.get(0).area());
+        assertEquals(List.of("room", "floor"), names(index.hits(5, 5, 2)));
+    }
+
+    @Test
+    void testFewerThanThreePointsContainNothing() {
+        HitIndex index = new HitIndex();
+        index.add(blueprint("line", 0, 0, 10, 10));
+
+        assertEquals(List.of(), index.hits(5, 5, 10));
+    }
+
+    @Test
+    void testAppendedPointsGrowTheOutline() {
+        HitIndex index = new HitIndex();
+        index.add(blueprint("grow", 0, 0, 10, 0));
+        assertEquals(List.of(), index.hits(5, 5, 10));
+
+        index.append("ann", "grow", 10, 10);
+        assertEquals(List.of("grow"), names(index.hits(8, 5, 10)));
+
+        // Far away, so the box moves to a coarser level
+        index.append("ann", "grow", 0, 1_000_000);
+        assertEquals(List.of("grow"), names(index.hits(2, 500_000, 10)));
+        assertEquals(List.of(), names(index.hits(9, 500_000, 10)));
+    }
+
+    @Test
+    void testRemovedOutlinesAreNotHit() {
+        HitIndex index = new HitIndex();
+        index.add(blueprint("gone", 0, 0, 10, 0, 10, 10));
+        index.remove("ann", "gone");
+        index.append("ann", "gone", 0, 10);
+
+        assertEquals(List.of(), index.hits(9, 5, 10));
+    }
+
+    @Test
+    void testExtremeCoordinates() {
+        int lo = Integer.MIN_VALUE, hi = Integer.MAX_VALUE;
+        HitIndex index = new HitIndex();
+        index.add(blueprint("world", lo, lo, hi, lo, hi, hi, lo, hi));
+        index.add(blueprint("corner", lo, lo, lo + 2, lo, lo, lo + 2));
+
+        assertEquals(List.of("world"), names(index.hits(0, 0, 10)));
+        assertEquals(List.of("corner", "world"), names(index.hits(lo, lo + 1, 10)));
+        assertEquals(List.of("world"), names(index.hits(hi, hi, 10)));
+    }
+
+    @Test
+    void testLargeOutlineMatchesStreamingTest() {
+        // A jagged star of 5000 points, tested both indexed and by a plain scan
+        Random random = new Random(49);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double angle = 2 * Math.PI * i / 5000;
+            double radius = 1000 + random.nextInt(1000);
+            points.add(new Point((int) Math.round(radius * Math.cos(angle)), (int) Math.round(radius * Math.sin(angle))));
+        }
+        Blueprint star = new Blueprint("ann", "star", points.subList(0, 10));
+        HitIndex index = new HitIndex();
+        index.add(star);
+        for (Point p : points.subList(10, points.size())) {
+            star.addPoint(p.x(), p.y());
+            index.append("ann", "star", p.x(), p.y());
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt(4200) - 2100, y = random.nextInt(4200) - 2100;
+            assertEquals(PointInPolygon.contains(star.pointStorage(), x, y), !index.hits(x, y, 1).isEmpty(),
+                    "(" + x + ", " + y + ")");
+        }
+        for (Point p : points) assertEquals(1, index.hits(p.x(), p.y(), 1).size());
+    }
+}
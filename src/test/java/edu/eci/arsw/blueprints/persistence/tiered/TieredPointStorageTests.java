@@ -0,0 +1,194 @@
+package edu.eci.arsw.blueprints.persistence.tiered;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredPointStorageTests {
+
+    @TempDir
+    Path dir;
+
+    private PointTier tier;
+
+    @AfterEach
+    void tearDown() {
+        if (tier != null) tier.close();
+    }
+
+    private PointTier tier(long maxResidentPoints) {
+        tier = new PointTier(maxResidentPoints, dir, 1 << 12);
+        return tier;
+    }
+
+    private static List<Point> line(int n, int offset) {
+        List<Point> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) points.add(new Point(offset + i, -i));
+        return points;
+    }
+
+    @Test
+    void testAppendAndReadBackWithinBudget() {
+        TieredPointStorage storage = new TieredPointStorage(tier(1_000), List.of());
+        storage.append(1, -2);
+        storage.append(new Point(Integer.MAX_VALUE, Integer.MIN_VALUE));
+
+        assertEquals(2, storage.size());
+        assertEquals(List.of(new Point(1, -2), new Point(Integer.MAX_VALUE, Integer.MIN_VALUE)), storage.asList());
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.get(2));
+        assertEquals(2, tier.residentPoints());
+        assertEquals(0, tier.spills());
+    }
+
+    @Test
+    void testOverBudgetSpillsLeastRecentlyUsed() {
+        tier(250);
+        TieredPointStorage a = new TieredPointStorage(tier, line(100, 0));
+        TieredPointStorage b = new TieredPointStorage(tier, line(100, 1_000));
+        a.get(0);   // a is used again after b was created
+
+        TieredPointStorage c = new TieredPointStorage(tier, line(100, 2_000));
+
+        assertTrue(a.isResident());
+        assertFalse(b.isResident());
+        assertTrue(c.isResident());
+        assertEquals(200, tier.residentPoints());
+        assertEquals(100, tier.spilledPoints());
+        assertEquals(1, tier.spills());
+        assertEquals(100, b.size());
+        assertEquals(0, tier.faults(), "size() must not fault");
+    }
+
+    @Test
+    void testAccessFaultsSpilledPointsBackIn() {
+        tier(150);
+        TieredPointStorage a = new TieredPointStorage(tier, line(100, 0));
+        TieredPointStorage b = new TieredPointStorage(tier, line(100, 1_000));
+        assertFalse(a.isResident());
+
+        assertEquals(new Point(42, -42), a.get(42));
+        List<Point> seen = new ArrayList<>();
+        a.forEach((x, y) -> seen.add(new Point(x, y)));
+
+        assertEquals(line(100, 0), seen);
+        assertTrue(a.isResident());
+        assertFalse(b.isResident());
+        assertEquals(1, tier.faults());
+        assertEquals(2, tier.spills());
+    }
+
+    @Test
+    void testAppendToSpilledStorageKeepsAllPoints() {
+        tier(10);
+        TieredPointStorage a = new TieredPointStorage(tier, line(50, 0));
+        new TieredPointStorage(tier, line(50, 100));
+        assertFalse(a.isResident());
+
+        a.append(7, 7);
+
+        assertEquals(51, a.size());
+        assertEquals(new Point(49, -49), a.get(49));
+        assertEquals(new Point(7, 7), a.get(50));
+    }
+
+    @Test
+    void testReleaseFreesSpilledRecordForReuse() {
+        tier(10);
+        TieredPointStorage a = new TieredPointStorage(tier, line(100, 0));
+        TieredPointStorage b = new TieredPointStorage(tier, line(100, 0));
+        long mapped = tier.mappedBytes();
+        a.release();
+        b.release();
+
+        for (int i = 0; i < 10; i++) new TieredPointStorage(tier, line(100, i)).release();
+
+        assertEquals(0, tier.residentPoints());
+        assertEquals(0, tier.spilledPoints());
+        assertEquals(mapped, tier.mappedBytes());
+        assertThrows(IllegalStateException.class, () -> a.append(1, 1));
+    }
+
+    @Test
+    void testBulkReadsOfSpilledStorageFaultOnce() {
+        tier(150);
+        TieredPointStorage a = new TieredPointStorage(tier, line(100, 0));
+        new TieredPointStorage(tier, line(100, 1_000));
+        assertFalse(a.isResident());
+
+        assertEquals(line(100, 0), new ArrayList<>(a.asList()));
+        assertEquals(line(100, 0).subList(10, 20), a.asList().subList(10, 20));
+        assertEquals(line(100, 0).subList(90, 100), a.copyRange(90, 100));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.copyRange(90, 101));
+        assertEquals(1, tier.faults());
+    }
+
+    @Test
+    void testSpillingStopsAtTheFileCap() {
+        tier = new PointTier(10, dir, 1 << 12, 1 << 12, nanos -> { });   // one segment of 512 points
+        TieredPointStorage a = new TieredPointStorage(tier, line(400, 0));
+        TieredPointStorage b = new TieredPointStorage(tier, line(400, 1_000));
+
+        assertFalse(a.isResident());
+        assertTrue(b.isResident(), "a second segment would pass the cap");
+        assertEquals(1 << 12, tier.mappedBytes());
+        assertEquals(400, tier.residentPoints());
+
+        a.release();
+        b.get(0);   // the freed segment is rewound, so the next check can spill again
+        new TieredPointStorage(tier, line(1, 0));
+        assertFalse(b.isResident());
+        assertEquals(1 << 12, tier.mappedBytes());
+    }
+
+    @Test
+    void testConcurrentReadersSeeConsistentPoints() throws Exception {
+        tier(300);
+        List<TieredPointStorage> storages = new ArrayList<>();
+        for (int s = 0; s < 8; s++) storages.add(new TieredPointStorage(tier, line(100, s * 1_000)));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                done.add(pool.submit(() -> {
+                    for (int round = 0; round < 200; round++) {
+                        int s = round % storages.size();
+                        long[] sum = new long[1];
+                        storages.get(s).forEach((x, y) -> sum[0] += x);
+                        assertEquals(100L * s * 1_000 + 4_950, sum[0]);
+                    }
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(tier.faults() > 0);
+        assertEquals(800, tier.residentPoints() + tier.spilledPoints());
+    }
+
+    @Test
+    void testInMemoryLookupsUnchangedWhenSpilled() throws Exception {
+        InMemoryBlueprintPersistence persistence =
+                new InMemoryBlueprintPersistence(new TieredPointStorageFactory(tier(1)));
+        persistence.saveBlueprint(new Blueprint("ann", "loft", line(20, 0)));
+
+        Blueprint house = persistence.getBlueprint("john", "house");
+        assertEquals(List.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)),
+                house.getPoints());
+        assertEquals(line(20, 0), persistence.getBlueprint("ann", "loft").getPoints());
+        assertTrue(tier.spills() > 0);
+        assertTrue(tier.faults() > 0);
+    }
+}
@@ -0,0 +1,163 @@
+package edu.eci.arsw.blueprints.render;
+
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.BlueprintMetrics.BoundingBox;
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderTests {
+
+    private static final BoundingBox BOX = new BoundingBox(0, 0, 100, 100);
+
+    private static PointStorage square() {
+        PointStorage points = new HeapPointStorage();
+        points.append(0, 0);
+        points.append(100, 0);
+        points.append(100, 100);
+        points.append(0, 100);
+        points.append(0, 0);
+        return points;
+    }
+
+    /** A spiral of {@code n} points filling the 0..1000 box. */
+    private static PointStorage spiral(int n) {
+        PointStorage points = new HeapPointStorage();
+        for (int i = 0; i < n; i++) {
+            double t = i * 0.01;
+            double r = 500.0 * i / n;
+            points.append((int) Math.round(500 + r * Math.cos(t)), (int) Math.round(500 + r * Math.sin(t)));
+        }
+        return points;
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    private static boolean inked(BufferedImage image, int x, int y) {
+        return (image.getRGB(x, y) >>> 24) != 0;
+    }
+
+    @Test
+    void testPngHasRequestedSizeAndDrawsThePath() throws IOException {
+        BufferedImage image = decode(BlueprintRenderer.png(square(), Viewport.fit(BOX, 200, 100)));
+
+        assertEquals(200, image.getWidth());
+        assertEquals(100, image.getHeight());
+        // Square fitted with a 4px margin and centred horizontally: corners at (54,4) and (146,96)
+        assertTrue(inked(image, 54, 4));
+        assertTrue(inked(image, 146, 96));
+        assertTrue(inked(image, 100, 4));
+        assertFalse(inked(image, 100, 50));
+        assertFalse(inked(image, 10, 50));
+    }
+
+    @Test
+    void testSvgKeepsSparsePathAsVector() {
+        String svg = new String(BlueprintRenderer.svg(square(), Viewport.fit(BOX, 100, 100)), StandardCharsets.UTF_8);
+
+        assertTrue(svg.startsWith("<svg"));
+        assertTrue(svg.contains("d=\"M4 4L96 4L96 96L4 96L4 4\""), svg);
+        assertFalse(svg.contains("<image"));
+    }
+
+    @Test
+    void testSinglePointIsDrawnAsDot() throws IOException {
+        PointStorage point = new HeapPointStorage();
+        point.append(7, 7);
+        BufferedImage image = decode(BlueprintRenderer.png(point, Viewport.fit(new BoundingBox(7, 7, 7, 7), 16, 16)));
+
+        int inked = 0;
+        for (int x = 0; x < 16; x++) for (int y = 0; y < 16; y++) if (inked(image, x, y)) inked++;
+        assertTrue(inked > 0);
+    }
+
+    @Test
+    void testResponseSizeFollowsImageNotPointCount() {
+        Viewport view = Viewport.fit(new BoundingBox(0, 0, 1000, 1000), 128, 128);
+        byte[] small = BlueprintRenderer.svg(spiral(10_000), view);
+        byte[] large = BlueprintRenderer.svg(spiral(1_000_000), view);
+
+        assertTrue(new String(large, StandardCharsets.US_ASCII).contains("<image"));
+        assertTrue(large.length < 128 * 128 * 4, "svg was " + large.length + " bytes");
+        assertTrue(large.length < 2 * Math.max(small.length, BlueprintRenderer.png(spiral(10_000), view).length) + 4096);
+    }
+
+    @Test
+    void testTilesPartitionTheZoomLevel() {
+        Viewport whole = Viewport.tile(BOX, 0, 0, 0);
+        Viewport topLeft = Viewport.tile(BOX, 1, 0, 0);
+        Viewport bottomRight = Viewport.tile(BOX, 1, 1, 1);
+
+        assertEquals(Viewport.TILE_SIZE, whole.width());
+        assertEquals(2 * whole.scale(), topLeft.scale(), 1e-9);
+        assertEquals(whole.originX(), topLeft.originX(), 1e-9);
+        assertEquals(0, bottomRight.px(50) + Viewport.TILE_SIZE - topLeft.px(50), 1e-9);
+        assertTrue(whole.px(0) > 0 && whole.px(100) < Viewport.TILE_SIZE);
+
+        assertTrue(Viewport.isTile(2, 3, 3));
+        assertFalse(Viewport.isTile(2, 4, 0));
+        assertFalse(Viewport.isTile(-1, 0, 0));
+        assertFalse(Viewport.isTile(Viewport.MAX_ZOOM + 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Viewport.tile(BOX, 1, 2, 0));
+    }
+
+    @Test
+    void testTileOutsideThePathIsEmpty() throws IOException {
+        // At zoom 3 the square's outline misses the inner tiles entirely
+        BufferedImage image = decode(BlueprintRenderer.png(square(), Viewport.tile(BOX, 3, 3, 3)));
+
+        for (int x = 0; x < Viewport.TILE_SIZE; x++) {
+            for (int y = 0; y < Viewport.TILE_SIZE; y++) assertFalse(inked(image, x, y));
+        }
+        assertEquals(0, BlueprintRenderer.trace(square(), Viewport.tile(BOX, 3, 3, 3)).vertices);
+    }
+
+    @Test
+    void testCacheEvictsLeastRecentlyUsedBeyondByteBudget() {
+        RenderCache cache = new RenderCache(100);
+        RenderCache.Key a = new RenderCache.Key(new BlueprintKey("john", "a"), 1, "png");
+        RenderCache.Key b = new RenderCache.Key(new BlueprintKey("john", "b"), 1, "png");
+        RenderCache.Key c = new RenderCache.Key(new BlueprintKey("john", "c"), 1, "png");
+        cache.put(a, new byte[40]);
+        cache.put(b, new byte[40]);
+        assertNotNull(cache.get(a));
+        cache.put(c, new byte[40]);
+
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+        assertEquals(80, cache.bytes());
+        assertEquals(1, cache.evictions());
+
+        cache.put(new RenderCache.Key(new BlueprintKey("john", "d"), 1, "png"), new byte[101]);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testCacheIsKeyedByVersionAndInvalidatedPerBlueprint() {
+        RenderCache cache = new RenderCache(1_000);
+        BlueprintKey house = new BlueprintKey("john", "house");
+        cache.put(new RenderCache.Key(house, 4, "png:512x512"), new byte[10]);
+        cache.put(new RenderCache.Key(house, 4, "tile:0/0/0"), new byte[10]);
+        cache.put(new RenderCache.Key(new BlueprintKey("john", "garage"), 4, "png:512x512"), new byte[10]);
+
+        assertNull(cache.get(new RenderCache.Key(house, 5, "png:512x512")));
+        cache.invalidate("john", "house");
+
+        assertNull(cache.get(new RenderCache.Key(house, 4, "png:512x512")));
+        assertNull(cache.get(new RenderCache.Key(house, 4, "tile:0/0/0")));
+        assertNotNull(cache.get(new RenderCache.Key(new BlueprintKey("john", "garage"), 4, "png:512x512")));
+        assertEquals(10, cache.bytes());
+        assertEquals(1, cache.size());
+    }
+}
@@ -1,16 +1,22 @@
 package edu.eci.arsw.blueprints.services;
 
+import edu.eci.arsw.blueprints.filters.FilterParallelism;
 import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.filters.UndersamplingFilter;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointDelta;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
 import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.render.RenderCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +33,19 @@ class BlueprintServiceTests {
         services = new BlueprintsServices(persistence, filter);
     }
 
+    @Test
+    void testAddPointDropsCachedRenderings() throws BlueprintNotFoundException {
+        RenderCache renders = new RenderCache(1_000);
+        services = new BlueprintsServices(persistence, filter, FilterParallelism.sequential(), renders);
+        renders.put(new RenderCache.Key(new BlueprintKey("john", "house"), 4, "png:8x8"), new byte[10]);
+        renders.put(new RenderCache.Key(new BlueprintKey("jane", "garden"), 3, "png:8x8"), new byte[10]);
+
+        services.addPoint("john", "house", 1, 1);
+
+        assertEquals(1, renders.size());
+        assertEquals(10, renders.bytes());
+    }
+
     @Test
     void testGetAllBlueprints() {
         Set<Blueprint> blueprints = services.getAllBlueprints();
@@ -65,6 +84,13 @@ class BlueprintServiceTests {
         });
     }
 
+    @Test
+    void testFindBlueprintMissIsEmpty() {
+        assertEquals("house", services.findBlueprint("john", "house").orElseThrow().getName());
+        assertTrue(services.findBlueprint("nonexistent", "blueprint").isEmpty());
+        assertTrue(services.findBlueprintsByAuthor("nonexistent").isEmpty());
+    }
+
     @Test
     void testAddNewBlueprint() throws BlueprintPersistenceException, BlueprintNotFoundException {
         Blueprint newBp = new Blueprint("alice", "painting", 
@@ -100,4 +126,86 @@ class BlueprintServiceTests {
             services.addPoint("nonexistent", "blueprint", 1, 1);
         });
     }
+
+    @Test
+    void testGetAllBlueprintsParallelFilterPass() throws BlueprintPersistenceException {
+        for (int i = 0; i < 20; i++) {
+            services.addNewBlueprint(new Blueprint("bulk", "bp" + i,
+                List.of(new Point(0, 0), new Point(1, 1), new Point(2, 2))));
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BlueprintsServices parallel = new BlueprintsServices(persistence,
+                new UndersamplingFilter(), new FilterParallelism(pool, 4, 1_000));
+            Set<Blueprint> blueprints = parallel.getAllBlueprints();
+            assertEquals(23, blueprints.size());
+            assertTrue(blueprints.stream()
+                .filter(bp -> bp.getAuthor().equals("bulk"))
+                .allMatch(bp -> bp.getPoints().size() == 2));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testGetPointsSinceReturnsOnlyNewPoints() throws BlueprintNotFoundException {
+        PointDelta held = services.getPointsSince("john", "house", 0, 1000);
+        services.addPoint("john", "house", 20, 20);
+        services.addPoint("john", "house", 30, 30);
+
+        PointDelta delta = services.getPointsSince("john", "house", held.version(), 1000);
+
+        assertEquals(List.of(new Point(20, 20), new Point(30, 30)), delta.points());
+        assertEquals(6, delta.version());
+        assertEquals(6, delta.latestVersion());
+        assertFalse(delta.fullReload());
+    }
+
+    @Test
+    void testGetPointsSinceHonoursLimit() throws BlueprintNotFoundException {
+        PointDelta delta = services.getPointsSince("john", "house", 1, 2);
+
+        assertEquals(2, delta.points().size());
+        assertEquals(3, delta.version());
+        assertEquals(4, delta.latestVersion());
+    }
+
+    @Test
+    void testGetPointsSinceCurrentVersionIsEmpty() throws BlueprintNotFoundException {
+        PointDelta delta = services.getPointsSince("john", "house", 4, 1000);
+
+        assertTrue(delta.points().isEmpty());
+        assertEquals(4, delta.version());
+        assertFalse(delta.fullReload());
+    }
+
+    @Test
+    void testGetPointsSinceUnknownVersionAsksForReload() throws BlueprintNotFoundException {
+        PointDelta delta = services.getPointsSince("john", "house", 9, 1000);
+
+        assertTrue(delta.fullReload());
+        assertTrue(delta.points().isEmpty());
+        assertEquals(4, delta.latestVersion());
+    }
+
+    @Test
+    void testGetBlueprintsReportsFoundAndMissing() {
+        BlueprintKey house = new BlueprintKey("john", "house");
+        BlueprintKey ghost = new BlueprintKey("ghost", "none");
+
+        MultiGetResult result = services.getBlueprints(List.of(house, ghost, house));
+
+        assertEquals(1, result.found().size());
+        assertEquals("house", result.found().get(0).getName());
+        assertEquals(List.of(ghost), result.missing());
+    }
+
+    @Test
+    void testGetBlueprintsAppliesFilter() {
+        services = new BlueprintsServices(persistence, new UndersamplingFilter());
+
+        MultiGetResult result = services.getBlueprints(List.of(new BlueprintKey("john", "house")));
+
+        assertEquals(2, result.found().get(0).getPoints().size());
+    }
 }
@@ -0,0 +1,128 @@
+package edu.eci.arsw.blueprints.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintsIngestServiceTests {
+
+    private InMemoryBlueprintPersistence persistence;
+    private BlueprintsIngestService ingest;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new InMemoryBlueprintPersistence();
+        ingest = new BlueprintsIngestService(persistence, new ObjectMapper(), 2, 1_000);
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIngestCreatesBlueprints() throws IOException, BlueprintNotFoundException {
+        IngestSummary summary = ingest.ingest(ndjson(
+            "{\"author\":\"ann\",\"name\":\"a\",\"points\":[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]}",
+            "{\"author\":\"ann\",\"name\":\"b\",\"points\":[]}",
+            "{\"author\":\"ann\",\"name\":\"c\"}"));
+
+        assertEquals(3, summary.created());
+        assertEquals(0, summary.duplicates());
+        assertEquals(0, summary.rejected());
+        assertTrue(summary.complete());
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4)),
+            persistence.getBlueprint("ann", "a").getPoints());
+    }
+
+    @Test
+    void testIngestCountsDuplicatesAndRejects() throws IOException {
+        IngestSummary summary = ingest.ingest(ndjson(
+            "{\"author\":\"john\",\"name\":\"house\",\"points\":[]}",
+            "{\"author\":\"ann\",\"name\":\"a\"}",
+            "{\"author\":\"ann\",\"name\":\"a\"}",
+            "{\"author\":\"\",\"name\":\"nameless\"}",
+            "{\"author\":\"ann\",\"name\":\"bad\",\"points\":[{\"x\":\"one\",\"y\":2}]}",
+            "[1, 2]"));
+
+        assertEquals(1, summary.created());
+        assertEquals(2, summary.duplicates());
+        assertEquals(3, summary.rejected());
+        assertEquals(3, summary.errors().size());
+        assertTrue(summary.errors().get(0).startsWith("record 4:"));
+    }
+
+    @Test
+    void testIngestAcceptsPointPairs() throws IOException, BlueprintNotFoundException {
+        IngestSummary summary = ingest.ingest(ndjson(
+            "{\"author\":\"ann\",\"name\":\"a\",\"points\":[[1,2],{\"x\":3,\"y\":4}]}",
+            "{\"author\":\"ann\",\"name\":\"b\",\"points\":[[1,2,3]]}"));
+
+        assertEquals(1, summary.created());
+        assertEquals(1, summary.rejected());
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4)),
+            persistence.getBlueprint("ann", "a").getPoints());
+    }
+
+    @Test
+    void testIngestStopsAtMalformedJson() throws IOException {
+        IngestSummary summary = ingest.ingest(ndjson(
+            "{\"author\":\"ann\",\"name\":\"a\"}",
+            "{\"author\":\"ann\",\"name\":"));
+
+        assertFalse(summary.complete());
+        assertEquals(1, summary.created());
+        assertEquals(1, summary.rejected());
+    }
+
+    @Test
+    void testIngestGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            for (int i = 0; i < 50; i++) {
+                gz.write(("{\"author\":\"zip\",\"name\":\"bp" + i + "\",\"points\":[{\"x\":" + i + ",\"y\":0}]}\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        IngestSummary summary = ingest.ingest(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(50, summary.created());
+        assertTrue(summary.complete());
+    }
+
+    @Test
+    void testIngestHandsOverBoundedBatches() throws IOException {
+        List<Integer> batchSizes = new ArrayList<>();
+        BlueprintPersistence recording = new InMemoryBlueprintPersistence() {
+            @Override
+            public int saveBlueprints(List<Blueprint> batch) {
+                batchSizes.add(batch.size());
+                return super.saveBlueprints(batch);
+            }
+        };
+        new BlueprintsIngestService(recording, new ObjectMapper(), 2, 1_000).ingest(ndjson(
+            "{\"author\":\"ann\",\"name\":\"a\"}",
+            "{\"author\":\"ann\",\"name\":\"b\"}",
+            "{\"author\":\"ann\",\"name\":\"c\"}",
+            "{\"author\":\"ann\",\"name\":\"d\"}",
+            "{\"author\":\"ann\",\"name\":\"e\"}"));
+
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+}
@@ -0,0 +1,136 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.SimilarBlueprint;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintsSimilarityServiceTests {
+
+    // Samples: john/house (square), john/garage and jane/garden (triangles)
+    private final InMemoryBlueprintPersistence persistence =
+            new InMemoryBlueprintPersistence(PointStorageFactory.HEAP, true, 8);
+    private BlueprintsSimilarityService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.destroy();
+    }
+
+    private static void eventually(BooleanSupplier condition) throws InterruptedException {
+        long until = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < until, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static Blueprint blueprint(String author, String name, int... xy) {
+        List<Point> points = new java.util.ArrayList<>();
+        for (int i = 0; i < xy.length; i += 2) points.add(new Point(xy[i], xy[i + 1]));
+        return new Blueprint(author, name, points);
+    }
+
+    private static List<String> names(List<SimilarBlueprint> similar) {
+        return similar.stream().map(SimilarBlueprint::name).toList();
+    }
+
+    @Test
+    void testSimilarRanksByOutline() throws Exception {
+        persistence.saveBlueprint(blueprint("ana", "tile", 100, 100, 400, 100, 400, 400, 100, 400));
+        persistence.saveBlueprint(blueprint("ana", "ell", 0, 0, 20, 0, 20, 5, 5, 5, 5, 20, 0, 20));
+        persistence.saveBlueprint(blueprint("ana", "dot", 1, 1));
+        service = new BlueprintsSimilarityService(persistence, 200, 60_000);
+        eventually(() -> service.indexed() == 5);
+
+        List<SimilarBlueprint> similar = service.similar("john", "house", 10).orElseThrow();
+
+        assertEquals("tile", similar.get(0).name());
+        assertEquals(0, similar.get(0).distance(), 0.02);
+        // The dot has no outline and the query itself is left out
+        assertEquals(List.of("ell", "garage", "garden"), names(similar).subList(1, 4).stream().sorted().toList());
+        assertTrue(similar.get(1).distance() <= similar.get(2).distance());
+        assertEquals(1, service.similar("john", "house", 1).orElseThrow().size());
+    }
+
+    @Test
+    void testUnknownAndShapelessBlueprints() throws Exception {
+        persistence.saveBlueprint(blueprint("ana", "dot", 1, 1));
+        service = new BlueprintsSimilarityService(persistence, 200, 60_000);
+
+        assertTrue(service.similar("nobody", "nothing", 5).isEmpty());
+        assertEquals(List.of(), service.similar("ana", "dot", 5).orElseThrow());
+    }
+
+    @Test
+    void testFollowsWritesAndRebuildsAfterMissedChanges() throws Exception {
+        service = new BlueprintsSimilarityService(persistence, 200, 60_000);
+        eventually(() -> service.indexed() == 3);
+
+        persistence.saveBlueprint(blueprint("ana", "tile", 100, 100, 400, 100, 400, 400));
+        persistence.addPoint("ana", "tile", 100, 400);
+        eventually(() -> service.indexed() == 4
+                && names(service.similar("john", "house", 1).orElseThrow()).equals(List.of("tile")));
+
+        // More writes than the ring of 8 retains
+        persistence.saveBlueprint(blueprint("ana", "wide", 0, 0, 300, 0, 300, 100, 0, 100));
+        for (int i = 0; i < 20; i++) persistence.addPoint("ana", "wide", 0, 100);
+        eventually(() -> service.indexed() == 5);
+    }
+
+    @Test
+    void testRebuildsByPagesAndSkipsCreationsIndexedOnWrite() throws Exception {
+        ConcurrentLinkedQueue<BlueprintKey> loaded = new ConcurrentLinkedQueue<>();
+        InMemoryBlueprintPersistence recording = new InMemoryBlueprintPersistence(PointStorageFactory.HEAP, true, 8) {
+            @Override
+            public Set<Blueprint> getAllBlueprints() {
+                throw new AssertionError("the index must not load everything at once");
+            }
+
+            @Override
+            public Map<BlueprintKey, Blueprint> getBlueprints(Collection<BlueprintKey> keys) {
+                loaded.addAll(keys);
+                return super.getBlueprints(keys);
+            }
+        };
+        service = new BlueprintsSimilarityService(recording, 200, 60_000);
+        eventually(() -> service.indexed() == 3);
+        loaded.clear();
+
+        Blueprint tile = blueprint("ana", "tile", 100, 100, 400, 100, 400, 400, 100, 400);
+        // Indexed ahead of the save here, so the indexer cannot see the creation first
+        service.created(List.of(tile));
+        recording.saveBlueprint(tile);
+        assertEquals(4, service.indexed());
+
+        // The append after it is reloaded; the creation, earlier in the feed, is not
+        recording.addPoint("john", "garage", 7, 7);
+        eventually(() -> loaded.contains(new BlueprintKey("john", "garage")));
+        assertFalse(loaded.contains(new BlueprintKey("ana", "tile")));
+        assertEquals(List.of("tile"), names(service.similar("john", "house", 1).orElseThrow()));
+    }
+
+    @Test
+    void testDisabledServiceIndexesNothing() throws Exception {
+        service = new BlueprintsSimilarityService(persistence, false, 200, 60_000, 0);
+        service.created(List.of(blueprint("ana", "tile", 100, 100, 400, 100, 400, 400)));
+        Thread.sleep(50);
+
+        assertFalse(service.enabled());
+        assertEquals(0, service.indexed());
+        assertThrows(IllegalStateException.class, () -> service.similar("john", "house", 5));
+    }
+}
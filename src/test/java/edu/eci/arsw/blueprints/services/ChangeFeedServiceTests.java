@@ -0,0 +1,138 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.ChangeEvent;
+import edu.eci.arsw.blueprints.model.ChangeFeed;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PointStorageFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedServiceTests {
+
+    // The three sample blueprints take sequence numbers 1-3
+    private final InMemoryBlueprintPersistence persistence =
+            new InMemoryBlueprintPersistence(PointStorageFactory.HEAP, true, 8);
+    private final ChangeFeedService service = new ChangeFeedService(persistence, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void testAwaitReturnsPendingChangesImmediately() {
+        CompletableFuture<ChangeFeed> result = service.await(1, 10, Duration.ofSeconds(10));
+
+        assertTrue(result.isDone());
+        assertEquals(2, result.join().events().size());
+        assertEquals(0, service.waiting());
+    }
+
+    @Test
+    void testAwaitCompletesOnNextWrite() throws Exception {
+        CompletableFuture<ChangeFeed> result = service.await(3, 10, Duration.ofSeconds(10));
+        assertFalse(result.isDone());
+
+        persistence.addPoint("john", "house", 20, 20);
+
+        ChangeFeed feed = result.get(5, TimeUnit.SECONDS);
+        assertEquals(1, feed.events().size());
+        ChangeEvent event = feed.events().get(0);
+        assertEquals(ChangeEvent.Type.POINT_ADDED, event.type());
+        assertEquals("house", event.name());
+        assertEquals(5, event.version());
+        assertEquals(4, feed.next());
+        assertEquals(0, service.waiting());
+    }
+
+    @Test
+    void testAwaitTimesOutWithEmptyPage() throws Exception {
+        ChangeFeed feed = service.await(3, 10, Duration.ofMillis(50)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(feed.events().isEmpty());
+        assertFalse(feed.resync());
+        assertEquals(3, feed.next());
+        assertEquals(0, service.waiting());
+    }
+
+    @Test
+    void testAwaitResyncsWithoutWaiting() throws Exception {
+        for (int i = 0; i < 20; i++) persistence.addPoint("jane", "garden", i, i);
+
+        CompletableFuture<ChangeFeed> result = service.await(0, 10, Duration.ofSeconds(10));
+
+        assertTrue(result.isDone());
+        assertTrue(result.join().resync());
+        assertEquals(23, result.join().next());
+    }
+
+    @Test
+    void testOneReadWakesEveryWaiter() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        InMemoryBlueprintPersistence counting = new InMemoryBlueprintPersistence(PointStorageFactory.HEAP, true, 8) {
+            @Override
+            public ChangeFeed getChanges(long since, int limit) {
+                reads.incrementAndGet();
+                return super.getChanges(since, limit);
+            }
+        };
+        ChangeFeedService shared = new ChangeFeedService(counting, 60_000);
+        try {
+            List<CompletableFuture<ChangeFeed>> results = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) results.add(shared.await(3, i, Duration.ofSeconds(10)));
+            // Let the sweeps the registrations started finish before counting
+            for (int seen = -1; seen != reads.get(); Thread.sleep(100)) seen = reads.get();
+            reads.set(0);
+
+            counting.addPoint("john", "house", 20, 20);
+
+            for (CompletableFuture<ChangeFeed> result : results) {
+                ChangeFeed feed = result.get(5, TimeUnit.SECONDS);
+                assertEquals(1, feed.events().size());
+                assertEquals(4, feed.next());
+            }
+            assertEquals(1, reads.get());
+            assertEquals(0, shared.waiting());
+        } finally {
+            shared.destroy();
+        }
+    }
+
+    @Test
+    void testSliceMatchesWhatEachWaiterWouldRead() {
+        List<ChangeEvent> events = new ArrayList<>();
+        for (long seq = 11; seq <= 15; seq++) {
+            events.add(new ChangeEvent(seq, ChangeEvent.Type.POINT_ADDED, "john", "house", (int) seq, Instant.EPOCH));
+        }
+        // Read from 10 with a limit of 5, while changes up to 20 exist
+        ChangeFeed page = ChangeFeed.of(10, events, 20);
+
+        ChangeFeed mid = ChangeFeedService.slice(page, waiter(12, 2));
+        assertEquals(List.of(13L, 14L), mid.events().stream().map(ChangeEvent::seq).toList());
+        assertEquals(14, mid.next());
+        assertEquals(3, ChangeFeedService.slice(page, waiter(12, 10)).events().size());
+        // Past what the page read, or before where it started: the waiter reads on its own
+        assertNull(ChangeFeedService.slice(page, waiter(15, 10)));
+        assertNull(ChangeFeedService.slice(page, waiter(9, 10)));
+        assertNull(ChangeFeedService.slice(ChangeFeed.resync(10, 20), waiter(12, 10)));
+
+        ChangeFeed complete = ChangeFeed.of(10, events, 15);
+        ChangeFeed caughtUp = ChangeFeedService.slice(complete, waiter(15, 10));
+        assertTrue(caughtUp.events().isEmpty());
+        assertEquals(15, caughtUp.next());
+    }
+
+    private static ChangeFeedService.Waiter waiter(long since, int limit) {
+        return new ChangeFeedService.Waiter(since, limit, new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,144 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 16;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+    /** Counts backend loads and holds each one until released. */
+    private static class GatedPersistence extends InMemoryBlueprintPersistence {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        private void gate() {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public Optional<Blueprint> findBlueprint(String author, String name) {
+            gate();
+            return super.findBlueprint(author, name);
+        }
+
+        @Override
+        public Optional<Set<Blueprint>> findBlueprintsByAuthor(String author) {
+            gate();
+            return super.findBlueprintsByAuthor(author);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private <T> List<Future<T>> callConcurrently(GatedPersistence persistence, java.util.concurrent.Callable<T> call)
+            throws InterruptedException {
+        AtomicInteger arrived = new AtomicInteger();
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(() -> {
+                arrived.incrementAndGet();
+                return call.call();
+            }));
+        }
+        // Hold the backend until every caller is about to join the in-flight load
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((arrived.get() < CALLERS || persistence.loads.get() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(100);
+        persistence.release.countDown();
+        return results;
+    }
+
+    @Test
+    void testConcurrentGetBlueprintLoadsOnce() throws Exception {
+        GatedPersistence persistence = new GatedPersistence();
+        BlueprintsServices services = new BlueprintsServices(persistence, new IdentityFilter());
+
+        List<Future<Blueprint>> results = callConcurrently(persistence, () -> services.getBlueprint("john", "house"));
+
+        for (Future<Blueprint> f : results) assertEquals("house", f.get(5, TimeUnit.SECONDS).getName());
+        assertEquals(1, persistence.loads.get());
+    }
+
+    @Test
+    void testConcurrentGetBlueprintsByAuthorLoadsOnce() throws Exception {
+        GatedPersistence persistence = new GatedPersistence();
+        BlueprintsServices services = new BlueprintsServices(persistence, new IdentityFilter());
+
+        List<Future<Set<Blueprint>>> results = callConcurrently(persistence, () -> services.getBlueprintsByAuthor("john"));
+
+        for (Future<Set<Blueprint>> f : results) assertEquals(2, f.get(5, TimeUnit.SECONDS).size());
+        assertEquals(1, persistence.loads.get());
+    }
+
+    @Test
+    void testConcurrentNotFoundIsSharedToo() throws Exception {
+        GatedPersistence persistence = new GatedPersistence();
+        BlueprintsServices services = new BlueprintsServices(persistence, new IdentityFilter());
+
+        List<Future<Blueprint>> results = callConcurrently(persistence, () -> services.getBlueprint("ghost", "none"));
+
+        for (Future<Blueprint> f : results) {
+            Exception e = assertThrows(Exception.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(BlueprintNotFoundException.class, e.getCause());
+        }
+        assertEquals(1, persistence.loads.get());
+    }
+
+    @Test
+    void testEntryClearedAfterCompletion() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        assertEquals("a", flight.load("k", () -> "a"));
+        assertEquals("b", flight.load("k", () -> "b"));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void testForgetStartsFreshLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = pool.submit(() -> flight.load("k", () -> {
+            started.countDown();
+            release.await();
+            return "old";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        flight.forget("k");
+        assertEquals("new", flight.load("k", () -> "new"));
+
+        release.countDown();
+        assertEquals("old", first.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.inFlight());
+    }
+}
@@ -0,0 +1,102 @@
+package edu.eci.arsw.blueprints.similarity;
+
+import edu.eci.arsw.blueprints.model.BlueprintKey;
+import edu.eci.arsw.blueprints.model.HeapPointStorage;
+import edu.eci.arsw.blueprints.model.PointStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeDescriptorTests {
+
+    private static PointStorage points(int... xy) {
+        PointStorage points = new HeapPointStorage();
+        for (int i = 0; i < xy.length; i += 2) points.append(xy[i], xy[i + 1]);
+        return points;
+    }
+
+    private static double descriptorDistance(PointStorage a, PointStorage b) {
+        float[] da = ShapeDescriptor.descriptor(ShapeDescriptor.contour(a));
+        float[] db = ShapeDescriptor.descriptor(ShapeDescriptor.contour(b));
+        double sum = 0;
+        for (int i = 0; i < da.length; i++) sum += (da[i] - db[i]) * (da[i] - db[i]);
+        return Math.sqrt(sum);
+    }
+
+    private static double frechet(PointStorage a, PointStorage b) {
+        return ShapeDescriptor.frechet(ShapeDescriptor.contour(a), ShapeDescriptor.contour(b));
+    }
+
+    private static final PointStorage SQUARE = points(0, 0, 10, 0, 10, 10, 0, 10);
+    private static final PointStorage TRIANGLE = points(0, 0, 10, 0, 5, 9);
+    private static final PointStorage L_SHAPE = points(0, 0, 20, 0, 20, 5, 5, 5, 5, 20, 0, 20);
+
+    @Test
+    void testSameShapeMovedScaledTurnedAndReorderedMatches() {
+        // Square turned 45°, 100 times larger, elsewhere, starting at another corner and running clockwise
+        PointStorage turned = points(5000, 3586, 4293, 4293, 5000, 5000, 5707, 4293);
+
+        assertEquals(0, descriptorDistance(SQUARE, turned), 0.01);
+        assertEquals(0, frechet(SQUARE, turned), 0.02);
+        assertEquals(0, frechet(SQUARE, SQUARE), 1e-9);
+    }
+
+    @Test
+    void testDifferentShapesAreFartherApart() {
+        PointStorage biggerTriangle = points(100, 100, 300, 100, 200, 280);
+
+        assertTrue(frechet(TRIANGLE, biggerTriangle) < 0.05);
+        assertTrue(frechet(SQUARE, TRIANGLE) > 0.2);
+        assertTrue(frechet(SQUARE, L_SHAPE) > 0.2);
+        assertTrue(descriptorDistance(SQUARE, TRIANGLE) > descriptorDistance(TRIANGLE, biggerTriangle));
+    }
+
+    @Test
+    void testContourIsNormalized() {
+        double[] c = ShapeDescriptor.contour(L_SHAPE);
+        double cx = 0, cy = 0, squares = 0;
+        for (int k = 0; k < ShapeDescriptor.SAMPLES; k++) {
+            cx += c[2 * k];
+            cy += c[2 * k + 1];
+            squares += c[2 * k] * c[2 * k] + c[2 * k + 1] * c[2 * k + 1];
+        }
+        assertEquals(2 * ShapeDescriptor.SAMPLES, c.length);
+        assertEquals(0, cx, 1e-9);
+        assertEquals(0, cy, 1e-9);
+        assertEquals(ShapeDescriptor.SAMPLES, squares, 1e-9);
+    }
+
+    @Test
+    void testNoOutlineWithoutTwoDistinctPoints() {
+        assertNull(ShapeDescriptor.contour(points()));
+        assertNull(ShapeDescriptor.contour(points(3, 3)));
+        assertNull(ShapeDescriptor.contour(points(3, 3, 3, 3, 3, 3)));
+        assertNotNull(ShapeDescriptor.contour(points(0, 0, 10, 0)));
+    }
+
+    @Test
+    void testIndexReturnsNearestFirstWithoutTheQuery() {
+        ShapeIndex index = new ShapeIndex();
+        for (int i = 0; i < 3000; i++) {
+            float[] d = new float[ShapeDescriptor.DIMENSIONS];
+            d[0] = i;
+            index.put(new BlueprintKey("a", "bp" + i), d);
+        }
+        float[] query = new float[ShapeDescriptor.DIMENSIONS];
+        query[0] = 1500.2f;
+
+        assertEquals(3000, index.size());
+        assertEquals(List.of(new BlueprintKey("a", "bp1501"), new BlueprintKey("a", "bp1499"),
+                        new BlueprintKey("a", "bp1502")),
+                index.nearest(query, 3, new BlueprintKey("a", "bp1500")));
+
+        float[] moved = new float[ShapeDescriptor.DIMENSIONS];
+        moved[0] = 1500.1f;
+        index.put(new BlueprintKey("a", "bp0"), moved);
+        assertEquals(3000, index.size());
+        assertEquals(new BlueprintKey("a", "bp0"), index.nearest(query, 1, null).get(0));
+        assertEquals(List.of(), index.nearest(query, 0, null));
+    }
+}
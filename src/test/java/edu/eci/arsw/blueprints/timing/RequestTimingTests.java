@@ -0,0 +1,89 @@
+package edu.eci.arsw.blueprints.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static edu.eci.arsw.blueprints.timing.RequestTiming.Phase.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingTests {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) timing.end();
+    }
+
+    private static void spin(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) Thread.onSpinWait();
+    }
+
+    @Test
+    void testTimeWithoutRequestJustRuns() {
+        assertNull(RequestTiming.current());
+        assertEquals("x", RequestTiming.time(PERSISTENCE, () -> "x"));
+    }
+
+    @Test
+    void testPhasesAccumulateAndEndClosesTiming() {
+        RequestTiming timing = RequestTiming.begin();
+        RequestTiming.time(PERSISTENCE, () -> { spin(1_000_000); return null; });
+        RequestTiming.time(PERSISTENCE, () -> { spin(1_000_000); return null; });
+        RequestTiming.time(FILTER, () -> { spin(500_000); return null; });
+        timing.end();
+
+        assertNull(RequestTiming.current());
+        assertTrue(timing.nanos(PERSISTENCE) >= 2_000_000);
+        assertTrue(timing.nanos(FILTER) >= 500_000);
+        assertTrue(timing.nanos(TOTAL) >= timing.nanos(PERSISTENCE) + timing.nanos(FILTER));
+        assertEquals(timing.nanos(TOTAL), timing.nanos(APP));
+        assertEquals(0, timing.nanos(SERIALIZE));
+        assertEquals(List.of("persistence", "filter", "app", "total"), List.copyOf(timing.millis().keySet()));
+    }
+
+    @Test
+    void testFailedCallIsStillTimed() {
+        RequestTiming timing = RequestTiming.begin();
+        assertThrows(IllegalStateException.class, () -> RequestTiming.time(PERSISTENCE, () -> {
+            spin(100_000);
+            throw new IllegalStateException();
+        }));
+        assertTrue(timing.nanos(PERSISTENCE) >= 100_000);
+    }
+
+    @Test
+    void testServerTimingHeaderIsWrittenOnceBeforeBody() {
+        RequestTiming timing = RequestTiming.begin();
+        RequestTiming.time(PERSISTENCE, () -> { spin(1_500_000); return null; });
+
+        String header = timing.bodyStarting();
+        spin(200_000);
+        timing.end();
+
+        assertTrue(timing.reported());
+        assertTrue(header.matches("persistence;dur=\\d+\\.\\d{3}, app;dur=\\d+\\.\\d{3}"), header);
+        assertTrue(timing.nanos(SERIALIZE) >= 200_000);
+        assertEquals(timing.nanos(TOTAL), timing.nanos(APP) + timing.nanos(SERIALIZE));
+    }
+
+    @Test
+    void testSlowRequestLogKeepsSlowestFirst() {
+        SlowRequestLog log = new SlowRequestLog(3);
+        for (int ms : new int[] {5, 1, 9, 3, 7, 2}) {
+            if (log.qualifies(ms)) log.offer(new SlowRequest(Instant.now(), "GET", "/api/v1/blueprints/" + ms, 200, ms, Map.of()));
+        }
+
+        assertEquals(List.of(9.0, 7.0, 5.0), log.snapshot().stream().map(SlowRequest::totalMillis).toList());
+        assertFalse(log.qualifies(5));
+        assertTrue(log.qualifies(6));
+
+        log.clear();
+        assertTrue(log.snapshot().isEmpty());
+        assertTrue(log.qualifies(0.1));
+    }
+}